@@ -0,0 +1,517 @@
+package com.elppreasoner.normalization;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataHasValue;
+import org.semanticweb.owlapi.model.OWLDataOneOf;
+import org.semanticweb.owlapi.model.OWLDataPropertyExpression;
+import org.semanticweb.owlapi.model.OWLDataRange;
+import org.semanticweb.owlapi.model.OWLDataSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLDatatypeRestriction;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLFacetRestriction;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * <p>{@code ConcreteDomainIndex} handles the concrete domain predicates p(f1, ..., fk) of EL++, i.e. the data restrictions
+ * {@code DataSomeValuesFrom(p, R)} and {@code DataHasValue(p, v)}, during the normalization.</p>
+ *
+ * <p>Every data restriction is replaced by a new concept name, so that it is a basic concept for the completion rules. The numeric ones
+ * (a datatype, a {@code DatatypeRestriction} with the facets {@code xsd:minInclusive}, {@code xsd:minExclusive}, {@code xsd:maxInclusive}
+ * and {@code xsd:maxExclusive}, or a single value) are turned into intervals, that are indexed by data property: the subsumptions between
+ * the restrictions of the same data property are then computed by interval containment, and they are told to the saturation as GCIs
+ * between the new concept names:
+ * <ul>
+ *     <li>∃p.I ⊑ ∃p.J, if I ⊆ J</li>
+ *     <li>∃p.I ⊑ ⊥, if I is empty</li>
+ *     <li>∃p.I ⊑ ∃p.rdfs:Literal</li>
+ * </ul>
+ * Only the minimal containers of every interval are told, since the saturation computes the transitive closure anyway.</p>
+ *
+ * <p>The value spaces follow OWL 2: the integer datatypes (with their own bounds, e.g. {@code xsd:nonNegativeInteger}) are subsets of
+ * {@code xsd:decimal}, {@code owl:rational} and {@code owl:real}, while {@code xsd:double} and {@code xsd:float} are disjoint from them and
+ * from each other. The other data restrictions (e.g. on strings) are named as well, but they are only subsumed by the equal ones and by
+ * ∃p.rdfs:Literal. The data property hierarchy is not taken into account.</p>
+ */
+public class ConcreteDomainIndex {
+
+    private static final int DECIMAL = 0;
+    private static final int DOUBLE = 1;
+    private static final int FLOAT = 2;
+
+    private static final Map<OWL2Datatype, BigDecimal[]> INTEGER_DATATYPES = new EnumMap<>(OWL2Datatype.class);
+
+    static {
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_INTEGER, bounds(null, null));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_NON_NEGATIVE_INTEGER, bounds("0", null));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_POSITIVE_INTEGER, bounds("1", null));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_NON_POSITIVE_INTEGER, bounds(null, "0"));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_NEGATIVE_INTEGER, bounds(null, "-1"));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_LONG, bounds("-9223372036854775808", "9223372036854775807"));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_INT, bounds("-2147483648", "2147483647"));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_SHORT, bounds("-32768", "32767"));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_BYTE, bounds("-128", "127"));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_UNSIGNED_LONG, bounds("0", "18446744073709551615"));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_UNSIGNED_INT, bounds("0", "4294967295"));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_UNSIGNED_SHORT, bounds("0", "65535"));
+        INTEGER_DATATYPES.put(OWL2Datatype.XSD_UNSIGNED_BYTE, bounds("0", "255"));
+    }
+
+    private final OWLOntology ontology;
+    private final Map<OWLClassExpression, OWLClass> names = new LinkedHashMap<>();
+    private final Map<OWLDataPropertyExpression, Set<OWLClass>> namesByProperty = new HashMap<>();
+    private final Map<OWLDataPropertyExpression, Map<Interval, List<OWLClass>>> intervalsByProperty = new HashMap<>();
+    private final Map<OWLDataPropertyExpression, OWLClass> tops = new HashMap<>();
+
+    /**
+     * Builds an empty index.
+     * @param ontology The ontology of the axioms being normalized, only used to name the data restrictions
+     */
+    public ConcreteDomainIndex(OWLOntology ontology) {
+        this.ontology = ontology;
+    }
+
+    /**
+     * Checks if the given class expression is a data restriction, i.e. a concrete domain predicate p(f1, ..., fk).
+     * @param classExpression The expression to be checked
+     * @return {@code true} if {@code classExpression} is a {@code DataSomeValuesFrom} or a {@code DataHasValue}; {@code false} otherwise
+     */
+    public static boolean isDataRestriction(OWLClassExpression classExpression) {
+        return classExpression instanceof OWLDataSomeValuesFrom || classExpression instanceof OWLDataHasValue;
+    }
+
+    /**
+     * Replaces every data restriction that occurs in the given class expression, under intersections and existential restrictions, with
+     * its concept name (see {@link #getName(OWLClassExpression)}).
+     * @param classExpression The class expression
+     * @return The class expression without data restrictions, or {@code classExpression} itself if it does not contain any
+     */
+    public OWLClassExpression replaceDataRestrictions(OWLClassExpression classExpression) {
+        if (isDataRestriction(classExpression)) {
+            return getName(classExpression);
+        }
+        if (classExpression instanceof OWLObjectIntersectionOf) {
+            List<OWLClassExpression> operands = ((OWLObjectIntersectionOf) classExpression).getOperandsAsList();
+            List<OWLClassExpression> replacedOperands = new ArrayList<>(operands.size());
+            boolean replaced = false;
+            for (OWLClassExpression operand : operands) {
+                OWLClassExpression replacedOperand = replaceDataRestrictions(operand);
+                replaced |= replacedOperand != operand;
+                replacedOperands.add(replacedOperand);
+            }
+            return replaced ? new OWLDataFactoryImpl().getOWLObjectIntersectionOf(replacedOperands) : classExpression;
+        }
+        if (classExpression instanceof OWLObjectSomeValuesFrom) {
+            OWLObjectSomeValuesFrom existential = (OWLObjectSomeValuesFrom) classExpression;
+            OWLClassExpression filler = replaceDataRestrictions(existential.getFiller());
+            return filler != existential.getFiller() ? new OWLDataFactoryImpl().getOWLObjectSomeValuesFrom(existential.getProperty(), filler) : classExpression;
+        }
+        return classExpression;
+    }
+
+    /**
+     * Replaces the data restrictions of both sides of the given GCI (see {@link #replaceDataRestrictions(OWLClassExpression)}).
+     * @param axiom The GCI
+     * @return The GCI without data restrictions, or {@code axiom} itself if it does not contain any
+     */
+    public OWLSubClassOfAxiom replaceDataRestrictions(OWLSubClassOfAxiom axiom) {
+        OWLClassExpression subclass = replaceDataRestrictions(axiom.getSubClass());
+        OWLClassExpression superclass = replaceDataRestrictions(axiom.getSuperClass());
+        if (subclass == axiom.getSubClass() && superclass == axiom.getSuperClass()) {
+            return axiom;
+        }
+        return new OWLDataFactoryImpl().getOWLSubClassOfAxiom(subclass, superclass);
+    }
+
+    /**
+     * Gets the concept name of the given data restriction, and indexes the restriction the first time it is met. The name only depends on
+     * the restriction and on the ontology, so that the same restriction always gets the same name.
+     * @param restriction The data restriction
+     * @return The concept name of {@code restriction}
+     */
+    public OWLClass getName(OWLClassExpression restriction) {
+        OWLClass name = this.names.get(restriction);
+        if (name != null) {
+            return name;
+        }
+        name = NormalizationUtilities.NormalizationRulesManager.generateOWLClass(this.ontology, restriction, restriction);
+        index(restriction, name);
+        return name;
+    }
+
+    /**
+     * Checks if the given axiom is the definition N ≡ ∃p.R of the concept name of a data restriction (see {@link #definitions()}).
+     * @param axiom The axiom to be checked
+     * @return {@code true} if {@code axiom} is a definition; {@code false} otherwise
+     */
+    public static boolean isDefinition(OWLEquivalentClassesAxiom axiom) {
+        return getDefinedRestriction(axiom) != null;
+    }
+
+    /**
+     * Indexes the data restriction of the given definition N ≡ ∃p.R, with the concept name N, unless it has been indexed already.
+     * @param axiom The definition
+     */
+    public void define(OWLEquivalentClassesAxiom axiom) {
+        OWLClassExpression restriction = getDefinedRestriction(axiom);
+        if (restriction != null && !this.names.containsKey(restriction)) {
+            index(restriction, (OWLClass) axiom.getOperandsAsList().stream().filter(operand -> operand != restriction).findAny().get());
+        }
+    }
+
+    /**
+     * Gets the definitions N ≡ ∃p.R of the concept names of the data restrictions indexed so far. They are kept in the normalized
+     * ontology, so that the data restrictions of the axioms added later are related to the ones of the ontology (see
+     * {@link #define(OWLEquivalentClassesAxiom)}).
+     * @return Set of definitions
+     */
+    public Set<OWLEquivalentClassesAxiom> definitions() {
+        OWLDataFactoryImpl owlDataFactory = new OWLDataFactoryImpl();
+        return this.names.entrySet().stream()
+            .map(entry -> owlDataFactory.getOWLEquivalentClassesAxiom(entry.getValue(), entry.getKey()))
+            .collect(Collectors.toSet());
+    }
+
+    private static OWLClassExpression getDefinedRestriction(OWLEquivalentClassesAxiom axiom) {
+        List<OWLClassExpression> operands = axiom.getOperandsAsList();
+        if (operands.size() != 2) {
+            return null;
+        }
+        for (int i = 0; i < 2; i++) {
+            OWLClassExpression name = operands.get(1 - i);
+            if (isDataRestriction(operands.get(i)) && name instanceof OWLClass
+                    && name.asOWLClass().getIRI().toString().contains(NormalizationUtilities.GENERATED_CLASS)) {
+                return operands.get(i);
+            }
+        }
+        return null;
+    }
+
+    private void index(OWLClassExpression restriction, OWLClass name) {
+        this.names.put(restriction, name);
+
+        OWLDataPropertyExpression property;
+        OWLDataRange range;
+        if (restriction instanceof OWLDataSomeValuesFrom) {
+            property = ((OWLDataSomeValuesFrom) restriction).getProperty();
+            range = ((OWLDataSomeValuesFrom) restriction).getFiller();
+        } else {
+            property = ((OWLDataHasValue) restriction).getProperty();
+            range = new OWLDataFactoryImpl().getOWLDataOneOf(((OWLDataHasValue) restriction).getFiller());
+        }
+        this.namesByProperty.computeIfAbsent(property, __ -> new HashSet<>()).add(name);
+        if (range.isTopDatatype()) {
+            this.tops.put(property, name);
+            return;
+        }
+        Interval interval = Interval.of(range);
+        if (interval != null) {
+            this.intervalsByProperty.computeIfAbsent(property, __ -> new HashMap<>()).computeIfAbsent(interval, __ -> new ArrayList<>()).add(name);
+        }
+    }
+
+    /**
+     * Gets the concept names of the data restrictions indexed so far.
+     * @return Set of concept names
+     */
+    public Set<OWLClass> getNames() {
+        return new HashSet<>(this.names.values());
+    }
+
+    /**
+     * Computes the GCIs between the concept names of the indexed data restrictions (see the class documentation).
+     * @return Set of GCIs in normal form
+     */
+    public Set<OWLSubClassOfAxiom> subsumptions() {
+        OWLDataFactoryImpl owlDataFactory = new OWLDataFactoryImpl();
+        Set<OWLSubClassOfAxiom> subsumptions = new HashSet<>();
+
+        this.tops.forEach((property, top) -> this.namesByProperty.get(property).stream()
+            .filter(name -> !name.equals(top))
+            .forEach(name -> subsumptions.add(owlDataFactory.getOWLSubClassOfAxiom(name, top))));  // ∃p.I ⊑ ∃p.rdfs:Literal
+
+        for (Map<Interval, List<OWLClass>> intervals : this.intervalsByProperty.values()) {
+            List<List<Interval>> intervalsByKind = new ArrayList<>();
+            for (int kind = DECIMAL; kind <= FLOAT; kind++) {
+                intervalsByKind.add(new ArrayList<>());
+            }
+            intervals.forEach((interval, equalNames) -> {
+                if (interval.isEmpty()) {
+                    equalNames.forEach(name -> subsumptions.add(owlDataFactory.getOWLSubClassOfAxiom(name, owlDataFactory.getOWLNothing())));  // ∃p.I ⊑ ⊥
+                    return;
+                }
+                for (int i = 0; i < equalNames.size(); i++) {  // the names of equal intervals are equivalent
+                    OWLClass next = equalNames.get((i + 1) % equalNames.size());
+                    if (!next.equals(equalNames.get(i))) {
+                        subsumptions.add(owlDataFactory.getOWLSubClassOfAxiom(equalNames.get(i), next));
+                    }
+                }
+                intervalsByKind.get(interval.kind).add(interval);
+            });
+            for (List<Interval> sortedIntervals : intervalsByKind) {
+                sortedIntervals.sort(Interval.ORDER);
+                addMinimalContainers(sortedIntervals, intervals, subsumptions);
+            }
+        }
+        return subsumptions;
+    }
+
+    /**
+     * <p>Adds the GCIs ∃p.I ⊑ ∃p.J, where J is a minimal container of I, for every interval I of the given list, which is sorted by
+     * lower bound and then by decreasing upper bound (see {@link Interval#ORDER}). The containers of an interval precede it: they are
+     * scanned backwards, and a container J is skipped if it contains a container K that has been found already, since ∃p.K ⊑ ∃p.J is
+     * told when K is visited. The scan stops as soon as no preceding interval reaches the upper bound of I.</p>
+     * @param sortedIntervals The non-empty intervals of a data property, of the same kind, sorted
+     * @param intervals The concept names of the intervals
+     * @param subsumptions The GCIs computed so far
+     */
+    private static void addMinimalContainers(List<Interval> sortedIntervals, Map<Interval, List<OWLClass>> intervals, Set<OWLSubClassOfAxiom> subsumptions) {
+        OWLDataFactoryImpl owlDataFactory = new OWLDataFactoryImpl();
+        int size = sortedIntervals.size();
+        Interval[] maxUpper = new Interval[size];  // maxUpper[j] is the interval with the greatest upper bound among the first j+1 ones
+        for (int j = 0; j < size; j++) {
+            Interval interval = sortedIntervals.get(j);
+            maxUpper[j] = j == 0 || Interval.compareUpper(interval, maxUpper[j - 1]) > 0 ? interval : maxUpper[j - 1];
+        }
+
+        for (int k = 1; k < size; k++) {
+            Interval interval = sortedIntervals.get(k);
+            OWLClass name = intervals.get(interval).get(0);
+            Interval minimalContainer = null;         // the container with the least upper bound found so far
+            Interval minimalIntegerContainer = null;  // the integer container with the least upper bound found so far
+            for (int j = k - 1; j >= 0 && Interval.compareUpper(maxUpper[j], interval) >= 0; j--) {
+                Interval container = sortedIntervals.get(j);
+                if (Interval.compareUpper(container, interval) < 0 || (container.integer && !interval.integer)) {
+                    continue;
+                }
+                // An integer container only contains the integer intervals
+                Interval bound = container.integer ? minimalIntegerContainer : minimalContainer;
+                if (bound != null && Interval.compareUpper(container, bound) >= 0) {
+                    continue;
+                }
+                subsumptions.add(owlDataFactory.getOWLSubClassOfAxiom(name, intervals.get(container).get(0)));  // ∃p.I ⊑ ∃p.J
+                minimalContainer = container;
+                if (container.integer) {
+                    minimalIntegerContainer = container;
+                }
+            }
+        }
+    }
+
+    private static BigDecimal[] bounds(String lower, String upper) {
+        return new BigDecimal[] {lower != null ? new BigDecimal(lower) : null, upper != null ? new BigDecimal(upper) : null};
+    }
+
+    /**
+     * A numeric interval, whose bounds are {@code null} when unbounded. The bounds of the integer intervals are always inclusive.
+     */
+    private static final class Interval {
+
+        /**
+         * Sorts the intervals by lower bound, then by decreasing upper bound, then the real intervals before the integer ones: every
+         * interval is preceded by its containers.
+         */
+        private static final Comparator<Interval> ORDER = (i1, i2) -> {
+            int comparison = compareLower(i1, i2);
+            if (comparison == 0) {
+                comparison = compareUpper(i2, i1);
+            }
+            return comparison != 0 ? comparison : Boolean.compare(i1.integer, i2.integer);
+        };
+
+        private final int kind;
+        private final boolean integer;
+        private final BigDecimal lower;
+        private final boolean lowerInclusive;
+        private final BigDecimal upper;
+        private final boolean upperInclusive;
+
+        private Interval(int kind, boolean integer, BigDecimal lower, boolean lowerInclusive, BigDecimal upper, boolean upperInclusive) {
+            if (integer) {
+                if (lower != null) {
+                    lower = lowerInclusive ? lower.setScale(0, RoundingMode.CEILING) : lower.setScale(0, RoundingMode.FLOOR).add(BigDecimal.ONE);
+                    lowerInclusive = true;
+                }
+                if (upper != null) {
+                    upper = upperInclusive ? upper.setScale(0, RoundingMode.FLOOR) : upper.setScale(0, RoundingMode.CEILING).subtract(BigDecimal.ONE);
+                    upperInclusive = true;
+                }
+            }
+            this.kind = kind;
+            this.integer = integer;
+            this.lower = lower != null ? lower.stripTrailingZeros() : null;
+            this.lowerInclusive = lower != null && lowerInclusive;
+            this.upper = upper != null ? upper.stripTrailingZeros() : null;
+            this.upperInclusive = upper != null && upperInclusive;
+        }
+
+        /**
+         * Gets the interval of the given data range.
+         * @param range The data range
+         * @return The interval, or {@code null} if the data range is not numeric or it is not supported
+         */
+        private static Interval of(OWLDataRange range) {
+            if (range instanceof OWLDatatype) {
+                return of((OWLDatatype) range);
+            }
+            if (range instanceof OWLDataOneOf) {
+                List<OWLLiteral> values = ((OWLDataOneOf) range).values().distinct().collect(Collectors.toList());
+                if (values.size() != 1) {
+                    return null;
+                }
+                OWLLiteral literal = values.get(0);
+                Interval datatype = of(literal.getDatatype());
+                BigDecimal value = parse(literal);
+                if (datatype == null || value == null) {
+                    return null;
+                }
+                return new Interval(datatype.kind, datatype.integer, value, true, value, true);
+            }
+            if (range instanceof OWLDatatypeRestriction) {
+                Interval interval = of(((OWLDatatypeRestriction) range).getDatatype());
+                for (OWLFacetRestriction facetRestriction : ((OWLDatatypeRestriction) range).facetRestrictionsAsList()) {
+                    BigDecimal value = parse(facetRestriction.getFacetValue());
+                    if (interval == null || value == null) {
+                        return null;
+                    }
+                    switch (facetRestriction.getFacet()) {
+                        case MIN_INCLUSIVE:
+                            interval = interval.restrictLower(value, true);
+                            break;
+                        case MIN_EXCLUSIVE:
+                            interval = interval.restrictLower(value, false);
+                            break;
+                        case MAX_INCLUSIVE:
+                            interval = interval.restrictUpper(value, true);
+                            break;
+                        case MAX_EXCLUSIVE:
+                            interval = interval.restrictUpper(value, false);
+                            break;
+                        default:
+                            return null;
+                    }
+                }
+                return interval;
+            }
+            return null;
+        }
+
+        private static Interval of(OWLDatatype datatype) {
+            if (!datatype.isBuiltIn()) {
+                return null;
+            }
+            OWL2Datatype builtInDatatype = datatype.getBuiltInDatatype();
+            BigDecimal[] bounds = INTEGER_DATATYPES.get(builtInDatatype);
+            if (bounds != null) {
+                return new Interval(DECIMAL, true, bounds[0], true, bounds[1], true);
+            }
+            switch (builtInDatatype) {
+                case XSD_DECIMAL:
+                case OWL_RATIONAL:
+                case OWL_REAL:
+                    return new Interval(DECIMAL, false, null, false, null, false);
+                case XSD_DOUBLE:
+                    return new Interval(DOUBLE, false, null, false, null, false);
+                case XSD_FLOAT:
+                    return new Interval(FLOAT, false, null, false, null, false);
+                default:
+                    return null;
+            }
+        }
+
+        private static BigDecimal parse(OWLLiteral literal) {
+            try {
+                return new BigDecimal(literal.getLiteral().trim());
+            } catch (NumberFormatException e) {
+                return null;  // e.g. "INF" or "NaN"
+            }
+        }
+
+        private Interval restrictLower(BigDecimal value, boolean inclusive) {
+            Interval bound = new Interval(this.kind, false, value, inclusive, null, false);
+            return compareLower(bound, this) > 0 ? new Interval(this.kind, this.integer, value, inclusive, this.upper, this.upperInclusive) : this;
+        }
+
+        private Interval restrictUpper(BigDecimal value, boolean inclusive) {
+            Interval bound = new Interval(this.kind, false, null, false, value, inclusive);
+            return compareUpper(bound, this) < 0 ? new Interval(this.kind, this.integer, this.lower, this.lowerInclusive, value, inclusive) : this;
+        }
+
+        private boolean isEmpty() {
+            if (this.lower == null || this.upper == null) {
+                return false;
+            }
+            int comparison = this.lower.compareTo(this.upper);
+            return comparison > 0 || (comparison == 0 && !(this.lowerInclusive && this.upperInclusive));
+        }
+
+        /**
+         * Compares the lower bounds of two intervals: an unbounded one is the least, and an inclusive one is less than an exclusive one.
+         */
+        private static int compareLower(Interval i1, Interval i2) {
+            if (i1.lower == null || i2.lower == null) {
+                return i1.lower == null ? (i2.lower == null ? 0 : -1) : 1;
+            }
+            int comparison = i1.lower.compareTo(i2.lower);
+            if (comparison != 0 || i1.lowerInclusive == i2.lowerInclusive) {
+                return comparison;
+            }
+            return i1.lowerInclusive ? -1 : 1;
+        }
+
+        /**
+         * Compares the upper bounds of two intervals: an unbounded one is the greatest, and an inclusive one is greater than an exclusive one.
+         */
+        private static int compareUpper(Interval i1, Interval i2) {
+            if (i1.upper == null || i2.upper == null) {
+                return i1.upper == null ? (i2.upper == null ? 0 : 1) : -1;
+            }
+            int comparison = i1.upper.compareTo(i2.upper);
+            if (comparison != 0 || i1.upperInclusive == i2.upperInclusive) {
+                return comparison;
+            }
+            return i1.upperInclusive ? 1 : -1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Interval)) {
+                return false;
+            }
+            Interval interval = (Interval) o;
+            return this.kind == interval.kind && this.integer == interval.integer
+                && Objects.equals(this.lower, interval.lower) && this.lowerInclusive == interval.lowerInclusive
+                && Objects.equals(this.upper, interval.upper) && this.upperInclusive == interval.upperInclusive;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.kind, this.integer, this.lower, this.lowerInclusive, this.upper, this.upperInclusive);
+        }
+    }
+}
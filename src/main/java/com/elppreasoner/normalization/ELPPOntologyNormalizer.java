@@ -2,23 +2,42 @@ package com.elppreasoner.normalization;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLAxiomVisitor;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDisjointClassesAxiom;
 import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLEquivalentObjectPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLObjectPropertyDomainAxiom;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLObjectPropertyRangeAxiom;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.semanticweb.owlapi.model.OWLTransitiveObjectPropertyAxiom;
 import org.semanticweb.owlapi.model.parameters.Imports;
 
 import com.elppreasoner.normalization.NormalizationUtilities.NormalizationRulesManager.NormalizationRule;
 import com.reasoner.normalization.OntologyNormalizer;
+import com.reasoner.querying.RoleHierarchy;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
 
 /**
@@ -50,6 +69,9 @@ public class ELPPOntologyNormalizer implements OntologyNormalizer, OWLAxiomVisit
     private OWLOntology normalizedOntology;
     private List<OWLAxiom> axiomsToNormalize;
     private List<OWLAxiom> temporaryToAddAxioms;
+    private Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> ranges;
+    private RoleRanges roleRanges;
+    private ConcreteDomainIndex concreteDomain;
 
     /**
      * The public constructor of the normalizer. No ontology required: the normalizer is a helper class that, once instantiated, can be used
@@ -87,25 +109,49 @@ public class ELPPOntologyNormalizer implements OntologyNormalizer, OWLAxiomVisit
             throw new RuntimeException(e);
         }
 
+        this.ranges = new HashMap<>();
+        this.concreteDomain = new ConcreteDomainIndex(this.ontology);
+        this.ontology.axioms(AxiomType.EQUIVALENT_CLASSES).forEach(this.concreteDomain::define);
+
         // Analyze each axiom and put all non-normalized axioms in a list and all normalized axioms in the normalized ontology 
         Iterator<OWLAxiom> it = this.ontology.axioms().iterator();
         while(it.hasNext()) {
             OWLAxiom axiom = it.next();
             if (axiom instanceof OWLSubClassOfAxiom) {  // If the GCI has the form "C ⊑ D"
-                OWLSubClassOfAxiom subClassOfAxiom = (OWLSubClassOfAxiom) axiom;
+                OWLSubClassOfAxiom subClassOfAxiom = this.concreteDomain.replaceDataRestrictions((OWLSubClassOfAxiom) axiom);
                 if (!NormalizationUtilities.isGCIInNormalForm(subClassOfAxiom)) {
                     this.axiomsToNormalize.add(subClassOfAxiom);
                 } else {
                     this.normalizedOntology.add(subClassOfAxiom);
                 }
+            } else if (axiom instanceof OWLEquivalentClassesAxiom && ConcreteDomainIndex.isDefinition((OWLEquivalentClassesAxiom) axiom)) {  // If the axiom defines a data restriction, i.e. "N ≡ ∃p.R"
+                this.normalizedOntology.add(axiom);
             } else if (axiom instanceof OWLEquivalentClassesAxiom) {  // If the GCI has the form "C1 ≡ ... ≡ Cn"
                 for (OWLSubClassOfAxiom subClassOfAxiom : ((OWLEquivalentClassesAxiom) axiom).asOWLSubClassOfAxioms()) {
+                    subClassOfAxiom = this.concreteDomain.replaceDataRestrictions(subClassOfAxiom);
                     if (!NormalizationUtilities.isGCIInNormalForm(subClassOfAxiom)) {
                         this.axiomsToNormalize.add(subClassOfAxiom);
                     } else {
                         this.normalizedOntology.add(subClassOfAxiom);
                     }
                 }
+            } else if (axiom instanceof OWLSubObjectPropertyOfAxiom || axiom instanceof OWLEquivalentObjectPropertiesAxiom) {  // If the role inclusion has the form "r ⊑ s"
+                this.normalizedOntology.add(axiom);
+            } else if (axiom instanceof OWLTransitiveObjectPropertyAxiom) {  // If the role is transitive, i.e. "r ∘ r ⊑ r"
+                this.normalizedOntology.add(axiom);
+            } else if (axiom instanceof OWLSubPropertyChainOfAxiom) {  // If the role chain has the form "r1 ∘ ... ∘ rk ⊑ s"
+                this.normalizedOntology.add(NormalizationUtilities.NormalizationRulesManager.applyNF1(this.ontology, (OWLSubPropertyChainOfAxiom) axiom));
+            } else if (axiom instanceof OWLDisjointClassesAxiom) {  // If the classes C1, ..., Cn are pairwise disjoint
+                this.normalizedOntology.add(normalizeDisjointClasses((OWLDisjointClassesAxiom) axiom));
+            } else if (axiom instanceof OWLObjectPropertyDomainAxiom) {  // If the domain of r is C, i.e. "∃r.⊤ ⊑ C"
+                OWLSubClassOfAxiom subClassOfAxiom = ((OWLObjectPropertyDomainAxiom) axiom).asOWLSubClassOfAxiom();
+                if (!NormalizationUtilities.isGCIInNormalForm(subClassOfAxiom)) {
+                    this.axiomsToNormalize.add(subClassOfAxiom);
+                } else {
+                    this.normalizedOntology.add(subClassOfAxiom);
+                }
+            } else if (axiom instanceof OWLObjectPropertyRangeAxiom) {  // If the range of r is C
+                this.normalizedOntology.add(indexObjectPropertyRange((OWLObjectPropertyRangeAxiom) axiom));
             }
         }
 
@@ -125,9 +171,17 @@ public class ELPPOntologyNormalizer implements OntologyNormalizer, OWLAxiomVisit
             this.temporaryToAddAxioms.clear();
         } while (!this.axiomsToNormalize.isEmpty());
 
+        applyConcreteDomain(Collections.emptySet());
+        this.normalizedOntology.add(this.concreteDomain.definitions());
+        this.roleRanges = this.ranges.isEmpty() ? RoleRanges.EMPTY : new RoleRanges(this.ranges, new RoleHierarchy(this.ontology));
+        applyRanges();
+
         this.ontology = null;
         this.axiomsToNormalize = null;
         this.temporaryToAddAxioms = null;
+        this.ranges = null;
+        this.roleRanges = null;
+        this.concreteDomain = null;
 
         return this.normalizedOntology;
     }
@@ -143,7 +197,35 @@ public class ELPPOntologyNormalizer implements OntologyNormalizer, OWLAxiomVisit
      */
     @Override
     public Set<OWLAxiom> normalize(Set<OWLAxiom> axioms) {
-        this.ontology = null;
+        return normalize(axioms, null);
+    }
+
+    /**
+     * <p>Given a set of {@code axioms} that belong to {@code ontology}, returns the equivalent set of axioms in normal form, like
+     * {@code normalize(Set<OWLAxiom> axioms)} does. The {@code ontology} is only used to name the new concepts introduced by the
+     * normalization rules, so that the axioms added to an ontology can be normalized without normalizing the whole ontology again, and to
+     * relate the data restrictions of the axioms to the ones of the ontology (see {@code ConcreteDomainIndex}). The ranges of the ontology
+     * apply to the axioms as well: they are indexed again on every call (see {@code normalize(Set<OWLAxiom> axioms, OWLOntology ontology,
+     * RoleRanges roleRanges)} to reuse them).</p>
+     * {@code axioms} The axioms to normalize
+     * {@code ontology} The ontology the axioms belong to
+     * @return The equivalent {@code axioms} normalized
+     */
+    public Set<OWLAxiom> normalize(Set<OWLAxiom> axioms, OWLOntology ontology) {
+        return normalize(axioms, ontology, ontology != null ? RoleRanges.of(ontology) : RoleRanges.EMPTY);
+    }
+
+    /**
+     * <p>Given a set of {@code axioms} that belong to {@code ontology}, returns the equivalent set of axioms in normal form, like
+     * {@code normalize(Set<OWLAxiom> axioms, OWLOntology ontology)} does, with the given index of the ranges of the ontology, so that the
+     * axioms added to an ontology one by one do not scan its range axioms again.</p>
+     * {@code axioms} The axioms to normalize
+     * {@code ontology} The ontology the axioms belong to
+     * {@code roleRanges} The ranges of the ontology (see {@code RoleRanges.of(OWLOntology ontology)})
+     * @return The equivalent {@code axioms} normalized
+     */
+    public Set<OWLAxiom> normalize(Set<OWLAxiom> axioms, OWLOntology ontology, RoleRanges roleRanges) {
+        this.ontology = ontology;
         this.normalizedOntology = null;
         this.axiomsToNormalize = null;
 
@@ -156,24 +238,59 @@ public class ELPPOntologyNormalizer implements OntologyNormalizer, OWLAxiomVisit
             throw new RuntimeException(e);
         }
 
+        this.ranges = new HashMap<>();
+
+        /*
+         * So are the data restrictions of the ontology. The subsumptions between the ones defined in the ontology are already part of its
+         * normal form, while the other ones may have been added together with the given axioms.
+         */
+        this.concreteDomain = new ConcreteDomainIndex(ontology);
+        Set<OWLClass> indexedDataRestrictions = Collections.emptySet();
+        if (ontology != null && axioms.stream().anyMatch(axiom -> axiom.nestedClassExpressions().anyMatch(ConcreteDomainIndex::isDataRestriction))) {
+            ontology.axioms(AxiomType.EQUIVALENT_CLASSES).forEach(this.concreteDomain::define);
+            indexedDataRestrictions = this.concreteDomain.getNames();
+            ontology.nestedClassExpressions().filter(ConcreteDomainIndex::isDataRestriction).forEach(this.concreteDomain::getName);
+        }
+
         // Analyze each axiom and put all non-normalized axioms in a list and all normalized axioms in the normalized ontology 
         Iterator<OWLAxiom> it = axioms.iterator();
         while(it.hasNext()) {
             OWLAxiom axiom = it.next();
             if (axiom instanceof OWLSubClassOfAxiom) {  // If the GCI has the form "C ⊑ D"
-                if (!NormalizationUtilities.isGCIInNormalForm((OWLSubClassOfAxiom) axiom)) {
-                    this.axiomsToNormalize.add(axiom);
+                OWLSubClassOfAxiom subClassOfAxiom = this.concreteDomain.replaceDataRestrictions((OWLSubClassOfAxiom) axiom);
+                if (!NormalizationUtilities.isGCIInNormalForm(subClassOfAxiom)) {
+                    this.axiomsToNormalize.add(subClassOfAxiom);
                 } else {
-                    this.normalizedOntology.add(axiom);
+                    this.normalizedOntology.add(subClassOfAxiom);
                 }
+            } else if (axiom instanceof OWLEquivalentClassesAxiom && ConcreteDomainIndex.isDefinition((OWLEquivalentClassesAxiom) axiom)) {  // If the axiom defines a data restriction, i.e. "N ≡ ∃p.R"
+                this.concreteDomain.define((OWLEquivalentClassesAxiom) axiom);
             } else if (axiom instanceof OWLEquivalentClassesAxiom) {  // If the GCI has the form "C1 ≡ ... ≡ Cn"
                 for (OWLSubClassOfAxiom subClassOfAxiom : ((OWLEquivalentClassesAxiom) axiom).asOWLSubClassOfAxioms()) {
+                    subClassOfAxiom = this.concreteDomain.replaceDataRestrictions(subClassOfAxiom);
                     if (!NormalizationUtilities.isGCIInNormalForm(subClassOfAxiom)) {
-                        this.axiomsToNormalize.add(axiom);
+                        this.axiomsToNormalize.add(subClassOfAxiom);
                     } else {
-                        this.normalizedOntology.add(axiom);
+                        this.normalizedOntology.add(subClassOfAxiom);
                     }
                 }
+            } else if (axiom instanceof OWLSubObjectPropertyOfAxiom || axiom instanceof OWLEquivalentObjectPropertiesAxiom) {  // If the role inclusion has the form "r ⊑ s"
+                this.normalizedOntology.add(axiom);
+            } else if (axiom instanceof OWLTransitiveObjectPropertyAxiom) {  // If the role is transitive, i.e. "r ∘ r ⊑ r"
+                this.normalizedOntology.add(axiom);
+            } else if (axiom instanceof OWLSubPropertyChainOfAxiom) {  // If the role chain has the form "r1 ∘ ... ∘ rk ⊑ s"
+                this.normalizedOntology.add(NormalizationUtilities.NormalizationRulesManager.applyNF1(this.ontology, (OWLSubPropertyChainOfAxiom) axiom));
+            } else if (axiom instanceof OWLDisjointClassesAxiom) {  // If the classes C1, ..., Cn are pairwise disjoint
+                this.normalizedOntology.add(normalizeDisjointClasses((OWLDisjointClassesAxiom) axiom));
+            } else if (axiom instanceof OWLObjectPropertyDomainAxiom) {  // If the domain of r is C, i.e. "∃r.⊤ ⊑ C"
+                OWLSubClassOfAxiom subClassOfAxiom = ((OWLObjectPropertyDomainAxiom) axiom).asOWLSubClassOfAxiom();
+                if (!NormalizationUtilities.isGCIInNormalForm(subClassOfAxiom)) {
+                    this.axiomsToNormalize.add(subClassOfAxiom);
+                } else {
+                    this.normalizedOntology.add(subClassOfAxiom);
+                }
+            } else if (axiom instanceof OWLObjectPropertyRangeAxiom) {  // If the range of r is C
+                this.normalizedOntology.add(indexObjectPropertyRange((OWLObjectPropertyRangeAxiom) axiom));
             }
         }
 
@@ -193,9 +310,17 @@ public class ELPPOntologyNormalizer implements OntologyNormalizer, OWLAxiomVisit
             this.temporaryToAddAxioms.clear();
         } while (!this.axiomsToNormalize.isEmpty());
 
+        applyConcreteDomain(indexedDataRestrictions);
+        // The ranges of the ontology apply to the given axioms, together with the ranges among them
+        this.roleRanges = this.ranges.isEmpty() ? roleRanges : roleRanges.with(this.ranges);
+        applyRanges();
+
         this.ontology = null;
         this.axiomsToNormalize = null;
         this.temporaryToAddAxioms = null;
+        this.ranges = null;
+        this.roleRanges = null;
+        this.concreteDomain = null;
 
         final Set<OWLAxiom> normalizedAxioms = new HashSet<>();
         normalizedOntology.axioms().forEach(normalizedAxioms::add);
@@ -214,6 +339,11 @@ public class ELPPOntologyNormalizer implements OntologyNormalizer, OWLAxiomVisit
      */
     @Override
     public void visit(OWLSubClassOfAxiom axiom) {
+        axiom = this.concreteDomain.replaceDataRestrictions(axiom);
+        if (NormalizationUtilities.isGCIInNormalForm(axiom)) {
+            this.normalizedOntology.addAxiom(axiom);
+            return;
+        }
         NormalizationRule rule = NormalizationUtilities.NormalizationRulesManager.identifyNF(axiom);
         Collection<OWLSubClassOfAxiom> normalizedSetOfAxioms = new ArrayList<>();
         switch (rule) {
@@ -269,4 +399,103 @@ public class ELPPOntologyNormalizer implements OntologyNormalizer, OWLAxiomVisit
             }
         }
     }
+
+    /**
+     * <p>Normalizes the given {@code DisjointClasses(C1, ..., Cn)} axiom. It is not split into the n(n-1)/2 GCIs Ci ⊓ Cj ⊑ ⊥, since the
+     * disjointness groups are indexed as they are (see {@code DisjointClassesInferenceRule}): only its members that are not basic concepts
+     * are replaced, each one by a new concept name A, together with the GCI Ci ⊑ A, which is queued up for normalization if needed.</p>
+     * @param axiom The axiom to normalize
+     * @return The disjointness axiom whose members are all basic concepts
+     */
+    private OWLDisjointClassesAxiom normalizeDisjointClasses(OWLDisjointClassesAxiom axiom) {
+        OWLDataFactoryImpl owlDataFactory = new OWLDataFactoryImpl();
+        List<OWLClassExpression> members = new ArrayList<>();
+        for (OWLClassExpression member : axiom.getOperandsAsList()) {
+            member = this.concreteDomain.replaceDataRestrictions(member);
+            if (NormalizationUtilities.isSuperclassABasicConcept(member)) {
+                members.add(member);
+                continue;
+            }
+            OWLClass newClass = NormalizationUtilities.NormalizationRulesManager.generateOWLClass(this.ontology, member, owlDataFactory.getOWLNothing());
+            OWLSubClassOfAxiom subClassOfAxiom = owlDataFactory.getOWLSubClassOfAxiom(member, newClass);  // Ci ⊑ A
+            if (NormalizationUtilities.isGCIInNormalForm(subClassOfAxiom)) {
+                this.normalizedOntology.add(subClassOfAxiom);
+            } else {
+                this.axiomsToNormalize.add(subClassOfAxiom);
+            }
+            members.add(newClass);
+        }
+        return owlDataFactory.getOWLDisjointClassesAxiom(members);
+    }
+
+    /**
+     * <p>Indexes the given {@code ObjectPropertyRange(r, C)} axiom. If C is not a basic concept, it is replaced by a new concept name A,
+     * together with the GCI A ⊑ C, which is queued up for normalization: any model of the ontology is a model of the normalized one,
+     * where A is interpreted as C.</p>
+     * @param axiom The axiom to index
+     * @return The range axiom whose range is a basic concept
+     */
+    private OWLObjectPropertyRangeAxiom indexObjectPropertyRange(OWLObjectPropertyRangeAxiom axiom) {
+        OWLClassExpression range = axiom.getRange();
+        OWLClassExpression namedRange = RoleRanges.getNamedRange(this.ontology, range);
+        if (!namedRange.equals(range)) {
+            OWLDataFactoryImpl owlDataFactory = new OWLDataFactoryImpl();
+            this.axiomsToNormalize.add(owlDataFactory.getOWLSubClassOfAxiom(namedRange, range));  // A ⊑ C
+            axiom = owlDataFactory.getOWLObjectPropertyRangeAxiom(axiom.getProperty(), namedRange);
+        }
+        this.ranges.computeIfAbsent(axiom.getProperty(), __ -> new HashSet<>()).add(axiom.getRange());
+        return axiom;
+    }
+
+    /**
+     * <p>Adds the GCIs between the data restrictions met during the normalization, computed by their {@code ConcreteDomainIndex}. The GCIs
+     * between the given data restrictions are skipped, since they are already known. The data restrictions themselves are replaced by
+     * their concept names while the GCIs are normalized.</p>
+     * @param indexedDataRestrictions The concept names of the data restrictions defined in the ontology
+     */
+    private void applyConcreteDomain(Set<OWLClass> indexedDataRestrictions) {
+        for (OWLSubClassOfAxiom axiom : this.concreteDomain.subsumptions()) {
+            boolean known = indexedDataRestrictions.contains(axiom.getSubClass())
+                && (axiom.getSuperClass().isOWLNothing() || indexedDataRestrictions.contains(axiom.getSuperClass()));
+            if (!known) {
+                this.normalizedOntology.add(axiom);
+            }
+        }
+    }
+
+    /**
+     * <p>Applies the ranges to the normalized GCIs (range rewriting). Every GCI B ⊑ ∃r.C, where r or one of its super-roles has a range, is
+     * replaced with the GCIs { B ⊑ ∃r.A, A ⊑ C, A ⊑ R1, ..., A ⊑ Rk }, where A is a new concept name and R1, ..., Rk are the ranges of r
+     * and of its super-roles.</p>
+     * <p>The ranges of every role are looked up in the {@code RoleRanges} index, which gathers them once from the role hierarchy of the
+     * ontology. This is complete as long as the ranges are compatible with the role chains, i.e. if r1 ∘ ... ∘ rk ⊑ s, then the ranges of s
+     * are ranges of rk too.</p>
+     */
+    private void applyRanges() {
+        if (this.roleRanges.isEmpty()) {
+            return;
+        }
+        OWLDataFactoryImpl owlDataFactory = new OWLDataFactoryImpl();
+
+        List<OWLSubClassOfAxiom> existentialAxioms = this.normalizedOntology.axioms(AxiomType.SUBCLASS_OF)
+            .filter(axiom -> axiom.getSuperClass() instanceof OWLObjectSomeValuesFrom)
+            .collect(Collectors.toList());
+        for (OWLSubClassOfAxiom axiom : existentialAxioms) {
+            OWLObjectSomeValuesFrom existential = (OWLObjectSomeValuesFrom) axiom.getSuperClass();
+            Set<OWLClassExpression> roleRanges = this.roleRanges.getRanges(existential.getProperty());
+            if (roleRanges.isEmpty()) {
+                continue;
+            }
+
+            OWLClassExpression filler = existential.getFiller();
+            OWLClass newClass = NormalizationUtilities.NormalizationRulesManager.generateOWLClass(this.ontology, filler, existential);  // new concept name A
+            this.normalizedOntology.remove(axiom);
+            this.normalizedOntology.add(owlDataFactory.getOWLSubClassOfAxiom(                       // B ⊑ ∃r.A
+                axiom.getSubClass(),
+                owlDataFactory.getOWLObjectSomeValuesFrom(existential.getProperty(), newClass))
+            );
+            this.normalizedOntology.add(owlDataFactory.getOWLSubClassOfAxiom(newClass, filler));    // A ⊑ C
+            roleRanges.forEach(range -> this.normalizedOntology.add(owlDataFactory.getOWLSubClassOfAxiom(newClass, range)));  // A ⊑ Ri
+        }
+    }
 }
\ No newline at end of file
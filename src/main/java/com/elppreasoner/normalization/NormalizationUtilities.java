@@ -1,9 +1,11 @@
 package com.elppreasoner.normalization;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLIndividual;
@@ -13,6 +15,9 @@ import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
 import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+
+import com.reasoner.querying.RoleHierarchy;
 
 import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
 
@@ -20,8 +25,10 @@ import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
  * <p>{@link NormalizationUtilities} is an utility class that implements all the methods that are useful to axioms normalization.
  * Other than methods to identify some class expression as a concept name, an individual, a basic concept, etc., or
  * to check if a given GCI is in normal form, it also contains an inner class, {@link NormalizationRulesManager}, that provides
- * a set of methods to identify and apply the "normalization rules" (NF2,NF3,...,NF7).</p>
- * <p><em>Note</em>. NF1 is excluded because it concerns the "role inclusion", not considered in our work.</p>
+ * a set of methods to identify and apply the "normalization rules" (NF1,NF2,...,NF7).</p>
+ * <p><em>Note</em>. NF1 concerns the role chains r1 ∘ ... ∘ rk ⊑ s and it is applied on its own, since it does not depend on the form of a GCI:
+ * the role inclusions r ⊑ s and the binary role chains r1 ∘ r2 ⊑ s are already in normal form, and they are kept as they are
+ * (see {@code com.reasoner.querying.RoleHierarchy}).</p>
  * 
  * <p>A legenda of concepts, from theory to OWL implementation, follows:
  * <ul>
@@ -52,6 +59,8 @@ import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
  *     <li>'top' (OWLThing)</li>
  *     <li>an enum of individuals (OWLObjectOneOf)</li>
  * </ul>
+ * The concrete domain predicates p(f1,..., fk), i.e. the data restrictions, are replaced by concept names before the normalization rules are
+ * applied (see {@link ConcreteDomainIndex}).
  * </li>
  * 
  * <li>Def. In our domain, a TBox T is in normal form ("normalized") if and only if all of its GCIs have one of the four following forms:
@@ -183,10 +192,10 @@ public final class NormalizationUtilities {
 
     /**
      * <p>{@code NormalizationRulesManager} is an inner class that provides a set of methods to identify and apply the "normalization rules"
-     * (NF2,NF3,...,NF7). It is easy to prove that any GCI can be converted into an equivalent GCI in Normal Form (NF) using the translation
+     * (NF1,NF2,...,NF7). It is easy to prove that any GCI can be converted into an equivalent GCI in Normal Form (NF) using the translation
      * rules (applying one of the rules) NF1 to NF7, based on the form of the GCI.
      * <ul>
-     *     <li>NF1: role inclusion, not considered in our work</li>
+     *     <li>NF1: r1 ∘ ... ∘ rk ⊑ s   -->   { r1 ∘ r2 ⊑ u, u ∘ r3 ∘ ... ∘ rk ⊑ s }   * k > 2</li>
      *     <li>NF2: C ⊓ D' ⊑ E   -->   { D' ⊑ A, C ⊓ A ⊑ E }   * Please note that it can also be in the equivalent form D' ⊓ C</li>
      *     <li>NF3: ∃r.C' ⊑ D   -->   { C' ⊑ A, ∃r.A ⊑ D }</li>
      *     <li>NF4: ⊥ ⊑ D   -->   ∅</li>
@@ -206,7 +215,7 @@ public final class NormalizationUtilities {
          * The normalization rules' {@code enum}. C' and D' are NOT basic concepts and A denotes a newly created, dummy concept name.
          */
         public enum NormalizationRule {
-            // NF1,  // role inclusion, not considered in our work
+            NF1,  // r1 ∘ ... ∘ rk ⊑ s   -->   { r1 ∘ r2 ⊑ u, u ∘ r3 ∘ ... ∘ rk ⊑ s }   * Applied to role chains only (see applyNF1)
             NF2,  // C ⊓ D' ⊑ E   -->   { D' ⊑ A, C ⊓ A ⊑ E }   * Please note that it can also be in the equivalent form D' ⊓ C
             NF3,  //  ∃r.C' ⊑ D   -->   { C' ⊑ A, ∃r.A ⊑ D }
             NF4,  //      ⊥ ⊑ D   -->   ∅
@@ -275,6 +284,37 @@ public final class NormalizationUtilities {
                 );
         }
 
+        /**
+         * <p>Applies the normalization rule NF1 to the given {@code axiom}, until all the role chains are binary:</p>
+         * <p>&emsp;&emsp;r1 ∘ ... ∘ rk ⊑ s   -->   { r1 ∘ r2 ⊑ u1, u1 ∘ r3 ⊑ u2, ..., u(k-2) ∘ rk ⊑ s }</p>
+         * <p>Every ui is a new dummy role, generated as the {@link RoleHierarchy} does, so that the same prefix r1 ∘ ... ∘ r(i+1) always gets
+         * the same role. A chain with a single role r ⊑ s is turned into a role inclusion.</p>
+         * @param ontology The ontology of the axiom being normalized (unused, but kept to maintain the same signature)
+         * @param axiom The role chain to which the normalization rule NF1 must be applied
+         * @return The set of normalized axioms, i.e. the binary role chains (or the role inclusion)
+         */
+        public static Collection<OWLAxiom> applyNF1(OWLOntology ontology, OWLSubPropertyChainOfAxiom axiom) {
+            List<OWLObjectPropertyExpression> chain = axiom.getPropertyChain();
+            OWLObjectPropertyExpression superProperty = axiom.getSuperProperty();
+            OWLDataFactoryImpl owlDataFactory = new OWLDataFactoryImpl();
+            List<OWLAxiom> normalizedAxioms = new ArrayList<>();
+
+            if (chain.size() == 1) {
+                normalizedAxioms.add(owlDataFactory.getOWLSubObjectPropertyOfAxiom(chain.get(0), superProperty));  // r ⊑ s
+                return normalizedAxioms;
+            }
+
+            OWLObjectPropertyExpression prefix = chain.get(0);
+            for (int i = 1; i < chain.size() - 1; i++) {
+                OWLObjectPropertyExpression newProperty = RoleHierarchy.generateRole(chain.subList(0, i + 1));  // new role ui
+                normalizedAxioms.add(owlDataFactory.getOWLSubPropertyChainOfAxiom(Arrays.asList(prefix, chain.get(i)), newProperty));
+                prefix = newProperty;
+            }
+            normalizedAxioms.add(owlDataFactory.getOWLSubPropertyChainOfAxiom(Arrays.asList(prefix, chain.get(chain.size() - 1)), superProperty));
+
+            return normalizedAxioms;
+        }
+
         /**
          * <p>Applies the normalization rule NF2 to the given {@code axiom}:</p>
          * <p>&emsp;&emsp;C ⊓ D' ⊑ E   -->   { D' ⊑ A, C ⊓ A ⊑ E }&emsp;&emsp;* Please note that it can also be in the equivalent form D' ⊓ C</p>
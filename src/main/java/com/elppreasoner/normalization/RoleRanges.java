@@ -0,0 +1,112 @@
+package com.elppreasoner.normalization;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import com.reasoner.querying.RoleHierarchy;
+
+import uk.ac.manchester.cs.owl.owlapi.OWLDataFactoryImpl;
+
+/**
+ * <p>{@code RoleRanges} indexes the ranges of the roles of an ontology ({@code ObjectPropertyRange} axioms), which the range rewriting of
+ * the {@link ELPPOntologyNormalizer} applies to every B ⊑ ∃r.C.</p>
+ *
+ * <p>The ranges of a role r are the told ranges of its super-roles, r included (see {@link RoleHierarchy#getSuperRoles}). They are gathered
+ * the first time they are looked up, and cached. A range C that is not a basic concept is replaced by the concept name the normalizer gives
+ * it. The index is immutable: it has to be built again when the role axioms or the range axioms of the ontology change.</p>
+ */
+public final class RoleRanges {
+
+    /**
+     * The index of an ontology without ranges.
+     */
+    public static final RoleRanges EMPTY = new RoleRanges(Collections.emptyMap(), null);
+
+    private final Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> toldRanges;
+    private final RoleHierarchy roleHierarchy;
+    private final Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> ranges = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the index of the given told ranges.
+     * @param toldRanges The ranges of every role, which must be basic concepts
+     * @param roleHierarchy The role hierarchy of the ontology, or {@code null} if every role is only a super-role of itself
+     */
+    RoleRanges(Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> toldRanges, RoleHierarchy roleHierarchy) {
+        this.toldRanges = toldRanges;
+        this.roleHierarchy = roleHierarchy;
+    }
+
+    /**
+     * Builds the index of the ranges of the given ontology. The role hierarchy of the ontology is only built if it has ranges.
+     * @param ontology The ontology
+     * @return The index of its ranges
+     */
+    public static RoleRanges of(OWLOntology ontology) {
+        Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> toldRanges = new HashMap<>();
+        ontology.axioms(AxiomType.OBJECT_PROPERTY_RANGE).forEach(
+            axiom -> toldRanges.computeIfAbsent(axiom.getProperty(), __ -> new HashSet<>()).add(getNamedRange(ontology, axiom.getRange()))
+        );
+        return toldRanges.isEmpty() ? EMPTY : new RoleRanges(toldRanges, new RoleHierarchy(ontology));
+    }
+
+    /**
+     * Gets the concept that stands for the given range in the normal form: the range itself if it is a basic concept, and otherwise the
+     * concept name A of the GCI A ⊑ C added by the normalizer.
+     * @param ontology The ontology of the range
+     * @param range The range C
+     * @return The basic concept of the range
+     */
+    static OWLClassExpression getNamedRange(OWLOntology ontology, OWLClassExpression range) {
+        if (NormalizationUtilities.isSuperclassABasicConcept(range)) {
+            return range;
+        }
+        return NormalizationUtilities.NormalizationRulesManager.generateOWLClass(ontology, new OWLDataFactoryImpl().getOWLThing(), range);
+    }
+
+    /**
+     * Builds the index of the ranges of this one and the given ones, with the same role hierarchy.
+     * @param moreRanges The additional ranges of every role, which must be basic concepts
+     * @return The extended index
+     */
+    RoleRanges with(Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> moreRanges) {
+        Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> allRanges = new HashMap<>();
+        this.toldRanges.forEach((role, roleRanges) -> allRanges.put(role, new HashSet<>(roleRanges)));
+        moreRanges.forEach((role, roleRanges) -> allRanges.computeIfAbsent(role, __ -> new HashSet<>()).addAll(roleRanges));
+        return new RoleRanges(allRanges, this.roleHierarchy);
+    }
+
+    /**
+     * Checks whether no role has a range.
+     * @return {@code true} if no role has a range; {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return this.toldRanges.isEmpty();
+    }
+
+    /**
+     * Gets the ranges of the given role, i.e. the told ranges of its super-roles.
+     * @param role The role r
+     * @return The unmodifiable set of ranges, which is empty if neither r nor its super-roles have a range
+     */
+    public Set<OWLClassExpression> getRanges(OWLObjectPropertyExpression role) {
+        if (this.toldRanges.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return this.ranges.computeIfAbsent(role, __ -> {
+            Collection<OWLObjectPropertyExpression> superRoles = this.roleHierarchy != null ? this.roleHierarchy.getSuperRoles(role) : Collections.singleton(role);
+            Set<OWLClassExpression> roleRanges = new HashSet<>();
+            superRoles.forEach(superRole -> roleRanges.addAll(this.toldRanges.getOrDefault(superRole, Collections.emptySet())));
+            return Collections.unmodifiableSet(roleRanges);
+        });
+    }
+}
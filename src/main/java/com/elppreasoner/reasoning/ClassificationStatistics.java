@@ -0,0 +1,59 @@
+package com.elppreasoner.reasoning;
+
+/**
+ * The statistics of the phases of a classification, with which the future of {@link ELPPReasoner#precomputeInferencesAsync} completes: the
+ * time of the saturation and of the construction of the taxonomy, the number of conclusions and the consistency of the ontology.
+ */
+public final class ClassificationStatistics {
+    private final double saturationTime;
+    private final double taxonomyBuildingTime;
+    private final int conclusionCount;
+    private final boolean consistent;
+    private final ExecutionPlan executionPlan;
+
+    public ClassificationStatistics(double saturationTime, double taxonomyBuildingTime, int conclusionCount, boolean consistent, ExecutionPlan executionPlan) {
+        this.saturationTime = saturationTime;
+        this.taxonomyBuildingTime = taxonomyBuildingTime;
+        this.conclusionCount = conclusionCount;
+        this.consistent = consistent;
+        this.executionPlan = executionPlan;
+    }
+
+    /**
+     * Gets the time elapsed to saturate the ontology, in seconds.
+     * @return The saturation time
+     */
+    public double getSaturationTime() {
+        return saturationTime;
+    }
+
+    /**
+     * Gets the time elapsed to build the taxonomy, in seconds: it is 0 if the ontology is inconsistent.
+     * @return The taxonomy building time
+     */
+    public double getTaxonomyBuildingTime() {
+        return taxonomyBuildingTime;
+    }
+
+    public int getConclusionCount() {
+        return conclusionCount;
+    }
+
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    /**
+     * Gets the execution plan chosen by the cost model of the reasoner, if any.
+     * @return The execution plan, or {@code null} if the reasoner has no cost model
+     */
+    public ExecutionPlan getExecutionPlan() {
+        return executionPlan;
+    }
+
+    @Override
+    public String toString() {
+        return "saturation=" + saturationTime + "s (" + conclusionCount + " conclusions, " + (consistent ? "consistent" : "inconsistent")
+            + "), taxonomy=" + taxonomyBuildingTime + "s";
+    }
+}
@@ -0,0 +1,140 @@
+package com.elppreasoner.reasoning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.elppreasoner.reasoning.ExecutionPlan.SaturationStrategy;
+import com.elppreasoner.reasoning.rules.IntersectionSuperclassesInferenceRule;
+import com.elppreasoner.saturation.DatalogSaturationEngine;
+import com.reasoner.querying.OntologyStatistics;
+
+/**
+ * <p>The {@code CostModel} chooses how an ontology is classified from a few cheap statistics about its axioms (see {@link OntologyStatistics}),
+ * so that small ontologies do not pay for starting threads they cannot keep busy. The work of the saturation is estimated as</p>
+ *
+ * <p>    axioms × (1 + existential depth) + conjunctions × conjunction fan-out</p>
+ *
+ * <p>since every level of existentials adds a round of links between the contexts, and every operand of a conjunction is checked against
+ * all the conjunctions it takes part in. Then:
+ * <ul>
+ *     <li>the saturation is performed by one thread for every {@value #WORK_PER_SATURATION_THREAD} units of work, up to the number of
+ *       processors;</li>
+ *     <li>the {@link DatalogSaturationEngine} saturates the ontology, unless the saturation has to be updated incrementally, the reasoner
+ *       applies rules that the engine does not know (e.g. rules provided through a service), or the ontology has more than
+ *       {@value #DATALOG_MAX_INDIVIDUALS} individuals, since the engine evaluates the nominals on the full relations every time the other
+ *       rules reach a fixpoint;</li>
+ *     <li>the transitive subsumptions of the taxonomy are reduced by one thread for every {@value #CONCEPTS_PER_TAXONOMY_THREAD} concepts,
+ *       up to the number of processors.</li>
+ * </ul>
+ * The statistics and the decisions are logged at debug level, so that the thresholds can be tuned.</p>
+ */
+public class CostModel {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CostModel.class);
+
+    /**
+     * The estimated work that makes it worth starting another saturation thread.
+     */
+    public static final int WORK_PER_SATURATION_THREAD = 50_000;
+
+    /**
+     * The number of concepts that makes it worth starting another thread to reduce the transitive subsumptions.
+     */
+    public static final int CONCEPTS_PER_TAXONOMY_THREAD = 10_000;
+
+    /**
+     * The largest number of individuals for which the {@link DatalogSaturationEngine} is chosen.
+     */
+    public static final int DATALOG_MAX_INDIVIDUALS = 1_000;
+
+    /**
+     * The largest existential depth that is taken into account: deeper chains, e.g. cycles of existentials, do not add more rounds.
+     */
+    private static final int MAX_EXISTENTIAL_DEPTH = 16;
+
+    /**
+     * The number of processors available to the threads.
+     */
+    private final int processors;
+
+    /**
+     * Creates a cost model that uses the processors available to the JVM.
+     */
+    public CostModel() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a cost model that uses at most the given number of processors.
+     * @param processors The number of processors, at least 1
+     */
+    public CostModel(int processors) {
+        if (processors < 1) {
+            throw new IllegalArgumentException("The number of processors must be at least 1.");
+        }
+        this.processors = processors;
+    }
+
+    /**
+     * Chooses how to classify an ontology with the given statistics.
+     * @param statistics The statistics of the ontology
+     * @param incremental Whether the saturation is expected to be updated incrementally, e.g. because the changes to the ontology are not buffered
+     * @return The execution plan
+     */
+    public ExecutionPlan plan(OntologyStatistics statistics, boolean incremental) {
+        return plan(statistics, incremental, false);
+    }
+
+    /**
+     * Chooses how to classify an ontology with the given statistics.
+     * @param statistics The statistics of the ontology
+     * @param incremental Whether the saturation is expected to be updated incrementally, e.g. because the changes to the ontology are not buffered
+     * @param customRules Whether the reasoner applies rules besides the completion rules, which only the contexts apply
+     * @return The execution plan
+     */
+    public ExecutionPlan plan(OntologyStatistics statistics, boolean incremental, boolean customRules) {
+        long work = estimateWork(statistics);
+        int saturationThreads = threads(work, WORK_PER_SATURATION_THREAD);
+
+        SaturationStrategy saturationStrategy;
+        String reason;
+        if (incremental) {
+            saturationStrategy = SaturationStrategy.CONTEXTS;
+            reason = "the saturation is updated incrementally";
+        } else if (customRules) {
+            saturationStrategy = SaturationStrategy.CONTEXTS;
+            reason = "rules besides the completion rules";
+        } else if (statistics.getIndividualCount() > DATALOG_MAX_INDIVIDUALS) {
+            saturationStrategy = SaturationStrategy.CONTEXTS;
+            reason = statistics.getIndividualCount() + " individuals";
+        } else {
+            saturationStrategy = SaturationStrategy.DATALOG;
+            reason = "bulk saturation";
+        }
+
+        int taxonomyThreads = threads(statistics.getConceptCount(), CONCEPTS_PER_TAXONOMY_THREAD);
+
+        ExecutionPlan plan = new ExecutionPlan(saturationThreads, saturationStrategy, taxonomyThreads);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Ontology statistics: {}", statistics);
+            LOGGER.debug("Estimated saturation work: {} ({} processor(s))", work, processors);
+            LOGGER.debug("Saturation strategy: {} ({})", saturationStrategy, reason);
+            LOGGER.debug("Execution plan: {}", plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Estimates the work of the saturation of an ontology with the given statistics.
+     * @param statistics The statistics of the ontology
+     * @return The estimated work
+     */
+    public long estimateWork(OntologyStatistics statistics) {
+        long depth = Math.min(statistics.getExistentialDepth(), MAX_EXISTENTIAL_DEPTH);
+        long conjunctions = statistics.getAxiomCount(IntersectionSuperclassesInferenceRule.class);
+        return statistics.getAxiomCount() * (1 + depth) + conjunctions * statistics.getConjunctionFanOut();
+    }
+
+    private int threads(long work, long workPerThread) {
+        return (int) Math.max(1, Math.min(processors, work / workPerThread));
+    }
+}
@@ -1,50 +1,98 @@
 package com.elppreasoner.reasoning;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.ServiceLoader;
 import java.util.Set;
-
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLDataProperty;
 import org.semanticweb.owlapi.model.OWLDataPropertyExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
 import org.semanticweb.owlapi.model.OWLLiteral;
 import org.semanticweb.owlapi.model.OWLNamedIndividual;
 import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.OWLOntologyChangeListener;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 import org.semanticweb.owlapi.reasoner.BufferingMode;
 import org.semanticweb.owlapi.reasoner.FreshEntityPolicy;
+import org.semanticweb.owlapi.reasoner.InconsistentOntologyException;
 import org.semanticweb.owlapi.reasoner.IndividualNodeSetPolicy;
 import org.semanticweb.owlapi.reasoner.InferenceType;
 import org.semanticweb.owlapi.reasoner.Node;
 import org.semanticweb.owlapi.reasoner.NodeSet;
+import org.semanticweb.owlapi.reasoner.NullReasonerProgressMonitor;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+import org.semanticweb.owlapi.reasoner.ReasonerProgressMonitor;
+import org.semanticweb.owlapi.reasoner.TimeOutException;
 import org.semanticweb.owlapi.reasoner.UnsupportedEntailmentTypeException;
 import org.semanticweb.owlapi.reasoner.impl.OWLClassNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLObjectPropertyNode;
+import org.semanticweb.owlapi.reasoner.impl.OWLObjectPropertyNodeSet;
 import org.semanticweb.owlapi.util.Version;
 
 import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.normalization.RoleRanges;
 import com.elppreasoner.normalization.NormalizationUtilities;
 import com.elppreasoner.reasoning.rules.BottomSuperclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.DisjointClassesInferenceRule;
+import com.elppreasoner.reasoning.rules.FusedSubsumerInferenceRule;
 import com.elppreasoner.reasoning.rules.IntersectionSuperclassesInferenceRule;
 import com.elppreasoner.reasoning.rules.NominalChainExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.RoleChainExpansionInferenceRule;
 import com.elppreasoner.reasoning.rules.SubclassRoleExpansionInferenceRule;
 import com.elppreasoner.reasoning.rules.SuperclassRoleExpansionInferenceRule;
 import com.elppreasoner.reasoning.rules.ToldSuperclassesInferenceRule;
+import com.elppreasoner.saturation.DatalogSaturationEngine;
+import com.elppreasoner.saturation.SaturationUtilities;
 import com.elppreasoner.taxonomy.ELPPTaxonomyBuilder;
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.querying.OntologyFeatures;
+import com.reasoner.querying.OntologyStatistics;
+import com.reasoner.querying.RoleHierarchy;
 import com.reasoner.reasoning.Reasoner;
+import com.reasoner.reasoning.WorkerPool;
+import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.saturation.OntologySaturator;
+import com.reasoner.saturation.SaturationEngine;
+import com.reasoner.saturation.TaskSaturationExecutor;
 import com.reasoner.taxonomy.Taxonomy;
 import com.reasoner.taxonomy.TaxonomyBuilder;
 
 /**
  * ELPP reasoner implementation. <p>
+ * Besides the completion rules, the reasoner registers the rules provided through the {@link ServiceLoader} of {@link InferenceRule},
+ * i.e. listed in {@code META-INF/services/com.reasoner.reasoning.rules.InferenceRule}. Every reasoner gets new instances, since a rule
+ * keeps the index of the axioms of its ontology. These rules are not applied by the {@link DatalogSaturationEngine}: when such a rule is
+ * registered, the engine cannot be set (see {@link #setSaturationEngine(SaturationEngine)}) and the cost model keeps the contexts.
  */
 public class ELPPReasoner extends Reasoner {
     /**
@@ -52,11 +100,70 @@ public class ELPPReasoner extends Reasoner {
      */
     private final ELPPTaxonomyBuilder taxonomyBuilder;
 
+    /**
+     * The tenant of the shared pool whose workers run the saturation and the taxonomy reduction, or {@code null} if the reasoner starts its
+     * own threads.
+     */
+    private WorkerPool.Tenant workerPoolTenant = null;
+
     /**
      * The {@link Taxonomy} built in {@code computeClassHierarchy()}.
      */
     private Taxonomy taxonomy = null;
 
+    /**
+     * The conclusions of the last saturation, or {@code null} if the ontology has not been saturated yet.
+     */
+    private Set<OWLSubClassOfAxiom> conclusions = null;
+
+    /**
+     * Whether the ontology is consistent, or {@code null} if the ontology has not been saturated yet.
+     */
+    private Boolean consistent = null;
+
+    /**
+     * The partial taxonomies built by the goal-directed saturation, one for each queried class. They are only used while no full taxonomy has
+     * been computed.
+     */
+    private final Map<OWLClassExpression, Taxonomy> queryTaxonomies = new HashMap<>();
+
+    /**
+     * The ranges of the roles of the root ontology, which the normalization of the added axioms applies, or {@code null} if they have to be
+     * indexed again, e.g. because the role axioms or the range axioms have changed.
+     */
+    private volatile RoleRanges roleRanges = null;
+
+    /**
+     * The buffering mode of this reasoner: in {@code BUFFERING} mode the changes to the ontology are only taken into account when
+     * {@code flush()} is called, while in {@code NON_BUFFERING} mode they are taken into account as soon as they are applied.
+     */
+    private final BufferingMode bufferingMode;
+
+    /**
+     * The changes to the root ontology that have not been taken into account yet.
+     */
+    private final List<OWLOntologyChange> pendingChanges = new ArrayList<>();
+
+    /**
+     * The listener that collects the changes to the root ontology.
+     */
+    private final OWLOntologyChangeListener ontologyChangeListener = this::collectChanges;
+
+    /**
+     * The names of the classes of the rules registered through the {@link InferenceRule} service.
+     */
+    private final Set<String> serviceRules = new LinkedHashSet<>();
+
+    /**
+     * The cost model that chooses how the ontology is classified, or {@code null} if the modes given to the constructor are used.
+     */
+    private CostModel costModel = null;
+
+    /**
+     * The execution plan chosen by the {@code costModel} for the last saturation from scratch, or {@code null} if none has been chosen yet.
+     */
+    private ExecutionPlan executionPlan = null;
+
     /**
      * The time elapsed to saturate the given ontology, in seconds. 
      */
@@ -67,6 +174,56 @@ public class ELPPReasoner extends Reasoner {
      */
     private double taxonomyBuildingTime;
 
+    /**
+     * The maximum time of a classification, in milliseconds, or {@code Long.MAX_VALUE} if it is never stopped.
+     */
+    private long timeOut = Long.MAX_VALUE;
+
+    /**
+     * Whether a classification that exceeds the {@code timeOut} while saturating the ontology builds a partial taxonomy, instead of throwing
+     * a {@link TimeOutException}.
+     */
+    private boolean partialTaxonomyOnTimeOut = false;
+
+    /**
+     * Whether the {@code taxonomy} has been built from the conclusions derived before the time-out, so that some subsumptions may be missing.
+     */
+    private boolean partialTaxonomy = false;
+
+    /**
+     * The monitor notified of the progress of the classifications.
+     */
+    private ReasonerProgressMonitor progressMonitor = new NullReasonerProgressMonitor();
+
+    /**
+     * Whether a classification is running, so that it can be stopped.
+     */
+    private volatile boolean classifying = false;
+
+    /**
+     * Why the running classification has to stop, or {@code null} if it goes on.
+     */
+    private volatile StopReason stopReason = null;
+
+    /**
+     * The reasons why a classification is stopped before it is over.
+     */
+    private enum StopReason {
+        INTERRUPTED,
+        TIMED_OUT
+    }
+
+    /**
+     * The scheduler of the time-outs of all the reasoners. Its thread is a daemon, started by the first time-out.
+     */
+    private static final ScheduledThreadPoolExecutor TIME_OUT_SCHEDULER = createTimeOutScheduler();
+
+    /**
+     * The daemon threads that run the asynchronous classifications of all the reasoners (see {@link #precomputeInferencesAsync(InferenceType...)}).
+     * They are reused, and stop once they have been idle for a minute.
+     */
+    private static final ExecutorService CLASSIFICATION_EXECUTOR = createClassificationExecutor();
+
     /**
      * Exception message to throw when a taxonomy has not been computed yet.
      */
@@ -79,9 +236,23 @@ public class ELPPReasoner extends Reasoner {
      * @param ontologyAccessor
      */
     public ELPPReasoner(OWLOntology ontology, boolean saturationConcurrentMode, boolean taxonomyConcurrentMode) {
+        this(ontology, saturationConcurrentMode, taxonomyConcurrentMode, BufferingMode.BUFFERING);
+    }
+
+    /**
+     * Creates a new ELPP reasoner with the given buffering mode. The reasoner listens to the changes to the given ontology: only the
+     * additions and removals of {@code SubClassOf} and {@code EquivalentClasses} axioms are taken into account.
+     * @param ontology The root ontology
+     * @param saturationConcurrentMode Whether the saturation is performed in parallel
+     * @param taxonomyConcurrentMode Whether the taxonomy is built in parallel
+     * @param bufferingMode The buffering mode of the reasoner
+     */
+    public ELPPReasoner(OWLOntology ontology, boolean saturationConcurrentMode, boolean taxonomyConcurrentMode, BufferingMode bufferingMode) {
         super(ontology, saturationConcurrentMode);
         taxonomyBuilder = new ELPPTaxonomyBuilder(taxonomyConcurrentMode);
+        this.bufferingMode = bufferingMode;
         initializeInferenceRules();
+        ontology.getOWLOntologyManager().addOntologyChangeListener(ontologyChangeListener);
     }
 
     /**
@@ -108,35 +279,764 @@ public class ELPPReasoner extends Reasoner {
         return taxonomyBuildingTime;
     }
 
+    /**
+     * Sets the engine that saturates the whole ontology (see {@link OntologySaturator#setSaturationEngine(SaturationEngine)}), e.g. a
+     * {@link DatalogSaturationEngine}. By default ({@code null}), the ontology is saturated through the contexts. The inferences computed so
+     * far are discarded.
+     * @param saturationEngine The saturation engine, or {@code null} to saturate through the contexts
+     * @throws IllegalStateException If the engine is a {@link DatalogSaturationEngine} and rules have been provided through the
+     * {@link InferenceRule} service, since the engine would ignore them
+     */
+    public void setSaturationEngine(SaturationEngine saturationEngine) {
+        if (saturationEngine instanceof DatalogSaturationEngine && !serviceRules.isEmpty()) {
+            throw new IllegalStateException("The DatalogSaturationEngine does not apply the rules provided through the InferenceRule service: "
+                + serviceRules);
+        }
+        getOntologySaturator().setSaturationEngine(saturationEngine);
+        resetInferences();
+    }
+
+    /**
+     * Runs the saturation through the contexts and the reduction of the taxonomy on the workers of a {@link WorkerPool} shared by several
+     * reasoners, through the given tenant, instead of starting threads: the tenant sets the priority of the reasoner and the maximum number
+     * of its tasks that run at the same time. The reasoner must not be queried from a worker of the pool.
+     * @param tenant The tenant of this reasoner, or {@code null} to start the threads of the reasoner
+     */
+    public void setWorkerPool(WorkerPool.Tenant tenant) {
+        this.workerPoolTenant = tenant;
+        getOntologySaturator().setSaturationExecutor(tenant == null ? null : new TaskSaturationExecutor(tenant));
+        taxonomyBuilder.setExecutor(tenant);
+    }
+
+    public WorkerPool.Tenant getWorkerPool() {
+        return workerPoolTenant;
+    }
+
+    /**
+     * Sets the maximum time of a classification, i.e. of {@code precomputeInferences(InferenceType.CLASS_HIERARCHY)} and of the queries that
+     * trigger it. Once it is exceeded, the saturation threads and the threads of the taxonomy builder stop as soon as they complete the axiom
+     * or the concept they are processing, and a {@link TimeOutException} is thrown, unless a partial taxonomy has been requested (see
+     * {@link #setPartialTaxonomyOnTimeOut(boolean)}).
+     * @param timeOut The time-out in milliseconds, or {@code Long.MAX_VALUE} to never stop the classification
+     */
+    public void setTimeOut(long timeOut) {
+        if (timeOut < 1) {
+            throw new IllegalArgumentException("The time-out must be at least 1 ms.");
+        }
+        this.timeOut = timeOut;
+    }
+
+    /**
+     * Sets whether a classification that exceeds the time-out while saturating the ontology builds a partial taxonomy instead of throwing a
+     * {@link TimeOutException}. The partial taxonomy is built from the conclusions derived so far: all its subsumptions hold, but some may be
+     * missing. It answers the queries until the changes to the ontology are flushed, while the class hierarchy is not considered precomputed:
+     * the next {@code precomputeInferences(InferenceType.CLASS_HIERARCHY)} saturates the ontology again. If the time-out is exceeded while the
+     * taxonomy is built, a {@link TimeOutException} is thrown anyway, but the conclusions of the saturation are kept.
+     * @param partialTaxonomyOnTimeOut Whether a partial taxonomy is built on time-out
+     */
+    public void setPartialTaxonomyOnTimeOut(boolean partialTaxonomyOnTimeOut) {
+        this.partialTaxonomyOnTimeOut = partialTaxonomyOnTimeOut;
+    }
+
+    public boolean isPartialTaxonomyOnTimeOut() {
+        return partialTaxonomyOnTimeOut;
+    }
+
+    /**
+     * Checks whether the taxonomy has been built from the conclusions derived before the time-out (see
+     * {@link #setPartialTaxonomyOnTimeOut(boolean)}).
+     * @return {@code true} if some subsumptions may be missing from the taxonomy; {@code false} otherwise
+     */
+    public boolean isPartialTaxonomy() {
+        return partialTaxonomy;
+    }
+
+    /**
+     * The class hierarchy is not precomputed while the taxonomy is partial (see {@link #isPartialTaxonomy()}).
+     */
+    @Override
+    public boolean isPrecomputed(InferenceType inferenceType) {
+        return super.isPrecomputed(inferenceType) && !(inferenceType == InferenceType.CLASS_HIERARCHY && partialTaxonomy);
+    }
+
+    /**
+     * Sets the monitor notified of the progress of the classifications: a task {@code ReasonerProgressMonitor.CLASSIFYING} is started by every
+     * classification, which is busy while the ontology is saturated and then makes progress in two steps, the saturation and the taxonomy.
+     * @param progressMonitor The monitor, or {@code null} to notify no monitor
+     */
+    public void setProgressMonitor(ReasonerProgressMonitor progressMonitor) {
+        this.progressMonitor = progressMonitor == null ? new NullReasonerProgressMonitor() : progressMonitor;
+    }
+
+    public ReasonerProgressMonitor getProgressMonitor() {
+        return progressMonitor;
+    }
+
+    /**
+     * Sets the cost model that chooses, before every saturation from scratch, the number of saturation threads, the saturation engine and the
+     * number of threads of the taxonomy builder (see {@link CostModel}), in place of the modes given to the constructor. The choices of the
+     * last plan are kept if the cost model is removed. The inferences computed so far are discarded.
+     * @param costModel The cost model, or {@code null} to keep the current modes
+     */
+    public void setCostModel(CostModel costModel) {
+        this.costModel = costModel;
+        resetInferences();
+    }
+
+    public CostModel getCostModel() {
+        return costModel;
+    }
+
+    /**
+     * Gets the execution plan chosen by the cost model for the last saturation from scratch.
+     * @return The execution plan, or {@code null} if no cost model has been used yet
+     */
+    public ExecutionPlan getExecutionPlan() {
+        return executionPlan;
+    }
+
     private void initializeInferenceRules(){
         // Add inference rules
-        addInferenceRule(new ToldSuperclassesInferenceRule()); // CR1
-        addInferenceRule(new IntersectionSuperclassesInferenceRule()); // CR2       
-        addInferenceRule(new SubclassRoleExpansionInferenceRule()); // CR3
+        ToldSuperclassesInferenceRule toldSuperclasses = new ToldSuperclassesInferenceRule();
+        IntersectionSuperclassesInferenceRule intersectionSuperclasses = new IntersectionSuperclassesInferenceRule();
+        SubclassRoleExpansionInferenceRule subclassRoleExpansion = new SubclassRoleExpansionInferenceRule();
+        addInferenceRule(toldSuperclasses); // CR1
+        addInferenceRule(intersectionSuperclasses); // CR2
+        addInferenceRule(subclassRoleExpansion); // CR3
         addInferenceRule(new SuperclassRoleExpansionInferenceRule()); // CR4
         addInferenceRule(new BottomSuperclassRoleExpansionInferenceRule()); // CR5
         addInferenceRule(new NominalChainExpansionInferenceRule()); // CR6
+        addInferenceRule(new RoleChainExpansionInferenceRule()); // CR11
+        addInferenceRule(new DisjointClassesInferenceRule()); // CR12
+
+        // CR1, CR2 and CR3 share their premise, so they are applied by a single context
+        addFusedInferenceRule(new FusedSubsumerInferenceRule(toldSuperclasses, intersectionSuperclasses, subclassRoleExpansion));
+
+        // Add the rules provided through the InferenceRule service, e.g. domain-specific ones
+        Set<Class<?>> registeredRules = new HashSet<>();
+        getOntologySaturator().getOntologyAccessManager().getRules().forEach(rule -> registeredRules.add(rule.getClass()));
+        for (InferenceRule inferenceRule : ServiceLoader.load(InferenceRule.class)) {
+            if (registeredRules.add(inferenceRule.getClass())) {
+                addInferenceRule(inferenceRule);
+                serviceRules.add(inferenceRule.getClass().getName());
+            }
+        }
 
         // Add inference calculators
         addInferenceCalculator(InferenceType.CLASS_HIERARCHY, this::computeClassHierarchy);
     }
 
     /**
-     * Saturates this reasoner's ontology and consequently computes the class hierarchy for the saturated ontology. Once the computation is over,
-     * the {@code taxonomy}, the {@code saturationTime} and the {@code taxonomyBuildingTime} are stored.
+     * Precomputes the given inferences in a daemon thread shared by the reasoners, so that the calling thread is not blocked (see
+     * {@link #precomputeInferencesAsync(Executor, InferenceType...)}). The classification waits for the saturation and the reduction of the
+     * taxonomy, which run on the {@link WorkerPool} of the reasoner if it has one: it is not a task of the pool, since a task of the pool
+     * must not wait for other tasks.
+     * @param inferenceTypes The inference types to precompute
+     * @return The future of the statistics of the classification
      */
-    private void computeClassHierarchy() {
-        double time;
+    public CompletableFuture<ClassificationStatistics> precomputeInferencesAsync(InferenceType... inferenceTypes) {
+        return precomputeInferencesAsync(CLASSIFICATION_EXECUTOR, inferenceTypes);
+    }
+
+    /**
+     * Precomputes the given inferences in a task of the given executor, like {@link #precomputeInferences(InferenceType...)}. The returned
+     * future completes with the statistics of the phases of the classification, or exceptionally if it fails. <p>
+     * Cancelling the future cancels the saturation (see {@link OntologySaturator#cancel()}): its threads stop as soon as they complete the
+     * axiom they are processing, and the inferences computed so far are discarded. The reasoner must not be used by other threads until the
+     * future completes. The executor must not be the {@link WorkerPool} of the reasoner, whose workers the classification waits for.
+     * @param executor The executor of the classification
+     * @param inferenceTypes The inference types to precompute
+     * @return The future of the statistics of the classification
+     */
+    public CompletableFuture<ClassificationStatistics> precomputeInferencesAsync(Executor executor, InferenceType... inferenceTypes) {
+        CompletableFuture<ClassificationStatistics> future = new CompletableFuture<>();
+        future.whenComplete((statistics, e) -> {
+            if (future.isCancelled()) {
+                getOntologySaturator().cancel();
+            }
+        });
+        executor.execute(() -> {
+            // Set before the future is checked, so that a cancellation that happens before the saturation starts is not lost
+            getOntologySaturator().setCancellation(future::isCancelled);
+            try {
+                if (future.isDone()) {
+                    return;
+                }
+                precomputeInferences(inferenceTypes);
+                if (future.isCancelled()) {
+                    // The future has been cancelled after the saturation
+                    resetInferences();
+                    return;
+                }
+                future.complete(new ClassificationStatistics(saturationTime, taxonomyBuildingTime,
+                    conclusions == null ? 0 : conclusions.size(), !Boolean.FALSE.equals(consistent), executionPlan));
+            } catch (CancellationException e) {
+                resetInferences();
+                future.cancel(false);
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            } finally {
+                getOntologySaturator().setCancellation(null);
+            }
+        });
+        return future;
+    }
 
-        // Saturation
-        time = System.nanoTime();
-        Set<OWLSubClassOfAxiom> conclusions = getOntologySaturator().saturate();
+    /**
+     * Saturates this reasoner's ontology. Once the saturation is over, the {@code conclusions}, the {@code saturationTime} and the
+     * consistency of the ontology are stored. The saturation stops as soon as an inconsistency is derived.
+     */
+    private void saturateOntology() {
+        if (costModel != null) {
+            applyExecutionPlan();
+        }
+        double time = System.nanoTime();
+        this.conclusions = getOntologySaturator().saturate();
         this.saturationTime = (System.nanoTime() - time) / 1_000_000_000;
+        this.consistent = !getOntologySaturator().isInconsistent();
+    }
+
+    /**
+     * Asks the cost model for an execution plan based on the statistics of the ontology, and applies it to the saturator and to the taxonomy
+     * builder. The saturation is expected to be updated incrementally in {@code NON_BUFFERING} mode.
+     */
+    private void applyExecutionPlan() {
+        OntologyStatistics statistics = new OntologyStatistics(getOntologySaturator().getOntologyAccessManager());
+        this.executionPlan = costModel.plan(statistics, bufferingMode == BufferingMode.NON_BUFFERING, !serviceRules.isEmpty());
+        getOntologySaturator().setThreadCount(executionPlan.getSaturationThreads());
+        getOntologySaturator().setSaturationEngine(executionPlan.getSaturationStrategy() == ExecutionPlan.SaturationStrategy.DATALOG
+            ? new DatalogSaturationEngine() : null);
+        taxonomyBuilder.setThreadCount(executionPlan.getTaxonomyThreads());
+    }
+
+    /**
+     * Saturates this reasoner's ontology (unless it has already been saturated) and consequently computes the class hierarchy for the saturated
+     * ontology. Once the computation is over, the {@code taxonomy}, the {@code saturationTime} and the {@code taxonomyBuildingTime} are stored.
+     * If the ontology is inconsistent, the taxonomy is not built. <p>
+     * The classification can be stopped by {@link #interrupt()} or by the time-out (see {@link #setTimeOut(long)}).
+     * @throws ReasonerInterruptedException if the classification has been interrupted
+     * @throws TimeOutException if the classification has exceeded the time-out and no partial taxonomy can be built
+     */
+    private void computeClassHierarchy() {
+        partialTaxonomy = false;
+        stopReason = null;
+        classifying = true;
+        ScheduledFuture<?> timer = startTimer();
+        taxonomyBuilder.setCancellation(() -> stopReason != null);
+        progressMonitor.reasonerTaskStarted(ReasonerProgressMonitor.CLASSIFYING);
+        boolean saturating = conclusions == null;
+        boolean partial = false;
+        try {
+            // Saturation
+            if (saturating) {
+                progressMonitor.reasonerTaskBusy();
+                saturateOntology();
+                if (stopReason != null) {
+                    // The classification has been stopped before the saturation started
+                    throw new CancellationException();
+                }
+                saturating = false;
+            }
+            progressMonitor.reasonerTaskProgressChanged(1, 2);
+
+            if (!consistent) {
+                this.taxonomy = null;
+                this.taxonomyBuildingTime = 0;
+                return;
+            }
 
-        // Taxonomy
-        time = System.nanoTime();
-        this.taxonomy = taxonomyBuilder.build(conclusions);
+            // Taxonomy
+            double time = System.nanoTime();
+            this.taxonomy = taxonomyBuilder.build(conclusions);
+            this.taxonomyBuildingTime = (System.nanoTime() - time) / 1_000_000_000;
+            progressMonitor.reasonerTaskProgressChanged(2, 2);
+        } catch (CancellationException e) {
+            StopReason reason = stopReason;
+            if (reason == null) {
+                // The saturation has been cancelled through precomputeInferencesAsync()
+                throw e;
+            }
+            if (reason != StopReason.TIMED_OUT || !partialTaxonomyOnTimeOut || !saturating) {
+                this.taxonomy = null;
+                if (reason == StopReason.TIMED_OUT) {
+                    throw new TimeOutException("The classification has exceeded the time-out of " + timeOut + " ms.");
+                }
+                throw new ReasonerInterruptedException("The classification has been interrupted.");
+            }
+            partial = true;
+        } finally {
+            classifying = false;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            taxonomyBuilder.setCancellation(null);
+            if (!partial) {
+                progressMonitor.reasonerTaskStopped();
+            }
+        }
+
+        // The partial taxonomy is built once the cancellation of the classification has been cleared
+        if (partial) {
+            try {
+                buildPartialTaxonomy();
+            } finally {
+                progressMonitor.reasonerTaskStopped();
+            }
+        }
+    }
+
+    /**
+     * Schedules the stop of the classification once the time-out is exceeded.
+     * @return The scheduled stop, to cancel once the classification is over, or {@code null} if there is no time-out
+     */
+    private ScheduledFuture<?> startTimer() {
+        if (timeOut == Long.MAX_VALUE) {
+            return null;
+        }
+        return TIME_OUT_SCHEDULER.schedule(() -> stop(StopReason.TIMED_OUT), timeOut, TimeUnit.MILLISECONDS);
+    }
+
+    private static ExecutorService createClassificationExecutor() {
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), task -> {
+            Thread thread = new Thread(task, "elpp-classification");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ScheduledThreadPoolExecutor createTimeOutScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "elpp-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most classifications are over before their time-out, which is then cancelled: it must not stay in the queue until it expires
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Stops the running classification, if any: the saturation is cancelled, and the taxonomy builder gives up as soon as it checks the
+     * {@code stopReason}.
+     * @param reason Why the classification is stopped
+     */
+    private void stop(StopReason reason) {
+        if (!classifying) {
+            return;
+        }
+        stopReason = reason;
+        getOntologySaturator().cancel();
+    }
+
+    /**
+     * Builds a partial taxonomy from the conclusions derived before the time-out: all its subsumptions hold, but some may be missing. Every
+     * class of the ontology has a node, even if its context has not been processed yet. The conclusions are not kept, so that the ontology is
+     * saturated again by the next classification. If an inconsistency has been derived, the ontology is inconsistent and no taxonomy is built.
+     */
+    private void buildPartialTaxonomy() {
+        Set<OWLSubClassOfAxiom> derivedConclusions = new HashSet<>(conclusions != null ? conclusions : getOntologySaturator().getDerivedConclusions());
+        resetInferences();
+        if (getOntologySaturator().isInconsistent()) {
+            this.consistent = false;
+            return;
+        }
+        OWLClass thing = OWLManager.getOWLDataFactory().getOWLThing();
+        getRootOntology().classesInSignature().forEach(owlClass -> {
+            derivedConclusions.add(OWLManager.getOWLDataFactory().getOWLSubClassOfAxiom(owlClass, owlClass));
+            derivedConclusions.add(OWLManager.getOWLDataFactory().getOWLSubClassOfAxiom(owlClass, thing));
+        });
+
+        double time = System.nanoTime();
+        this.taxonomy = taxonomyBuilder.build(derivedConclusions);
         this.taxonomyBuildingTime = (System.nanoTime() - time) / 1_000_000_000;
+        this.partialTaxonomy = true;
+    }
+
+    /**
+     * Forgets all the inferences computed so far: they are computed again from scratch by the next query.
+     */
+    private void resetInferences() {
+        this.conclusions = null;
+        this.consistent = null;
+        this.taxonomy = null;
+        this.queryTaxonomies.clear();
+        this.partialTaxonomy = false;
+        this.precomputedInferences.put(InferenceType.CLASS_HIERARCHY, false);
+    }
+
+    /**
+     * Collects the changes applied to the root ontology. In {@code NON_BUFFERING} mode, they are immediately flushed.
+     * @param changes The changes applied by the ontology manager
+     */
+    private void collectChanges(List<? extends OWLOntologyChange> changes) {
+        for (OWLOntologyChange change : changes) {
+            if (change.isAxiomChange() && Objects.equals(change.getOntology(), getRootOntology())) {
+                pendingChanges.add(change);
+            }
+        }
+        if (bufferingMode == BufferingMode.NON_BUFFERING) {
+            flush();
+        }
+    }
+
+    /**
+     * Normalizes an axiom added to the root ontology.
+     * @param axiom The added axiom
+     * @return The normal form of the given axiom
+     */
+    private Set<OWLSubClassOfAxiom> normalizeAddedAxiom(OWLAxiom axiom) {
+        Set<OWLAxiom> normalizedAxioms = new ELPPOntologyNormalizer().normalize(Collections.singleton(axiom), getRootOntology(), getRoleRanges());
+        Set<OWLSubClassOfAxiom> subClassOfAxioms = new HashSet<>();
+        for (OWLAxiom normalizedAxiom : normalizedAxioms) {
+            subClassOfAxioms.add((OWLSubClassOfAxiom) normalizedAxiom);
+        }
+        return subClassOfAxioms;
+    }
+
+    /**
+     * Gets the ranges of the roles of the root ontology. They are indexed the first time they are needed, and then kept until the role axioms
+     * or the range axioms change (see {@code flush()}).
+     * @return The ranges of the roles
+     */
+    private RoleRanges getRoleRanges() {
+        RoleRanges ranges = roleRanges;
+        if (ranges == null) {
+            ranges = RoleRanges.of(getRootOntology());
+            roleRanges = ranges;
+        }
+        return ranges;
+    }
+
+    /**
+     * <p>Takes into account the axioms added to the root ontology. Only the added axioms are normalized, and their normal form is inserted
+     * into the existing rule indexes. If the ontology has already been saturated, the new conclusions are derived by scheduling the added
+     * axioms into the already saturated contexts, and the taxonomy is updated only for the affected concepts.</p>
+     * 
+     * <p>Adding axioms cannot make an inconsistent ontology consistent, so nothing has to be computed in that case. If an added axiom
+     * introduces a new individual, the inferences are computed again from scratch, since the contexts of CR6 depend on all the conclusions.
+     * The same happens if the ontology has been saturated by a {@link SaturationEngine}, which keeps no contexts. If an added axiom uses a
+     * construct that does not occur in the ontology (see {@link OntologyFeatures}), the ontology is saturated again right away, since only
+     * the rules that could fire have contexts.</p>
+     * @param axioms The axioms added to the root ontology
+     */
+    private void addAxioms(Set<OWLAxiom> axioms) {
+        OntologyAccessManager ontologyAccessManager = getOntologySaturator().getOntologyAccessManager();
+        Set<OWLSubClassOfAxiom> normalizedAxioms = new HashSet<>();
+        boolean newConstructs = false;
+        for (OWLAxiom axiom : axioms) {
+            Set<OWLSubClassOfAxiom> normalizedAxiom = normalizeAddedAxiom(axiom);
+            newConstructs |= conclusions != null && !ontologyAccessManager.getFeatures().covers(normalizedAxiom);
+            ontologyAccessManager.addAxioms(axiom, normalizedAxiom);
+            normalizedAxioms.addAll(normalizedAxiom);
+        }
+        queryTaxonomies.clear();
+
+        if (conclusions == null || Boolean.FALSE.equals(consistent)) {
+            return;
+        }
+        if (!getOntologySaturator().isIncremental()) {
+            resetInferences();
+            return;
+        }
+        if (newConstructs) {
+            // The rules that could not fire on the ontology have no contexts to schedule the added axioms into
+            boolean classified = taxonomy != null;
+            resetInferences();
+            if (classified) {
+                precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            }
+            return;
+        }
+
+        for (OWLSubClassOfAxiom normalizedAxiom : normalizedAxioms) {
+            if (normalizedAxiom.individualsInSignature().anyMatch(individual -> !getOntologySaturator().getContextAccessManager().hasContexts(individual))) {
+                resetInferences();
+                return;
+            }
+        }
+
+        double time = System.nanoTime();
+        Set<OWLSubClassOfAxiom> affectedConclusions = getOntologySaturator().saturateAdditions(normalizedAxioms);
+        this.saturationTime = (System.nanoTime() - time) / 1_000_000_000;
+        if (getOntologySaturator().isInconsistent()) {
+            this.consistent = false;
+            this.taxonomy = null;
+            return;
+        }
+        conclusions.addAll(affectedConclusions);
+
+        if (taxonomy != null) {
+            time = System.nanoTime();
+            this.taxonomy = taxonomyBuilder.update(taxonomy, affectedConclusions, Collections.emptySet());
+            this.taxonomyBuildingTime = (System.nanoTime() - time) / 1_000_000_000;
+        }
+    }
+
+    /**
+     * <p>Takes into account the axioms removed from the root ontology, following the DRed (Delete and Rederive) approach. The normal forms that
+     * no longer follow from the ontology are removed from the rule indexes. If the ontology has already been saturated, the conclusions that may
+     * depend on them are over-deleted, together with the contexts that derived them, and then derived again from the remaining axioms: the other
+     * contexts are not processed again. Finally, the taxonomy is updated only for the affected concepts.</p>
+     *
+     * <p>The inferences are computed again from scratch if the ontology is inconsistent (removing axioms can make it consistent) or if it
+     * contains individuals, since the contexts of CR6 depend on all the conclusions, or if it has been saturated by a {@link SaturationEngine}.</p>
+     * @param axioms The axioms removed from the root ontology
+     */
+    private void removeAxioms(Set<OWLAxiom> axioms) {
+        OntologyAccessManager ontologyAccessManager = getOntologySaturator().getOntologyAccessManager();
+        Set<OWLSubClassOfAxiom> removedAxioms = new HashSet<>();
+        for (OWLAxiom axiom : axioms) {
+            removedAxioms.addAll(ontologyAccessManager.removeAxioms(axiom));
+        }
+        if (removedAxioms.isEmpty()) {
+            return;
+        }
+        queryTaxonomies.clear();
+
+        boolean hasIndividuals = getRootOntology().individualsInSignature().findAny().isPresent() ||
+            removedAxioms.stream().anyMatch(axiom -> axiom.individualsInSignature().findAny().isPresent());
+        if (conclusions == null || !Boolean.TRUE.equals(consistent) || hasIndividuals || !getOntologySaturator().isIncremental()) {
+            ontologyAccessManager.unindexAxioms(removedAxioms);
+            resetInferences();
+            return;
+        }
+
+        double time = System.nanoTime();
+        Set<OWLSubClassOfAxiom> affectedConclusions = getOntologySaturator().saturateRemovals(removedAxioms);
+        this.saturationTime = (System.nanoTime() - time) / 1_000_000_000;
+        Set<OWLSubClassOfAxiom> deletedConclusions = new HashSet<>(getOntologySaturator().getContextAccessManager().getOverDeletedAxioms());
+        conclusions.removeAll(deletedConclusions);
+        conclusions.addAll(affectedConclusions);
+
+        if (taxonomy != null) {
+            deletedConclusions.removeAll(affectedConclusions);
+            time = System.nanoTime();
+            this.taxonomy = taxonomyBuilder.update(taxonomy, affectedConclusions, deletedConclusions);
+            this.taxonomyBuildingTime = (System.nanoTime() - time) / 1_000_000_000;
+        }
+    }
+
+    /**
+     * <p>Opens a what-if transaction, that answers taxonomy queries as if the given axioms had been added to the root ontology. Neither the
+     * ontology nor the inferences of this reasoner are changed, unless the transaction is committed (see {@link ELPPReasonerTransaction}).
+     * The class hierarchy is computed first, if needed; pending changes are not taken into account.</p>
+     *
+     * <p>The added axioms are saturated on top of the current saturation, through an overlay of its contexts: a context is copied only when
+     * a new conclusion is scheduled into it (copy-on-write), and the taxonomy is extended in the same way. Their normal forms are inserted into
+     * the rule indexes only for the duration of the saturation, under the write lock of the indexes (see {@link OntologyAccessManager#getIndexLock()}):
+     * other transactions, flushes and saturations of this reasoner wait until it is over. If an added axiom introduces a new individual, the
+     * extended ontology is classified from scratch instead, since the contexts of CR6 depend on all the conclusions. The same happens if the
+     * ontology has been saturated by a {@link SaturationEngine}, or if an added axiom uses a construct that does not occur in the ontology.</p>
+     * @param axioms The axioms to add within the transaction. Only {@code SubClassOf} and {@code EquivalentClasses} axioms are taken into account.
+     * @return The opened transaction
+     */
+    public ELPPReasonerTransaction beginTransaction(Set<? extends OWLAxiom> axioms) {
+        if ((taxonomy == null || partialTaxonomy) && !Boolean.FALSE.equals(consistent)) {
+            precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        }
+        if (partialTaxonomy) {
+            throw new TimeOutException("A transaction needs the complete class hierarchy, which has not been computed within the time-out.");
+        }
+        if (!Boolean.TRUE.equals(consistent)) {
+            // Adding axioms cannot make an inconsistent ontology consistent
+            return new ELPPReasonerTransaction(this, axioms, null, null);
+        }
+
+        Set<OWLSubClassOfAxiom> normalizedAxioms = new HashSet<>();
+        for (OWLAxiom axiom : axioms) {
+            if (isReasonedAxiom(axiom)) {
+                normalizedAxioms.addAll(normalizeAddedAxiom(axiom));
+            }
+        }
+
+        // The axioms of the transaction are indexed while it is saturated: no other saturation or change of the indexes can happen meanwhile
+        Lock indexLock = getOntologySaturator().getOntologyAccessManager().getIndexLock().writeLock();
+        indexLock.lock();
+        try {
+            return beginTransaction(axioms, normalizedAxioms);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Opens a what-if transaction on the consistent, classified ontology (see {@code beginTransaction(Set<? extends OWLAxiom> axioms)}), while
+     * holding the write lock of the rule indexes.
+     * @param axioms The axioms to add within the transaction
+     * @param normalizedAxioms The normal form of the axioms that are taken into account
+     * @return The opened transaction
+     */
+    private ELPPReasonerTransaction beginTransaction(Set<? extends OWLAxiom> axioms, Set<OWLSubClassOfAxiom> normalizedAxioms) {
+        OntologyAccessManager ontologyAccessManager = getOntologySaturator().getOntologyAccessManager();
+        if (!getOntologySaturator().isIncremental() || !ontologyAccessManager.getFeatures().covers(normalizedAxioms)) {
+            return new ELPPReasonerTransaction(this, axioms, classifyWith(normalizedAxioms), taxonomy.getConceptToAllSuperConcepts());
+        }
+        for (OWLSubClassOfAxiom normalizedAxiom : normalizedAxioms) {
+            if (normalizedAxiom.individualsInSignature().anyMatch(individual -> !getOntologySaturator().getContextAccessManager().hasContexts(individual))) {
+                return new ELPPReasonerTransaction(this, axioms, classifyWith(normalizedAxioms), taxonomy.getConceptToAllSuperConcepts());
+            }
+        }
+
+        Set<OWLSubClassOfAxiom> indexedAxioms = new HashSet<>();
+        for (OWLSubClassOfAxiom normalizedAxiom : normalizedAxioms) {
+            if (!ontologyAccessManager.containsAxiom(normalizedAxiom)) {
+                indexedAxioms.add(normalizedAxiom);
+            }
+        }
+
+        OntologySaturator overlaySaturator = getOntologySaturator().createOverlay();
+        Set<OWLSubClassOfAxiom> affectedConclusions;
+        ontologyAccessManager.indexAxioms(indexedAxioms);
+        try {
+            affectedConclusions = overlaySaturator.saturateAdditions(normalizedAxioms);
+        } finally {
+            ontologyAccessManager.unindexAxioms(indexedAxioms);
+        }
+        if (overlaySaturator.isInconsistent()) {
+            return new ELPPReasonerTransaction(this, axioms, null, null);
+        }
+        Taxonomy extendedTaxonomy = taxonomyBuilder.extend(taxonomy, affectedConclusions);
+        return new ELPPReasonerTransaction(this, axioms, extendedTaxonomy, taxonomy.getConceptToAllSuperConcepts());
+    }
+
+    /**
+     * Classifies from scratch the ontology made of the axioms this reasoner works with and the given ones, without changing the root ontology.
+     * @param normalizedAxioms The additional axioms, in normal form
+     * @return The taxonomy of the extended ontology, or {@code null} if it is inconsistent
+     */
+    private Taxonomy classifyWith(Set<OWLSubClassOfAxiom> normalizedAxioms) {
+        OWLOntology extendedOntology;
+        try {
+            extendedOntology = OWLManager.createOWLOntologyManager().createOntology(
+                Stream.of(
+                    RoleHierarchy.AXIOM_TYPES.stream().flatMap(type -> getRootOntology().axioms(type)),
+                    getRootOntology().axioms(AxiomType.DISJOINT_CLASSES),
+                    getOntologySaturator().getOntologyAccessManager().axioms(),
+                    normalizedAxioms.stream()
+                ).flatMap(axioms -> axioms)
+            );
+        } catch (OWLOntologyCreationException e) {
+            throw new IllegalStateException(e);
+        }
+        ELPPReasoner reasoner = new ELPPReasoner(extendedOntology, false, false);
+        try {
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            return reasoner.isConsistent() ? reasoner.getTaxonomy() : null;
+        } finally {
+            reasoner.dispose();
+        }
+    }
+
+    /**
+     * Checks whether the given axiom is taken into account by this reasoner.
+     * @param axiom The axiom to check
+     * @return {@code true} if the axiom is a {@code SubClassOf}, {@code EquivalentClasses} or {@code ObjectPropertyDomain} axiom; {@code false} otherwise
+     */
+    private static boolean isReasonedAxiom(OWLAxiom axiom) {
+        return axiom.isOfType(AxiomType.SUBCLASS_OF) || axiom.isOfType(AxiomType.EQUIVALENT_CLASSES) || axiom.isOfType(AxiomType.OBJECT_PROPERTY_DOMAIN);
+    }
+
+    /**
+     * Checks whether the given axiom is a role axiom, i.e. it changes the role hierarchy (see {@link RoleHierarchy}).
+     * @param axiom The axiom to check
+     * @return {@code true} if the axiom is a role inclusion, a role chain or a transitive role axiom; {@code false} otherwise
+     */
+    private static boolean isRoleAxiom(OWLAxiom axiom) {
+        return RoleHierarchy.AXIOM_TYPES.contains(axiom.getAxiomType());
+    }
+
+    /**
+     * Checks that a taxonomy is available to answer a query.
+     * @throws InconsistentOntologyException if the ontology has been found inconsistent
+     * @throws NullTaxonomyException if no taxonomy has been computed yet
+     */
+    private void checkTaxonomy() {
+        if (Boolean.FALSE.equals(consistent)) {
+            throw new InconsistentOntologyException();
+        }
+        if (taxonomy == null) {
+            throw new NullTaxonomyException(TAXONOMY_NOT_COMPUTED_YET);
+        }
+    }
+
+    /**
+     * <p>Gets a taxonomy that can answer queries about the subsumers of the given class expression. If the class hierarchy has been computed,
+     * the full taxonomy is returned. Otherwise, if {@code ce} is a named class, a goal-directed saturation is performed: only the contexts of
+     * {@code ce} and of the concepts reachable from it through the rule indexes are activated, and a partial taxonomy is built from their
+     * conclusions. The partial taxonomy is complete for the subsumers of {@code ce} (but not for its subclasses) and it is cached.</p>
+     *
+     * <p>If a nominal is reachable from {@code ce}, the goal-directed saturation is not applicable and the full class hierarchy is computed.
+     * The same happens if the ontology has individuals and its consistency is not known yet: ⊤ is always saturated with {@code ce}, so that
+     * ⊤ ⊑ ⊥ is derived if the ontology entails it, but {a} ⊑ ⊥ needs the contexts of the individuals, which CR6 ties to the whole ontology.
+     * In both cases, an inconsistent ontology is detected before any answer is given.</p>
+     * @param ce The class expression whose subsumers are queried
+     * @return A taxonomy that contains all the subsumers of {@code ce}
+     * @throws InconsistentOntologyException if the ontology has been found inconsistent
+     * @throws NullTaxonomyException if {@code ce} is not a named class and no taxonomy has been computed yet
+     */
+    private Taxonomy getQueryTaxonomy(OWLClassExpression ce) {
+        if (taxonomy != null || !(ce instanceof OWLClass)) {
+            checkTaxonomy();
+            return taxonomy;
+        }
+        if (conclusions != null) {
+            // The ontology has already been saturated: the class hierarchy is built from its conclusions
+            precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            checkTaxonomy();
+            return taxonomy;
+        }
+        if (Boolean.FALSE.equals(consistent)) {
+            throw new InconsistentOntologyException();
+        }
+
+        Taxonomy queryTaxonomy = queryTaxonomies.get(ce);
+        if (queryTaxonomy != null) {
+            return queryTaxonomy;
+        }
+
+        prepareOntology();
+        OntologyAccessManager ontologyAccessManager = getOntologySaturator().getOntologyAccessManager();
+        if (!ontologyAccessManager.isIndexed()) {
+            ontologyAccessManager.precomputeAxioms();
+        }
+
+        boolean consistencyNeedsIndividuals = consistent == null && getRootOntology().individualsInSignature().findAny().isPresent();
+        Set<OWLEntity> goalEntities = consistencyNeedsIndividuals ? null : SaturationUtilities.computeGoalEntities(ontologyAccessManager, (OWLClass) ce);
+        if (goalEntities == null) {
+            precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            checkTaxonomy();
+            return taxonomy;
+        }
+
+        Set<OWLSubClassOfAxiom> partialConclusions = getOntologySaturator().saturate(goalEntities);
+        if (getOntologySaturator().isInconsistent()) {
+            this.consistent = false;
+            throw new InconsistentOntologyException();
+        }
+
+        queryTaxonomy = taxonomyBuilder.build(partialConclusions);
+        queryTaxonomies.put(ce, queryTaxonomy);
+        return queryTaxonomy;
+    }
+
+    /**
+     * Checks whether the subsumption A ⊑ B between two named classes is entailed, using the taxonomy returned by
+     * {@code getQueryTaxonomy(A)}.
+     * @param subclass The subclass A
+     * @param superclass The superclass B
+     * @return {@code true} if A ⊑ B is entailed; {@code false} otherwise
+     */
+    private boolean isSubsumedBy(OWLClass subclass, OWLClass superclass) {
+        if (superclass.isOWLThing() || subclass.equals(superclass) || subclass.isOWLNothing()) {
+            return true;
+        }
+        Taxonomy queryTaxonomy = getQueryTaxonomy(subclass);
+        Node<OWLClass> equivalentClasses = queryTaxonomy.getEquivalentClasses(subclass);
+        if (equivalentClasses.contains(superclass) || equivalentClasses.isBottomNode()) {
+            return true;
+        }
+        NodeSet<OWLClass> superClasses = queryTaxonomy.getSuperClasses(subclass, false);
+        return superClasses != null && superClasses.containsEntity(superclass);
     }
 
 
@@ -160,52 +1060,176 @@ public class ELPPReasoner extends Reasoner {
         return new Version(0, 0, 0, 0);
     }
     
+    /**
+     * Takes into account the pending changes to the root ontology. Both removals and additions are processed incrementally (see
+     * {@code removeAxioms()} and {@code addAxioms()}), in this order. If the role axioms (inclusions, chains, transitive roles) have changed,
+     * the role hierarchy is built again, and if the disjoint classes have changed, their groups are indexed again: in both cases, the
+     * inferences are computed again from scratch. The ranges of the roles are indexed again if the role axioms or the range axioms have
+     * changed.
+     */
     @Override
     public void flush() {
-        throw new UnsupportedOperationException("Unimplemented method 'flush'");
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+
+        // An axiom added and then removed (or vice versa) has no effect
+        Set<OWLAxiom> additions = new LinkedHashSet<>();
+        Set<OWLAxiom> removals = new LinkedHashSet<>();
+        boolean roleHierarchyChanged = false;
+        boolean disjointClassesChanged = false;
+        for (OWLOntologyChange change : pendingChanges) {
+            OWLAxiom axiom = change.getAxiom();
+            if (isRoleAxiom(axiom)) {
+                roleHierarchyChanged = true;
+                roleRanges = null;
+                continue;
+            }
+            if (axiom.isOfType(AxiomType.OBJECT_PROPERTY_RANGE)) {
+                // Only the axioms added from now on are rewritten with the new ranges
+                roleRanges = null;
+                continue;
+            }
+            if (axiom.isOfType(AxiomType.DISJOINT_CLASSES)) {
+                disjointClassesChanged = true;
+                continue;
+            }
+            if (!isReasonedAxiom(axiom)) {
+                continue;
+            }
+            if (change.isAddAxiom() && !removals.remove(axiom)) {
+                additions.add(axiom);
+            } else if (change.isRemoveAxiom() && !additions.remove(axiom)) {
+                removals.add(axiom);
+            }
+        }
+        pendingChanges.clear();
+
+        if (roleHierarchyChanged || disjointClassesChanged || partialTaxonomy) {
+            // The rule indexes are still updated below, but nothing is saturated incrementally (a partial taxonomy cannot be updated)
+            resetInferences();
+        }
+
+        OntologyAccessManager ontologyAccessManager = getOntologySaturator().getOntologyAccessManager();
+        Lock indexLock = ontologyAccessManager.getIndexLock().writeLock();
+        indexLock.lock();
+        try {
+            if (!removals.isEmpty()) {
+                removeAxioms(removals);
+            }
+
+            if (!additions.isEmpty()) {
+                addAxioms(additions);
+            }
+
+            if (roleHierarchyChanged) {
+                ontologyAccessManager.updateRoleHierarchy();
+            } else if (disjointClassesChanged) {
+                ontologyAccessManager.getRule(DisjointClassesInferenceRule.class).initialize(ontologyAccessManager);
+                ontologyAccessManager.invalidateFeatures();
+            }
+        } finally {
+            indexLock.unlock();
+        }
     }
 
     @Override
     public BufferingMode getBufferingMode() {
-        throw new UnsupportedOperationException("Unimplemented method 'getBufferingMode'");
+        return bufferingMode;
     }
 
     @Override
     public Set<OWLAxiom> getPendingAxiomAdditions() {
-        throw new UnsupportedOperationException("Unimplemented method 'getPendingAxiomAdditions'");
+        Set<OWLAxiom> additions = new HashSet<>();
+        for (OWLOntologyChange change : pendingChanges) {
+            if (change.isAddAxiom()) {
+                additions.add(change.getAxiom());
+            }
+        }
+        return additions;
     }
 
     @Override
     public Set<OWLAxiom> getPendingAxiomRemovals() {
-        throw new UnsupportedOperationException("Unimplemented method 'getPendingAxiomRemovals'");
+        Set<OWLAxiom> removals = new HashSet<>();
+        for (OWLOntologyChange change : pendingChanges) {
+            if (change.isRemoveAxiom()) {
+                removals.add(change.getAxiom());
+            }
+        }
+        return removals;
     }
 
     @Override
     public List<OWLOntologyChange> getPendingChanges() {
-        throw new UnsupportedOperationException("Unimplemented method 'getPendingChanges'");
+        return new ArrayList<>(pendingChanges);
     }
 
+    /**
+     * Interrupts the running classification, e.g. from another thread: the saturation threads and the threads of the taxonomy builder stop
+     * as soon as they complete the axiom or the concept they are processing, and the classification throws a
+     * {@link ReasonerInterruptedException}. Nothing happens if no classification is running.
+     */
     @Override
     public void interrupt() {
-        throw new UnsupportedOperationException("Unimplemented method 'interrupt'");
+        stop(StopReason.INTERRUPTED);
     }
 
-    // TODO: implement method?
+    /**
+     * Checks the consistency of the ontology. The ontology is inconsistent if and only if the saturation derives ⊤ ⊑ ⊥ or {a} ⊑ ⊥ for some
+     * individual a. If the ontology has not been saturated yet, it is saturated without building the taxonomy.
+     * @return {@code true} if the ontology is consistent; {@code false} otherwise
+     */
     @Override
     public boolean isConsistent() {
-        throw new UnsupportedOperationException("Unimplemented method 'isConsistent'");
+        if (consistent == null) {
+            prepareOntology();
+            saturateOntology();
+        }
+        return consistent;
     }
 
-    // TODO: implement method?
+    /**
+     * Checks whether a class expression is satisfiable, i.e. not equivalent to ⊥. A named class is satisfiable if its node is not the bottom
+     * node, which only needs a goal-directed saturation if the class hierarchy has not been computed (see {@code getQueryTaxonomy}). Any other
+     * class expression C is checked in a transaction that adds F ⊑ C for a fresh class F: C is satisfiable if and only if F is.
+     * @param classExpression The class expression to check
+     * @return {@code true} if the class expression is satisfiable; {@code false} otherwise
+     * @throws InconsistentOntologyException if the ontology is inconsistent
+     */
     @Override
-    public boolean isSatisfiable(OWLClassExpression classExpression) {        
-        throw new UnsupportedOperationException("Unimplemented method 'isSatisfiable'");
+    public boolean isSatisfiable(OWLClassExpression classExpression) {
+        if (classExpression instanceof OWLClass) {
+            // The node of a class that does not occur in the ontology is empty
+            return !getEquivalentClasses(classExpression).isBottomNode();
+        }
+
+        OWLClass freshClass = OWLManager.getOWLDataFactory().getOWLClass(IRI.create("urn:elpp:satisfiability#", UUID.randomUUID().toString()));
+        ELPPReasonerTransaction transaction = beginTransaction(
+            Collections.singleton(OWLManager.getOWLDataFactory().getOWLSubClassOfAxiom(freshClass, classExpression))
+        );
+        try {
+            if (!transaction.isConsistent()) {
+                throw new InconsistentOntologyException();
+            }
+            return !transaction.isSubsumedBy(freshClass, OWLManager.getOWLDataFactory().getOWLNothing());
+        } finally {
+            transaction.rollback();
+        }
     }
 
-    // TODO: implement method?
+    /**
+     * Gets the named classes that are unsatisfiable, i.e. the classes equivalent to ⊥. The class hierarchy is computed first, if needed.
+     * @return The bottom node
+     * @throws InconsistentOntologyException if the ontology is inconsistent
+     */
     @Override
     public Node<OWLClass> getUnsatisfiableClasses() {
-        throw new UnsupportedOperationException("Unimplemented method 'getUnsatisfiableClasses'");
+        if (taxonomy == null) {
+            precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        }
+        checkTaxonomy();
+        return taxonomy.getEquivalentClasses(OWLManager.getOWLDataFactory().getOWLNothing());
     }
 
     /**
@@ -236,16 +1260,16 @@ public class ELPPReasoner extends Reasoner {
             throw new UnsupportedEntailmentTypeException(axiom);
         }
 
-        if (taxonomy == null) {
-            throw new NullTaxonomyException(TAXONOMY_NOT_COMPUTED_YET);
-        }
-        
         AxiomType<?> axiomType = axiom.getAxiomType();
 
-        Map<OWLClass, OWLClassNode> classToNode = taxonomy.getClassToNode();
-
         if (Objects.equals(axiomType, AxiomType.SUBCLASS_OF)) {
             OWLSubClassOfAxiom subClassOfAxiom = (OWLSubClassOfAxiom) axiom;
+            if (subClassOfAxiom.getSubClass() instanceof OWLClass && subClassOfAxiom.getSuperClass() instanceof OWLClass) {
+                return isSubsumedBy((OWLClass) subClassOfAxiom.getSubClass(), (OWLClass) subClassOfAxiom.getSuperClass());
+            }
+
+            checkTaxonomy();
+            Map<OWLClass, OWLClassNode> classToNode = taxonomy.getClassToNode();
             if (NormalizationUtilities.isGCIInNormalForm(subClassOfAxiom)) {
                 return classToNode.containsKey(subClassOfAxiom.getSubClass()) && classToNode.containsKey(subClassOfAxiom.getSuperClass());
             }
@@ -254,6 +1278,7 @@ public class ELPPReasoner extends Reasoner {
         }
 
         if (Objects.equals(axiomType, AxiomType.EQUIVALENT_CLASSES)) {
+            checkTaxonomy();
             OWLEquivalentClassesAxiom equivalentClassesAxioms = (OWLEquivalentClassesAxiom) axiom;
             Iterator<OWLSubClassOfAxiom> it = equivalentClassesAxioms.asOWLSubClassOfAxioms().iterator();
             
@@ -281,42 +1306,30 @@ public class ELPPReasoner extends Reasoner {
 
     @Override
     public Node<OWLClass> getTopClassNode() {
-        if (taxonomy == null) {
-            throw new NullTaxonomyException(TAXONOMY_NOT_COMPUTED_YET);
-        }
+        checkTaxonomy();
         return taxonomy.getTopClassNode();
     }
 
     @Override
     public Node<OWLClass> getBottomClassNode() {
-        if (taxonomy == null) {
-            throw new NullTaxonomyException(TAXONOMY_NOT_COMPUTED_YET);
-        }
+        checkTaxonomy();
         return taxonomy.getBottomClassNode();
     }
 
     @Override
     public NodeSet<OWLClass> getSubClasses(OWLClassExpression ce, boolean direct) {
-        if (taxonomy == null) {
-            throw new NullTaxonomyException(TAXONOMY_NOT_COMPUTED_YET);
-        }
+        checkTaxonomy();
         return taxonomy.getSubClasses(ce, direct);
     }
 
     @Override
     public NodeSet<OWLClass> getSuperClasses(OWLClassExpression ce, boolean direct) {
-        if (taxonomy == null) {
-            throw new NullTaxonomyException(TAXONOMY_NOT_COMPUTED_YET);
-        }
-        return taxonomy.getSuperClasses(ce, direct);
+        return getQueryTaxonomy(ce).getSuperClasses(ce, direct);
     }
 
     @Override
     public Node<OWLClass> getEquivalentClasses(OWLClassExpression ce) {
-        if (taxonomy == null) {
-            throw new NullTaxonomyException(TAXONOMY_NOT_COMPUTED_YET);
-        }
-        return taxonomy.getEquivalentClasses(ce);
+        return getQueryTaxonomy(ce).getEquivalentClasses(ce);
     }
 
     @Override
@@ -324,29 +1337,91 @@ public class ELPPReasoner extends Reasoner {
         throw new UnsupportedOperationException("Unimplemented method 'getDisjointClasses'");
     }
 
+    /**
+     * Gets the role hierarchy of the ontology, taking the pending changes into account only once they are flushed.
+     * @return The role hierarchy
+     */
+    private RoleHierarchy getRoleHierarchy() {
+        return getOntologySaturator().getOntologyAccessManager().getRoleHierarchy();
+    }
+
+    /**
+     * Gets the node of the roles equivalent to the role with the given identifier.
+     * @param roleHierarchy The role hierarchy
+     * @param id The identifier of the role
+     * @return The node of the equivalent roles
+     */
+    private static Node<OWLObjectPropertyExpression> getObjectPropertyNode(RoleHierarchy roleHierarchy, int id) {
+        OWLObjectPropertyNode node = new OWLObjectPropertyNode();
+        for (int equivalentId : roleHierarchy.getEquivalentRoleIds(id)) {
+            node.add(roleHierarchy.getRole(equivalentId));
+        }
+        return node;
+    }
+
+    /**
+     * Gets the nodes of the roles with the given identifiers, except the ones equivalent to the role with identifier {@code excludedId}.
+     * @param roleHierarchy The role hierarchy
+     * @param ids The identifiers of the roles
+     * @param excludedId The identifier of the role whose equivalent roles are excluded
+     * @return The node set of the roles
+     */
+    private static NodeSet<OWLObjectPropertyExpression> getObjectPropertyNodeSet(RoleHierarchy roleHierarchy, int[] ids, int excludedId) {
+        OWLObjectPropertyNodeSet nodeSet = new OWLObjectPropertyNodeSet();
+        for (int id : ids) {
+            if (!roleHierarchy.isSubRole(id, excludedId) || !roleHierarchy.isSubRole(excludedId, id)) {
+                nodeSet.addNode(getObjectPropertyNode(roleHierarchy, id));
+            }
+        }
+        return nodeSet;
+    }
+
     @Override
     public Node<OWLObjectPropertyExpression> getTopObjectPropertyNode() {
-        throw new UnsupportedOperationException("Unimplemented method 'getTopObjectPropertyNode'");
+        return getObjectPropertyNode(getRoleHierarchy(), RoleHierarchy.TOP);
     }
 
     @Override
     public Node<OWLObjectPropertyExpression> getBottomObjectPropertyNode() {        
-        throw new UnsupportedOperationException("Unimplemented method 'getBottomObjectPropertyNode'");
+        return getObjectPropertyNode(getRoleHierarchy(), RoleHierarchy.BOTTOM);
     }
 
+    /**
+     * Gets the sub-roles of the given role, which are looked up in the precomputed closure of the role inclusions (see {@link RoleHierarchy}).
+     * A role that does not occur in the ontology has only the bottom role as sub-role.
+     */
     @Override
     public NodeSet<OWLObjectPropertyExpression> getSubObjectProperties(OWLObjectPropertyExpression pe, boolean direct) {        
-        throw new UnsupportedOperationException("Unimplemented method 'getSubObjectProperties'");
+        RoleHierarchy roleHierarchy = getRoleHierarchy();
+        int id = roleHierarchy.getId(pe);
+        if (id < 0) {
+            return new OWLObjectPropertyNodeSet(getBottomObjectPropertyNode());
+        }
+        return getObjectPropertyNodeSet(roleHierarchy, direct ? roleHierarchy.getDirectSubRoleIds(id) : roleHierarchy.getSubRoleIds(id), id);
     }
 
+    /**
+     * Gets the super-roles of the given role, which are looked up in the precomputed closure of the role inclusions (see {@link RoleHierarchy}).
+     * A role that does not occur in the ontology has only the top role as super-role.
+     */
     @Override
     public NodeSet<OWLObjectPropertyExpression> getSuperObjectProperties(OWLObjectPropertyExpression pe, boolean direct) {
-        throw new UnsupportedOperationException("Unimplemented method 'getSuperObjectProperties'");
+        RoleHierarchy roleHierarchy = getRoleHierarchy();
+        int id = roleHierarchy.getId(pe);
+        if (id < 0) {
+            return new OWLObjectPropertyNodeSet(getTopObjectPropertyNode());
+        }
+        return getObjectPropertyNodeSet(roleHierarchy, direct ? roleHierarchy.getDirectSuperRoleIds(id) : roleHierarchy.getSuperRoleIds(id), id);
     }
 
     @Override
     public Node<OWLObjectPropertyExpression> getEquivalentObjectProperties(OWLObjectPropertyExpression pe) {        
-        throw new UnsupportedOperationException("Unimplemented method 'getEquivalentObjectProperties'");
+        RoleHierarchy roleHierarchy = getRoleHierarchy();
+        int id = roleHierarchy.getId(pe);
+        if (id < 0) {
+            return new OWLObjectPropertyNode(pe);
+        }
+        return getObjectPropertyNode(roleHierarchy, id);
     }
 
     @Override
@@ -435,8 +1510,8 @@ public class ELPPReasoner extends Reasoner {
     }
 
     @Override
-    public long getTimeOut() {        
-        throw new UnsupportedOperationException("Unimplemented method 'getTimeOut'");
+    public long getTimeOut() {
+        return timeOut;
     }
 
     @Override
@@ -450,7 +1525,8 @@ public class ELPPReasoner extends Reasoner {
     }
 
     @Override
-    public void dispose() {        
-        throw new UnsupportedOperationException("Unimplemented method 'dispose'");
+    public void dispose() {
+        getRootOntology().getOWLOntologyManager().removeOntologyChangeListener(ontologyChangeListener);
+        pendingChanges.clear();
     }
 }
\ No newline at end of file
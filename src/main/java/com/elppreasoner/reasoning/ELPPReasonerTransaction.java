@@ -0,0 +1,194 @@
+package com.elppreasoner.reasoning;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.reasoner.InconsistentOntologyException;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.NodeSet;
+
+import com.reasoner.taxonomy.Taxonomy;
+
+/**
+ * <p>A what-if transaction opened by {@link ELPPReasoner#beginTransaction(Set)}. It answers taxonomy queries as if its axioms had been added
+ * to the root ontology, while neither the ontology nor the inferences of the reasoner are changed.</p>
+ *
+ * <p>A transaction is closed by either {@code commit()}, which actually adds its axioms to the root ontology, or {@code rollback()}, which
+ * just discards it. A transaction reflects the inferences of the reasoner at the time it was opened: it should be closed before the
+ * reasoner takes other changes into account.</p>
+ */
+public class ELPPReasonerTransaction {
+    /**
+     * The reasoner that opened this transaction.
+     */
+    private final ELPPReasoner reasoner;
+
+    /**
+     * The axioms added by this transaction.
+     */
+    private final Set<OWLAxiom> axioms;
+
+    /**
+     * The taxonomy of the root ontology extended with the {@code axioms}, or {@code null} if they make the ontology inconsistent.
+     */
+    private final Taxonomy taxonomy;
+
+    /**
+     * The superconcepts of the reasoner's taxonomy when this transaction was opened, used to compute the new subsumptions.
+     */
+    private final Map<OWLClassExpression, Set<OWLClassExpression>> baseSuperConcepts;
+
+    /**
+     * Whether this transaction has been committed or rolled back.
+     */
+    private boolean closed = false;
+
+    /**
+     * Creates a new transaction. Transactions are created by {@link ELPPReasoner#beginTransaction(Set)}.
+     * @param reasoner The reasoner that opened the transaction
+     * @param axioms The axioms added by the transaction
+     * @param taxonomy The extended taxonomy, or {@code null} if the axioms make the ontology inconsistent
+     * @param baseSuperConcepts The superconcepts of the reasoner's taxonomy, or {@code null} if the ontology is inconsistent
+     */
+    ELPPReasonerTransaction(ELPPReasoner reasoner, Set<? extends OWLAxiom> axioms, Taxonomy taxonomy, Map<OWLClassExpression, Set<OWLClassExpression>> baseSuperConcepts) {
+        this.reasoner = reasoner;
+        this.axioms = Collections.unmodifiableSet(new HashSet<>(axioms));
+        this.taxonomy = taxonomy;
+        this.baseSuperConcepts = baseSuperConcepts;
+    }
+
+    /**
+     * Gets the axioms added by this transaction.
+     * @return The added axioms
+     */
+    public Set<OWLAxiom> getAxioms() {
+        return axioms;
+    }
+
+    /**
+     * Checks whether the root ontology is still consistent with the axioms of this transaction.
+     * @return {@code true} if the extended ontology is consistent; {@code false} otherwise
+     */
+    public boolean isConsistent() {
+        checkOpen();
+        return taxonomy != null;
+    }
+
+    /**
+     * Gets the taxonomy of the root ontology extended with the axioms of this transaction.
+     * @return The extended taxonomy
+     * @throws InconsistentOntologyException if the axioms make the ontology inconsistent
+     */
+    public Taxonomy getTaxonomy() {
+        checkOpen();
+        if (taxonomy == null) {
+            throw new InconsistentOntologyException();
+        }
+        return taxonomy;
+    }
+
+    public NodeSet<OWLClass> getSuperClasses(OWLClassExpression ce, boolean direct) {
+        return getTaxonomy().getSuperClasses(ce, direct);
+    }
+
+    public NodeSet<OWLClass> getSubClasses(OWLClassExpression ce, boolean direct) {
+        return getTaxonomy().getSubClasses(ce, direct);
+    }
+
+    public Node<OWLClass> getEquivalentClasses(OWLClassExpression ce) {
+        return getTaxonomy().getEquivalentClasses(ce);
+    }
+
+    /**
+     * Checks whether the subsumption A ⊑ B between two named classes is entailed within this transaction.
+     * @param subclass The subclass A
+     * @param superclass The superclass B
+     * @return {@code true} if A ⊑ B is entailed; {@code false} otherwise
+     */
+    public boolean isSubsumedBy(OWLClass subclass, OWLClass superclass) {
+        Taxonomy extendedTaxonomy = getTaxonomy();
+        if (superclass.isOWLThing() || subclass.equals(superclass) || subclass.isOWLNothing()) {
+            return true;
+        }
+        if (!extendedTaxonomy.getClassToNode().containsKey(subclass)) {
+            return false;
+        }
+        Node<OWLClass> equivalentClasses = extendedTaxonomy.getEquivalentClasses(subclass);
+        if (equivalentClasses.contains(superclass) || equivalentClasses.isBottomNode()) {
+            return true;
+        }
+        NodeSet<OWLClass> superClasses = extendedTaxonomy.getSuperClasses(subclass, false);
+        return superClasses != null && superClasses.containsEntity(superclass);
+    }
+
+    /**
+     * <p>Gets the subsumptions A ⊑ B between named classes that are entailed within this transaction, but not by the reasoner. Trivial
+     * subsumptions (A ⊑ A, A ⊑ ⊤, ⊥ ⊑ A) are not included, while a new unsatisfiable class A is reported as A ⊑ ⊥.</p>
+     *
+     * <p>The superconcepts of the extended taxonomy are copied from the reasoner's taxonomy only when they change, so only the changed
+     * ones have to be compared.</p>
+     * @return The new subsumptions
+     * @throws InconsistentOntologyException if the axioms make the ontology inconsistent
+     */
+    public Set<OWLSubClassOfAxiom> getNewSubsumptions() {
+        Map<OWLClassExpression, Set<OWLClassExpression>> superConcepts = getTaxonomy().getConceptToAllSuperConcepts();
+        OWLDataFactory factory = OWLManager.getOWLDataFactory();
+        Set<OWLSubClassOfAxiom> newSubsumptions = new HashSet<>();
+        superConcepts.forEach((concept, conceptSuperConcepts) -> {
+            Set<OWLClassExpression> baseConceptSuperConcepts = baseSuperConcepts.get(concept);
+            if (conceptSuperConcepts == baseConceptSuperConcepts || !(concept instanceof OWLClass) || concept.isOWLNothing()) {
+                return;
+            }
+            for (OWLClassExpression superConcept : conceptSuperConcepts) {
+                if (superConcept instanceof OWLClass && !superConcept.isOWLThing() && !superConcept.equals(concept) &&
+                        (baseConceptSuperConcepts == null || !baseConceptSuperConcepts.contains(superConcept))) {
+                    newSubsumptions.add(factory.getOWLSubClassOfAxiom(concept, superConcept));
+                }
+            }
+        });
+        return newSubsumptions;
+    }
+
+    /**
+     * Commits this transaction: its axioms are added to the root ontology and the reasoner is flushed, so that its inferences match the
+     * ones of this transaction. Any other pending change of the reasoner is flushed too.
+     */
+    public void commit() {
+        checkOpen();
+        closed = true;
+        OWLOntology ontology = reasoner.getRootOntology();
+        ontology.getOWLOntologyManager().addAxioms(ontology, axioms.stream());
+        reasoner.flush();
+    }
+
+    /**
+     * Discards this transaction. Neither the root ontology nor the reasoner are changed.
+     */
+    public void rollback() {
+        checkOpen();
+        closed = true;
+    }
+
+    /**
+     * Checks whether this transaction has been committed or rolled back.
+     * @return {@code true} if the transaction is closed; {@code false} otherwise
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("This transaction has already been committed or rolled back.");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.elppreasoner.reasoning;
+
+import com.elppreasoner.saturation.DatalogSaturationEngine;
+
+/**
+ * The decisions of a {@link CostModel} about how an ontology is classified: the number of threads that saturate it, the engine that
+ * saturates it and the number of threads that reduce the transitive subsumptions of the taxonomy.
+ */
+public final class ExecutionPlan {
+
+    /**
+     * The engine that saturates the whole ontology.
+     */
+    public enum SaturationStrategy {
+        /**
+         * The context-based saturation, which can be updated incrementally.
+         */
+        CONTEXTS,
+        /**
+         * The bulk saturation of the {@link DatalogSaturationEngine}, which has to be computed again after every change.
+         */
+        DATALOG
+    }
+
+    private final int saturationThreads;
+    private final SaturationStrategy saturationStrategy;
+    private final int taxonomyThreads;
+
+    public ExecutionPlan(int saturationThreads, SaturationStrategy saturationStrategy, int taxonomyThreads) {
+        this.saturationThreads = saturationThreads;
+        this.saturationStrategy = saturationStrategy;
+        this.taxonomyThreads = taxonomyThreads;
+    }
+
+    public int getSaturationThreads() {
+        return saturationThreads;
+    }
+
+    public SaturationStrategy getSaturationStrategy() {
+        return saturationStrategy;
+    }
+
+    public int getTaxonomyThreads() {
+        return taxonomyThreads;
+    }
+
+    @Override
+    public String toString() {
+        return "saturation=" + saturationStrategy + " with " + saturationThreads + " thread(s), taxonomy reduction with " + taxonomyThreads + " thread(s)";
+    }
+}
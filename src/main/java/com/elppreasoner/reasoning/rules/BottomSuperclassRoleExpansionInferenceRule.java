@@ -4,6 +4,7 @@ import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassAB
 import static com.elppreasoner.normalization.NormalizationUtilities.isSuperclassABasicConcept;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -11,12 +12,15 @@ import java.util.Set;
 
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLObjectOneOf;
 import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
 
 import com.elppreasoner.saturation.contexts.BottomSuperclassRoleExpansionIRContext;
+import com.reasoner.querying.OntologyFeatures;
+import com.reasoner.reasoning.rules.AxiomShape;
 import com.reasoner.reasoning.rules.InferenceRule;
 import com.reasoner.saturation.InferenceRuleContext;
 
@@ -31,6 +35,26 @@ public class BottomSuperclassRoleExpansionInferenceRule extends InferenceRule<Ob
         addEntityType(OWLIndividual.class);
     }
 
+    @Override
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.of(AxiomShape.BOTTOM, AxiomShape.LINK);
+    }
+
+    @Override
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.of(AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public InferenceRuleContext<Object,Object> createContext(OWLEntity entity) {
+        return new BottomSuperclassRoleExpansionIRContext(this, entity);
+    }
+
+    @Override
+    public boolean canFire(OntologyFeatures features) {
+        return features.hasExistentialSuperclasses() && (features.hasBottom() || features.hasDisjointClasses());
+    }
+
     @Override
     public boolean axiomCriterion(OWLClassExpression subclass, OWLClassExpression superclass) {
         return false; //TODO: FALSE?
@@ -41,6 +65,11 @@ public class BottomSuperclassRoleExpansionInferenceRule extends InferenceRule<Ob
         throw new IllegalStateException("This rule should not be used");
     }
 
+    @Override
+    public void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        throw new IllegalStateException("This rule should not be used");
+    }
+
     @Override
     public Set<InferenceRuleContext> extractContexts(Map<OWLObject, InferenceRuleContext> contexts,
             OWLClassExpression subclass, OWLClassExpression superclass) {
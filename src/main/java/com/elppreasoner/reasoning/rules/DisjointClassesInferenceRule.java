@@ -0,0 +1,133 @@
+package com.elppreasoner.reasoning.rules;
+
+import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassABasicConcept;
+import static com.elppreasoner.normalization.NormalizationUtilities.isSuperclassABasicConcept;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDisjointClassesAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObject;
+
+import com.elppreasoner.saturation.contexts.DisjointClassesIRContext;
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.querying.OntologyFeatures;
+import com.reasoner.reasoning.rules.AxiomShape;
+import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.saturation.InferenceRuleContext;
+import com.reasoner.utils.OntologyUtilities;
+
+/**
+ * {@code InferenceRule} for disjoint classes: X ⊑ Ci, X ⊑ Cj and DisjointClasses(C1, ..., Cn), with i ≠ j, imply X ⊑ ⊥. <p>
+ * The disjointness axioms are not encoded as the n(n-1)/2 axioms Ci ⊓ Cj ⊑ ⊥ of CR2: every axiom is a group, and the rule maps every
+ * member Ci to the identifiers of its groups, so that a group of n classes costs O(n). The members are expected to be basic concepts
+ * (see {@code ELPPOntologyNormalizer}): the other ones are ignored.
+ */
+public class DisjointClassesInferenceRule extends InferenceRule<OWLClassExpression, int[]> {
+
+    private int groupCount = 0;
+
+    public DisjointClassesInferenceRule() {
+        super(DisjointClassesIRContext.class);
+        addEntityType(OWLClass.class);
+        addEntityType(OWLIndividual.class);
+    }
+
+    @Override
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.of(AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public InferenceRuleContext<OWLClassExpression, int[]> createContext(OWLEntity entity) {
+        return new DisjointClassesIRContext(this, entity);
+    }
+
+    /**
+     * Index the {@code DisjointClasses} axioms of the ontology. They are indexed again from scratch every time the rule is initialized.
+     */
+    @Override
+    public void initialize(OntologyAccessManager ontologyAccessManager) {
+        axioms.clear();
+        groupCount = 0;
+        ontologyAccessManager.getOntology().axioms(AxiomType.DISJOINT_CLASSES).forEach(axiom -> addGroup(axiom));
+    }
+
+    private void addGroup(OWLDisjointClassesAxiom axiom) {
+        int group = groupCount++;
+        axiom.classExpressions().distinct().filter(member -> isSuperclassABasicConcept(member)).forEach(member -> {
+            int[] groups = axioms.get(member);
+            if(groups == null){
+                axioms.put(member, new int[] {group});
+            } else{
+                groups = Arrays.copyOf(groups, groups.length + 1);
+                groups[groups.length - 1] = group;
+                axioms.put(member, groups);
+            }
+        });
+    }
+
+    @Override
+    public boolean canFire(OntologyFeatures features) {
+        return features.hasDisjointClasses();
+    }
+
+    @Override
+    public boolean axiomCriterion(OWLClassExpression subclass, OWLClassExpression superclass) {
+        return false;
+    }
+
+    @Override
+    public void addAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        throw new IllegalStateException("This rule should not be used");
+    }
+
+    @Override
+    public void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        throw new IllegalStateException("This rule should not be used");
+    }
+
+    @Override
+    public Set<InferenceRuleContext> extractContexts(Map<OWLObject, InferenceRuleContext> contexts,
+            OWLClassExpression subclass, OWLClassExpression superclass) {
+        final HashSet<InferenceRuleContext> result = new HashSet<>();
+        if(isSubclassABasicConcept(subclass) && axioms.containsKey(superclass)){
+            InferenceRuleContext context = contexts.get(OntologyUtilities.getClassExpressionEntity(subclass));
+            if(context != null){
+                result.add(context);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the identifiers of the disjointness groups of the given class.
+     * @param member
+     * @return array of identifiers, or {@code null} if the class is not disjoint with any other class
+     */
+    public int[] getGroups(OWLClassExpression member) {
+        return axioms.get(member);
+    }
+
+    /**
+     * Get the number of disjointness groups, i.e. of {@code DisjointClasses} axioms.
+     * @return int
+     */
+    public int getGroupCount() {
+        return groupCount;
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.elppreasoner.reasoning.rules;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObject;
+
+import com.elppreasoner.saturation.contexts.FusedSubsumerIRContext;
+import com.reasoner.reasoning.rules.AxiomShape;
+import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.saturation.InferenceRuleContext;
+
+/**
+ * {@code InferenceRule} that fuses the rules triggered by a new subsumer X ⊑ A of a basic concept (CR1, CR2, CR3). <p>
+ * The three rules have the same premise, so their contexts would schedule, deduplicate and process every subsumer three times: the
+ * context of this rule looks up the three indexes in a single pass, against a single set of processed subsumers. The axioms are still
+ * indexed by the fused rules, which have to be registered too.
+ */
+public class FusedSubsumerInferenceRule extends InferenceRule<Object, Object> {
+
+    private final ToldSuperclassesInferenceRule toldSuperclasses;
+    private final IntersectionSuperclassesInferenceRule intersectionSuperclasses;
+    private final SubclassRoleExpansionInferenceRule subclassRoleExpansion;
+
+    public FusedSubsumerInferenceRule(
+        ToldSuperclassesInferenceRule toldSuperclasses,
+        IntersectionSuperclassesInferenceRule intersectionSuperclasses,
+        SubclassRoleExpansionInferenceRule subclassRoleExpansion
+    ) {
+        super(FusedSubsumerIRContext.class);
+        addEntityType(OWLClass.class);
+        addEntityType(OWLIndividual.class);
+        this.toldSuperclasses = toldSuperclasses;
+        this.intersectionSuperclasses = intersectionSuperclasses;
+        this.subclassRoleExpansion = subclassRoleExpansion;
+    }
+
+    @Override
+    public Collection<InferenceRule> getFusedRules() {
+        return Collections.unmodifiableList(Arrays.asList(toldSuperclasses, intersectionSuperclasses, subclassRoleExpansion));
+    }
+
+    @Override
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM, AxiomShape.LINK);
+    }
+
+    @Override
+    public InferenceRuleContext<Object, Object> createContext(OWLEntity entity) {
+        return new FusedSubsumerIRContext(this, entity);
+    }
+
+    @Override
+    public boolean axiomCriterion(OWLClassExpression subclass, OWLClassExpression superclass) {
+        return toldSuperclasses.axiomCriterion(subclass, superclass)
+            || intersectionSuperclasses.axiomCriterion(subclass, superclass)
+            || subclassRoleExpansion.axiomCriterion(subclass, superclass);
+    }
+
+    @Override
+    public void addAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        throw new IllegalStateException("The axioms are indexed by the fused rules");
+    }
+
+    @Override
+    public void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        throw new IllegalStateException("The axioms are indexed by the fused rules");
+    }
+
+    @Override
+    public Set<InferenceRuleContext> extractContexts(Map<OWLObject, InferenceRuleContext> contexts,
+            OWLClassExpression subclass, OWLClassExpression superclass) {
+        // The three rules route the same premises to the context of the subclass
+        return toldSuperclasses.extractContexts(contexts, subclass, superclass);
+    }
+
+    /**
+     * Get the told superclasses rule (CR1).
+     * @return ToldSuperclassesInferenceRule
+     */
+    public ToldSuperclassesInferenceRule getToldSuperclasses() {
+        return toldSuperclasses;
+    }
+
+    /**
+     * Get the intersection superclasses rule (CR2).
+     * @return IntersectionSuperclassesInferenceRule
+     */
+    public IntersectionSuperclassesInferenceRule getIntersectionSuperclasses() {
+        return intersectionSuperclasses;
+    }
+
+    /**
+     * Get the subclass role expansion rule (CR3).
+     * @return SubclassRoleExpansionInferenceRule
+     */
+    public SubclassRoleExpansionInferenceRule getSubclassRoleExpansion() {
+        return subclassRoleExpansion;
+    }
+}
@@ -3,6 +3,7 @@ package com.elppreasoner.reasoning.rules;
 import static com.elppreasoner.normalization.NormalizationUtilities.isSuperclassABasicConcept;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -11,6 +12,7 @@ import java.util.Set;
 
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
@@ -18,6 +20,9 @@ import org.semanticweb.owlapi.model.OWLObjectOneOf;
 
 import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassABasicConcept;
 import com.elppreasoner.saturation.contexts.IntersectionSuperclassesIRContext;
+import com.reasoner.querying.OntologyFeatures;
+import com.reasoner.reasoning.rules.AxiomShape;
+import com.reasoner.reasoning.rules.CompactIndex;
 import com.reasoner.reasoning.rules.InferenceRule;
 import com.reasoner.saturation.InferenceRuleContext;
 
@@ -26,12 +31,34 @@ import com.reasoner.saturation.InferenceRuleContext;
  */
 public class IntersectionSuperclassesInferenceRule extends InferenceRule<OWLClassExpression, Map<OWLClassExpression, Set<OWLClassExpression>>>{
 
+    private volatile CompactIndex<OWLClassExpression, OWLClassExpression, OWLClassExpression> compactIndex = null;
+
     public IntersectionSuperclassesInferenceRule() {
         super(IntersectionSuperclassesIRContext.class);
         addEntityType(OWLClass.class);
         addEntityType(OWLIndividual.class);
     }
 
+    @Override
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public InferenceRuleContext<OWLClassExpression, Map<OWLClassExpression, Set<OWLClassExpression>>> createContext(OWLEntity entity) {
+        return new IntersectionSuperclassesIRContext(this, entity);
+    }
+
+    @Override
+    public boolean canFire(OntologyFeatures features) {
+        return features.hasConjunctions();
+    }
+
     @Override
     public boolean axiomCriterion(OWLClassExpression subclass, OWLClassExpression superclass) {
         return subclass instanceof OWLObjectIntersectionOf & isSuperclassABasicConcept(superclass);
@@ -39,7 +66,8 @@ public class IntersectionSuperclassesInferenceRule extends InferenceRule<OWLClas
 
     @Override
     public void addAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
-        
+        thaw();
+
         OWLObjectIntersectionOf intersection = (OWLObjectIntersectionOf) subclass;
         List<OWLClassExpression> operands = intersection.getOperandsAsList();
 
@@ -55,6 +83,37 @@ public class IntersectionSuperclassesInferenceRule extends InferenceRule<OWLClas
         
     }
 
+    @Override
+    public void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        thaw();
+        List<OWLClassExpression> operands = ((OWLObjectIntersectionOf) subclass).getOperandsAsList();
+        OWLClassExpression operand1 = operands.get(0);
+        OWLClassExpression operand2 = operands.get(1);
+
+        removeOperandAxiom(operand1, operand2, superclass);
+        removeOperandAxiom(operand2, operand1, superclass);
+    }
+
+    /**
+     * Remove the superclass of the intersection between the given operands, in one direction only.
+     * @param operand
+     * @param partner
+     * @param superclass
+     */
+    private void removeOperandAxiom(OWLClassExpression operand, OWLClassExpression partner, OWLClassExpression superclass) {
+        Map<OWLClassExpression, Set<OWLClassExpression>> partners = axioms.get(operand);
+        if(partners == null){
+            return;
+        }
+        Set<OWLClassExpression> superclasses = partners.get(partner);
+        if(superclasses != null && superclasses.remove(superclass) && superclasses.isEmpty()){
+            partners.remove(partner);
+            if(partners.isEmpty()){
+                axioms.remove(operand);
+            }
+        }
+    }
+
     @Override
     public Set<InferenceRuleContext> extractContexts(Map<OWLObject, InferenceRuleContext> contexts,
             OWLClassExpression subclass, OWLClassExpression superclass) {
@@ -79,5 +138,48 @@ public class IntersectionSuperclassesInferenceRule extends InferenceRule<OWLClas
         }
         return new HashSet<>();
     }
-    
+
+    @Override
+    public void clearAxioms() {
+        super.clearAxioms();
+        compactIndex = null;
+    }
+
+    @Override
+    public void freeze() {
+        if(axioms != null){
+            compactIndex = CompactIndex.ofNested(axioms);
+            axioms = null;
+        }
+    }
+
+    /**
+     * Build the mutable index again from the compact form, before it is changed.
+     */
+    private void thaw() {
+        if(axioms == null){
+            axioms = compactIndex.toNested();
+        }
+        compactIndex = null;
+    }
+
+    @Override
+    public Map<OWLClassExpression, Map<OWLClassExpression, Set<OWLClassExpression>>> getAxioms() {
+        Map<OWLClassExpression, Map<OWLClassExpression, Set<OWLClassExpression>>> index = axioms;
+        return index != null ? index : compactIndex.asNested();
+    }
+
+    /**
+     * Get the compact form of the intersection superclasses, where every operand A is mapped to the superclasses C of A ⊓ B ⊑ C, labelled
+     * with the partner B. It is built again after the index changes.
+     * @return CompactIndex
+     */
+    public CompactIndex<OWLClassExpression, OWLClassExpression, OWLClassExpression> getCompactIndex() {
+        CompactIndex<OWLClassExpression, OWLClassExpression, OWLClassExpression> index = compactIndex;
+        if(index == null){
+            index = CompactIndex.ofNested(axioms);
+            compactIndex = index;
+        }
+        return index;
+    }
 }
@@ -1,12 +1,14 @@
 package com.elppreasoner.reasoning.rules;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
@@ -15,6 +17,8 @@ import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassAB
 import static com.elppreasoner.normalization.NormalizationUtilities.isSuperclassABasicConcept;
 
 import com.elppreasoner.saturation.contexts.NominalChainExpansionIRContext;
+import com.reasoner.querying.OntologyFeatures;
+import com.reasoner.reasoning.rules.AxiomShape;
 import com.reasoner.reasoning.rules.InferenceRule;
 import com.reasoner.saturation.InferenceRuleContext;
 
@@ -28,6 +32,26 @@ public class NominalChainExpansionInferenceRule extends InferenceRule<Object, Ob
         addEntityType(OWLIndividual.class);
     }
 
+    @Override
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM, AxiomShape.LINK);
+    }
+
+    @Override
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public InferenceRuleContext<Object, Object> createContext(OWLEntity entity) {
+        return new NominalChainExpansionIRContext(this, entity);
+    }
+
+    @Override
+    public boolean canFire(OntologyFeatures features) {
+        return features.hasExistentialSuperclasses() && features.hasNominals();
+    }
+
     @Override
     public boolean axiomCriterion(OWLClassExpression subclass, OWLClassExpression superclass) {
         return false;
@@ -38,6 +62,11 @@ public class NominalChainExpansionInferenceRule extends InferenceRule<Object, Ob
         throw new IllegalStateException("This rule should not be used");
     }
 
+    @Override
+    public void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        throw new IllegalStateException("This rule should not be used");
+    }
+
     @Override
     public Set<InferenceRuleContext> extractContexts(Map<OWLObject, InferenceRuleContext> contexts,
             OWLClassExpression subclass, OWLClassExpression superclass) {
@@ -0,0 +1,112 @@
+package com.elppreasoner.reasoning.rules;
+
+import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassABasicConcept;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+
+import com.elppreasoner.saturation.contexts.RoleChainExpansionIRContext;
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.querying.OntologyFeatures;
+import com.reasoner.querying.RoleHierarchy;
+import com.reasoner.reasoning.rules.AxiomShape;
+import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.saturation.InferenceRuleContext;
+import com.reasoner.utils.OntologyUtilities;
+
+/**
+ * {@code InferenceRule} for role chain expansion (CR11): X ⊑ ∃r.Y, Y ⊑ ∃s.Z and r ∘ s ⊑ t imply X ⊑ ∃t.Z. <p>
+ * The role chains (and the transitive roles) are not indexed by this rule, but by the composition table of the {@link RoleHierarchy}.
+ * Every link X ⊑ ∃r.Y is sent both to the context of X, where it is joined with the links that reach X, and to the context of Y,
+ * where it is joined with the links that leave Y.
+ */
+public class RoleChainExpansionInferenceRule extends InferenceRule<Object, Object> {
+
+    private RoleHierarchy roleHierarchy = null;
+
+    public RoleChainExpansionInferenceRule() {
+        super(RoleChainExpansionIRContext.class);
+        addEntityType(OWLClass.class);
+        addEntityType(OWLIndividual.class);
+    }
+
+    @Override
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.of(AxiomShape.LINK);
+    }
+
+    @Override
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.of(AxiomShape.LINK);
+    }
+
+    @Override
+    public InferenceRuleContext<Object, Object> createContext(OWLEntity entity) {
+        return new RoleChainExpansionIRContext(this, entity);
+    }
+
+    @Override
+    public void initialize(OntologyAccessManager ontologyAccessManager) {
+        roleHierarchy = ontologyAccessManager.getRoleHierarchy();
+    }
+
+    @Override
+    public boolean canFire(OntologyFeatures features) {
+        return features.hasExistentialSuperclasses() && features.hasRoleChains();
+    }
+
+    @Override
+    public boolean axiomCriterion(OWLClassExpression subclass, OWLClassExpression superclass) {
+        return false;
+    }
+
+    @Override
+    public void addAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        throw new IllegalStateException("This rule should not be used");
+    }
+
+    @Override
+    public void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        throw new IllegalStateException("This rule should not be used");
+    }
+
+    @Override
+    public Set<InferenceRuleContext> extractContexts(Map<OWLObject, InferenceRuleContext> contexts,
+            OWLClassExpression subclass, OWLClassExpression superclass) {
+        final HashSet<InferenceRuleContext> result = new HashSet<>();
+        if(!hasRoleChains() || !isSubclassABasicConcept(subclass) || !(superclass instanceof OWLObjectSomeValuesFrom)){
+            return result;
+        }
+        InferenceRuleContext subclassContext = contexts.get(OntologyUtilities.getClassExpressionEntity(subclass));
+        if(subclassContext != null){
+            result.add(subclassContext);
+        }
+        InferenceRuleContext fillerContext = contexts.get(OntologyUtilities.getClassExpressionEntity(((OWLObjectSomeValuesFrom) superclass).getFiller()));
+        if(fillerContext != null){
+            result.add(fillerContext);
+        }
+        return result;
+    }
+
+    /**
+     * Check if the ontology has any role chain. If it has none, no link is sent to the contexts of this rule.
+     * @return boolean
+     */
+    public boolean hasRoleChains() {
+        return roleHierarchy != null && roleHierarchy.hasRoleChains();
+    }
+
+    public RoleHierarchy getRoleHierarchy() {
+        return roleHierarchy;
+    }
+
+}
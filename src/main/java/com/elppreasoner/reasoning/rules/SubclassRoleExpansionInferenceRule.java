@@ -1,6 +1,7 @@
 package com.elppreasoner.reasoning.rules;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -8,6 +9,7 @@ import java.util.Set;
 
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLObjectOneOf;
@@ -17,6 +19,9 @@ import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
 import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassABasicConcept;
 import static com.elppreasoner.normalization.NormalizationUtilities.isSuperclassABasicConcept;
 import com.elppreasoner.saturation.contexts.SubclassRoleExpansionIRContext;
+import com.reasoner.querying.OntologyFeatures;
+import com.reasoner.reasoning.rules.AxiomShape;
+import com.reasoner.reasoning.rules.CompactIndex;
 import com.reasoner.reasoning.rules.InferenceRule;
 import com.reasoner.saturation.InferenceRuleContext;
 
@@ -25,6 +30,8 @@ import com.reasoner.saturation.InferenceRuleContext;
  */
 public class SubclassRoleExpansionInferenceRule extends InferenceRule<OWLClassExpression, Set<Entry<OWLObjectPropertyExpression, OWLClassExpression>>>{
 
+    private volatile CompactIndex<OWLClassExpression, OWLObjectPropertyExpression, OWLClassExpression> compactIndex = null;
+
     private static class RFEntry implements Map.Entry<OWLObjectPropertyExpression,OWLClassExpression> {
         private final OWLObjectPropertyExpression role;
         private final OWLClassExpression filler;
@@ -56,6 +63,26 @@ public class SubclassRoleExpansionInferenceRule extends InferenceRule<OWLClassEx
         addEntityType(OWLIndividual.class);
     }
 
+    @Override
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.of(AxiomShape.LINK);
+    }
+
+    @Override
+    public InferenceRuleContext<OWLClassExpression, Set<Entry<OWLObjectPropertyExpression, OWLClassExpression>>> createContext(OWLEntity entity) {
+        return new SubclassRoleExpansionIRContext(this, entity);
+    }
+
+    @Override
+    public boolean canFire(OntologyFeatures features) {
+        return features.hasExistentialSuperclasses();
+    }
+
     @Override
     public boolean axiomCriterion(OWLClassExpression subclass, OWLClassExpression superclass) {
         return isSubclassABasicConcept(subclass) && superclass instanceof OWLObjectSomeValuesFrom;
@@ -63,6 +90,7 @@ public class SubclassRoleExpansionInferenceRule extends InferenceRule<OWLClassEx
 
     @Override
     public void addAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        thaw();
         OWLObjectSomeValuesFrom objectSomeValuesFrom = (OWLObjectSomeValuesFrom) superclass;
         OWLObjectPropertyExpression role = objectSomeValuesFrom.getProperty();
         OWLClassExpression filler = objectSomeValuesFrom.getFiller();
@@ -70,6 +98,23 @@ public class SubclassRoleExpansionInferenceRule extends InferenceRule<OWLClassEx
             .add( new RFEntry(role, filler));
     }
 
+    @Override
+    public void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        thaw();
+        OWLObjectSomeValuesFrom objectSomeValuesFrom = (OWLObjectSomeValuesFrom) superclass;
+        OWLObjectPropertyExpression role = objectSomeValuesFrom.getProperty();
+        OWLClassExpression filler = objectSomeValuesFrom.getFiller();
+        Set<Entry<OWLObjectPropertyExpression, OWLClassExpression>> entries = axioms.get(subclass);
+        if(entries == null){
+            return;
+        }
+        // RFEntry does not override equals(), so entries are matched by role and filler
+        entries.removeIf(entry -> entry.getKey().equals(role) && entry.getValue().equals(filler));
+        if(entries.isEmpty()){
+            axioms.remove(subclass);
+        }
+    }
+
     @Override
     public Set<InferenceRuleContext> extractContexts(Map<OWLObject, InferenceRuleContext> contexts,
             OWLClassExpression subclass, OWLClassExpression superclass) {
@@ -94,5 +139,48 @@ public class SubclassRoleExpansionInferenceRule extends InferenceRule<OWLClassEx
         }
         return new HashSet<>();
     }
-    
+
+    @Override
+    public void clearAxioms() {
+        super.clearAxioms();
+        compactIndex = null;
+    }
+
+    @Override
+    public void freeze() {
+        if(axioms != null){
+            compactIndex = CompactIndex.ofEntries(axioms);
+            axioms = null;
+        }
+    }
+
+    /**
+     * Build the mutable index again from the compact form, before it is changed.
+     */
+    private void thaw() {
+        if(axioms == null){
+            axioms = compactIndex.toEntries();
+        }
+        compactIndex = null;
+    }
+
+    @Override
+    public Map<OWLClassExpression, Set<Entry<OWLObjectPropertyExpression, OWLClassExpression>>> getAxioms() {
+        Map<OWLClassExpression, Set<Entry<OWLObjectPropertyExpression, OWLClassExpression>>> index = axioms;
+        return index != null ? index : compactIndex.asEntries();
+    }
+
+    /**
+     * Get the compact form of the existential superclasses, where every subclass A is mapped to the fillers B of A ⊑ ∃r.B, labelled with
+     * the role r. It is built again after the index changes.
+     * @return CompactIndex
+     */
+    public CompactIndex<OWLClassExpression, OWLObjectPropertyExpression, OWLClassExpression> getCompactIndex() {
+        CompactIndex<OWLClassExpression, OWLObjectPropertyExpression, OWLClassExpression> index = compactIndex;
+        if(index == null){
+            index = CompactIndex.ofEntries(axioms);
+            compactIndex = index;
+        }
+        return index;
+    }
 }
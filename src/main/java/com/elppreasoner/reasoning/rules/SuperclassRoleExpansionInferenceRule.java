@@ -1,6 +1,8 @@
 package com.elppreasoner.reasoning.rules;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -8,6 +10,7 @@ import java.util.Set;
 
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLObjectOneOf;
@@ -17,6 +20,11 @@ import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
 import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassABasicConcept;
 import static com.elppreasoner.normalization.NormalizationUtilities.isSuperclassABasicConcept;
 import com.elppreasoner.saturation.contexts.SuperclassRoleExpansionIRContext;
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.querying.OntologyFeatures;
+import com.reasoner.querying.RoleHierarchy;
+import com.reasoner.reasoning.rules.AxiomShape;
+import com.reasoner.reasoning.rules.CompactIndex;
 import com.reasoner.reasoning.rules.InferenceRule;
 import com.reasoner.saturation.InferenceRuleContext;
 
@@ -26,7 +34,11 @@ import com.reasoner.saturation.InferenceRuleContext;
 public class SuperclassRoleExpansionInferenceRule 
     extends InferenceRule<OWLObjectPropertyExpression, Map<OWLClassExpression, Set<OWLClassExpression>>>{
 
-    private final Map<OWLClassExpression, Map<OWLObjectPropertyExpression, Set<OWLClassExpression>>> fillerToRole = new HashMap<>();
+    private volatile CompactIndex<OWLObjectPropertyExpression, OWLClassExpression, OWLClassExpression> compactIndex = null;
+    private volatile CompactIndex<OWLClassExpression, OWLObjectPropertyExpression, OWLClassExpression> compactFillerToRole = null;
+
+    private Map<OWLClassExpression, Map<OWLObjectPropertyExpression, Set<OWLClassExpression>>> fillerToRole = new HashMap<>();
+    private RoleHierarchy roleHierarchy = null;
 
     public SuperclassRoleExpansionInferenceRule() {
         super(SuperclassRoleExpansionIRContext.class);
@@ -34,6 +46,31 @@ public class SuperclassRoleExpansionInferenceRule
         addEntityType(OWLIndividual.class);
     }
 
+    @Override
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM, AxiomShape.LINK);
+    }
+
+    @Override
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public InferenceRuleContext<OWLObjectPropertyExpression, Map<OWLClassExpression, Set<OWLClassExpression>>> createContext(OWLEntity entity) {
+        return new SuperclassRoleExpansionIRContext(this, entity);
+    }
+
+    @Override
+    public void initialize(OntologyAccessManager ontologyAccessManager) {
+        roleHierarchy = ontologyAccessManager.getRoleHierarchy();
+    }
+
+    @Override
+    public boolean canFire(OntologyFeatures features) {
+        return features.hasExistentialSuperclasses() && features.hasExistentialSubclasses();
+    }
+
     @Override
     public boolean axiomCriterion(OWLClassExpression subclass, OWLClassExpression superclass) {
         return subclass instanceof OWLObjectSomeValuesFrom && isSuperclassABasicConcept(superclass);
@@ -41,6 +78,7 @@ public class SuperclassRoleExpansionInferenceRule
 
     @Override
     public void addAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        thaw();
         OWLObjectSomeValuesFrom objectSomeValuesFrom = (OWLObjectSomeValuesFrom) subclass;
         OWLObjectPropertyExpression role = objectSomeValuesFrom.getProperty();
         OWLClassExpression filler = objectSomeValuesFrom.getFiller();
@@ -55,6 +93,37 @@ public class SuperclassRoleExpansionInferenceRule
             .add(superclass);
     }
 
+    @Override
+    public void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        thaw();
+        OWLObjectSomeValuesFrom objectSomeValuesFrom = (OWLObjectSomeValuesFrom) subclass;
+        OWLObjectPropertyExpression role = objectSomeValuesFrom.getProperty();
+        OWLClassExpression filler = objectSomeValuesFrom.getFiller();
+        removeNestedValue(axioms, role, filler, superclass);
+        removeNestedValue(fillerToRole, filler, role, superclass);
+    }
+
+    /**
+     * Remove a superclass from a two-level index, dropping the entries that become empty.
+     * @param index
+     * @param key
+     * @param nestedKey
+     * @param superclass
+     */
+    private static <K, N> void removeNestedValue(Map<K, Map<N, Set<OWLClassExpression>>> index, K key, N nestedKey, OWLClassExpression superclass) {
+        Map<N, Set<OWLClassExpression>> nested = index.get(key);
+        if(nested == null){
+            return;
+        }
+        Set<OWLClassExpression> superclasses = nested.get(nestedKey);
+        if(superclasses != null && superclasses.remove(superclass) && superclasses.isEmpty()){
+            nested.remove(nestedKey);
+            if(nested.isEmpty()){
+                index.remove(key);
+            }
+        }
+    }
+
     @Override
     public Set<InferenceRuleContext> extractContexts(Map<OWLObject, InferenceRuleContext> contexts,
             OWLClassExpression subclass, OWLClassExpression superclass) {
@@ -85,7 +154,96 @@ public class SuperclassRoleExpansionInferenceRule
     }
 
     public Map<OWLClassExpression, Map<OWLObjectPropertyExpression, Set<OWLClassExpression>>> getFillerToRole() {
-        return fillerToRole;
+        Map<OWLClassExpression, Map<OWLObjectPropertyExpression, Set<OWLClassExpression>>> index = fillerToRole;
+        return index != null ? index : compactFillerToRole.asNested();
+    }
+
+    /**
+     * Get the super-roles s of a role r (r ⊑* s, see {@link RoleHierarchy}). An axiom ∃s.A ⊑ B applies to every X ⊑ ∃r.Y such that
+     * Y ⊑ A, so no conclusion X ⊑ ∃s.Y has to be derived for the super-roles of r.
+     * @param role r
+     * @return the super-roles of r, including r itself
+     */
+    public Collection<OWLObjectPropertyExpression> getSuperRoles(OWLObjectPropertyExpression role) {
+        if(roleHierarchy == null || !roleHierarchy.hasRoleInclusions()){
+            return Collections.singleton(role);
+        }
+        return roleHierarchy.getSuperRoles(role);
+    }
+
+    /**
+     * Get the sub-roles s of a role r (s ⊑* r, see {@link RoleHierarchy}).
+     * @param role r
+     * @return the sub-roles of r, including r itself
+     */
+    public Collection<OWLObjectPropertyExpression> getSubRoles(OWLObjectPropertyExpression role) {
+        if(roleHierarchy == null || !roleHierarchy.hasRoleInclusions()){
+            return Collections.singleton(role);
+        }
+        return roleHierarchy.getSubRoles(role);
+    }
+
+    @Override
+    public void clearAxioms() {
+        super.clearAxioms();
+        fillerToRole = new HashMap<>();
+        compactIndex = null;
+        compactFillerToRole = null;
+    }
+
+    @Override
+    public void freeze() {
+        if(axioms != null){
+            compactIndex = CompactIndex.ofNested(axioms);
+            compactFillerToRole = CompactIndex.ofNested(fillerToRole);
+            axioms = null;
+            fillerToRole = null;
+        }
+    }
+
+    /**
+     * Build the mutable indexes again from the compact forms, before they are changed.
+     */
+    private void thaw() {
+        if(axioms == null){
+            axioms = compactIndex.toNested();
+            fillerToRole = compactFillerToRole.toNested();
+        }
+        compactIndex = null;
+        compactFillerToRole = null;
+    }
+
+    @Override
+    public Map<OWLObjectPropertyExpression, Map<OWLClassExpression, Set<OWLClassExpression>>> getAxioms() {
+        Map<OWLObjectPropertyExpression, Map<OWLClassExpression, Set<OWLClassExpression>>> index = axioms;
+        return index != null ? index : compactIndex.asNested();
+    }
+
+    /**
+     * Get the compact form of the existential subclasses, where every role r is mapped to the superclasses B of ∃r.A ⊑ B, labelled with the
+     * filler A. It is built again after the index changes.
+     * @return CompactIndex
+     */
+    public CompactIndex<OWLObjectPropertyExpression, OWLClassExpression, OWLClassExpression> getCompactIndex() {
+        CompactIndex<OWLObjectPropertyExpression, OWLClassExpression, OWLClassExpression> index = compactIndex;
+        if(index == null){
+            index = CompactIndex.ofNested(axioms);
+            compactIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Get the compact form of {@link #getFillerToRole()}, where every filler A is mapped to the superclasses B of ∃r.A ⊑ B, labelled with
+     * the role r. It is built again after the index changes.
+     * @return CompactIndex
+     */
+    public CompactIndex<OWLClassExpression, OWLObjectPropertyExpression, OWLClassExpression> getCompactFillerToRole() {
+        CompactIndex<OWLClassExpression, OWLObjectPropertyExpression, OWLClassExpression> index = compactFillerToRole;
+        if(index == null){
+            index = CompactIndex.ofNested(fillerToRole);
+            compactFillerToRole = index;
+        }
+        return index;
     }
-    
 }
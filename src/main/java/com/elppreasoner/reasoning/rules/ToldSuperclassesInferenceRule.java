@@ -1,12 +1,14 @@
 package com.elppreasoner.reasoning.rules;
 
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
 import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLObjectOneOf;
@@ -15,6 +17,8 @@ import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassABasicConcept;
 import static com.elppreasoner.normalization.NormalizationUtilities.isSuperclassABasicConcept;
 import com.elppreasoner.saturation.contexts.ToldSuperclassesIRContext;
+import com.reasoner.reasoning.rules.AxiomShape;
+import com.reasoner.reasoning.rules.CompactIndex;
 import com.reasoner.reasoning.rules.InferenceRule;
 import com.reasoner.saturation.InferenceRuleContext;
 
@@ -23,12 +27,29 @@ import com.reasoner.saturation.InferenceRuleContext;
  */
 public class ToldSuperclassesInferenceRule extends InferenceRule<OWLClassExpression, Set<OWLClassExpression>>{
 
+    private volatile CompactIndex<OWLClassExpression, Void, OWLClassExpression> compactIndex = null;
+
     public ToldSuperclassesInferenceRule() {
         super(ToldSuperclassesIRContext.class);
         addEntityType(OWLClass.class);
         addEntityType(OWLIndividual.class);
     }
 
+    @Override
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION, AxiomShape.BOTTOM);
+    }
+
+    @Override
+    public InferenceRuleContext<OWLClassExpression, Set<OWLClassExpression>> createContext(OWLEntity entity) {
+        return new ToldSuperclassesIRContext(this, entity);
+    }
+
     @Override
     public boolean axiomCriterion(OWLClassExpression subclass, OWLClassExpression superclass) {
         return isSubclassABasicConcept(subclass) && isSuperclassABasicConcept(superclass);
@@ -36,10 +57,20 @@ public class ToldSuperclassesInferenceRule extends InferenceRule<OWLClassExpress
 
     @Override
     public void addAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        thaw();
         axioms.computeIfAbsent(subclass, __ -> new HashSet<>())
             .add(superclass);
     }
 
+    @Override
+    public void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        thaw();
+        Set<OWLClassExpression> superclasses = axioms.get(subclass);
+        if(superclasses != null && superclasses.remove(superclass) && superclasses.isEmpty()){
+            axioms.remove(subclass);
+        }
+    }
+
     @Override
     public Set<InferenceRuleContext> extractContexts(Map<OWLObject, InferenceRuleContext> contexts,
             OWLClassExpression subclass, OWLClassExpression superclass) {
@@ -64,5 +95,48 @@ public class ToldSuperclassesInferenceRule extends InferenceRule<OWLClassExpress
         }
         return new HashSet<>();
     }
-    
+
+    @Override
+    public void clearAxioms() {
+        super.clearAxioms();
+        compactIndex = null;
+    }
+
+    @Override
+    public void freeze() {
+        if(axioms != null){
+            compactIndex = CompactIndex.ofSets(axioms);
+            axioms = null;
+        }
+    }
+
+    /**
+     * Build the mutable index again from the compact form, before it is changed.
+     */
+    private void thaw() {
+        if(axioms == null){
+            axioms = compactIndex.toSets();
+        }
+        compactIndex = null;
+    }
+
+    @Override
+    public Map<OWLClassExpression, Set<OWLClassExpression>> getAxioms() {
+        Map<OWLClassExpression, Set<OWLClassExpression>> index = axioms;
+        return index != null ? index : compactIndex.asSets();
+    }
+
+    /**
+     * Get the compact form of the told superclasses, where every subclass A is mapped to the superclasses B of A ⊑ B. It is built again
+     * after the index changes.
+     * @return CompactIndex
+     */
+    public CompactIndex<OWLClassExpression, Void, OWLClassExpression> getCompactIndex() {
+        CompactIndex<OWLClassExpression, Void, OWLClassExpression> index = compactIndex;
+        if(index == null){
+            index = CompactIndex.ofSets(axioms);
+            compactIndex = index;
+        }
+        return index;
+    }
 }
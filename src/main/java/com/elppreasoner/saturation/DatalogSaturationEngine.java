@@ -0,0 +1,1116 @@
+package com.elppreasoner.saturation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectOneOf;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.elppreasoner.normalization.NormalizationUtilities;
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.querying.RoleHierarchy;
+import com.reasoner.saturation.SaturationEngine;
+
+/**
+ * <p>{@link DatalogSaturationEngine} is a bulk {@link SaturationEngine} for EL++ ontologies in normal form. Instead of dispatching every
+ * axiom to the contexts of its entities, the completion rules are compiled into a fixed set of joins over two relations of {@code int}
+ * tuples, where every basic concept and every role is replaced by an integer identifier:
+ * <ul>
+ *     <li>S(X, A), that stands for X ⊑ A</li>
+ *     <li>E(X, r, Y), that stands for X ⊑ ∃r.Y</li>
+ * </ul>
+ * The told axioms are compiled into hash indexes (arrays indexed by identifier), and the rules become:
+ * <ul>
+ *     <li>CR1: S(X, A) ∧ A ⊑ B → S(X, B)</li>
+ *     <li>CR2: S(X, A1) ∧ ... ∧ S(X, An) ∧ A1 ⊓ ... ⊓ An ⊑ B → S(X, B)</li>
+ *     <li>CR3: S(X, A) ∧ A ⊑ ∃r.B → E(X, r, B)</li>
+ *     <li>CR4: E(X, r, Y) ∧ S(Y, A) ∧ r ⊑* s ∧ ∃s.A ⊑ B → S(X, B)</li>
+ *     <li>CR5: E(X, r, Y) ∧ S(Y, ⊥) → S(X, ⊥)</li>
+ *     <li>CR6: S(X, {a}) ∧ S(Y, {a}) ∧ X ⇝ Y → S(X, B) for every S(Y, B)</li>
+ *     <li>CR11: E(X, r, Y) ∧ E(Y, s, Z) ∧ t ∈ r ∘ s → E(X, t, Z)</li>
+ *     <li>CR12: S(X, Ci) ∧ S(X, Cj) ∧ DisjointClasses(..., Ci, ..., Cj, ...) → S(X, ⊥)</li>
+ * </ul>
+ * where ⊑* is the reflexive-transitive closure of the role inclusions and r ∘ s is the composition of r and s given by the role chains
+ * (see {@link RoleHierarchy}). For CR11, the E relation is also indexed by subclass, so that a new link is joined with the links that
+ * leave its filler as well as with the links that reach its subclass. For CR12, every {@code DisjointClasses} axiom is a group, and every
+ * concept X keeps the groups of its subsumers: S(X, ⊥) is derived as soon as a new S(X, Ci) hits a group that X already has.</p>
+ *
+ * <p>The relations are computed with semi-naive evaluation: in every round, only the facts derived in the previous round (the delta) are
+ * joined with the full relations, so that no derivation is repeated across rounds. In concurrent mode, every round is evaluated in parallel:
+ * the delta is partitioned among the threads for the join phase, and the new facts are merged into the relations partitioned by the
+ * concept that indexes them, so that no synchronization is needed. The calling thread evaluates the first partition, and the other ones
+ * are run by an executor: the one given to {@link #DatalogSaturationEngine(Executor)}, or else a pool started for the saturation. CR6 is
+ * not local (X ⇝ Y holds if Y is reachable from X, or from any nominal, through the E relation): it is evaluated on the full relations each
+ * time the other rules reach a fixpoint.</p>
+ *
+ * <p>The conclusions have the same form as the ones of the context-based saturation: every S and E fact, together with the told axioms
+ * that no context processes (e.g. A ⊓ B ⊑ C and ∃r.A ⊑ B). The reflexive subsumptions X ⊑ X and X ⊑ ⊤ are derived for the same concepts
+ * whose contexts are initialized, i.e. the classes of the ontology, the fillers of told A ⊑ ∃r.B and the individuals. The rules are the
+ * same, but the conclusions are not guaranteed to be the same: the context-based saturation only derives what the contexts of the
+ * initialized concepts reach, and X ⇝ Y follows the direction of the E relation here (i.e. from X ⊑ ∃r.Y, Y is reachable from X). Without
+ * nominals, the classification of the named classes is expected to be the same, and {@code DatalogSaturationEngine_Test} compares the two
+ * saturations on random ontologies.</p>
+ *
+ * <p>The cancellation condition (see {@link #setCancellation(BooleanSupplier)}) is checked before every round and by every partition of a
+ * round, every {@code CANCELLATION_INTERVAL} facts of its delta.</p>
+ *
+ * <p><em>Note.</em> The rule indexes of the {@link OntologyAccessManager} are not used, and the saturation cannot be updated incrementally.</p>
+ */
+public class DatalogSaturationEngine implements SaturationEngine {
+    /**
+     * The identifier of ⊤.
+     */
+    private static final int TOP = 0;
+
+    /**
+     * The identifier of ⊥.
+     */
+    private static final int BOTTOM = 1;
+
+    /**
+     * The minimum size of a delta that is evaluated in parallel: smaller rounds are evaluated by the calling thread, since starting the
+     * threads would cost more than the round itself.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * The number of facts of a delta joined by a partition between two checks of the cancellation condition.
+     */
+    private static final int CANCELLATION_INTERVAL = 1024;
+
+    /**
+     * The inconsistency witness derived by the last saturation, or {@code null} if the ontology is consistent.
+     */
+    private OWLSubClassOfAxiom inconsistencyWitness = null;
+
+    /**
+     * The number of rounds of the last saturation.
+     */
+    private int rounds = 0;
+
+    /**
+     * The executor that runs the partitions of the parallel rounds, or {@code null} to start a pool for every saturation.
+     */
+    private final Executor executor;
+
+    private volatile BooleanSupplier cancellation = () -> false;
+
+    /**
+     * Creates an engine that starts a pool of threads for every concurrent saturation, and stops it once the saturation is over.
+     */
+    public DatalogSaturationEngine() {
+        this(null);
+    }
+
+    /**
+     * Creates an engine whose parallel rounds run on the given executor, e.g. a pool shared by several reasoners. The calling thread
+     * evaluates one partition of every round and waits for the other ones, so the tasks of the executor must not wait for a saturation.
+     * @param executor the executor, or {@code null} to start a pool for every concurrent saturation
+     */
+    public DatalogSaturationEngine(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public Set<OWLSubClassOfAxiom> saturate(OntologyAccessManager ontologyAccessManager, boolean concurrentMode) {
+        return saturate(ontologyAccessManager, concurrentMode ? Runtime.getRuntime().availableProcessors() : 1);
+    }
+
+    @Override
+    public Set<OWLSubClassOfAxiom> saturate(OntologyAccessManager ontologyAccessManager, int threadCount) {
+        Program program = new Program(ontologyAccessManager);
+        threadCount = Math.max(1, threadCount);
+        ExecutorService pool = null;
+        Executor roundExecutor = executor;
+        if (roundExecutor == null && threadCount > 1) {
+            // The threads are only started by the first parallel round
+            pool = Executors.newFixedThreadPool(threadCount - 1, task -> {
+                Thread thread = new Thread(task, "elpp-datalog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            roundExecutor = pool;
+        }
+        Evaluation evaluation = new Evaluation(program, threadCount, roundExecutor, cancellation);
+        try {
+            evaluation.run();
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+
+        this.rounds = evaluation.rounds;
+        this.inconsistencyWitness = evaluation.getInconsistencyWitness();
+
+        Set<OWLSubClassOfAxiom> conclusions = evaluation.getConclusions();
+        conclusions.addAll(program.unprocessedAxioms);
+        return conclusions;
+    }
+
+    @Override
+    public OWLSubClassOfAxiom getInconsistencyWitness() {
+        return inconsistencyWitness;
+    }
+
+    @Override
+    public void setCancellation(BooleanSupplier cancellation) {
+        this.cancellation = cancellation == null ? () -> false : cancellation;
+    }
+
+    /**
+     * Gets the number of rounds of the semi-naive evaluation performed by the last saturation.
+     * @return The number of rounds
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * A growable buffer of {@code int} values, used to store tuples of a fixed arity one after the other.
+     */
+    private static final class IntBuffer {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        void add(int a, int b) {
+            ensureCapacity(2);
+            values[size++] = a;
+            values[size++] = b;
+        }
+
+        void add(int a, int b, int c) {
+            ensureCapacity(3);
+            values[size++] = a;
+            values[size++] = b;
+            values[size++] = c;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * A set of facts: S(X, A) pairs and E(X, r, Y) triples.
+     */
+    private static final class Facts {
+        final IntBuffer subsumptions = new IntBuffer();
+        final IntBuffer links = new IntBuffer();
+
+        boolean isEmpty() {
+            return subsumptions.size() == 0 && links.size() == 0;
+        }
+
+        int size() {
+            return subsumptions.size() / 2 + links.size() / 3;
+        }
+    }
+
+    /**
+     * The E(X, r, Y) facts of a single concept Y, grouped by role: for every role r, the set of the concepts X. The same structure also
+     * stores the facts of a single concept X (the successors used by the role chains), and then it holds the concepts Y.
+     */
+    private static final class Links {
+        private int[] roles = new int[2];
+        private IntSet[] sources = new IntSet[2];
+        private int size = 0;
+
+        IntSet get(int role) {
+            for (int i = 0; i < size; i++) {
+                if (roles[i] == role) {
+                    return sources[i];
+                }
+            }
+            return null;
+        }
+
+        IntSet getOrCreate(int role) {
+            IntSet set = get(role);
+            if (set == null) {
+                if (size == roles.length) {
+                    roles = Arrays.copyOf(roles, size * 2);
+                    sources = Arrays.copyOf(sources, size * 2);
+                }
+                set = new IntSet();
+                roles[size] = role;
+                sources[size++] = set;
+            }
+            return set;
+        }
+    }
+
+    /**
+     * The told axioms of an ontology, compiled into the join indexes of the rules. Every index is an array indexed by concept (or role)
+     * identifier, whose entries are {@code null} when empty.
+     */
+    private static final class Program {
+        final Map<OWLClassExpression, Integer> conceptIds = new HashMap<>();
+        final List<OWLClassExpression> concepts = new ArrayList<>();
+        final Map<OWLObjectPropertyExpression, Integer> roleIds = new HashMap<>();
+        final List<OWLObjectPropertyExpression> roles = new ArrayList<>();
+
+        /**
+         * The told axioms that are not processed by any context, which are part of the conclusions as they are.
+         */
+        final Set<OWLSubClassOfAxiom> unprocessedAxioms = new HashSet<>();
+
+        /**
+         * The initial facts: the told S and E facts, and the reflexive subsumptions of the initialized concepts.
+         */
+        final Facts initialFacts = new Facts();
+
+        /**
+         * Whether each concept is a nominal {a}.
+         */
+        boolean[] nominals;
+        boolean hasNominals = false;
+
+        int[][] toldSuperclasses;          // CR1: A → B for every A ⊑ B
+        int[][] conjunctionsByOperand;     // CR2: A → the conjunctions with operand A
+        int[][] conjunctionOperands;       // CR2: conjunction → its operands
+        int[][] conjunctionSuperclasses;   // CR2: conjunction → B for every A1 ⊓ ... ⊓ An ⊑ B
+        int[][] toldLinks;                 // CR3: A → (r, B) pairs for every A ⊑ ∃r.B
+        int[][] existentialRolesByFiller;  // CR4: A → the roles r of every ∃r.A ⊑ B
+        int[][][] existentialSuperclassesByFiller;  // CR4: A → i → B for every ∃r.A ⊑ B, with r = existentialRolesByFiller[A][i]
+        int[][] existentialFillersByRole;  // CR4: r → the fillers A of every ∃r.A ⊑ B
+        int[][][] existentialSuperclassesByRole;    // CR4: r → i → B for every ∃r.A ⊑ B, with A = existentialFillersByRole[r][i]
+        int[][] superRoles;                // CR4: r → the roles s such that r ⊑* s
+        int[][] subRoles;                  // CR4: s → the roles r such that r ⊑* s
+        boolean hasRoleChains = false;
+        int[][] chainSeconds;              // CR11: r → the roles s such that r ∘ s is not empty
+        int[][][] compositions;            // CR11: r → i → r ∘ s, with s = chainSeconds[r][i]
+        int[][] chainFirsts;               // CR11: s → the roles r such that r ∘ s is not empty
+        boolean hasDisjointClasses = false;
+        int[][] disjointnessGroups;        // CR12: C → the groups of every DisjointClasses(..., C, ...)
+
+        Program(OntologyAccessManager ontologyAccessManager) {
+            concept(OWLManager.getOWLDataFactory().getOWLThing());
+            concept(OWLManager.getOWLDataFactory().getOWLNothing());
+
+            Map<Integer, IntSet> toldSuperclassesMap = new HashMap<>();
+            Map<List<Integer>, Integer> conjunctionIds = new HashMap<>();
+            List<int[]> conjunctionOperandsList = new ArrayList<>();
+            List<IntSet> conjunctionSuperclassesList = new ArrayList<>();
+            Map<Integer, IntSet> conjunctionsByOperandMap = new HashMap<>();
+            Map<Integer, IntBuffer> toldLinksMap = new HashMap<>();
+            Map<Integer, Map<Integer, IntSet>> existentialsByFiller = new HashMap<>();
+            IntSet initializedConcepts = new IntSet();
+            boolean initializesIndividuals = false;
+
+            for (OWLSubClassOfAxiom axiom : (Iterable<OWLSubClassOfAxiom>) ontologyAccessManager.axioms()::iterator) {
+                OWLClassExpression subclass = axiom.getSubClass();
+                OWLClassExpression superclass = axiom.getSuperClass();
+
+                if (NormalizationUtilities.isSubclassABasicConcept(subclass) && NormalizationUtilities.isSuperclassABasicConcept(superclass)) {
+                    int a = concept(subclass);
+                    int b = concept(superclass);
+                    toldSuperclassesMap.computeIfAbsent(a, __ -> new IntSet()).add(b);
+                    initialFacts.subsumptions.add(a, b);
+                    initializedConcepts.add(a);
+                    initializesIndividuals = true;
+                } else if (NormalizationUtilities.isSubclassABasicConcept(subclass) && superclass instanceof OWLObjectSomeValuesFrom &&
+                        isBasicConcept(((OWLObjectSomeValuesFrom) superclass).getFiller())) {
+                    OWLObjectSomeValuesFrom someValuesFrom = (OWLObjectSomeValuesFrom) superclass;
+                    int a = concept(subclass);
+                    int r = role(someValuesFrom.getProperty());
+                    int b = concept(someValuesFrom.getFiller());
+                    toldLinksMap.computeIfAbsent(a, __ -> new IntBuffer()).add(r, b);
+                    initialFacts.links.add(a, r, b);
+                    initializedConcepts.add(b);
+                    initializesIndividuals = true;
+                } else if (subclass instanceof OWLObjectIntersectionOf && NormalizationUtilities.isSuperclassABasicConcept(superclass) &&
+                        ((OWLObjectIntersectionOf) subclass).operands().allMatch(DatalogSaturationEngine::isBasicConcept)) {
+                    List<Integer> operands = new ArrayList<>();
+                    ((OWLObjectIntersectionOf) subclass).operands().forEach(operand -> operands.add(concept(operand)));
+                    operands.sort(null);
+                    int conjunction = conjunctionIds.computeIfAbsent(operands, __ -> {
+                        conjunctionOperandsList.add(operands.stream().mapToInt(Integer::intValue).toArray());
+                        conjunctionSuperclassesList.add(new IntSet());
+                        return conjunctionOperandsList.size() - 1;
+                    });
+                    conjunctionSuperclassesList.get(conjunction).add(concept(superclass));
+                    for (int operand : operands) {
+                        conjunctionsByOperandMap.computeIfAbsent(operand, __ -> new IntSet()).add(conjunction);
+                    }
+                    unprocessedAxioms.add(axiom);
+                } else if (subclass instanceof OWLObjectSomeValuesFrom && NormalizationUtilities.isSuperclassABasicConcept(superclass) &&
+                        isBasicConcept(((OWLObjectSomeValuesFrom) subclass).getFiller())) {
+                    OWLObjectSomeValuesFrom someValuesFrom = (OWLObjectSomeValuesFrom) subclass;
+                    int r = role(someValuesFrom.getProperty());
+                    int a = concept(someValuesFrom.getFiller());
+                    existentialsByFiller.computeIfAbsent(a, __ -> new HashMap<>()).computeIfAbsent(r, __ -> new IntSet()).add(concept(superclass));
+                    unprocessedAxioms.add(axiom);
+                } else {
+                    unprocessedAxioms.add(axiom);
+                }
+            }
+
+            // As in the context-based saturation, the contexts of all the individuals are initialized by the first processed axiom
+            if (initializesIndividuals) {
+                ontologyAccessManager.getOntology().individualsInSignature().forEach(
+                    individual -> initializedConcepts.add(concept(OWLManager.getOWLDataFactory().getOWLObjectOneOf(individual)))
+                );
+            }
+            // As in the context-based saturation, every class is initialized, even if its told axioms only initialize other concepts (e.g. X ⊑ ∃r.Y)
+            Stream.concat(ontologyAccessManager.getOntology().classesInSignature(), ontologyAccessManager.addedAxioms().flatMap(OWLSubClassOfAxiom::classesInSignature))
+                .filter(owlClass -> !owlClass.isOWLNothing())
+                .forEach(owlClass -> initializedConcepts.add(concept(owlClass)));
+            initializedConcepts.forEach(x -> {
+                initialFacts.subsumptions.add(x, x);
+                initialFacts.subsumptions.add(x, TOP);
+            });
+
+            // The members of the groups are given an identifier before the indexes by concept are allocated
+            Map<Integer, IntSet> disjointnessGroupsMap = new HashMap<>();
+            int[] groupCount = {0};
+            ontologyAccessManager.getOntology().axioms(AxiomType.DISJOINT_CLASSES).forEach(axiom -> {
+                int group = groupCount[0]++;
+                axiom.classExpressions().distinct().filter(NormalizationUtilities::isSuperclassABasicConcept).forEach(
+                    member -> disjointnessGroupsMap.computeIfAbsent(concept(member), __ -> new IntSet()).add(group)
+                );
+            });
+
+            int conceptCount = concepts.size();
+            nominals = new boolean[conceptCount];
+            for (int x = 0; x < conceptCount; x++) {
+                if (concepts.get(x) instanceof OWLObjectOneOf) {
+                    nominals[x] = true;
+                    hasNominals = true;
+                }
+            }
+
+            disjointnessGroups = new int[conceptCount][];
+            disjointnessGroupsMap.forEach((c, groups) -> disjointnessGroups[c] = groups.toArray());
+            hasDisjointClasses = !disjointnessGroupsMap.isEmpty();
+
+            toldSuperclasses = new int[conceptCount][];
+            toldSuperclassesMap.forEach((a, superclasses) -> toldSuperclasses[a] = superclasses.toArray());
+
+            conjunctionsByOperand = new int[conceptCount][];
+            conjunctionsByOperandMap.forEach((a, conjunctions) -> conjunctionsByOperand[a] = conjunctions.toArray());
+            conjunctionOperands = conjunctionOperandsList.toArray(new int[0][]);
+            conjunctionSuperclasses = new int[conjunctionSuperclassesList.size()][];
+            for (int c = 0; c < conjunctionSuperclasses.length; c++) {
+                conjunctionSuperclasses[c] = conjunctionSuperclassesList.get(c).toArray();
+            }
+
+            toldLinks = new int[conceptCount][];
+            toldLinksMap.forEach((a, links) -> toldLinks[a] = Arrays.copyOf(links.values, links.size()));
+
+            existentialRolesByFiller = new int[conceptCount][];
+            existentialSuperclassesByFiller = new int[conceptCount][][];
+            Map<Integer, List<Integer>> existentialsByRole = new HashMap<>();
+            existentialsByFiller.forEach((a, superclassesByRole) -> {
+                existentialRolesByFiller[a] = new int[superclassesByRole.size()];
+                existentialSuperclassesByFiller[a] = new int[superclassesByRole.size()][];
+                int i = 0;
+                for (Map.Entry<Integer, IntSet> entry : superclassesByRole.entrySet()) {
+                    int[] superclasses = entry.getValue().toArray();
+                    existentialRolesByFiller[a][i] = entry.getKey();
+                    existentialSuperclassesByFiller[a][i++] = superclasses;
+                    existentialsByRole.computeIfAbsent(entry.getKey(), __ -> new ArrayList<>()).add(a);
+                }
+            });
+            RoleHierarchy roleHierarchy = ontologyAccessManager.getRoleHierarchy();
+            if (roleHierarchy.hasRoleChains()) {
+                compileRoleChains(roleHierarchy);
+            }
+            superRoles = new int[roles.size()][];
+            subRoles = new int[roles.size()][];
+            for (int r = 0; r < roles.size(); r++) {
+                superRoles[r] = roleIds(roleHierarchy.hasRoleInclusions() ? roleHierarchy.getSuperRoles(roles.get(r)) : Collections.singleton(roles.get(r)));
+                subRoles[r] = roleIds(roleHierarchy.hasRoleInclusions() ? roleHierarchy.getSubRoles(roles.get(r)) : Collections.singleton(roles.get(r)));
+            }
+
+            existentialFillersByRole = new int[roles.size()][];
+            existentialSuperclassesByRole = new int[roles.size()][][];
+            existentialsByRole.forEach((r, fillers) -> {
+                existentialFillersByRole[r] = new int[fillers.size()];
+                existentialSuperclassesByRole[r] = new int[fillers.size()][];
+                for (int i = 0; i < fillers.size(); i++) {
+                    int a = fillers.get(i);
+                    existentialFillersByRole[r][i] = a;
+                    existentialSuperclassesByRole[r][i] = existentialSuperclasses(a, r);
+                }
+            });
+        }
+
+        /**
+         * Compiles the composition table of the role hierarchy. The roles of the compositions are given an identifier even if they occur
+         * in no told axiom, since the links composed by CR11 can have any of them.
+         */
+        private void compileRoleChains(RoleHierarchy roleHierarchy) {
+            hasRoleChains = true;
+            Map<Integer, List<int[]>> compositionsMap = new HashMap<>();
+            for (int h = 0; h < roleHierarchy.size(); h++) {
+                int[] seconds = roleHierarchy.getChainSecondIds(h);
+                if (seconds.length == 0) {
+                    continue;
+                }
+                int r = role(roleHierarchy.getRole(h));
+                List<int[]> rCompositions = compositionsMap.computeIfAbsent(r, __ -> new ArrayList<>());
+                for (int second : seconds) {
+                    int[] composition = roleHierarchy.getCompositionIds(h, second);
+                    int[] pair = new int[composition.length + 1];
+                    pair[0] = role(roleHierarchy.getRole(second));
+                    for (int i = 0; i < composition.length; i++) {
+                        pair[i + 1] = role(roleHierarchy.getRole(composition[i]));
+                    }
+                    rCompositions.add(pair);
+                }
+            }
+
+            chainSeconds = new int[roles.size()][];
+            compositions = new int[roles.size()][][];
+            Map<Integer, IntSet> chainFirstsMap = new HashMap<>();
+            compositionsMap.forEach((r, pairs) -> {
+                chainSeconds[r] = new int[pairs.size()];
+                compositions[r] = new int[pairs.size()][];
+                for (int i = 0; i < pairs.size(); i++) {
+                    int[] pair = pairs.get(i);
+                    chainSeconds[r][i] = pair[0];
+                    compositions[r][i] = Arrays.copyOfRange(pair, 1, pair.length);
+                    chainFirstsMap.computeIfAbsent(pair[0], __ -> new IntSet()).add(r);
+                }
+            });
+            chainFirsts = new int[roles.size()][];
+            chainFirstsMap.forEach((s, firsts) -> chainFirsts[s] = firsts.toArray());
+        }
+
+        /**
+         * Gets the composition r ∘ s.
+         * @return The roles of the composition, or {@code null} if it is empty
+         */
+        int[] composition(int first, int second) {
+            int[] seconds = chainSeconds[first];
+            if (seconds != null) {
+                for (int i = 0; i < seconds.length; i++) {
+                    if (seconds[i] == second) {
+                        return compositions[first][i];
+                    }
+                }
+            }
+            return null;
+        }
+
+        int[] existentialSuperclasses(int filler, int role) {
+            int[] roles = existentialRolesByFiller[filler];
+            if (roles != null) {
+                for (int i = 0; i < roles.length; i++) {
+                    if (roles[i] == role) {
+                        return existentialSuperclassesByFiller[filler][i];
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Maps the given roles to their identifiers, skipping the roles that occur in no told axiom.
+         */
+        private int[] roleIds(Collection<OWLObjectPropertyExpression> roles) {
+            return roles.stream().filter(roleIds::containsKey).mapToInt(roleIds::get).toArray();
+        }
+
+        private int concept(OWLClassExpression concept) {
+            return conceptIds.computeIfAbsent(concept, __ -> {
+                concepts.add(concept);
+                return concepts.size() - 1;
+            });
+        }
+
+        private int role(OWLObjectPropertyExpression role) {
+            return roleIds.computeIfAbsent(role, __ -> {
+                roles.add(role);
+                return roles.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * The semi-naive evaluation of a {@link Program}.
+     */
+    private static final class Evaluation {
+        private final Program program;
+        private final int threadCount;
+        private final Executor executor;
+        private final BooleanSupplier cancellation;
+
+        /**
+         * The S relation, indexed by subclass: X → {A | S(X, A)}.
+         */
+        private final IntSet[] subsumers;
+
+        /**
+         * The E relation, indexed by filler: Y → r → {X | E(X, r, Y)}.
+         */
+        private final Links[] predecessors;
+
+        /**
+         * The E relation, indexed by subclass: X → r → {Y | E(X, r, Y)}. It is only used by CR11, and it is {@code null} without role chains.
+         */
+        private final Links[] successors;
+
+        /**
+         * The disjointness groups of the subsumers of every concept: X → {g | S(X, C) and C belongs to g}. It is only used by CR12, and
+         * it is {@code null} without {@code DisjointClasses} axioms.
+         */
+        private final IntSet[] groups;
+
+        /**
+         * The subclass X of the first inconsistency witness X ⊑ ⊥, or -1 if none has been derived.
+         */
+        private final AtomicInteger witness = new AtomicInteger(-1);
+
+        int rounds = 0;
+
+        Evaluation(Program program, int threadCount, Executor executor, BooleanSupplier cancellation) {
+            this.program = program;
+            this.threadCount = threadCount;
+            this.executor = executor;
+            this.cancellation = cancellation;
+            this.subsumers = new IntSet[program.concepts.size()];
+            this.predecessors = new Links[program.concepts.size()];
+            this.successors = program.hasRoleChains ? new Links[program.concepts.size()] : null;
+            this.groups = program.hasDisjointClasses ? new IntSet[program.concepts.size()] : null;
+        }
+
+        void run() {
+            Facts delta = merge(new Facts[] {program.initialFacts});
+            while (witness.get() < 0) {
+                checkCancelled();
+                if (delta.isEmpty()) {
+                    if (!program.hasNominals) {
+                        break;
+                    }
+                    delta = merge(new Facts[] {applyNominalChains()});
+                    if (delta.isEmpty()) {
+                        break;
+                    }
+                }
+                rounds++;
+                delta = merge(join(delta));
+            }
+        }
+
+        /**
+         * Joins the given delta with the full relations (CR1-CR5 and CR11).
+         * @param delta The facts derived in the previous round
+         * @return The candidate facts, one set for each thread
+         */
+        private Facts[] join(Facts delta) {
+            int threads = delta.size() < PARALLEL_THRESHOLD ? 1 : threadCount;
+            Facts[] candidates = new Facts[threads];
+            int subsumptionCount = delta.subsumptions.size() / 2;
+            int linkCount = delta.links.size() / 3;
+            runInParallel(threads, t -> {
+                Facts out = new Facts();
+                for (int i = subsumptionCount * t / threads; i < subsumptionCount * (t + 1) / threads; i++) {
+                    if (i % CANCELLATION_INTERVAL == 0) {
+                        checkCancelled();
+                    }
+                    joinSubsumption(delta.subsumptions.get(2 * i), delta.subsumptions.get(2 * i + 1), out);
+                }
+                for (int i = linkCount * t / threads; i < linkCount * (t + 1) / threads; i++) {
+                    if (i % CANCELLATION_INTERVAL == 0) {
+                        checkCancelled();
+                    }
+                    joinLink(delta.links.get(3 * i), delta.links.get(3 * i + 1), delta.links.get(3 * i + 2), out);
+                }
+                candidates[t] = out;
+            });
+            return candidates;
+        }
+
+        private void joinSubsumption(int x, int a, Facts out) {
+            // CR1
+            int[] toldSuperclasses = program.toldSuperclasses[a];
+            if (toldSuperclasses != null) {
+                for (int b : toldSuperclasses) {
+                    out.subsumptions.add(x, b);
+                }
+            }
+
+            // CR2: as in the context-based saturation, X ⊑ X holds for the conjunctions even if it has not been derived
+            int[] conjunctions = program.conjunctionsByOperand[a];
+            if (conjunctions != null) {
+                IntSet xSubsumers = subsumers[x];
+                for (int c : conjunctions) {
+                    boolean matches = true;
+                    for (int operand : program.conjunctionOperands[c]) {
+                        if (operand != x && !xSubsumers.contains(operand)) {
+                            matches = false;
+                            break;
+                        }
+                    }
+                    if (matches) {
+                        for (int b : program.conjunctionSuperclasses[c]) {
+                            out.subsumptions.add(x, b);
+                        }
+                    }
+                }
+            }
+
+            // CR3
+            int[] toldLinks = program.toldLinks[a];
+            if (toldLinks != null) {
+                for (int i = 0; i < toldLinks.length; i += 2) {
+                    out.links.add(x, toldLinks[i], toldLinks[i + 1]);
+                }
+            }
+
+            Links xPredecessors = predecessors[x];
+            if (xPredecessors == null) {
+                return;
+            }
+
+            // CR4, where X is the filler
+            int[] roles = program.existentialRolesByFiller[a];
+            if (roles != null) {
+                for (int i = 0; i < roles.length; i++) {
+                    int[] superclasses = program.existentialSuperclassesByFiller[a][i];
+                    for (int subRole : program.subRoles[roles[i]]) {
+                        IntSet sources = xPredecessors.get(subRole);
+                        if (sources != null) {
+                            sources.forEach(source -> {
+                                for (int b : superclasses) {
+                                    out.subsumptions.add(source, b);
+                                }
+                            });
+                        }
+                    }
+                }
+            }
+
+            // CR5, where X is the filler
+            if (a == BOTTOM) {
+                for (int i = 0; i < xPredecessors.size; i++) {
+                    xPredecessors.sources[i].forEach(source -> out.subsumptions.add(source, BOTTOM));
+                }
+            }
+        }
+
+        private void joinLink(int x, int r, int y, Facts out) {
+            IntSet ySubsumers = subsumers[y];
+            if (ySubsumers == null) {
+                return;
+            }
+
+            // CR4: the smaller side of the join is scanned
+            for (int s : program.superRoles[r]) {
+                int[] fillers = program.existentialFillersByRole[s];
+                if (fillers == null) {
+                    continue;
+                }
+                if (fillers.length <= ySubsumers.size()) {
+                    for (int i = 0; i < fillers.length; i++) {
+                        if (ySubsumers.contains(fillers[i])) {
+                            for (int b : program.existentialSuperclassesByRole[s][i]) {
+                                out.subsumptions.add(x, b);
+                            }
+                        }
+                    }
+                } else {
+                    ySubsumers.forEach(a -> {
+                        int[] superclasses = program.existentialSuperclasses(a, s);
+                        if (superclasses != null) {
+                            for (int b : superclasses) {
+                                out.subsumptions.add(x, b);
+                            }
+                        }
+                    });
+                }
+            }
+
+            // CR5
+            if (ySubsumers.contains(BOTTOM)) {
+                out.subsumptions.add(x, BOTTOM);
+            }
+
+            // CR11, where E(X, r, Y) is the first link and then the second one
+            if (program.hasRoleChains) {
+                joinChain(r, program.chainSeconds[r], successors[y], true, x, out);
+                joinChain(r, program.chainFirsts[r], predecessors[x], false, y, out);
+            }
+        }
+
+        /**
+         * Joins a link with the links that can be composed with it (CR11). The smaller side of the join is scanned: either the partners of
+         * the role in the composition table, or the roles of the links.
+         * @param r The role of the link
+         * @param partners The roles that can be composed with {@code r}
+         * @param links The links of the shared concept: the ones that leave Y if the link E(X, r, Y) is the first one, the ones that reach X otherwise
+         * @param isFirst Whether the link is the first one of the chain
+         * @param end The end of the link that is not the shared concept
+         * @param out The candidate facts
+         */
+        private void joinChain(int r, int[] partners, Links links, boolean isFirst, int end, Facts out) {
+            if (partners == null || links == null) {
+                return;
+            }
+            if (partners.length <= links.size) {
+                for (int partner : partners) {
+                    IntSet ends = links.get(partner);
+                    if (ends != null) {
+                        addComposedLinks(isFirst ? program.composition(r, partner) : program.composition(partner, r), isFirst, end, ends, out);
+                    }
+                }
+            } else {
+                for (int i = 0; i < links.size; i++) {
+                    int[] composition = isFirst ? program.composition(r, links.roles[i]) : program.composition(links.roles[i], r);
+                    if (composition != null) {
+                        addComposedLinks(composition, isFirst, end, links.sources[i], out);
+                    }
+                }
+            }
+        }
+
+        private static void addComposedLinks(int[] composition, boolean isFirst, int end, IntSet ends, Facts out) {
+            for (int t : composition) {
+                if (isFirst) {
+                    ends.forEach(z -> out.links.add(end, t, z));
+                } else {
+                    ends.forEach(w -> out.links.add(w, t, end));
+                }
+            }
+        }
+
+        /**
+         * Applies CR6 to the full relations: for every two concepts X and Y subsumed by the same nominal {a}, if Y is reachable from X
+         * or from any nominal, then every subsumer of Y is a subsumer of X.
+         * @return The derived facts
+         */
+        private Facts applyNominalChains() {
+            int conceptCount = subsumers.length;
+            IntSet[] successors = new IntSet[conceptCount];
+            for (int y = 0; y < conceptCount; y++) {
+                Links yPredecessors = predecessors[y];
+                if (yPredecessors == null) {
+                    continue;
+                }
+                final int filler = y;
+                for (int i = 0; i < yPredecessors.size; i++) {
+                    yPredecessors.sources[i].forEach(x -> {
+                        if (successors[x] == null) {
+                            successors[x] = new IntSet();
+                        }
+                        successors[x].add(filler);
+                    });
+                }
+            }
+
+            IntBuffer nominalIds = new IntBuffer();
+            for (int x = 0; x < conceptCount; x++) {
+                if (program.nominals[x]) {
+                    nominalIds.add(x, x);
+                }
+            }
+            boolean[] reachableFromNominals = new boolean[conceptCount];
+            for (int i = 0; i < nominalIds.size(); i += 2) {
+                reach(nominalIds.get(i), successors, reachableFromNominals);
+            }
+
+            Facts out = new Facts();
+            for (int i = 0; i < nominalIds.size(); i += 2) {
+                int nominal = nominalIds.get(i);
+                IntBuffer members = new IntBuffer();
+                for (int x = 0; x < conceptCount; x++) {
+                    if (subsumers[x] != null && subsumers[x].contains(nominal)) {
+                        members.add(x, x);
+                    }
+                }
+                for (int j = 0; j < members.size(); j += 2) {
+                    int x = members.get(j);
+                    boolean[] reachableFromX = null;
+                    for (int k = 0; k < members.size(); k += 2) {
+                        int y = members.get(k);
+                        if (x == y) {
+                            continue;
+                        }
+                        if (!reachableFromNominals[y]) {
+                            if (reachableFromX == null) {
+                                reachableFromX = new boolean[conceptCount];
+                                reach(x, successors, reachableFromX);
+                            }
+                            if (!reachableFromX[y]) {
+                                continue;
+                            }
+                        }
+                        IntSet xSubsumers = subsumers[x];
+                        subsumers[y].forEach(b -> {
+                            if (!xSubsumers.contains(b)) {
+                                out.subsumptions.add(x, b);
+                            }
+                        });
+                    }
+                }
+            }
+            return out;
+        }
+
+        private static void reach(int start, IntSet[] successors, boolean[] reached) {
+            if (reached[start]) {
+                return;
+            }
+            reached[start] = true;
+            int[] stack = new int[16];
+            int top = 0;
+            stack[top++] = start;
+            while (top > 0) {
+                int x = stack[--top];
+                if (successors[x] == null) {
+                    continue;
+                }
+                for (int y : successors[x].toArray()) {
+                    if (!reached[y]) {
+                        reached[y] = true;
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = y;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Inserts the candidate facts into the full relations. The S facts are partitioned by subclass and the E facts by filler, so that
+         * every thread only writes the entries it owns.
+         * @param candidates The candidate facts
+         * @return The facts that were not in the relations yet, i.e. the delta of the next round
+         */
+        private Facts merge(Facts[] candidates) {
+            int size = 0;
+            for (Facts facts : candidates) {
+                size += facts.size();
+            }
+            int threads = size < PARALLEL_THRESHOLD ? 1 : threadCount;
+            Facts[] newFacts = new Facts[threads];
+            runInParallel(threads, t -> {
+                Facts out = new Facts();
+                for (Facts facts : candidates) {
+                    IntBuffer subsumptions = facts.subsumptions;
+                    for (int i = 0; i < subsumptions.size(); i += 2) {
+                        int x = subsumptions.get(i);
+                        if (x % threads == t) {
+                            addSubsumption(x, subsumptions.get(i + 1), out);
+                        }
+                    }
+                    IntBuffer links = facts.links;
+                    for (int i = 0; i < links.size(); i += 3) {
+                        int y = links.get(i + 2);
+                        if (y % threads == t) {
+                            addLink(links.get(i), links.get(i + 1), y, out);
+                        }
+                        // The index by subclass is partitioned by subclass
+                        int x = links.get(i);
+                        if (successors != null && x % threads == t) {
+                            addSuccessor(x, links.get(i + 1), y);
+                        }
+                    }
+                }
+                newFacts[t] = out;
+            });
+
+            if (threads == 1) {
+                return newFacts[0];
+            }
+            Facts delta = new Facts();
+            for (Facts facts : newFacts) {
+                for (int i = 0; i < facts.subsumptions.size(); i += 2) {
+                    delta.subsumptions.add(facts.subsumptions.get(i), facts.subsumptions.get(i + 1));
+                }
+                for (int i = 0; i < facts.links.size(); i += 3) {
+                    delta.links.add(facts.links.get(i), facts.links.get(i + 1), facts.links.get(i + 2));
+                }
+            }
+            return delta;
+        }
+
+        private void addSubsumption(int x, int a, Facts out) {
+            IntSet xSubsumers = subsumers[x];
+            if (xSubsumers == null) {
+                xSubsumers = new IntSet();
+                subsumers[x] = xSubsumers;
+            }
+            if (xSubsumers.add(a)) {
+                out.subsumptions.add(x, a);
+                if (a == BOTTOM && (x == TOP || program.nominals[x])) {
+                    witness.compareAndSet(-1, x);
+                }
+                // CR12: the S facts are partitioned by subclass, so S(X, ⊥) is derived by the thread that owns X
+                if (groups != null && addGroups(x, a)) {
+                    addSubsumption(x, BOTTOM, out);
+                }
+            }
+        }
+
+        /**
+         * Adds the disjointness groups of a new subsumer A to the groups of X.
+         * @return {@code true} if X already had one of the groups of A, i.e. X is subsumed by two disjoint concepts; {@code false} otherwise
+         */
+        private boolean addGroups(int x, int a) {
+            int[] aGroups = program.disjointnessGroups[a];
+            if (aGroups == null) {
+                return false;
+            }
+            IntSet xGroups = groups[x];
+            if (xGroups == null) {
+                xGroups = new IntSet();
+                groups[x] = xGroups;
+            }
+            boolean disjoint = false;
+            for (int group : aGroups) {
+                disjoint |= !xGroups.add(group);
+            }
+            return disjoint;
+        }
+
+        private void addLink(int x, int r, int y, Facts out) {
+            Links yPredecessors = predecessors[y];
+            if (yPredecessors == null) {
+                yPredecessors = new Links();
+                predecessors[y] = yPredecessors;
+            }
+            if (yPredecessors.getOrCreate(r).add(x)) {
+                out.links.add(x, r, y);
+            }
+        }
+
+        private void addSuccessor(int x, int r, int y) {
+            Links xSuccessors = successors[x];
+            if (xSuccessors == null) {
+                xSuccessors = new Links();
+                successors[x] = xSuccessors;
+            }
+            xSuccessors.getOrCreate(r).add(y);
+        }
+
+        private void checkCancelled() {
+            if (cancellation.getAsBoolean()) {
+                throw new CancellationException("The saturation has been cancelled.");
+            }
+        }
+
+        /**
+         * Runs the given task for every partition of a round: the first one on the calling thread, the other ones on the executor.
+         * @param threads The number of partitions
+         * @param task The task, which takes the index of its partition
+         */
+        private void runInParallel(int threads, IntConsumer task) {
+            if (threads == 1) {
+                task.accept(0);
+                return;
+            }
+            List<FutureTask<Void>> partitions = new ArrayList<>(threads - 1);
+            for (int t = 1; t < threads; t++) {
+                final int index = t;
+                FutureTask<Void> partition = new FutureTask<>(() -> task.accept(index), null);
+                partitions.add(partition);
+                executor.execute(partition);
+            }
+            try {
+                task.accept(0);
+                for (FutureTask<Void> partition : partitions) {
+                    partition.get();
+                }
+            } catch (InterruptedException e) {
+                partitions.forEach(partition -> partition.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                partitions.forEach(partition -> partition.cancel(true));
+                if (e.getCause() instanceof CancellationException) {
+                    throw (CancellationException) e.getCause();
+                }
+                throw new RuntimeException("A partition of the Datalog evaluation failed", e.getCause());
+            } catch (RuntimeException | Error e) {
+                partitions.forEach(partition -> partition.cancel(true));
+                throw e;
+            }
+        }
+
+        OWLSubClassOfAxiom getInconsistencyWitness() {
+            int x = witness.get();
+            if (x < 0) {
+                return null;
+            }
+            OWLDataFactory factory = OWLManager.getOWLDataFactory();
+            return factory.getOWLSubClassOfAxiom(program.concepts.get(x), factory.getOWLNothing());
+        }
+
+        /**
+         * Converts the S and E relations into axioms.
+         * @return The conclusions
+         */
+        Set<OWLSubClassOfAxiom> getConclusions() {
+            OWLDataFactory factory = OWLManager.getOWLDataFactory();
+            Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
+            List<OWLClassExpression> concepts = program.concepts;
+            for (int x = 0; x < subsumers.length; x++) {
+                if (subsumers[x] != null) {
+                    OWLClassExpression subclass = concepts.get(x);
+                    subsumers[x].forEach(a -> conclusions.add(factory.getOWLSubClassOfAxiom(subclass, concepts.get(a))));
+                }
+            }
+            for (int y = 0; y < predecessors.length; y++) {
+                Links yPredecessors = predecessors[y];
+                if (yPredecessors == null) {
+                    continue;
+                }
+                for (int i = 0; i < yPredecessors.size; i++) {
+                    OWLObjectSomeValuesFrom someValuesFrom = factory.getOWLObjectSomeValuesFrom(
+                        program.roles.get(yPredecessors.roles[i]), concepts.get(y)
+                    );
+                    yPredecessors.sources[i].forEach(x -> conclusions.add(factory.getOWLSubClassOfAxiom(concepts.get(x), someValuesFrom)));
+                }
+            }
+            return conclusions;
+        }
+    }
+
+    /**
+     * Checks whether the given class expression can be an argument of the relations, i.e. it is a class or a nominal.
+     * @param classExpression The class expression to check
+     * @return {@code true} if the class expression is a class or a nominal; {@code false} otherwise
+     */
+    private static boolean isBasicConcept(OWLClassExpression classExpression) {
+        return classExpression instanceof OWLClass || classExpression instanceof OWLObjectOneOf;
+    }
+}
@@ -0,0 +1,106 @@
+package com.elppreasoner.saturation;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of non-negative {@code int} values, backed by an open addressing hash table (linear probing). It avoids the boxing of
+ * {@code Set<Integer>}, and it is used to store the relations of the {@link DatalogSaturationEngine}. <p>
+ * This class is not thread-safe: concurrent reads are safe only while no thread is adding values.
+ */
+final class IntSet {
+    private static final int EMPTY = -1;
+
+    private int[] table;
+    private int size = 0;
+
+    IntSet() {
+        this(4);
+    }
+
+    IntSet(int expectedSize) {
+        int capacity = 8;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+    }
+
+    /**
+     * Adds a value to this set.
+     * @param value The value to add, which must be non-negative
+     * @return {@code true} if the value was not in this set; {@code false} otherwise
+     */
+    boolean add(int value) {
+        int mask = table.length - 1;
+        int index = hash(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        if (++size * 2 > table.length) {
+            resize();
+        }
+        return true;
+    }
+
+    boolean contains(int value) {
+        int mask = table.length - 1;
+        int index = hash(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(IntConsumer action) {
+        for (int value : table) {
+            if (value != EMPTY) {
+                action.accept(value);
+            }
+        }
+    }
+
+    int[] toArray() {
+        int[] values = new int[size];
+        int i = 0;
+        for (int value : table) {
+            if (value != EMPTY) {
+                values[i++] = value;
+            }
+        }
+        return values;
+    }
+
+    private void resize() {
+        int[] oldTable = table;
+        table = new int[oldTable.length * 2];
+        Arrays.fill(table, EMPTY);
+        int mask = table.length - 1;
+        for (int value : oldTable) {
+            if (value != EMPTY) {
+                int index = hash(value) & mask;
+                while (table[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = value;
+            }
+        }
+    }
+
+    private static int hash(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,124 @@
+package com.elppreasoner.saturation;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObjectOneOf;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+
+import com.elppreasoner.reasoning.rules.IntersectionSuperclassesInferenceRule;
+import com.elppreasoner.reasoning.rules.SubclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.SuperclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.ToldSuperclassesInferenceRule;
+import com.reasoner.querying.OntologyAccessManager;
+
+/**
+ * <p>{@link SaturationUtilities} is an utility class that implements the methods that are useful to drive the saturation of EL++ ontologies.</p>
+ *
+ * <p>It mainly provides {@code computeGoalEntities()}, which computes the entities whose contexts have to be saturated in order to answer a
+ * query about a single concept (goal-directed saturation).</p>
+ */
+public final class SaturationUtilities {
+    /**
+     * A simple private constructor to prevent the default parameter-less constructor from being used, as this is just a utility class.
+     */
+    private SaturationUtilities() {
+        throw new UnsupportedOperationException("Cannot instantiate this utility class.");
+    }
+
+    /**
+     * <p>Computes the entities whose contexts have to be saturated to derive all the subsumers of the given {@code concept}. Starting from
+     * {@code concept} and ⊤, the rule indexes are followed to collect every basic concept that can occur in a conclusion about a collected
+     * concept:
+     * <ul>
+     *     <li>CR1: the told superclasses B of A ⊑ B</li>
+     *     <li>CR2: the superclasses C of A ⊓ B ⊑ C, for every conjunct partner B</li>
+     *     <li>CR3: the fillers B of A ⊑ ∃r.B</li>
+     *     <li>CR4: the superclasses C of ∃r.A ⊑ C</li>
+     * </ul>
+     * The result is an over-approximation of the concepts involved in the derivation; CR5 only needs the contexts of the fillers, which are
+     * collected by CR3.</p>
+     *
+     * <p>CR6 is not local: a conclusion about a nominal can depend on any concept that reaches it through existential restrictions. For this
+     * reason, if a nominal is reachable from {@code concept}, no goal-directed saturation is possible and {@code null} is returned.</p>
+     *
+     * <p><em>Note.</em> The rule indexes of {@code ontologyAccessManager} must have already been computed.</p>
+     * @param ontologyAccessManager The access manager whose rule indexes are followed
+     * @param concept The concept whose subsumers have to be computed
+     * @return The entities to saturate, or {@code null} if the goal-directed saturation is not applicable
+     */
+    public static Set<OWLEntity> computeGoalEntities(OntologyAccessManager ontologyAccessManager, OWLClass concept) {
+        ToldSuperclassesInferenceRule cr1 = ontologyAccessManager.getRule(ToldSuperclassesInferenceRule.class);
+        IntersectionSuperclassesInferenceRule cr2 = ontologyAccessManager.getRule(IntersectionSuperclassesInferenceRule.class);
+        SubclassRoleExpansionInferenceRule cr3 = ontologyAccessManager.getRule(SubclassRoleExpansionInferenceRule.class);
+        SuperclassRoleExpansionInferenceRule cr4 = ontologyAccessManager.getRule(SuperclassRoleExpansionInferenceRule.class);
+
+        Set<OWLClassExpression> reached = new HashSet<>();
+        Deque<OWLClassExpression> toVisit = new ArrayDeque<>();
+        reached.add(concept);
+        toVisit.add(concept);
+        OWLClass thing = OWLManager.getOWLDataFactory().getOWLThing();
+        if (reached.add(thing)) {
+            toVisit.add(thing);
+        }
+
+        while (!toVisit.isEmpty()) {
+            OWLClassExpression current = toVisit.poll();
+            if (current instanceof OWLObjectOneOf) {
+                return null;
+            }
+
+            if (cr1 != null && cr1.getAxioms().containsKey(current)) {
+                visitAll(cr1.getAxioms().get(current), reached, toVisit);
+            }
+            if (cr2 != null && cr2.getAxioms().containsKey(current)) {
+                for (Set<OWLClassExpression> superclasses : cr2.getAxioms().get(current).values()) {
+                    visitAll(superclasses, reached, toVisit);
+                }
+            }
+            if (cr3 != null && cr3.getAxioms().containsKey(current)) {
+                for (Entry<OWLObjectPropertyExpression, OWLClassExpression> entry : cr3.getAxioms().get(current)) {
+                    OWLClassExpression filler = entry.getValue();
+                    if (reached.add(filler)) {
+                        toVisit.add(filler);
+                    }
+                }
+            }
+            if (cr4 != null && cr4.getFillerToRole().containsKey(current)) {
+                for (Set<OWLClassExpression> superclasses : cr4.getFillerToRole().get(current).values()) {
+                    visitAll(superclasses, reached, toVisit);
+                }
+            }
+        }
+
+        Set<OWLEntity> entities = new HashSet<>();
+        for (OWLClassExpression classExpression : reached) {
+            if (classExpression instanceof OWLClass && !classExpression.isOWLNothing()) {
+                entities.add((OWLClass) classExpression);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Marks the given concepts as reached and queues up the ones that had not been reached yet.
+     * @param concepts The concepts to visit
+     * @param reached The concepts reached so far
+     * @param toVisit The queue of concepts to visit
+     */
+    private static void visitAll(Collection<OWLClassExpression> concepts, Set<OWLClassExpression> reached, Deque<OWLClassExpression> toVisit) {
+        for (OWLClassExpression c : concepts) {
+            if (reached.add(c)) {
+                toVisit.add(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.elppreasoner.saturation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Paths;
+
+import org.semanticweb.owlapi.model.OWLOntology;
+
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.reasoner.querying.OntologySnapshot;
+import com.reasoner.saturation.OntologySaturator;
+import com.reasoner.saturation.SaturationShard;
+
+/**
+ * Worker process of a {@link ShardedSaturationEngine}: it reads the ontology from the snapshot written by the coordinator, connects to it and
+ * saturates its shard (see {@link SaturationShard}) until the coordinator stops it. <p>
+ * Arguments: the port of the coordinator, the shard, the number of shards, the snapshot file and its content hash, the number of saturation
+ * threads, whether the fused rules are enabled and the size of a batch.
+ */
+public final class ShardWorker {
+
+    private ShardWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 8){
+            System.err.println("Usage: ShardWorker <port> <shard> <shardCount> <snapshot> <contentHash> <threadCount> <ruleFusion> <batchSize>");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[0]);
+        int shard = Integer.parseInt(args[1]);
+        int shardCount = Integer.parseInt(args[2]);
+        OWLOntology ontology = OntologySnapshot.read(Paths.get(args[3]), args[4]);
+        if(ontology == null){
+            throw new IOException("No snapshot of the ontology in " + args[3]);
+        }
+
+        OntologySaturator saturator = new ELPPReasoner(ontology, false, false).getOntologySaturator();
+        saturator.setThreadCount(Integer.parseInt(args[5]));
+        saturator.getOntologyAccessManager().setRuleFusion(Boolean.parseBoolean(args[6]));
+        try(Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)){
+            socket.setTcpNoDelay(true);
+            new SaturationShard(saturator, shard, shardCount, Integer.parseInt(args[7])).run(
+                new DataInputStream(new BufferedInputStream(socket.getInputStream())),
+                new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))
+            );
+        }
+        System.exit(0);
+    }
+}
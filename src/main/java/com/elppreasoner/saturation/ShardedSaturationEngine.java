@@ -0,0 +1,377 @@
+package com.elppreasoner.saturation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.querying.OntologySnapshot;
+import com.reasoner.saturation.SaturationEngine;
+import com.reasoner.saturation.SaturationShard;
+
+/**
+ * <p>{@link ShardedSaturationEngine} is a {@link SaturationEngine} that saturates the ontology in several worker processes on the same machine,
+ * so that the contexts do not have to fit in a single heap. The entities are partitioned into shards by the hash of their IRIs, and every
+ * worker (see {@link ShardWorker}) saturates the contexts of one shard (see {@link SaturationShard}).</p>
+ *
+ * <p>This engine is the coordinator. It writes the axioms to reason with to a temporary {@link OntologySnapshot}, from which every worker
+ * builds the same rule indexes, and it starts the workers, which connect to it through a loopback socket. The workers send the conclusions
+ * for the contexts of the other shards to the coordinator, in batches, and the coordinator relays every batch to its shard. The saturation is
+ * over when every worker has reported that it is idle after receiving all the batches relayed to it: the coordinator then collects and merges
+ * the conclusions of all the shards, which can be given to the {@code ELPPTaxonomyBuilder} as usual, and it stops the workers.</p>
+ *
+ * <p><em>Note.</em> The workers run the rules of a new {@code ELPPReasoner}, i.e. the completion rules and the rules provided through the
+ * {@code InferenceRule} service: the other rules registered to the {@link OntologyAccessManager} are not applied. The saturation cannot be
+ * updated incrementally. The workers are started with the class path of the current JVM, unless another command is given (see
+ * {@link #setWorkerCommand(List)}), e.g. when the reasoner is loaded by a custom class loader.</p>
+ */
+public class ShardedSaturationEngine implements SaturationEngine {
+    /**
+     * Time to wait for a worker to connect, or to stop, in milliseconds.
+     */
+    private static final int WORKER_TIMEOUT = 60_000;
+
+    /**
+     * Time between two checks that the workers are still running while the coordinator waits for them, in milliseconds.
+     */
+    private static final int WORKER_POLL_INTERVAL = 100;
+
+    private final int shardCount;
+    private List<String> jvmArguments = Collections.emptyList();
+    private List<String> workerCommand = null;
+    private int batchSize = SaturationShard.DEFAULT_BATCH_SIZE;
+    private OWLSubClassOfAxiom inconsistencyWitness = null;
+
+    /**
+     * Create an engine that saturates the ontology in the given number of worker processes.
+     * @param shardCount the number of shards, i.e. of workers
+     */
+    public ShardedSaturationEngine(int shardCount) {
+        if(shardCount < 1){
+            throw new IllegalArgumentException("The number of shards must be at least 1.");
+        }
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Set the arguments given to the JVM of every worker, e.g. its maximum heap size.
+     * @param jvmArguments
+     */
+    public void setJvmArguments(List<String> jvmArguments) {
+        this.jvmArguments = new ArrayList<>(jvmArguments);
+    }
+
+    public List<String> getJvmArguments() {
+        return Collections.unmodifiableList(jvmArguments);
+    }
+
+    /**
+     * Set the command that starts the JVM of a worker, which is followed by the JVM arguments (see {@link #setJvmArguments(List)}), the
+     * main class {@link ShardWorker} and its arguments, e.g. {@code [/usr/bin/java, -cp, reasoner.jar]}. By default ({@code null}), the
+     * java executable and the class path ({@code java.class.path}) of the current JVM are used.
+     * @param workerCommand the command, or {@code null} to use the current JVM
+     */
+    public void setWorkerCommand(List<String> workerCommand) {
+        this.workerCommand = workerCommand == null ? null : new ArrayList<>(workerCommand);
+    }
+
+    /**
+     * Get the command that starts the JVM of a worker (see {@link #setWorkerCommand(List)}).
+     * @return List of the command and its arguments.
+     */
+    public List<String> getWorkerCommand() {
+        if(workerCommand != null){
+            return Collections.unmodifiableList(workerCommand);
+        }
+        return Collections.unmodifiableList(Arrays.asList(
+            Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", System.getProperty("java.class.path")
+        ));
+    }
+
+    /**
+     * Set the number of axioms of a batch sent by a worker (by default, {@link SaturationShard#DEFAULT_BATCH_SIZE}).
+     * @param batchSize
+     */
+    public void setBatchSize(int batchSize) {
+        if(batchSize < 1){
+            throw new IllegalArgumentException("The size of a batch must be at least 1.");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public Set<OWLSubClassOfAxiom> saturate(OntologyAccessManager ontologyAccessManager, boolean concurrentMode) {
+        return saturate(ontologyAccessManager, concurrentMode ? Runtime.getRuntime().availableProcessors() : 1);
+    }
+
+    /**
+     * Saturate the ontology in the worker processes. The given threads are shared among the workers, each of which has at least one.
+     * @param ontologyAccessManager
+     * @param threadCount
+     * @return Set of conclusions.
+     */
+    @Override
+    public Set<OWLSubClassOfAxiom> saturate(OntologyAccessManager ontologyAccessManager, int threadCount) {
+        inconsistencyWitness = null;
+        Path snapshot = null;
+        List<Process> processes = new ArrayList<>();
+        boolean stopped = false;
+        try(ServerSocket serverSocket = new ServerSocket(0, shardCount, InetAddress.getLoopbackAddress())){
+            snapshot = Files.createTempFile("elpp-shards", ".snapshot");
+            String contentHash = Long.toHexString(System.nanoTime());
+            Stream<OWLAxiom> axioms = Stream.concat(
+                ontologyAccessManager.getOntology().axioms()
+                    .filter(axiom -> !axiom.isOfType(AxiomType.SUBCLASS_OF) && OntologySnapshot.isSupported(axiom)),
+                ontologyAccessManager.axioms()
+            );
+            if(!OntologySnapshot.write(axioms, snapshot, contentHash)){
+                throw new IllegalStateException("The ontology cannot be sent to the shard workers");
+            }
+
+            int workerThreads = Math.max(1, threadCount / shardCount);
+            for(int shard = 0; shard < shardCount; shard++){
+                processes.add(startWorker(serverSocket.getLocalPort(), shard, snapshot, contentHash, workerThreads,
+                    ontologyAccessManager.isRuleFusion()));
+            }
+            Set<OWLSubClassOfAxiom> conclusions = coordinate(serverSocket, processes);
+            stopped = true;
+            return conclusions;
+        } catch (IOException e) {
+            throw new IllegalStateException("The sharded saturation failed", e);
+        } finally {
+            for(Process process : processes){
+                try{
+                    // The workers are only waited for when they have been told to stop
+                    if(!stopped || !process.waitFor(WORKER_TIMEOUT, TimeUnit.MILLISECONDS)){
+                        process.destroyForcibly();
+                    }
+                } catch (InterruptedException e) {
+                    process.destroyForcibly();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if(snapshot != null){
+                try{
+                    Files.deleteIfExists(snapshot);
+                } catch (IOException e) {
+                    // The temporary file is left behind
+                }
+            }
+        }
+    }
+
+    @Override
+    public OWLSubClassOfAxiom getInconsistencyWitness() {
+        return inconsistencyWitness;
+    }
+
+    private Process startWorker(int port, int shard, Path snapshot, String contentHash, int threadCount, boolean ruleFusion) throws IOException {
+        List<String> command = new ArrayList<>(getWorkerCommand());
+        command.addAll(jvmArguments);
+        command.addAll(Arrays.asList(
+            ShardWorker.class.getName(),
+            Integer.toString(port),
+            Integer.toString(shard),
+            Integer.toString(shardCount),
+            snapshot.toString(),
+            contentHash,
+            Integer.toString(threadCount),
+            Boolean.toString(ruleFusion),
+            Integer.toString(batchSize)
+        ));
+        return new ProcessBuilder(command).inheritIO().start();
+    }
+
+    /**
+     * Relay the batches among the workers until the saturation is over, then collect the conclusions and stop the workers.
+     * @param serverSocket
+     * @param processes the workers, by shard
+     * @return Set of conclusions.
+     * @throws IOException if a worker cannot be reached, or has exited
+     */
+    private Set<OWLSubClassOfAxiom> coordinate(ServerSocket serverSocket, List<Process> processes) throws IOException {
+        Socket[] sockets = new Socket[shardCount];
+        DataOutputStream[] outputs = new DataOutputStream[shardCount];
+        BlockingQueue<Frame> frames = new LinkedBlockingQueue<>();
+        try{
+            serverSocket.setSoTimeout(WORKER_POLL_INTERVAL);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WORKER_TIMEOUT);
+            for(int i = 0; i < shardCount; i++){
+                Socket socket = accept(serverSocket, processes, deadline);
+                socket.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                if(in.readByte() != SaturationShard.HELLO){
+                    throw new IOException("Unexpected first frame of a shard worker");
+                }
+                int shard = ByteBuffer.wrap(SaturationShard.readPayload(in)).getInt();
+                if(shard < 0 || shard >= shardCount || sockets[shard] != null){
+                    throw new IOException("Unexpected shard worker " + shard);
+                }
+                sockets[shard] = socket;
+                outputs[shard] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                startReader(shard, in, frames);
+            }
+
+            // The last report of every worker, i.e. the number of batches it had received (-1 until it reports)
+            long[] forwarded = new long[shardCount];
+            long[] idle = new long[shardCount];
+            Arrays.fill(idle, -1);
+            while(!isQuiescent(forwarded, idle)){
+                Frame frame = takeFrame(frames, processes);
+                if(frame.type == SaturationShard.BATCH){
+                    ByteBuffer payload = ByteBuffer.wrap(frame.payload);
+                    int target = payload.getInt();
+                    SaturationShard.writeFrame(outputs[target], SaturationShard.BATCH,
+                        Arrays.copyOfRange(frame.payload, payload.position(), frame.payload.length));
+                    forwarded[target]++;
+                } else if(frame.type == SaturationShard.IDLE){
+                    idle[frame.shard] = ByteBuffer.wrap(frame.payload).getLong();
+                } else if(frame.type == SaturationShard.WITNESS){
+                    inconsistencyWitness = SaturationShard.decode(ByteBuffer.wrap(frame.payload)).get(0);
+                    break;
+                }
+            }
+
+            for(DataOutputStream out : outputs){
+                SaturationShard.writeFrame(out, SaturationShard.CONCLUSIONS, new byte[0]);
+            }
+            Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
+            for(int collected = 0; collected < shardCount;){
+                Frame frame = takeFrame(frames, processes);
+                if(frame.type == SaturationShard.CONCLUSIONS){
+                    conclusions.addAll(SaturationShard.decode(ByteBuffer.wrap(frame.payload)));
+                    collected++;
+                }
+            }
+            for(DataOutputStream out : outputs){
+                SaturationShard.writeFrame(out, SaturationShard.STOP, new byte[0]);
+            }
+            return conclusions;
+        } finally {
+            for(Socket socket : sockets){
+                if(socket != null){
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    private static boolean isQuiescent(long[] forwarded, long[] idle) {
+        for(int shard = 0; shard < forwarded.length; shard++){
+            if(idle[shard] != forwarded[shard]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Accept the connection of a worker, unless a worker has exited or the deadline has passed.
+     */
+    private static Socket accept(ServerSocket serverSocket, List<Process> processes, long deadline) throws IOException {
+        for(;;){
+            try{
+                return serverSocket.accept();
+            } catch (SocketTimeoutException e) {
+                checkWorkers(processes);
+                if(System.nanoTime() - deadline > 0){
+                    throw new IOException("The shard workers have not connected within " + WORKER_TIMEOUT + " ms", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Take the next frame of the workers, unless a worker has exited.
+     */
+    private static Frame takeFrame(BlockingQueue<Frame> frames, List<Process> processes) throws IOException {
+        Frame frame;
+        try{
+            while((frame = frames.poll(WORKER_POLL_INTERVAL, TimeUnit.MILLISECONDS)) == null){
+                checkWorkers(processes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the shard workers", e);
+        }
+        if(frame.payload == null){
+            throw new IOException("The worker of shard " + frame.shard + " has stopped");
+        }
+        return frame;
+    }
+
+    /**
+     * Check that no worker has exited: they only exit when they are told to stop.
+     */
+    private static void checkWorkers(List<Process> processes) throws IOException {
+        for(int shard = 0; shard < processes.size(); shard++){
+            Process process = processes.get(shard);
+            if(!process.isAlive()){
+                throw new IOException("The worker of shard " + shard + " has exited with code " + process.exitValue());
+            }
+        }
+    }
+
+    /**
+     * Read the frames of a worker in a daemon thread. When the worker stops, a frame without payload is queued.
+     */
+    private static void startReader(int shard, DataInputStream in, BlockingQueue<Frame> frames) {
+        Thread reader = new Thread(() -> {
+            try{
+                for(;;){
+                    byte type = in.readByte();
+                    frames.add(new Frame(shard, type, SaturationShard.readPayload(in)));
+                }
+            } catch (IOException e) {
+                frames.add(new Frame(shard, (byte) -1, null));
+            }
+        }, "shard-reader-" + shard);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private static final class Frame {
+        private final int shard;
+        private final byte type;
+        private final byte[] payload;
+
+        Frame(int shard, byte type, byte[] payload) {
+            this.shard = shard;
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+}
@@ -98,6 +98,36 @@ public class BottomSuperclassRoleExpansionIRContext extends InferenceRuleContext
         return conclusions;
     }
 
+    @Override
+    public boolean removeProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        if(subclassOfBottom != null && Objects.equals(subclassOfBottom, axiom)){
+            subclassOfBottom = null;
+            return true;
+        }
+        return processedAxioms.remove(axiom);
+    }
+
+    @Override
+    protected void copyProcessedAxioms(InferenceRuleContext<Object, Object> context) {
+        super.copyProcessedAxioms(context);
+        subclassOfBottom = ((BottomSuperclassRoleExpansionIRContext) context).subclassOfBottom;
+    }
+
+    @Override
+    public Set<OWLSubClassOfAxiom> getAllProcessedAxioms() {
+        final Set<OWLSubClassOfAxiom> processedAxioms = new HashSet<>(this.processedAxioms);
+        if(subclassOfBottom != null){
+            processedAxioms.add(subclassOfBottom);
+        }
+        return processedAxioms;
+    }
+
+    @Override
+    protected void clearProcessedAxioms() {
+        super.clearProcessedAxioms();
+        subclassOfBottom = null;
+    }
+
     @Override
     public Set<OWLSubClassOfAxiom> compute(OWLSubClassOfAxiom axiom) {
         OWLDataFactory owlDataFactory = OWLManager.getOWLDataFactory();
@@ -0,0 +1,136 @@
+package com.elppreasoner.saturation.contexts;
+
+import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassABasicConcept;
+import static com.elppreasoner.normalization.NormalizationUtilities.isSuperclassABasicConcept;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.elppreasoner.reasoning.rules.DisjointClassesInferenceRule;
+import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.saturation.InferenceRuleContext;
+
+/**
+ * Context of the disjoint classes rule for an entity X. For every disjointness group that X belongs to, it keeps the first member Ci such
+ * that X ⊑ Ci: as soon as X gains a second member of the same group, X ⊑ ⊥ is derived.
+ */
+public class DisjointClassesIRContext extends InferenceRuleContext<OWLClassExpression, int[]> {
+
+    private final Map<Integer, OWLClassExpression> membersByGroup = new HashMap<>();
+
+    public DisjointClassesIRContext(InferenceRule inferenceRule, OWLEntity entity) {
+        super((InferenceRule<OWLClassExpression, int[]>) inferenceRule, entity);
+    }
+
+    @Override
+    public String id(){
+        return "12";
+    }
+
+    @Override
+    protected boolean isTargetEntity(OWLSubClassOfAxiom axiom) {
+        OWLClassExpression subclass = axiom.getSubClass();
+        OWLClassExpression superclass = axiom.getSuperClass();
+        return isSubclassABasicConcept(subclass) && isSuperclassABasicConcept(superclass) && Objects.equals(subclass, getEntity());
+    }
+
+    @Override
+    public boolean addProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        if(!isTargetEntity(axiom)) {
+            throw new IllegalArgumentException("Axiom is not for the target entity");
+        }
+        if(!processedAxioms.add(axiom)){
+            return false;
+        }
+        int[] groups = getGroups(axiom.getSuperClass());
+        if(groups != null){
+            for(int group : groups){
+                membersByGroup.putIfAbsent(group, axiom.getSuperClass());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean hasProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        return processedAxioms.contains(axiom);
+    }
+
+    @Override
+    public boolean removeProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        if(!processedAxioms.remove(axiom)){
+            return false;
+        }
+        OWLClassExpression member = axiom.getSuperClass();
+        int[] groups = getGroups(member);
+        if(groups != null){
+            for(int group : groups){
+                if(Objects.equals(membersByGroup.get(group), member)){
+                    // Another member of the group, if any, takes the place of the removed one
+                    membersByGroup.remove(group);
+                    processedAxioms.stream()
+                        .map(OWLSubClassOfAxiom::getSuperClass)
+                        .filter(superclass -> contains(getGroups(superclass), group))
+                        .findAny()
+                        .ifPresent(superclass -> membersByGroup.put(group, superclass));
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void copyProcessedAxioms(InferenceRuleContext<OWLClassExpression, int[]> context) {
+        super.copyProcessedAxioms(context);
+        membersByGroup.putAll(((DisjointClassesIRContext) context).membersByGroup);
+    }
+
+    @Override
+    protected void clearProcessedAxioms() {
+        super.clearProcessedAxioms();
+        membersByGroup.clear();
+    }
+
+    @Override
+    public Set<OWLSubClassOfAxiom> compute(OWLSubClassOfAxiom axiom) {
+        Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
+        OWLClassExpression member = axiom.getSuperClass();
+        int[] groups = getGroups(member);
+        if(groups == null){
+            return conclusions;
+        }
+        for(int group : groups){
+            if(!Objects.equals(membersByGroup.get(group), member)){
+                OWLDataFactory factory = OWLManager.getOWLDataFactory();
+                conclusions.add(factory.getOWLSubClassOfAxiom(getEntity(), factory.getOWLNothing()));
+                break;
+            }
+        }
+        return conclusions;
+    }
+
+    private int[] getGroups(OWLClassExpression member) {
+        return ((DisjointClassesInferenceRule) getInferenceRule()).getGroups(member);
+    }
+
+    private static boolean contains(int[] groups, int group) {
+        if(groups != null){
+            for(int g : groups){
+                if(g == group){
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.elppreasoner.saturation.contexts;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassABasicConcept;
+import static com.elppreasoner.normalization.NormalizationUtilities.isSuperclassABasicConcept;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.elppreasoner.reasoning.rules.FusedSubsumerInferenceRule;
+import com.reasoner.reasoning.rules.CompactIndex;
+import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.saturation.InferenceRuleContext;
+
+/**
+ * Context of the {@link FusedSubsumerInferenceRule}: every new subsumer X ⊑ A is looked up in the indexes of CR1, CR2 and CR3 in a
+ * single pass.
+ */
+public class FusedSubsumerIRContext extends InferenceRuleContext<Object, Object> {
+
+    public FusedSubsumerIRContext(InferenceRule inferenceRule, OWLEntity entity) {
+        super((InferenceRule<Object, Object>) inferenceRule, entity);
+    }
+
+    @Override
+    public String id(){
+        return "1-3";
+    }
+
+    @Override
+    public boolean addProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        if(!isTargetEntity(axiom)) {
+            throw new IllegalArgumentException("Axiom is not for the target entity");
+        }
+        return processedAxioms.add(axiom);
+    }
+
+    @Override
+    protected boolean isTargetEntity(OWLSubClassOfAxiom axiom) {
+        OWLClassExpression subclass = axiom.getSubClass();
+        OWLClassExpression superclass = axiom.getSuperClass();
+        final boolean check = (!isSubclassABasicConcept(subclass) || !isSuperclassABasicConcept(superclass))
+            || (!Objects.equals(subclass, getEntity()));
+        return !check;
+    }
+
+    @Override
+    public boolean hasProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        return processedAxioms.contains(axiom);
+    }
+
+    @Override
+    public Set<OWLSubClassOfAxiom> compute(OWLSubClassOfAxiom axiom) {
+        OWLClassExpression subclass = axiom.getSubClass();
+        OWLClassExpression superclass = axiom.getSuperClass();
+        FusedSubsumerInferenceRule rule = (FusedSubsumerInferenceRule) getInferenceRule();
+        OWLDataFactory factory = OWLManager.getOWLDataFactory();
+        Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
+
+        // CR1: A ⊑ B
+        CompactIndex<OWLClassExpression, Void, OWLClassExpression> toldSuperclasses = rule.getToldSuperclasses().getCompactIndex();
+        int row = toldSuperclasses.row(superclass);
+        if(row >= 0){
+            for(int i = toldSuperclasses.start(row); i < toldSuperclasses.end(row); i++){
+                conclusions.add(factory.getOWLSubClassOfAxiom(subclass, toldSuperclasses.value(i)));
+            }
+        }
+
+        // CR2: A ⊓ A' ⊑ B, where X ⊑ A' has already been processed
+        CompactIndex<OWLClassExpression, OWLClassExpression, OWLClassExpression> intersections = rule.getIntersectionSuperclasses().getCompactIndex();
+        row = intersections.row(superclass);
+        if(row >= 0){
+            OWLClassExpression partner = null;
+            boolean processedPartner = false;
+            for(int i = intersections.start(row); i < intersections.end(row); i++){
+                if(partner != intersections.label(i)){
+                    partner = intersections.label(i);
+                    processedPartner = Objects.equals(partner, getEntity()) || hasProcessedAxiom(factory.getOWLSubClassOfAxiom(subclass, partner));
+                }
+                if(processedPartner){
+                    conclusions.add(factory.getOWLSubClassOfAxiom(subclass, intersections.value(i)));
+                }
+            }
+        }
+
+        // CR3: A ⊑ ∃r.B
+        CompactIndex<OWLClassExpression, OWLObjectPropertyExpression, OWLClassExpression> existentials = rule.getSubclassRoleExpansion().getCompactIndex();
+        row = existentials.row(superclass);
+        if(row >= 0){
+            for(int i = existentials.start(row); i < existentials.end(row); i++){
+                OWLClassExpression exists = factory.getOWLObjectSomeValuesFrom(existentials.label(i), existentials.value(i));
+                conclusions.add(factory.getOWLSubClassOfAxiom(subclass, exists));
+            }
+        }
+
+        return conclusions;
+    }
+
+}
@@ -14,6 +14,8 @@ import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 
+import com.elppreasoner.reasoning.rules.IntersectionSuperclassesInferenceRule;
+import com.reasoner.reasoning.rules.CompactIndex;
 import com.reasoner.reasoning.rules.InferenceRule;
 import com.reasoner.saturation.InferenceRuleContext;
 
@@ -54,34 +56,27 @@ public class IntersectionSuperclassesIRContext extends InferenceRuleContext<OWLC
     public Set<OWLSubClassOfAxiom> compute(OWLSubClassOfAxiom axiom) {
         OWLClassExpression superclass = axiom.getSuperClass();
         OWLClassExpression subclass = axiom.getSubClass();
-        if(!getInferenceRule().getAxioms().containsKey(superclass)){
+        CompactIndex<OWLClassExpression, OWLClassExpression, OWLClassExpression> intersections =
+            ((IntersectionSuperclassesInferenceRule) getInferenceRule()).getCompactIndex();
+        int row = intersections.row(superclass);
+        if(row < 0){
             return new HashSet<>();
         }
-        Set<OWLClassExpression> intersectionSuperclasses = getIntersectionSuperclasses(subclass, superclass);
         OWLDataFactory factory = OWLManager.getOWLDataFactory();
         Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
-        intersectionSuperclasses.forEach(
-            sup -> conclusions.add(factory.getOWLSubClassOfAxiom(subclass, sup))
-        );
-        return conclusions;
-    }
-
-    private Set<OWLClassExpression> getIntersectionSuperclasses(
-        OWLClassExpression subclass,
-        OWLClassExpression superclass
-    ){
-        OWLDataFactory factory = OWLManager.getOWLDataFactory();
-        Set<OWLClassExpression> superclasses = new HashSet<>();
-
-        for(OWLClassExpression sup : getInferenceRule().getAxioms().get(superclass).keySet()){
-            OWLSubClassOfAxiom newAxiom = factory.getOWLSubClassOfAxiom(subclass, sup);
-            if(!Objects.equals(sup, getEntity()) && !hasProcessedAxiom(newAxiom)){
-                continue;
+        // The superclasses of the same partner are contiguous and share its label, so the partner is only checked once
+        OWLClassExpression partner = null;
+        boolean processedPartner = false;
+        for(int i = intersections.start(row); i < intersections.end(row); i++){
+            if(partner != intersections.label(i)){
+                partner = intersections.label(i);
+                processedPartner = Objects.equals(partner, getEntity()) || hasProcessedAxiom(factory.getOWLSubClassOfAxiom(subclass, partner));
+            }
+            if(processedPartner){
+                conclusions.add(factory.getOWLSubClassOfAxiom(subclass, intersections.value(i)));
             }
-            superclasses.addAll(getInferenceRule().getAxioms().get(superclass).get(sup));
         }
-
-        return superclasses;
+        return conclusions;
     }
 
 }
@@ -125,6 +125,27 @@ public class NominalChainExpansionIRContext extends InferenceRuleContext<Object,
         return processedAxioms.contains(axiom);
     }
 
+    @Override
+    public boolean removeProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        // The relation graph cannot be shrunk: the contexts of individuals have to be saturated again from scratch
+        throw new UnsupportedOperationException("Processed axioms cannot be removed from a CR6 context");
+    }
+
+    @Override
+    protected void copyProcessedAxioms(InferenceRuleContext<Object, Object> context) {
+        // The relation graph is built again from the processed axioms
+        context.getProcessedAxioms().forEach(this::addProcessedAxiom);
+    }
+
+    @Override
+    protected void clearProcessedAxioms() {
+        super.clearProcessedAxioms();
+        individuals.clear();
+        subclasses.clear();
+        superclassesBySubclass.clear();
+        relationGraph.clear();
+    }
+
     @Override
     public Set<OWLSubClassOfAxiom> compute(OWLSubClassOfAxiom axiom) {
         if(subclasses.size() < 2) return new HashSet<>();
@@ -0,0 +1,210 @@
+package com.elppreasoner.saturation.contexts;
+
+import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassABasicConcept;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.elppreasoner.reasoning.rules.RoleChainExpansionInferenceRule;
+import com.reasoner.querying.RoleHierarchy;
+import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.saturation.InferenceRuleContext;
+
+/**
+ * Context of the role chain expansion (CR11) for an entity Y. It keeps the links that reach Y (X ⊑ ∃r.Y, the backward links) and the
+ * links that leave Y (Y ⊑ ∃s.Z, the forward links), grouped by role: a new link is only joined with the links whose role has a
+ * non-empty composition with its own (see {@link RoleHierarchy#getCompositionIds(int, int)}).
+ */
+public class RoleChainExpansionIRContext extends InferenceRuleContext<Object,Object> {
+
+    private final Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> subclassesByProperty = new HashMap<>();
+    private final Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> fillersByProperty = new HashMap<>();
+
+    public RoleChainExpansionIRContext(InferenceRule inferenceRule, OWLEntity entity) {
+        super(inferenceRule, entity);
+    }
+
+    @Override
+    public String id(){
+        return "11";
+    }
+
+    @Override
+    protected boolean isTargetEntity(OWLSubClassOfAxiom axiom) {
+        OWLClassExpression subclass = axiom.getSubClass();
+        OWLClassExpression superclass = axiom.getSuperClass();
+        if(!isSubclassABasicConcept(subclass) || !(superclass instanceof OWLObjectSomeValuesFrom)){
+            return false;
+        }
+        return Objects.equals(subclass, getEntity()) || Objects.equals(((OWLObjectSomeValuesFrom) superclass).getFiller(), getEntity());
+    }
+
+    @Override
+    public boolean addProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        if(!isTargetEntity(axiom)){
+            throw new IllegalArgumentException("Axiom is not a target entity");
+        }
+        OWLObjectSomeValuesFrom someValuesFrom = (OWLObjectSomeValuesFrom) axiom.getSuperClass();
+        OWLObjectPropertyExpression property = someValuesFrom.getProperty();
+        boolean added = false;
+        if(Objects.equals(someValuesFrom.getFiller(), getEntity())){
+            added |= subclassesByProperty.computeIfAbsent(property, __ -> new HashSet<>()).add(axiom.getSubClass());
+        }
+        if(Objects.equals(axiom.getSubClass(), getEntity())){
+            added |= fillersByProperty.computeIfAbsent(property, __ -> new HashSet<>()).add(someValuesFrom.getFiller());
+        }
+        return added;
+    }
+
+    @Override
+    public boolean hasProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        if(!isTargetEntity(axiom)){
+            throw new IllegalArgumentException("Axiom is not a target entity");
+        }
+        OWLObjectSomeValuesFrom someValuesFrom = (OWLObjectSomeValuesFrom) axiom.getSuperClass();
+        OWLObjectPropertyExpression property = someValuesFrom.getProperty();
+        if(Objects.equals(someValuesFrom.getFiller(), getEntity())){
+            Set<OWLClassExpression> subclasses = subclassesByProperty.get(property);
+            return subclasses != null && subclasses.contains(axiom.getSubClass());
+        }
+        Set<OWLClassExpression> fillers = fillersByProperty.get(property);
+        return fillers != null && fillers.contains(someValuesFrom.getFiller());
+    }
+
+    @Override
+    public Set<OWLSubClassOfAxiom> getProcessedAxioms() {
+        Set<OWLSubClassOfAxiom> processedAxioms = new HashSet<>();
+        OWLDataFactory factory = OWLManager.getOWLDataFactory();
+        subclassesByProperty.forEach((property, subclasses) -> {
+            OWLObjectSomeValuesFrom someValuesFrom = factory.getOWLObjectSomeValuesFrom(property, getEntity());
+            subclasses.forEach(subclass -> processedAxioms.add(factory.getOWLSubClassOfAxiom(subclass, someValuesFrom)));
+        });
+        fillersByProperty.forEach((property, fillers) -> fillers.forEach(
+            filler -> processedAxioms.add(factory.getOWLSubClassOfAxiom(getEntity(), factory.getOWLObjectSomeValuesFrom(property, filler)))
+        ));
+        return processedAxioms;
+    }
+
+    @Override
+    public boolean removeProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        if(!isTargetEntity(axiom)){
+            return false;
+        }
+        OWLObjectSomeValuesFrom someValuesFrom = (OWLObjectSomeValuesFrom) axiom.getSuperClass();
+        OWLObjectPropertyExpression property = someValuesFrom.getProperty();
+        boolean removed = false;
+        if(Objects.equals(someValuesFrom.getFiller(), getEntity())){
+            removed |= removeValue(subclassesByProperty, property, axiom.getSubClass());
+        }
+        if(Objects.equals(axiom.getSubClass(), getEntity())){
+            removed |= removeValue(fillersByProperty, property, someValuesFrom.getFiller());
+        }
+        return removed;
+    }
+
+    private static boolean removeValue(Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> index, OWLObjectPropertyExpression property, OWLClassExpression value) {
+        Set<OWLClassExpression> values = index.get(property);
+        if(values == null || !values.remove(value)){
+            return false;
+        }
+        if(values.isEmpty()){
+            index.remove(property);
+        }
+        return true;
+    }
+
+    @Override
+    protected void copyProcessedAxioms(InferenceRuleContext<Object,Object> context) {
+        super.copyProcessedAxioms(context);
+        RoleChainExpansionIRContext chainContext = (RoleChainExpansionIRContext) context;
+        chainContext.subclassesByProperty.forEach((property, subclasses) -> subclassesByProperty.put(property, new HashSet<>(subclasses)));
+        chainContext.fillersByProperty.forEach((property, fillers) -> fillersByProperty.put(property, new HashSet<>(fillers)));
+    }
+
+    @Override
+    protected void clearProcessedAxioms() {
+        super.clearProcessedAxioms();
+        subclassesByProperty.clear();
+        fillersByProperty.clear();
+    }
+
+    @Override
+    public Set<OWLSubClassOfAxiom> compute(OWLSubClassOfAxiom axiom) {
+        Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
+        RoleHierarchy roleHierarchy = ((RoleChainExpansionInferenceRule) getInferenceRule()).getRoleHierarchy();
+        OWLObjectSomeValuesFrom someValuesFrom = (OWLObjectSomeValuesFrom) axiom.getSuperClass();
+        int role = roleHierarchy.getId(someValuesFrom.getProperty());
+        if(role < 0){
+            return conclusions;
+        }
+
+        // X ⊑ ∃r.Y, joined with every Y ⊑ ∃s.Z
+        if(Objects.equals(someValuesFrom.getFiller(), getEntity())){
+            join(roleHierarchy, role, roleHierarchy.getChainSecondIds(role), fillersByProperty, true, axiom.getSubClass(), conclusions);
+        }
+        // Y ⊑ ∃s.Z, joined with every X ⊑ ∃r.Y
+        if(Objects.equals(axiom.getSubClass(), getEntity())){
+            join(roleHierarchy, role, roleHierarchy.getChainFirstIds(role), subclassesByProperty, false, someValuesFrom.getFiller(), conclusions);
+        }
+        return conclusions;
+    }
+
+    /**
+     * Join a link with the links of this context whose role can be composed with its own. The smaller side of the join is scanned: either
+     * the partners of the role in the composition table, or the roles of the links of this context.
+     * @param roleHierarchy
+     * @param role the identifier of the role of the link
+     * @param partners the identifiers of the roles that can be composed with {@code role}
+     * @param links the links of this context that can be composed with the link, grouped by role
+     * @param isFirst whether the role of the link is the first one of the chain
+     * @param end the end of the link that is not the entity of this context
+     * @param conclusions the set the conclusions are added to
+     */
+    private void join(RoleHierarchy roleHierarchy, int role, int[] partners, Map<OWLObjectPropertyExpression, Set<OWLClassExpression>> links,
+            boolean isFirst, OWLClassExpression end, Set<OWLSubClassOfAxiom> conclusions) {
+        if(partners.length == 0 || links.isEmpty()){
+            return;
+        }
+        if(partners.length <= links.size()){
+            for(int partner : partners){
+                Set<OWLClassExpression> ends = links.get(roleHierarchy.getRole(partner));
+                if(ends != null){
+                    addConclusions(roleHierarchy, isFirst ? roleHierarchy.getCompositionIds(role, partner) : roleHierarchy.getCompositionIds(partner, role), isFirst, end, ends, conclusions);
+                }
+            }
+        } else{
+            links.forEach((property, ends) -> {
+                int partner = roleHierarchy.getId(property);
+                if(partner >= 0){
+                    addConclusions(roleHierarchy, isFirst ? roleHierarchy.getCompositionIds(role, partner) : roleHierarchy.getCompositionIds(partner, role), isFirst, end, ends, conclusions);
+                }
+            });
+        }
+    }
+
+    private static void addConclusions(RoleHierarchy roleHierarchy, int[] composition, boolean isFirst, OWLClassExpression end, Set<OWLClassExpression> ends,
+            Set<OWLSubClassOfAxiom> conclusions) {
+        OWLDataFactory factory = OWLManager.getOWLDataFactory();
+        for(int composedRole : composition){
+            OWLObjectPropertyExpression property = roleHierarchy.getRole(composedRole);
+            for(OWLClassExpression otherEnd : ends){
+                // X ⊑ ∃t.Z, where X is the start of the first link and Z is the end of the second one
+                OWLClassExpression subclass = isFirst ? end : otherEnd;
+                OWLClassExpression filler = isFirst ? otherEnd : end;
+                conclusions.add(factory.getOWLSubClassOfAxiom(subclass, factory.getOWLObjectSomeValuesFrom(property, filler)));
+            }
+        }
+    }
+
+}
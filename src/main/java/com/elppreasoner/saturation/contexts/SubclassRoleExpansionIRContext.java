@@ -15,6 +15,8 @@ import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 
+import com.elppreasoner.reasoning.rules.SubclassRoleExpansionInferenceRule;
+import com.reasoner.reasoning.rules.CompactIndex;
 import com.reasoner.reasoning.rules.InferenceRule;
 import com.reasoner.saturation.InferenceRuleContext;
 
@@ -53,19 +55,18 @@ public class SubclassRoleExpansionIRContext extends InferenceRuleContext<OWLClas
     @Override
     public Set<OWLSubClassOfAxiom> compute(OWLSubClassOfAxiom axiom) {
         OWLClassExpression superclass = axiom.getSuperClass();
-        Set<Entry<OWLObjectPropertyExpression, OWLClassExpression>> propertyFillerSet;
-        if(!getInferenceRule().getAxioms().containsKey(superclass)) {
+        CompactIndex<OWLClassExpression, OWLObjectPropertyExpression, OWLClassExpression> existentials =
+            ((SubclassRoleExpansionInferenceRule) getInferenceRule()).getCompactIndex();
+        int row = existentials.row(superclass);
+        if(row < 0) {
             return new HashSet<>();
         }
         OWLDataFactory factory = OWLManager.getOWLDataFactory();
-        propertyFillerSet = getInferenceRule().getAxioms().get(superclass);
         Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
-        propertyFillerSet.forEach(entry ->{
-            OWLObjectPropertyExpression property = entry.getKey();
-            OWLClassExpression filler = entry.getValue();
-            OWLClassExpression exists = factory.getOWLObjectSomeValuesFrom(property, filler);
+        for(int i = existentials.start(row); i < existentials.end(row); i++){
+            OWLClassExpression exists = factory.getOWLObjectSomeValuesFrom(existentials.label(i), existentials.value(i));
             conclusions.add(factory.getOWLSubClassOfAxiom(axiom.getSubClass(), exists));
-        });
+        }
         return conclusions;
     }
 
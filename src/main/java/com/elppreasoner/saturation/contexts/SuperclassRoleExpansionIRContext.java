@@ -3,6 +3,7 @@ package com.elppreasoner.saturation.contexts;
 import static com.elppreasoner.normalization.NormalizationUtilities.isSubclassABasicConcept;
 import static com.elppreasoner.normalization.NormalizationUtilities.isSuperclassABasicConcept;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -18,6 +19,7 @@ import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 
 import com.elppreasoner.reasoning.rules.SuperclassRoleExpansionInferenceRule;
+import com.reasoner.reasoning.rules.CompactIndex;
 import com.reasoner.reasoning.rules.InferenceRule;
 import com.reasoner.saturation.InferenceRuleContext;
 
@@ -97,6 +99,39 @@ public class SuperclassRoleExpansionIRContext extends InferenceRuleContext<OWLOb
         return processedAxioms;
     }
 
+    @Override
+    public boolean removeProcessedAxiom(OWLSubClassOfAxiom axiom) {
+        OWLClassExpression superclass = axiom.getSuperClass();
+
+        if(superclass instanceof OWLObjectSomeValuesFrom) {
+            OWLObjectPropertyExpression property = ((OWLObjectSomeValuesFrom) superclass).getProperty();
+            Set<OWLClassExpression> subclasses = subclassesByPropertyProcessedAxioms.get(property);
+            if(subclasses == null || !subclasses.remove(axiom.getSubClass())) {
+                return false;
+            }
+            if(subclasses.isEmpty()) {
+                subclassesByPropertyProcessedAxioms.remove(property);
+            }
+            return true;
+        } else{
+            return processedAxioms.remove(axiom);
+        }
+    }
+
+    @Override
+    protected void copyProcessedAxioms(InferenceRuleContext<OWLObjectPropertyExpression, Map<OWLClassExpression, Set<OWLClassExpression>>> context) {
+        super.copyProcessedAxioms(context);
+        ((SuperclassRoleExpansionIRContext) context).subclassesByPropertyProcessedAxioms.forEach(
+            (property, subclasses) -> subclassesByPropertyProcessedAxioms.put(property, new HashSet<>(subclasses))
+        );
+    }
+
+    @Override
+    protected void clearProcessedAxioms() {
+        super.clearProcessedAxioms();
+        subclassesByPropertyProcessedAxioms.clear();
+    }
+
     @Override
     public boolean hasProcessedAxiom(OWLSubClassOfAxiom axiom) {
         OWLClassExpression superclass = axiom.getSuperClass();
@@ -120,39 +155,51 @@ public class SuperclassRoleExpansionIRContext extends InferenceRuleContext<OWLOb
         Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
         OWLDataFactory factory = OWLManager.getOWLDataFactory();
 
+        // With role inclusions, X ⊑ ∃r.Y matches every ∃s.A ⊑ B such that r ⊑* s (see SuperclassRoleExpansionInferenceRule#getSuperRoles)
         if(superclass instanceof OWLObjectSomeValuesFrom) { // if the superclass is an existential restriction
             OWLObjectSomeValuesFrom someValuesFrom = (OWLObjectSomeValuesFrom) superclass;
-            OWLObjectPropertyExpression property = someValuesFrom.getProperty();
-            if(!getInferenceRule().getAxioms().containsKey(property)) {
-                return conclusions; // empty set
-            }
             SuperclassRoleExpansionInferenceRule rule = (SuperclassRoleExpansionInferenceRule) getInferenceRule();
-            Set<OWLClassExpression> fillers = rule.getAxioms().get(property).keySet();
-            for(OWLClassExpression filler:fillers){
-                OWLSubClassOfAxiom hypotheticalAxiom = factory.getOWLSubClassOfAxiom(getEntity(), filler);
-                if(!processedAxioms.contains(hypotheticalAxiom)) continue;
-                Set<OWLClassExpression> superclasses = rule.getAxioms().get(property).get(filler);
-                superclasses.forEach( superclass_ -> {
-                    conclusions.add(factory.getOWLSubClassOfAxiom(subclass, superclass_));
-                });
-            };
+            CompactIndex<OWLObjectPropertyExpression, OWLClassExpression, OWLClassExpression> index = rule.getCompactIndex();
+            for(OWLObjectPropertyExpression property: rule.getSuperRoles(someValuesFrom.getProperty())){
+                int row = index.row(property);
+                if(row < 0) continue;
+                // The superclasses of the same filler are contiguous and share its label, so the filler is only checked once
+                OWLClassExpression filler = null;
+                boolean processedFiller = false;
+                for(int i = index.start(row); i < index.end(row); i++){
+                    if(filler != index.label(i)){
+                        filler = index.label(i);
+                        processedFiller = processedAxioms.contains(factory.getOWLSubClassOfAxiom(getEntity(), filler));
+                    }
+                    if(processedFiller){
+                        conclusions.add(factory.getOWLSubClassOfAxiom(subclass, index.value(i)));
+                    }
+                }
+            }
         }
 
         else{ // if the superclass is a basic concept
             SuperclassRoleExpansionInferenceRule rule = (SuperclassRoleExpansionInferenceRule) getInferenceRule();
-            if(!rule.getFillerToRole().containsKey(superclass)){
+            CompactIndex<OWLClassExpression, OWLObjectPropertyExpression, OWLClassExpression> fillerToRole = rule.getCompactFillerToRole();
+            int row = fillerToRole.row(superclass);
+            if(row < 0){
                 return conclusions; // empty set
             }
-            Set<OWLObjectPropertyExpression> properties = rule.getFillerToRole().get(superclass).keySet();
-            for(OWLObjectPropertyExpression property: properties){
-                if(!subclassesByPropertyProcessedAxioms.containsKey(property)) continue;
-                Set<OWLClassExpression> subclasses = subclassesByPropertyProcessedAxioms.get(property);
-                Set<OWLClassExpression> superclasses = rule.getFillerToRole().get(superclass).get(property);
-                superclasses.forEach( superclass_ -> {
+            OWLObjectPropertyExpression property = null;
+            Collection<OWLObjectPropertyExpression> subProperties = null;
+            for(int i = fillerToRole.start(row); i < fillerToRole.end(row); i++){
+                if(property != fillerToRole.label(i)){
+                    property = fillerToRole.label(i);
+                    subProperties = rule.getSubRoles(property);
+                }
+                OWLClassExpression superclass_ = fillerToRole.value(i);
+                for(OWLObjectPropertyExpression subProperty: subProperties){
+                    Set<OWLClassExpression> subclasses = subclassesByPropertyProcessedAxioms.get(subProperty);
+                    if(subclasses == null) continue;
                     subclasses.forEach( subclass_ -> {
                         conclusions.add(factory.getOWLSubClassOfAxiom(subclass_, superclass_));
                     });
-                });
+                }
             }
         }
 
@@ -2,7 +2,6 @@
 package com.elppreasoner.saturation.contexts;
 
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -15,6 +14,8 @@ import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 
+import com.elppreasoner.reasoning.rules.ToldSuperclassesInferenceRule;
+import com.reasoner.reasoning.rules.CompactIndex;
 import com.reasoner.reasoning.rules.InferenceRule;
 import com.reasoner.saturation.InferenceRuleContext;
 
@@ -56,22 +57,17 @@ public class ToldSuperclassesIRContext extends InferenceRuleContext<OWLClassExpr
     public Set<OWLSubClassOfAxiom> compute(OWLSubClassOfAxiom axiom) {
         OWLClassExpression subclass = axiom.getSubClass();
         OWLClassExpression superclass = axiom.getSuperClass();
-        Map<OWLClassExpression, Set<OWLClassExpression>> supBySub = getInferenceRule().getAxioms();
-        final Set<OWLClassExpression> superclasses;
-
-        if(supBySub.containsKey(superclass)) {
-            superclasses = supBySub.get(superclass);
-        }
-        else{
+        CompactIndex<OWLClassExpression, Void, OWLClassExpression> supBySub = ((ToldSuperclassesInferenceRule) getInferenceRule()).getCompactIndex();
+        int row = supBySub.row(superclass);
+        if(row < 0){
             return new HashSet<>();
         }
         
         OWLDataFactory factory = OWLManager.getOWLDataFactory();
         Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
-        superclasses.forEach(sup -> {
-            OWLSubClassOfAxiom conclusion = factory.getOWLSubClassOfAxiom(subclass, sup);
-            conclusions.add(conclusion);
-        });
+        for(int i = supBySub.start(row); i < supBySub.end(row); i++){
+            conclusions.add(factory.getOWLSubClassOfAxiom(subclass, supBySub.value(i)));
+        }
         return conclusions;
     }
     
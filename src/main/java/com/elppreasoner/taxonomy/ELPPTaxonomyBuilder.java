@@ -1,8 +1,16 @@
 package com.elppreasoner.taxonomy;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
 
+import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 
@@ -34,9 +42,19 @@ import com.reasoner.taxonomy.TaxonomyBuilder;
  */
 public class ELPPTaxonomyBuilder implements TaxonomyBuilder {
     /**
-     * Boolean value that tells whether the taxonomy has to be built in parallel {@code (True)} or not {@code (False)}.
+     * The number of threads that reduce the transitive subsumptions: the taxonomy is built in parallel if it is greater than 1.
      */
-    private boolean concurrentMode;
+    private int threadCount;
+
+    /**
+     * The executor of the parts of the reduction, or {@code null} if every part is reduced by a new thread.
+     */
+    private Executor executor = null;
+
+    /**
+     * Tells whether the taxonomy that is being built has to be given up, e.g. because the reasoner has been interrupted.
+     */
+    private BooleanSupplier cancellation = () -> false;
 
     /**
      * <p> The public constructor of the taxonomy builder. The set of axioms is not required: the taxonomy builder is a helper class that, once
@@ -46,7 +64,7 @@ public class ELPPTaxonomyBuilder implements TaxonomyBuilder {
      * {@code ELPPTaxonomyBuilder(boolean isConcurrent)} instead. </p>
      */
     public ELPPTaxonomyBuilder() {
-        this.concurrentMode = false;
+        this.threadCount = 1;
     }
 
     /**
@@ -56,7 +74,54 @@ public class ELPPTaxonomyBuilder implements TaxonomyBuilder {
      * @param isConcurrent Tells whether the taxonomy has to be built in parallel {@code (True)} or not {@code (False)}.
      */
     public ELPPTaxonomyBuilder(boolean isConcurrent) {
-        this.concurrentMode = isConcurrent;
+        this.threadCount = isConcurrent ? Runtime.getRuntime().availableProcessors() : 1;
+    }
+
+    /**
+     * Sets the number of threads that reduce the transitive subsumptions (see {@code TaxonomyUtilities.reduceTransitiveSubsumptions}). By
+     * default, it is the number of available processors if the taxonomy builder is concurrent, and 1 otherwise.
+     * @param threadCount The number of threads, at least 1
+     */
+    public void setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The number of threads must be at least 1.");
+        }
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * Gets the number of threads that reduce the transitive subsumptions.
+     * @return The number of threads
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Sets the executor that reduces the parts of the transitive subsumptions, e.g. a {@code WorkerPool.Tenant} shared by several reasoners:
+     * the concepts are still split into {@code threadCount} parts. By default ({@code null}), every part is reduced by a new thread.
+     * @param executor The executor, or {@code null} to start the threads of the taxonomy builder
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Gets the executor that reduces the parts of the transitive subsumptions.
+     * @return The executor, or {@code null} if the taxonomy builder starts its own threads
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Sets the condition checked by the threads that reduce the transitive subsumptions in {@code build(Set<OWLSubClassOfAxiom> axioms)},
+     * before each of their concepts: as soon as it holds, they stop and no taxonomy is built. The updates of a taxonomy are never cancelled,
+     * since they change it in place.
+     * @param cancellation The condition, or {@code null} if the taxonomy is never cancelled
+     */
+    public void setCancellation(BooleanSupplier cancellation) {
+        this.cancellation = cancellation == null ? () -> false : cancellation;
     }
 
 
@@ -78,15 +143,133 @@ public class ELPPTaxonomyBuilder implements TaxonomyBuilder {
      * </ol></p>
      * @param axioms The axioms of the ontology used to build the taxonomy
      * @return The taxonomy with information about equivalent concepts and direct / non-direct subsumptions between concepts
+     * @throws CancellationException if the cancellation condition (see {@code setCancellation}) holds before the reduction is over
      */
     @Override
     public Taxonomy build(Set<OWLSubClassOfAxiom> axioms) {
         Map<OWLClassExpression, Set<OWLClassExpression>> classToAllSuperclasses = TaxonomyUtilities.computeTaxonomySuperConcepts(axioms);
 
-        TaxonomyReductionPOJO reductionPOJO = TaxonomyUtilities.reduceTransitiveSubsumptions(classToAllSuperclasses, this.concurrentMode);
+        TaxonomyReductionPOJO reductionPOJO = TaxonomyUtilities.reduceTransitiveSubsumptions(classToAllSuperclasses, classToAllSuperclasses.keySet(), this.threadCount, this.executor, this.cancellation);
         Map<OWLClassExpression, Set<OWLClassExpression>> classToDirectSuperclasses = reductionPOJO.getTaxonomyDirectSuperConcepts();
         Map<OWLClassExpression, Set<OWLClassExpression>> classToEquivalentClasses = reductionPOJO.getTaxonomyEquivalentConcepts();
 
-        return TaxonomyUtilities.buildTaxonomy(classToAllSuperclasses, classToEquivalentClasses, classToDirectSuperclasses);
+        Taxonomy taxonomy = TaxonomyUtilities.buildTaxonomy(classToAllSuperclasses, classToEquivalentClasses, classToDirectSuperclasses);
+        taxonomy.setConceptToAllSuperConcepts(classToAllSuperclasses);
+        taxonomy.setConceptToDirectSuperConcepts(classToDirectSuperclasses);
+        return taxonomy;
+    }
+
+    /**
+     * <p>A method from the {@link TaxonomyBuilder} interface.</p>
+     * 
+     * <p>Given a {@code taxonomy} built by this builder, a set of new axioms and a set of axioms that do not hold anymore (e.g. the conclusions
+     * derived or deleted after some axioms have been added to or removed from the ontology), returns the updated taxonomy. Only the affected
+     * concepts are processed again:
+     * <ol>
+     *     <li>Remove the subsumptions in {@code removedAxioms} from the superconcepts of {@code taxonomy}, collecting the concepts that lost some
+     *       superconcepts, the lost superconcepts and the (previous) equivalent concepts of both</li>
+     *     <li>Add the (super)concepts in {@code addedAxioms} to the superconcepts of {@code taxonomy}, collecting the concepts that got new
+     *       superconcepts and the new superconcepts themselves</li>
+     *     <li>Collect the subconcepts of all the collected concepts, i.e. the concepts that have one of them among their superconcepts</li>
+     *     <li>Reduce the transitive subsumptions and compute the equivalent concepts of the collected concepts only</li>
+     *     <li>Build the taxonomy nodes based on the updated output of the previous steps</li>
+     * </ol>
+     * The direct superconcepts of a concept A depend on the superconcepts of every superconcept of A, so a change of the superconcepts of B
+     * affects every subconcept A of B, even if the superconcepts of A themselves did not change: e.g. if A ⊑ B and A ⊑ C, adding B ⊑ C makes
+     * C a non-direct superconcept of A. The concepts that are not subconcepts of a collected concept keep their equivalent and direct
+     * superconcepts. ⊤ is collected whenever a class is added, but it is only used to collect its subconcepts (i.e. all the concepts) if its
+     * own superconcepts changed.</p>
+     * 
+     * <p><em>Note.</em> The given {@code taxonomy} is updated in place and should not be used anymore.</p>
+     * @param taxonomy The taxonomy to update, built by this builder
+     * @param addedAxioms The new axioms
+     * @param removedAxioms The axioms that do not hold anymore
+     * @return The updated taxonomy
+     */
+    @Override
+    public Taxonomy update(Taxonomy taxonomy, Set<OWLSubClassOfAxiom> addedAxioms, Set<OWLSubClassOfAxiom> removedAxioms) {
+        Map<OWLClassExpression, Set<OWLClassExpression>> classToAllSuperclasses = taxonomy.getConceptToAllSuperConcepts();
+        Map<OWLClassExpression, Set<OWLClassExpression>> classToDirectSuperclasses = taxonomy.getConceptToDirectSuperConcepts();
+        Map<OWLClassExpression, Set<OWLClassExpression>> classToEquivalentClasses = taxonomy.getClassToEquivalentClasses();
+        if (classToAllSuperclasses == null || classToDirectSuperclasses == null) {
+            throw new IllegalArgumentException("The given taxonomy has not been built by an ELPPTaxonomyBuilder.");
+        }
+
+        Set<OWLClassExpression> changedConcepts = new HashSet<>();
+        for (OWLClassExpression concept: TaxonomyUtilities.removeTaxonomySuperConcepts(classToAllSuperclasses, removedAxioms)) {
+            changedConcepts.add(concept);
+            // The nodes of the taxonomy have not been built again yet, so they still describe the previous subsumptions
+            if (classToEquivalentClasses.containsKey(concept)) {
+                changedConcepts.addAll(classToEquivalentClasses.get(concept));
+            }
+        }
+        changedConcepts.addAll(TaxonomyUtilities.addTaxonomySuperConcepts(classToAllSuperclasses, addedAxioms));
+        if (changedConcepts.isEmpty()) {
+            return taxonomy;
+        }
+
+        Set<OWLClassExpression> affectedConcepts = new HashSet<>(changedConcepts);
+        boolean thingChanged = Stream.concat(addedAxioms.stream(), removedAxioms.stream())
+            .anyMatch(axiom -> axiom.getSubClass().isOWLThing() && !axiom.getSuperClass().isOWLThing());
+        if (!thingChanged) {
+            changedConcepts.remove(OWLManager.getOWLDataFactory().getOWLThing());
+        }
+        for (Map.Entry<OWLClassExpression, Set<OWLClassExpression>> entry: classToAllSuperclasses.entrySet()) {
+            if (!Collections.disjoint(entry.getValue(), changedConcepts)) {
+                affectedConcepts.add(entry.getKey());
+            }
+        }
+        // The reduction always maps ⊥ to its direct superconcepts, so ⊥ is always reduced again
+        affectedConcepts.add(OWLManager.getOWLDataFactory().getOWLNothing());
+        affectedConcepts.retainAll(classToAllSuperclasses.keySet());
+
+        TaxonomyReductionPOJO reductionPOJO = TaxonomyUtilities.reduceTransitiveSubsumptions(classToAllSuperclasses, affectedConcepts, this.threadCount, this.executor);
+        classToDirectSuperclasses.putAll(reductionPOJO.getTaxonomyDirectSuperConcepts());
+        classToEquivalentClasses.putAll(reductionPOJO.getTaxonomyEquivalentConcepts());
+
+        Taxonomy updatedTaxonomy = TaxonomyUtilities.buildTaxonomy(classToAllSuperclasses, classToEquivalentClasses, classToDirectSuperclasses);
+        updatedTaxonomy.setConceptToAllSuperConcepts(classToAllSuperclasses);
+        updatedTaxonomy.setConceptToDirectSuperConcepts(classToDirectSuperclasses);
+        return updatedTaxonomy;
+    }
+
+    /**
+     * <p>Same as {@code update(taxonomy, axioms, ∅)}, but the given {@code taxonomy} is not modified, so that it can still be used afterwards.</p>
+     * 
+     * <p>The returned taxonomy shares the superconcepts of {@code taxonomy}: only the superconcept sets that may change (the ones of the concepts
+     * that occur in the new {@code axioms}, and the one of ⊥) are copied before being updated (copy-on-write). The equivalent and direct
+     * superconcepts are always replaced, never updated, so their maps are just copied.</p>
+     * @param taxonomy The taxonomy to extend, built by this builder
+     * @param axioms The new axioms
+     * @return A new taxonomy that takes into account the new axioms too
+     */
+    public Taxonomy extend(Taxonomy taxonomy, Set<OWLSubClassOfAxiom> axioms) {
+        Map<OWLClassExpression, Set<OWLClassExpression>> baseClassToAllSuperclasses = taxonomy.getConceptToAllSuperConcepts();
+        if (baseClassToAllSuperclasses == null || taxonomy.getConceptToDirectSuperConcepts() == null) {
+            throw new IllegalArgumentException("The given taxonomy has not been built by an ELPPTaxonomyBuilder.");
+        }
+
+        Map<OWLClassExpression, Set<OWLClassExpression>> classToAllSuperclasses = new HashMap<>(baseClassToAllSuperclasses);
+        classToAllSuperclasses.computeIfPresent(OWLManager.getOWLDataFactory().getOWLNothing(), (concept, superConcepts) -> new HashSet<>(superConcepts));
+        for (OWLSubClassOfAxiom axiom: axioms) {
+            axiom.nestedClassExpressions().forEach(classExpression -> {
+                Set<OWLClassExpression> superConcepts = baseClassToAllSuperclasses.get(classExpression);
+                if (superConcepts != null && classToAllSuperclasses.get(classExpression) == superConcepts) {
+                    classToAllSuperclasses.put(classExpression, new HashSet<>(superConcepts));
+                }
+            });
+        }
+
+        Taxonomy copy = new Taxonomy(
+            new HashMap<>(taxonomy.getClassToEquivalentClasses()),
+            taxonomy.getClassToNode(),
+            taxonomy.getNodeToDirectSuperClasses(),
+            taxonomy.getNodeToDirectSubClasses(),
+            taxonomy.getNodeToAllSuperClasses(),
+            taxonomy.getNodeToAllSubClasses()
+        );
+        copy.setConceptToAllSuperConcepts(classToAllSuperclasses);
+        copy.setConceptToDirectSuperConcepts(new HashMap<>(taxonomy.getConceptToDirectSuperConcepts()));
+        return update(copy, axioms, Collections.emptySet());
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.elppreasoner.taxonomy;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -7,6 +8,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
 
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.OWLClass;
@@ -61,7 +66,26 @@ public final class TaxonomyUtilities {
 
         OWLClass nothing = OWLManager.getOWLDataFactory().getOWLNothing();
         taxonomySuperConcepts.put(nothing, new HashSet<>());
-        
+
+        addTaxonomySuperConcepts(taxonomySuperConcepts, axioms);
+
+        return taxonomySuperConcepts;
+    }
+
+    /**
+     * <p>Adds the superconcepts of classes involved in the given {@code axioms} to already computed taxonomy superconcepts, following the same steps
+     * as {@code computeTaxonomySuperConcepts()}. This is used to update a taxonomy when new conclusions are derived, without computing again the
+     * superconcepts of all the concepts.</p>
+     * @param taxonomySuperConcepts The superconcepts to update, as returned by {@code computeTaxonomySuperConcepts()}
+     * @param axioms The axioms whose superconcepts need to be added
+     * @return The affected concepts, i.e. the concepts that got new superconcepts and the new superconcepts themselves
+     */
+    public static Set<OWLClassExpression> addTaxonomySuperConcepts(Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, Set<OWLSubClassOfAxiom> axioms) {
+        Set<OWLClassExpression> affectedConcepts = new HashSet<>();
+
+        OWLClass thing = OWLManager.getOWLDataFactory().getOWLThing();
+        OWLClass nothing = OWLManager.getOWLDataFactory().getOWLNothing();
+
         OWLClassExpression subClass;
         OWLClassExpression superClass;
 
@@ -69,56 +93,131 @@ public final class TaxonomyUtilities {
             subClass = axiom.getSubClass();
 
             if (subClass instanceof OWLClass && !subClass.isOWLNothing()) {
-                taxonomySuperConcepts.get(nothing).add(subClass);
+                addSuperConcept(taxonomySuperConcepts, nothing, subClass, affectedConcepts);
+                addClass(taxonomySuperConcepts, (OWLClass) subClass, affectedConcepts);
             }
             if (subClass instanceof OWLObjectSomeValuesFrom) {
                 OWLObjectSomeValuesFrom objectSomeValuesFrom = (OWLObjectSomeValuesFrom) subClass;
                 OWLClassExpression filler = objectSomeValuesFrom.getFiller();
                 if (!filler.isOWLNothing()) {
-                    taxonomySuperConcepts.get(nothing).add(filler);
+                    addSuperConcept(taxonomySuperConcepts, nothing, filler, affectedConcepts);
                 }
-                taxonomySuperConcepts.putIfAbsent(filler, new HashSet<>());
+                addConcept(taxonomySuperConcepts, filler, affectedConcepts);
                 if (!filler.isOWLThing()) {
-                    taxonomySuperConcepts.get(filler).add(thing);
+                    addSuperConcept(taxonomySuperConcepts, filler, thing, affectedConcepts);
                 }
             }
 
             superClass = axiom.getSuperClass();
             if (superClass instanceof OWLClass && !superClass.isOWLNothing()) {
-                taxonomySuperConcepts.get(nothing).add(superClass);
+                addSuperConcept(taxonomySuperConcepts, nothing, superClass, affectedConcepts);
+                addClass(taxonomySuperConcepts, (OWLClass) superClass, affectedConcepts);
             }
             if (superClass instanceof OWLObjectSomeValuesFrom) {
                 OWLObjectSomeValuesFrom objectSomeValuesFrom = (OWLObjectSomeValuesFrom) superClass;
                 OWLClassExpression filler = objectSomeValuesFrom.getFiller();
                 if (!filler.isOWLNothing()) {
-                    taxonomySuperConcepts.get(nothing).add(filler);
+                    addSuperConcept(taxonomySuperConcepts, nothing, filler, affectedConcepts);
                 }
-                taxonomySuperConcepts.putIfAbsent(filler, new HashSet<>());
+                addConcept(taxonomySuperConcepts, filler, affectedConcepts);
                 if (!filler.isOWLThing()) {
-                    taxonomySuperConcepts.get(filler).add(thing);
+                    addSuperConcept(taxonomySuperConcepts, filler, thing, affectedConcepts);
                 }
             }            
 
             if ((subClass.isClassExpressionLiteral() || subClass instanceof OWLObjectOneOf) && (superClass.isClassExpressionLiteral() || superClass instanceof OWLObjectOneOf)) {
                 if (!subClass.isOWLNothing()) {
-                    taxonomySuperConcepts.get(nothing).add(subClass);
+                    addSuperConcept(taxonomySuperConcepts, nothing, subClass, affectedConcepts);
                 }
-                taxonomySuperConcepts.putIfAbsent(subClass, new HashSet<>());
+                addConcept(taxonomySuperConcepts, subClass, affectedConcepts);
                 if (!subClass.isOWLThing()) {
-                    taxonomySuperConcepts.get(subClass).add(superClass);
+                    addSuperConcept(taxonomySuperConcepts, subClass, superClass, affectedConcepts);
                 }
 
                 if (!superClass.isOWLNothing()) {
-                    taxonomySuperConcepts.get(nothing).add(superClass);
+                    addSuperConcept(taxonomySuperConcepts, nothing, superClass, affectedConcepts);
                 }
-                taxonomySuperConcepts.putIfAbsent(superClass, new HashSet<>());
+                addConcept(taxonomySuperConcepts, superClass, affectedConcepts);
                 if (!superClass.isOWLThing()) {
-                    taxonomySuperConcepts.get(superClass).add(thing);
+                    addSuperConcept(taxonomySuperConcepts, superClass, thing, affectedConcepts);
                 }
             }
         }
 
-        return taxonomySuperConcepts;
+        return affectedConcepts;
+    }
+
+    /**
+     * <p>Removes from already computed taxonomy superconcepts the subsumptions A ⊑ B between atomic concepts in the given {@code axioms}. This is
+     * used to update a taxonomy when some conclusions do not hold anymore. The subsumptions that hold for every concept (A ⊑ A, A ⊑ ⊤ and ⊥ ⊑ A)
+     * are never removed, so the concepts stay in the taxonomy.</p>
+     * @param taxonomySuperConcepts The superconcepts to update, as returned by {@code computeTaxonomySuperConcepts()}
+     * @param axioms The axioms whose subsumptions need to be removed
+     * @return The affected concepts, i.e. the concepts that lost some superconcepts and the lost superconcepts themselves
+     */
+    public static Set<OWLClassExpression> removeTaxonomySuperConcepts(Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, Set<OWLSubClassOfAxiom> axioms) {
+        Set<OWLClassExpression> affectedConcepts = new HashSet<>();
+
+        for (OWLSubClassOfAxiom axiom: axioms) {
+            OWLClassExpression subClass = axiom.getSubClass();
+            OWLClassExpression superClass = axiom.getSuperClass();
+            if (!(subClass.isClassExpressionLiteral() || subClass instanceof OWLObjectOneOf) || !(superClass.isClassExpressionLiteral() || superClass instanceof OWLObjectOneOf)) {
+                continue;
+            }
+            if (subClass.equals(superClass) || subClass.isOWLNothing() || superClass.isOWLThing()) {
+                continue;
+            }
+            Set<OWLClassExpression> superConcepts = taxonomySuperConcepts.get(subClass);
+            if (superConcepts != null && superConcepts.remove(superClass)) {
+                affectedConcepts.add(subClass);
+                affectedConcepts.add(superClass);
+            }
+        }
+
+        return affectedConcepts;
+    }
+
+    /**
+     * Adds a concept to the taxonomy superconcepts, if it is not there yet.
+     * @param taxonomySuperConcepts The taxonomy superconcepts
+     * @param concept The concept to add
+     * @param affectedConcepts The affected concepts, updated if {@code concept} is new
+     */
+    private static void addConcept(Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, OWLClassExpression concept, Set<OWLClassExpression> affectedConcepts) {
+        if (!taxonomySuperConcepts.containsKey(concept)) {
+            taxonomySuperConcepts.put(concept, new HashSet<>());
+            affectedConcepts.add(concept);
+        }
+    }
+
+    /**
+     * Adds a named class to the taxonomy superconcepts, as a subconcept of ⊤. A class that only occurs in subsumptions with existential
+     * restrictions (e.g. A ⊑ ∃r.B or ∃s.B ⊑ C) may have no reflexive subsumption A ⊑ A among the conclusions, but it still has to be in the taxonomy.
+     * @param taxonomySuperConcepts The taxonomy superconcepts
+     * @param owlClass The class to add
+     * @param affectedConcepts The affected concepts, updated if {@code owlClass} is new
+     */
+    private static void addClass(Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, OWLClass owlClass, Set<OWLClassExpression> affectedConcepts) {
+        OWLClass thing = OWLManager.getOWLDataFactory().getOWLThing();
+        addConcept(taxonomySuperConcepts, thing, affectedConcepts);
+        if (!owlClass.isOWLThing()) {
+            addSuperConcept(taxonomySuperConcepts, owlClass, thing, affectedConcepts);
+        }
+    }
+
+    /**
+     * Adds a superconcept of a concept to the taxonomy superconcepts.
+     * @param taxonomySuperConcepts The taxonomy superconcepts
+     * @param concept The subsumed concept
+     * @param superConcept The superconcept of {@code concept}
+     * @param affectedConcepts The affected concepts, updated with both concepts if {@code superConcept} is a new superconcept of {@code concept}
+     */
+    private static void addSuperConcept(Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, OWLClassExpression concept, OWLClassExpression superConcept, Set<OWLClassExpression> affectedConcepts) {
+        addConcept(taxonomySuperConcepts, concept, affectedConcepts);
+        if (taxonomySuperConcepts.get(concept).add(superConcept)) {
+            affectedConcepts.add(concept);
+            affectedConcepts.add(superConcept);
+        }
     }
 
 
@@ -212,6 +311,11 @@ public final class TaxonomyUtilities {
          */
         private final Map<OWLClassExpression, Set<OWLClassExpression>> superConcepts;
 
+        /**
+         * Tells whether the reduction has been cancelled. It is checked before every concept.
+         */
+        private final BooleanSupplier cancelled;
+
         /**
          * A {@link TaxonomyReductionPOJO} used to keep track of the reductions processed by this thread.
          */
@@ -233,14 +337,29 @@ public final class TaxonomyUtilities {
          * @param taxonomySuperConcepts The superconcepts whose transitive subsumptions have to be reduced.
          */
         public TransitiveSubsumptionsThread(int minIndex, int maxIndex, OWLClassExpression[] conceptKeys, Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts) {
+            this(minIndex, maxIndex, conceptKeys, taxonomySuperConcepts, () -> false);
+        }
+
+        /**
+         * The constructor of a {@link TransitiveSubsumptionsThread} that can be cancelled: the thread stops before the next concept as soon as
+         * {@code cancelled} returns {@code True}, and its reductions are not set.
+         * @param minIndex The starting index of superconcepts that this thread has to work on.
+         * @param maxIndex The ending index of superconcepts that this thread has to work on.
+         * @param conceptKeys The array of {@code superConcepts} keys, that should be common to all threads of this type.
+         * @param taxonomySuperConcepts The superconcepts whose transitive subsumptions have to be reduced.
+         * @param cancelled Tells whether the reduction has been cancelled.
+         */
+        public TransitiveSubsumptionsThread(int minIndex, int maxIndex, OWLClassExpression[] conceptKeys, Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, BooleanSupplier cancelled) {
             this.min = minIndex;
             this.max = maxIndex;
             this.concepts = conceptKeys;
             this.superConcepts = taxonomySuperConcepts;
+            this.cancelled = cancelled;
         }
 
         /**
-         * Gets the reductions processed by this thread. If this is called before {@code run()}, a {@code null} value will be returned.
+         * Gets the reductions processed by this thread. If this is called before {@code run()}, or if the thread has been cancelled, a
+         * {@code null} value will be returned.
          * @return {@code processedReductions}
          */
         public TaxonomyReductionPOJO getProcessedReductions() {
@@ -256,6 +375,9 @@ public final class TaxonomyUtilities {
             taxonomyDirectSuperConcepts.put(nothing, new HashSet<>());
 
             for (int i = this.min; i < this.max; i++) {
+                if (cancelled.getAsBoolean()) {
+                    return;
+                }
                 OWLClassExpression A = concepts[i];
                 taxonomyEquivalentConcepts.putIfAbsent(A, new HashSet<>());
                 taxonomyEquivalentConcepts.get(A).add(A);
@@ -321,24 +443,104 @@ public final class TaxonomyUtilities {
      *     • {@code taxonomyDirectSuperConcepts}, the direct superconcepts of the taxonomy
      */
     public static TaxonomyReductionPOJO reduceTransitiveSubsumptions(Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, boolean concurrentMode) {
-        final int cpuCount = concurrentMode ? Runtime.getRuntime().availableProcessors() : 1;
+        return reduceTransitiveSubsumptions(taxonomySuperConcepts, taxonomySuperConcepts.keySet(), concurrentMode);
+    }
+
+    /**
+     * <p>Reduces the transitive subsumptions and computes the equivalent concepts only for the given {@code concepts}, as described in
+     * {@code reduceTransitiveSubsumptions(Map, boolean)}. The superconcepts of all the other concepts are still used to check for direct
+     * subsumptions.</p>
+     * @param taxonomySuperConcepts The superconcepts whose transitive subsumptions have to be reduced.
+     * @param concepts The concepts whose direct superconcepts and equivalent concepts have to be computed.
+     * @param concurrentMode Tells whether the taxonomy has to be built in parallel ({@code True}) or not ({@code False}).
+     * @return A {@link TaxonomyReductionPOJO} object that contains the equivalent concepts and the direct superconcepts of the given {@code concepts}
+     */
+    public static TaxonomyReductionPOJO reduceTransitiveSubsumptions(Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, Collection<OWLClassExpression> concepts, boolean concurrentMode) {
+        return reduceTransitiveSubsumptions(taxonomySuperConcepts, concepts, concurrentMode ? Runtime.getRuntime().availableProcessors() : 1);
+    }
+
+    /**
+     * <p>Reduces the transitive subsumptions and computes the equivalent concepts only for the given {@code concepts}, as described in
+     * {@code reduceTransitiveSubsumptions(Map, boolean)}, splitting the concepts among the given number of threads. No more threads than
+     * concepts are started.</p>
+     * @param taxonomySuperConcepts The superconcepts whose transitive subsumptions have to be reduced.
+     * @param concepts The concepts whose direct superconcepts and equivalent concepts have to be computed.
+     * @param threadCount The number of threads, at least 1.
+     * @return A {@link TaxonomyReductionPOJO} object that contains the equivalent concepts and the direct superconcepts of the given {@code concepts}
+     */
+    public static TaxonomyReductionPOJO reduceTransitiveSubsumptions(Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, Collection<OWLClassExpression> concepts, int threadCount) {
+        return reduceTransitiveSubsumptions(taxonomySuperConcepts, concepts, threadCount, null);
+    }
+
+    /**
+     * <p>Reduces the transitive subsumptions and computes the equivalent concepts only for the given {@code concepts}, as described in
+     * {@code reduceTransitiveSubsumptions(Map, boolean)}, splitting the concepts into the given number of parts. Every part is processed by a
+     * task of the given {@code executor}, e.g. a pool shared by several reasoners, instead of a new thread.</p>
+     * @param taxonomySuperConcepts The superconcepts whose transitive subsumptions have to be reduced.
+     * @param concepts The concepts whose direct superconcepts and equivalent concepts have to be computed.
+     * @param threadCount The number of parts, at least 1.
+     * @param executor The executor of the parts, or {@code null} to start a thread for every part.
+     * @return A {@link TaxonomyReductionPOJO} object that contains the equivalent concepts and the direct superconcepts of the given {@code concepts}
+     */
+    public static TaxonomyReductionPOJO reduceTransitiveSubsumptions(Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, Collection<OWLClassExpression> concepts, int threadCount, Executor executor) {
+        return reduceTransitiveSubsumptions(taxonomySuperConcepts, concepts, threadCount, executor, () -> false);
+    }
+
+    /**
+     * <p>Reduces the transitive subsumptions and computes the equivalent concepts only for the given {@code concepts}, like
+     * {@code reduceTransitiveSubsumptions(Map, Collection, int, Executor)}, unless the reduction is cancelled: every thread checks
+     * {@code cancelled} before each of its concepts, and stops as soon as it returns {@code True}.</p>
+     * @param taxonomySuperConcepts The superconcepts whose transitive subsumptions have to be reduced.
+     * @param concepts The concepts whose direct superconcepts and equivalent concepts have to be computed.
+     * @param threadCount The number of parts, at least 1.
+     * @param executor The executor of the parts, or {@code null} to start a thread for every part.
+     * @param cancelled Tells whether the reduction has been cancelled, e.g. by an interruption of the reasoner.
+     * @return A {@link TaxonomyReductionPOJO} object that contains the equivalent concepts and the direct superconcepts of the given {@code concepts}
+     * @throws CancellationException if the reduction has been cancelled before all the concepts were reduced
+     */
+    public static TaxonomyReductionPOJO reduceTransitiveSubsumptions(Map<OWLClassExpression, Set<OWLClassExpression>> taxonomySuperConcepts, Collection<OWLClassExpression> concepts, int threadCount, Executor executor, BooleanSupplier cancelled) {
+        final int cpuCount = Math.max(1, Math.min(threadCount, concepts.size()));
 
         Set<TransitiveSubsumptionsThread> threads = new HashSet<>();
-        int increment = taxonomySuperConcepts.size() / cpuCount;
-        OWLClassExpression[] conceptKeys = taxonomySuperConcepts.keySet().toArray(new OWLClassExpression[0]);
+        int increment = concepts.size() / cpuCount;
+        OWLClassExpression[] conceptKeys = concepts.toArray(new OWLClassExpression[0]);
         for (int i = 0; i < cpuCount-1; i++) {
-            threads.add(new TransitiveSubsumptionsThread(i*increment, (i+1)*increment, conceptKeys, taxonomySuperConcepts));
+            threads.add(new TransitiveSubsumptionsThread(i*increment, (i+1)*increment, conceptKeys, taxonomySuperConcepts, cancelled));
         }
-        threads.add(new TransitiveSubsumptionsThread((cpuCount-1)*increment, taxonomySuperConcepts.size(), conceptKeys, taxonomySuperConcepts));
-
-        threads.forEach(Thread::start);
-        threads.forEach(thread -> {
+        threads.add(new TransitiveSubsumptionsThread((cpuCount-1)*increment, conceptKeys.length, conceptKeys, taxonomySuperConcepts, cancelled));
+
+        if (executor == null) {
+            threads.forEach(Thread::start);
+            threads.forEach(thread -> {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        } else {
+            // The threads are not started: their run() method is the task
+            CountDownLatch done = new CountDownLatch(threads.size());
+            threads.forEach(thread -> executor.execute(() -> {
+                try {
+                    thread.run();
+                } finally {
+                    done.countDown();
+                }
+            }));
             try {
-                thread.join();
+                done.await();
             } catch (InterruptedException e) {
                 throw new RuntimeException(e);
             }
-        });
+        }
+
+        if (threads.stream().anyMatch(thread -> thread.getProcessedReductions() == null)) {
+            if (cancelled.getAsBoolean()) {
+                throw new CancellationException("The reduction of the taxonomy has been cancelled.");
+            }
+            throw new IllegalStateException("A part of the taxonomy reduction failed.");
+        }
 
         Map<OWLClassExpression, Set<OWLClassExpression>> taxonomyEquivalentConcepts = new HashMap<>();
         Map<OWLClassExpression, Set<OWLClassExpression>> taxonomyDirectSuperConcepts = new HashMap<>();
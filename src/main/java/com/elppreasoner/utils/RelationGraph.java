@@ -23,6 +23,10 @@ public class RelationGraph{
         EndpointPair<OWLObject> edge = EndpointPair.ordered(node1, node2);
         relationGraph.putEdge(edge);
     }
+
+    public void clear(){
+        new ArrayList<>(relationGraph.nodes()).forEach(relationGraph::removeNode);
+    }
     
     public boolean reach(OWLObject from, OWLObject to){
         final Set<OWLObject> visited = new HashSet<>();
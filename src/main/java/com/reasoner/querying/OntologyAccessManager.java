@@ -1,10 +1,24 @@
 package com.reasoner.querying;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.model.OWLClassExpression;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
@@ -22,7 +36,14 @@ public class OntologyAccessManager {
 
     private OWLOntology ontology;
     private final Map<Class<? extends InferenceRule>, InferenceRule> rules = new HashMap<>();
+    private final Map<Class<? extends InferenceRule>, InferenceRule> fusedRules = new LinkedHashMap<>();
+    private boolean ruleFusion = true;
+    private final Map<OWLAxiom, Set<OWLSubClassOfAxiom>> addedAxioms = new HashMap<>();
+    private final Map<OWLSubClassOfAxiom, Integer> addedNormalForms = new HashMap<>();   // normalized axiom → number of added axioms whose normal form holds it
     private boolean isIndexed = false;
+    private RoleHierarchy roleHierarchy = null;
+    private OntologyFeatures features = null;
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
 
     /**
      * Constructor for OntologyAccessor
@@ -41,6 +62,18 @@ public class OntologyAccessManager {
         return isIndexed;
     }
 
+    /**
+     * Get the lock that guards the rule indexes. <p>
+     * The methods that change the indexes ({@link #precomputeAxioms()}, {@link #indexAxioms(Collection)}, {@link #unindexAxioms(Collection)}...)
+     * hold its write lock, and the saturations that read them hold its read lock. Holding the write lock across several calls, e.g. to
+     * saturate with some axioms that are only indexed temporarily, keeps the other saturations from seeing them. The lock is reentrant,
+     * but its read lock cannot be upgraded: a thread that holds only the read lock must not change the indexes.
+     * @return the lock of the rule indexes
+     */
+    public ReadWriteLock getIndexLock() {
+        return indexLock;
+    }
+
     /**
      * Get the axioms for the given key.
      * @param key
@@ -50,6 +83,32 @@ public class OntologyAccessManager {
         rules.put(inferenceRule.getClass(), inferenceRule);
     }
 
+    /**
+     * Register a rule that applies some registered rules in a single pass (see {@link InferenceRule#getFusedRules()}). It does not index
+     * any axiom: it reads the indexes of the rules it fuses, and its contexts replace theirs in the saturation (see {@link #getSaturationRules()}).
+     * @param fusedRule
+     */
+    public void registerFusedRule(InferenceRule fusedRule) {
+        fusedRules.put(fusedRule.getClass(), fusedRule);
+    }
+
+    /**
+     * Enable or disable the fused rules. When they are disabled, every active rule takes part in the saturation with its own contexts.
+     * Fused rules are enabled by default.
+     * @param ruleFusion
+     */
+    public void setRuleFusion(boolean ruleFusion) {
+        this.ruleFusion = ruleFusion;
+    }
+
+    /**
+     * Check if the fused rules are enabled.
+     * @return boolean
+     */
+    public boolean isRuleFusion() {
+        return ruleFusion;
+    }
+
     /**
      * Get the ontology. <p>
      * BE CAREFUL: Do not access the ontology for writing purposes.
@@ -65,6 +124,82 @@ public class OntologyAccessManager {
      */
     public void setOntology(OWLOntology ontology) {
         this.ontology = ontology;
+        this.roleHierarchy = null;
+        this.features = null;
+    }
+
+    /**
+     * Get the role hierarchy of the ontology. It is built the first time it is requested (see {@link #updateRoleHierarchy()}).
+     * @return RoleHierarchy
+     */
+    public RoleHierarchy getRoleHierarchy() {
+        if(roleHierarchy == null){
+            roleHierarchy = new RoleHierarchy(ontology);
+        }
+        return roleHierarchy;
+    }
+
+    /**
+     * Build the role hierarchy again, after the role inclusions of the ontology have changed. The registered rules are initialized
+     * again (see {@link InferenceRule#initialize(OntologyAccessManager)}), but their indexes are kept.
+     */
+    public void updateRoleHierarchy() {
+        roleHierarchy = new RoleHierarchy(ontology);
+        features = null;
+        rules.values().forEach(rule -> rule.initialize(this));
+    }
+
+    /**
+     * Get the features of the ontology, i.e. the constructs that occur in its axioms. They are scanned the first time they are requested,
+     * and again after the role hierarchy or the {@code DisjointClasses} axioms change (see {@link #invalidateFeatures()}) or an axiom with
+     * a new construct is added.
+     * @return OntologyFeatures
+     */
+    public OntologyFeatures getFeatures() {
+        if(features == null){
+            features = new OntologyFeatures(this);
+        }
+        return features;
+    }
+
+    /**
+     * Forget the features of the ontology, so that they are scanned again the next time they are requested.
+     */
+    public void invalidateFeatures() {
+        features = null;
+    }
+
+    /**
+     * Get the registered rules that can fire on the ontology (see {@link InferenceRule#canFire(OntologyFeatures)}). Only their contexts
+     * take part in the saturation.
+     * @return Collection of rules
+     */
+    public Collection<InferenceRule> getActiveRules() {
+        OntologyFeatures ontologyFeatures = getFeatures();
+        return rules.values().stream()
+            .filter(rule -> rule.canFire(ontologyFeatures))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the rules whose contexts take part in the saturation: the active rules (see {@link #getActiveRules()}), where the ones applied
+     * by a fused rule are replaced by it, if fused rules are enabled. A fused rule is only used if all the rules it fuses are the registered
+     * ones, since it reads their indexes, and at least one of them is active.
+     * @return Collection of rules
+     */
+    public Collection<InferenceRule> getSaturationRules() {
+        List<InferenceRule> saturationRules = new ArrayList<>(getActiveRules());
+        if(!ruleFusion){
+            return saturationRules;
+        }
+        for(InferenceRule fusedRule : fusedRules.values()){
+            Collection<InferenceRule> components = fusedRule.getFusedRules();
+            boolean registered = components.stream().allMatch(component -> rules.get(component.getClass()) == component);
+            if(registered && saturationRules.removeIf(components::contains)){
+                saturationRules.add(fusedRule);
+            }
+        }
+        return saturationRules;
     }
 
     /**
@@ -76,8 +211,7 @@ public class OntologyAccessManager {
         if(!rules.get(inferenceRuleType).getAxioms().isEmpty()) {
             return rules.get(inferenceRuleType).getAxioms();
         }
-        ontology.axioms(AxiomType.SUBCLASS_OF).forEach(axiom -> {
-            OWLSubClassOfAxiom subClassOfAxiom = (OWLSubClassOfAxiom) axiom;
+        axioms().forEach(subClassOfAxiom -> {
             OWLClassExpression subclass = subClassOfAxiom.getSubClass();
             OWLClassExpression superclass = subClassOfAxiom.getSuperClass();
             InferenceRule rule = rules.get(inferenceRuleType);
@@ -88,16 +222,224 @@ public class OntologyAccessManager {
         return rules.get(inferenceRuleType).getAxioms();
     }
 
+    /**
+     * Get the subsumption axioms to reason with. <p>
+     * These are the {@code SubClassOf} axioms of the ontology, where every axiom added through {@link #addAxioms(OWLAxiom, Set)} is
+     * replaced by its normal form.
+     * @return Stream of axioms.
+     */
+    public Stream<OWLSubClassOfAxiom> axioms() {
+        Stream<OWLSubClassOfAxiom> ontologyAxioms = ontology.axioms(AxiomType.SUBCLASS_OF)
+            .filter(axiom -> !addedAxioms.containsKey(axiom));
+        return Stream.concat(ontologyAxioms, addedAxioms.values().stream().flatMap(Set::stream));
+    }
+
+    /**
+     * Get the normal form of the axioms added to the ontology after it was loaded (see {@link #addAxioms(OWLAxiom, Set)}). Their
+     * signature may not be part of the signature of the ontology, if the ontology is a normalized copy of the root one.
+     * @return Stream of axioms.
+     */
+    public Stream<OWLSubClassOfAxiom> addedAxioms() {
+        return addedAxioms.values().stream().flatMap(Set::stream);
+    }
+
+    /**
+     * Write the axioms to reason with to a snapshot keyed by the given content hash (see {@link OntologySnapshot}): the axioms of the
+     * ontology, where every axiom added through {@link #addAxioms(OWLAxiom, Set)} is replaced by its normal form, and their entities. <p>
+     * The ontology read from the snapshot can be reasoned with as it is, without normalizing it: the rule indexes are built from it by
+     * {@link #precomputeAxioms()}.
+     * @param file
+     * @param contentHash the content hash of the sources of the ontology, e.g. {@link OntologySnapshot#contentHash(Path...)}
+     * @return {@code true} if the snapshot has been written; {@code false} if the ontology has an axiom that cannot be written
+     * @throws IOException if the snapshot cannot be written
+     */
+    public boolean writeSnapshot(Path file, String contentHash) throws IOException {
+        Stream<OWLAxiom> snapshotAxioms = Stream.concat(
+            ontology.axioms().filter(axiom -> !addedAxioms.containsKey(axiom)),
+            addedAxioms()
+        );
+        return OntologySnapshot.write(snapshotAxioms, file, contentHash);
+    }
+
+    /**
+     * Add the normal form of an axiom that has been added to the ontology after it was loaded. <p>
+     * If the rule indexes have already been computed, the normalized axioms are inserted into the existing indexes instead of
+     * computing them again. If they use a construct that does not occur in the ontology yet, its features are scanned again.
+     * @param axiom the axiom added to the ontology
+     * @param normalizedAxioms the normal form of {@code axiom}
+     */
+    public void addAxioms(OWLAxiom axiom, Set<OWLSubClassOfAxiom> normalizedAxioms) {
+        countNormalForms(addedAxioms.put(axiom, normalizedAxioms), -1);
+        countNormalForms(normalizedAxioms, 1);
+        if(features != null && !features.covers(normalizedAxioms)){
+            features = null;
+        }
+        indexAxioms(normalizedAxioms);
+    }
+
+    /**
+     * Insert the given axioms into the rule indexes, if they have already been computed. The indexes that change are frozen again. <p>
+     * The axioms are not added to the ontology: this can be used to reason temporarily with additional axioms, which are then
+     * removed with {@link #unindexAxioms(Collection)}.
+     * @param axioms the axioms to insert, in normal form
+     */
+    public void indexAxioms(Collection<OWLSubClassOfAxiom> axioms) {
+        indexLock.writeLock().lock();
+        try {
+            if(!isIndexed){
+                return;
+            }
+            Set<InferenceRule> changedRules = new HashSet<>();
+            for(OWLSubClassOfAxiom axiom : axioms){
+                OWLClassExpression subclass = axiom.getSubClass();
+                OWLClassExpression superclass = axiom.getSuperClass();
+                rules.values().forEach(rule -> {
+                    if (rule.axiomCriterion(subclass, superclass)) {
+                        rule.addAxiom(subclass, superclass);
+                        changedRules.add(rule);
+                    }
+                });
+            }
+            changedRules.forEach(InferenceRule::freeze);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forget an axiom that has been removed from the ontology. <p>
+     * The rule indexes are not changed: the returned axioms have to be removed from them with {@link #unindexAxioms(Collection)}.
+     * @param axiom the axiom removed from the ontology
+     * @return the axioms in normal form that no longer follow from the ontology, i.e. the normal form of {@code axiom} minus the
+     * normalized axioms that are still in the ontology
+     */
+    public Set<OWLSubClassOfAxiom> removeAxioms(OWLAxiom axiom) {
+        Set<OWLSubClassOfAxiom> normalizedAxioms = addedAxioms.remove(axiom);
+        countNormalForms(normalizedAxioms, -1);
+        if(normalizedAxioms == null){
+            normalizedAxioms = axiom.isOfType(AxiomType.SUBCLASS_OF) ?
+                Collections.singleton((OWLSubClassOfAxiom) axiom) : Collections.emptySet();
+        }
+        Set<OWLSubClassOfAxiom> removedAxioms = new HashSet<>();
+        for(OWLSubClassOfAxiom normalizedAxiom : normalizedAxioms){
+            if(!containsAxiom(normalizedAxiom)){
+                removedAxioms.add(normalizedAxiom);
+            }
+        }
+        return removedAxioms;
+    }
+
+    /**
+     * Check if the given axiom is one of the subsumption axioms to reason with (see {@link #axioms()}).
+     * @param axiom
+     * @return {@code true} if the axiom is in the ontology or in the normal form of an added axiom; {@code false} otherwise
+     */
+    public boolean containsAxiom(OWLSubClassOfAxiom axiom) {
+        return addedNormalForms.containsKey(axiom) || (ontology.containsAxiom(axiom) && !addedAxioms.containsKey(axiom));
+    }
+
+    /**
+     * Update the number of added axioms whose normal form holds each of the given axioms. An axiom that no added axiom holds anymore is
+     * forgotten.
+     * @param normalizedAxioms the normal form of an added axiom, or {@code null}
+     * @param delta {@code 1} if the axiom has been added, {@code -1} if it has been removed
+     */
+    private void countNormalForms(Set<OWLSubClassOfAxiom> normalizedAxioms, int delta) {
+        if(normalizedAxioms == null){
+            return;
+        }
+        for(OWLSubClassOfAxiom normalizedAxiom : normalizedAxioms){
+            addedNormalForms.merge(normalizedAxiom, delta, (count, change) -> count + change == 0 ? null : count + change);
+        }
+    }
+
+    /**
+     * Remove the given axioms from the rule indexes, if they have already been computed. The indexes that change are frozen again.
+     * @param axioms the axioms to remove, in normal form
+     */
+    public void unindexAxioms(Collection<OWLSubClassOfAxiom> axioms) {
+        indexLock.writeLock().lock();
+        try {
+            if(!isIndexed){
+                return;
+            }
+            Set<InferenceRule> changedRules = new HashSet<>();
+            for(OWLSubClassOfAxiom axiom : axioms){
+                OWLClassExpression subclass = axiom.getSubClass();
+                OWLClassExpression superclass = axiom.getSuperClass();
+                rules.values().forEach(rule -> {
+                    if (rule.axiomCriterion(subclass, superclass)) {
+                        rule.removeAxiom(subclass, superclass);
+                        changedRules.add(rule);
+                    }
+                });
+            }
+            changedRules.forEach(InferenceRule::freeze);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
     /**
      * Precompute axioms for all rules. <p>
-     * This method is used to speed up the process of extracting axioms.
+     * This method is used to speed up the process of extracting axioms. The axioms are scanned once, in parallel: every thread checks
+     * the criteria of all the rules on its share of the axioms and collects the matching ones in its own buckets, one for each rule,
+     * which are then merged. Finally, the indexes of the rules are filled and frozen (see {@link InferenceRule#freeze()}) in parallel, since
+     * each of them is only written by one thread.
      */
     public void precomputeAxioms(){
-        rules.forEach((ruleType, rule) -> {
-            rule.clearAxioms();
-            getAxiomsByRule(ruleType);
-        });
-        isIndexed = true;
+        indexLock.writeLock().lock();
+        try {
+            InferenceRule[] indexedRules = rules.values().toArray(new InferenceRule[0]);
+            for(InferenceRule rule : indexedRules){
+                rule.clearAxioms();
+                rule.initialize(this);
+            }
+
+            List<List<OWLSubClassOfAxiom>> axiomsByRule = axioms().parallel().collect(
+                () -> createBuckets(indexedRules.length),
+                (buckets, axiom) -> {
+                    OWLClassExpression subclass = axiom.getSubClass();
+                    OWLClassExpression superclass = axiom.getSuperClass();
+                    for(int i = 0; i < indexedRules.length; i++){
+                        if(indexedRules[i].axiomCriterion(subclass, superclass)){
+                            buckets.get(i).add(axiom);
+                        }
+                    }
+                },
+                (buckets, otherBuckets) -> {
+                    for(int i = 0; i < indexedRules.length; i++){
+                        buckets.get(i).addAll(otherBuckets.get(i));
+                    }
+                }
+            );
+
+            IntStream.range(0, indexedRules.length).parallel().forEach(i -> {
+                InferenceRule rule = indexedRules[i];
+                axiomsByRule.get(i).forEach(axiom -> rule.addAxiom(axiom.getSubClass(), axiom.getSuperClass()));
+                rule.freeze();
+            });
+            isIndexed = true;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private static List<List<OWLSubClassOfAxiom>> createBuckets(int size) {
+        List<List<OWLSubClassOfAxiom>> buckets = new ArrayList<>(size);
+        for(int i = 0; i < size; i++){
+            buckets.add(new ArrayList<>());
+        }
+        return buckets;
+    }
+
+    /**
+     * Get the registered rule of the given type.
+     * @param inferenceRuleType
+     * @return the rule, or {@code null} if no rule of that type has been registered
+     */
+    public <R extends InferenceRule> R getRule(Class<R> inferenceRuleType) {
+        return inferenceRuleType.cast(rules.get(inferenceRuleType));
     }
 
     /**
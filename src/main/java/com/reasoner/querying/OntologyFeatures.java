@@ -0,0 +1,143 @@
+package com.reasoner.querying;
+
+import java.util.Collection;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectOneOf;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.reasoner.reasoning.rules.InferenceRule;
+
+/**
+ * The {@code OntologyFeatures} class records which constructs occur in the axioms of an ontology, so that the inference rules that
+ * cannot fire on it are left out of the saturation, together with their contexts (see {@link InferenceRule#canFire(OntologyFeatures)}). <p>
+ * The features are computed by a single scan of the axioms, which are expected to be in normal form: every construct is only looked for
+ * where the normal form allows it.
+ */
+public final class OntologyFeatures {
+
+    private boolean conjunctions = false;
+    private boolean existentialSubclasses = false;
+    private boolean existentialSuperclasses = false;
+    private boolean bottom = false;
+    private boolean nominals = false;
+    private boolean disjointClasses = false;
+    private boolean roleChains = false;
+
+    /**
+     * Scan the axioms of the ontology (see {@link OntologyAccessManager#axioms()}), its {@code DisjointClasses} axioms and its role hierarchy.
+     * @param ontologyAccessManager
+     */
+    public OntologyFeatures(OntologyAccessManager ontologyAccessManager) {
+        ontologyAccessManager.axioms().forEach(this::scan);
+        this.disjointClasses = ontologyAccessManager.getOntology().axioms(AxiomType.DISJOINT_CLASSES).findAny().isPresent();
+        this.roleChains = ontologyAccessManager.getRoleHierarchy().hasRoleChains();
+    }
+
+    private OntologyFeatures() {
+    }
+
+    private void scan(OWLSubClassOfAxiom axiom) {
+        OWLClassExpression subclass = axiom.getSubClass();
+        OWLClassExpression superclass = axiom.getSuperClass();
+        if (subclass instanceof OWLObjectIntersectionOf) {
+            conjunctions = true;
+            ((OWLObjectIntersectionOf) subclass).operands().forEach(this::scanBasicConcept);
+        } else if (subclass instanceof OWLObjectSomeValuesFrom) {
+            existentialSubclasses = true;
+            scanBasicConcept(((OWLObjectSomeValuesFrom) subclass).getFiller());
+        } else {
+            scanBasicConcept(subclass);
+        }
+        if (superclass instanceof OWLObjectSomeValuesFrom) {
+            existentialSuperclasses = true;
+            scanBasicConcept(((OWLObjectSomeValuesFrom) superclass).getFiller());
+        } else if (superclass.isOWLNothing()) {
+            bottom = true;
+        } else {
+            scanBasicConcept(superclass);
+        }
+    }
+
+    private void scanBasicConcept(OWLClassExpression classExpression) {
+        if (classExpression instanceof OWLObjectOneOf) {
+            nominals = true;
+        }
+    }
+
+    /**
+     * Check if the given axioms, added to the ontology, only use the constructs that already occur in it: otherwise, a rule that cannot
+     * fire on the ontology may fire after the axioms are added. The role hierarchy and the {@code DisjointClasses} axioms are not
+     * considered, since they are not added as {@code SubClassOf} axioms.
+     * @param axioms the added axioms, in normal form
+     * @return boolean
+     */
+    public boolean covers(Collection<OWLSubClassOfAxiom> axioms) {
+        OntologyFeatures features = new OntologyFeatures();
+        axioms.forEach(features::scan);
+        return (conjunctions || !features.conjunctions)
+            && (existentialSubclasses || !features.existentialSubclasses)
+            && (existentialSuperclasses || !features.existentialSuperclasses)
+            && (bottom || !features.bottom)
+            && (nominals || !features.nominals);
+    }
+
+    /**
+     * Check if any axiom has the form C1 ⊓ C2 ⊑ D.
+     * @return boolean
+     */
+    public boolean hasConjunctions() {
+        return conjunctions;
+    }
+
+    /**
+     * Check if any axiom has the form ∃r.C1 ⊑ D.
+     * @return boolean
+     */
+    public boolean hasExistentialSubclasses() {
+        return existentialSubclasses;
+    }
+
+    /**
+     * Check if any axiom has the form C1 ⊑ ∃r.C2, i.e. if any link between two contexts can be derived.
+     * @return boolean
+     */
+    public boolean hasExistentialSuperclasses() {
+        return existentialSuperclasses;
+    }
+
+    /**
+     * Check if any axiom has the form C ⊑ ⊥.
+     * @return boolean
+     */
+    public boolean hasBottom() {
+        return bottom;
+    }
+
+    /**
+     * Check if any axiom contains a nominal {a}.
+     * @return boolean
+     */
+    public boolean hasNominals() {
+        return nominals;
+    }
+
+    /**
+     * Check if the ontology has any {@code DisjointClasses} axiom.
+     * @return boolean
+     */
+    public boolean hasDisjointClasses() {
+        return disjointClasses;
+    }
+
+    /**
+     * Check if the ontology has any role chain (see {@link RoleHierarchy#hasRoleChains()}).
+     * @return boolean
+     */
+    public boolean hasRoleChains() {
+        return roleChains;
+    }
+}
@@ -0,0 +1,164 @@
+package com.reasoner.querying;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+import com.reasoner.utils.AxiomDecoder;
+import com.reasoner.utils.AxiomEncoder;
+
+/**
+ * Persistent binary snapshot of the axioms to reason with, i.e. of a normalized ontology, to start reasoning on an ontology without
+ * parsing and normalizing it again. <p>
+ * A snapshot starts with a header: a magic number, the version of the format and the content hash of the sources it was written from
+ * (see {@link #contentHash(Path...)}). It is followed by the dictionary of the entities, i.e. their types and IRIs, and by the axioms, whose
+ * expressions refer to the entities by their position in the dictionary. It is read through a memory-mapped buffer, and the axioms are
+ * built again by the data factory: if the version or the hash do not match, the snapshot is stale and it is not read. <p>
+ * Only the constructs of the normal form can be written (see {@link AxiomEncoder}), and the annotations of the axioms are not kept.
+ */
+public final class OntologySnapshot {
+
+    /**
+     * Version of the format, written in the header: snapshots of another version are not read.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x454C5053;  // "ELPS"
+
+    private OntologySnapshot() {
+    }
+
+    /**
+     * Compute the content hash of the given files, e.g. of the sources of an ontology. It is the SHA-256 digest of their bytes, in the
+     * given order: the key of a snapshot can then be checked without loading the ontology.
+     * @param files
+     * @return the hexadecimal digest
+     * @throws IOException if a file cannot be read
+     */
+    public static String contentHash(Path... files) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[1 << 16];
+        for(Path file : files){
+            try(InputStream input = Files.newInputStream(file)){
+                for(int read = input.read(buffer); read >= 0; read = input.read(buffer)){
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        StringBuilder hash = new StringBuilder();
+        for(byte b : digest.digest()){
+            hash.append(String.format("%02x", b));
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Write the given axioms to a snapshot keyed by the given content hash. The snapshot is written to a temporary file first, which then
+     * replaces the given one, so that a snapshot is never read while it is being written.
+     * @param axioms the axioms, in normal form
+     * @param file
+     * @param contentHash
+     * @return {@code true} if the snapshot has been written; {@code false} if an axiom cannot be written (see {@link #isSupported(OWLAxiom)}),
+     * in which case the file is not changed
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static boolean write(Stream<? extends OWLAxiom> axioms, Path file, String contentHash) throws IOException {
+        AxiomEncoder encoder = new AxiomEncoder();
+        int count = 0;
+        for(Iterator<? extends OWLAxiom> it = axioms.iterator(); it.hasNext(); count++){
+            if(!encoder.axiom(it.next())){
+                return false;
+            }
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try{
+            try(OutputStream output = Files.newOutputStream(temporaryFile);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output))){
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                AxiomEncoder.writeString(out, contentHash);
+                encoder.writeDictionary(out);
+                out.writeInt(count);
+                encoder.writeTo(out);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        return true;
+    }
+
+    /**
+     * Read the snapshot in the given file, if it is keyed by the given content hash. The axioms are added to a new ontology, in the order in
+     * which they were written.
+     * @param file
+     * @param contentHash
+     * @return the ontology, or {@code null} if there is no snapshot in the file, or if it has another version or another hash
+     * @throws IOException if the snapshot cannot be read or is truncated
+     */
+    public static OWLOntology read(Path file, String contentHash) throws IOException {
+        if(!Files.isRegularFile(file)){
+            return null;
+        }
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.remaining() < 8 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !AxiomDecoder.readString(buffer).equals(contentHash)){
+                return null;
+            }
+            AxiomDecoder decoder = new AxiomDecoder(buffer);
+            int count = buffer.getInt();
+            List<OWLAxiom> axioms = new ArrayList<>(count);
+            for(int i = 0; i < count; i++){
+                axioms.add(decoder.axiom());
+            }
+            OWLOntology ontology = OWLManager.createOWLOntologyManager().createOntology();
+            ontology.add(axioms);
+            return ontology;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated snapshot: " + file, e);
+        } catch (OWLOntologyCreationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Check if the given axiom can be written to a snapshot, i.e. if it is a class or role axiom of the normal form: {@code SubClassOf},
+     * {@code EquivalentClasses}, {@code DisjointClasses}, {@code SubObjectPropertyOf}, {@code EquivalentObjectProperties},
+     * {@code TransitiveObjectProperty}, {@code SubPropertyChainOf} or {@code ObjectPropertyRange}, on named classes, ⊤, ⊥, nominals,
+     * existential restrictions, intersections and data restrictions.
+     * @param axiom
+     * @return boolean
+     */
+    public static boolean isSupported(OWLAxiom axiom) {
+        return new AxiomEncoder().axiom(axiom);
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.reasoner.querying;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.ClassExpressionType;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+
+import com.reasoner.reasoning.rules.InferenceRule;
+
+/**
+ * The {@code OntologyStatistics} class collects a few cheap statistics about the axioms of an ontology, which are used to estimate the
+ * cost of reasoning with it before it is saturated. They are computed by a single scan of the axioms, which are expected to be in normal
+ * form:
+ * <ul>
+ *     <li>the number of axioms indexed by every registered rule</li>
+ *     <li>the number of basic concepts (classes and nominals) and of individuals</li>
+ *     <li>the existential depth, i.e. the length of the longest chain A1 ⊑ ∃r1.A2, A2 ⊑ ∃r2.A3, ... of told axioms</li>
+ *     <li>the conjunction fan-out, i.e. the largest number of conjunctions C1 ⊓ C2 ⊑ D that share an operand</li>
+ * </ul>
+ */
+public final class OntologyStatistics {
+
+    private int axiomCount = 0;
+    private final Map<Class<? extends InferenceRule>, Integer> axiomsByRule = new LinkedHashMap<>();
+    private final Set<OWLClassExpression> concepts = new HashSet<>();
+    private int individualCount = 0;
+    private int existentialDepth = 0;
+    private int conjunctionFanOut = 0;
+
+    /**
+     * Scan the axioms of the ontology (see {@link OntologyAccessManager#axioms()}).
+     * @param ontologyAccessManager
+     */
+    public OntologyStatistics(OntologyAccessManager ontologyAccessManager) {
+        Map<OWLClassExpression, Set<OWLClassExpression>> fillers = new HashMap<>();
+        Map<OWLClassExpression, Integer> conjunctions = new HashMap<>();
+        Set<OWLIndividual> individuals = new HashSet<>();
+        for (InferenceRule rule : ontologyAccessManager.getRules()) {
+            axiomsByRule.put(rule.getClass(), 0);
+        }
+        ontologyAccessManager.axioms().forEach(axiom -> {
+            axiomCount++;
+            OWLClassExpression subclass = axiom.getSubClass();
+            OWLClassExpression superclass = axiom.getSuperClass();
+            for (InferenceRule rule : ontologyAccessManager.getRules()) {
+                if (rule.axiomCriterion(subclass, superclass)) {
+                    axiomsByRule.merge(rule.getClass(), 1, Integer::sum);
+                }
+            }
+            if (subclass instanceof OWLObjectIntersectionOf) {
+                ((OWLObjectIntersectionOf) subclass).operands().forEach(operand -> conjunctions.merge(operand, 1, Integer::sum));
+            }
+            if (superclass instanceof OWLObjectSomeValuesFrom) {
+                fillers.computeIfAbsent(subclass, key -> new HashSet<>()).add(((OWLObjectSomeValuesFrom) superclass).getFiller());
+            }
+            axiom.nestedClassExpressions()
+                .filter(classExpression -> classExpression.isOWLClass() || classExpression.getClassExpressionType() == ClassExpressionType.OBJECT_ONE_OF)
+                .forEach(concepts::add);
+            axiom.individualsInSignature().forEach(individuals::add);
+        });
+        this.individualCount = individuals.size();
+        this.conjunctionFanOut = conjunctions.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        this.existentialDepth = longestChain(fillers);
+    }
+
+    /**
+     * Compute the length of the longest path in the graph of the told existentials, where every A ⊑ ∃r.B is an edge from A to B. The edges
+     * that close a cycle are not followed, so that the length is bounded by the number of subclasses.
+     */
+    private static int longestChain(Map<OWLClassExpression, Set<OWLClassExpression>> fillers) {
+        Map<OWLClassExpression, Integer> depths = new HashMap<>();
+        Set<OWLClassExpression> visiting = new HashSet<>();
+        int longest = 0;
+        for (OWLClassExpression root : fillers.keySet()) {
+            if (depths.containsKey(root)) {
+                continue;
+            }
+            // Iterative post-order visit, since the chains may be too long for the call stack
+            Deque<OWLClassExpression> path = new ArrayDeque<>();
+            Deque<Iterator<OWLClassExpression>> pending = new ArrayDeque<>();
+            path.push(root);
+            pending.push(fillers.get(root).iterator());
+            visiting.add(root);
+            while (!path.isEmpty()) {
+                Iterator<OWLClassExpression> iterator = pending.peek();
+                if (iterator.hasNext()) {
+                    OWLClassExpression filler = iterator.next();
+                    if (!depths.containsKey(filler) && !visiting.contains(filler)) {
+                        path.push(filler);
+                        pending.push(fillers.getOrDefault(filler, Collections.emptySet()).iterator());
+                        visiting.add(filler);
+                    }
+                    continue;
+                }
+                OWLClassExpression concept = path.pop();
+                pending.pop();
+                visiting.remove(concept);
+                int depth = 0;
+                for (OWLClassExpression filler : fillers.getOrDefault(concept, Collections.emptySet())) {
+                    depth = Math.max(depth, depths.getOrDefault(filler, 0) + 1);
+                }
+                depths.put(concept, depth);
+                longest = Math.max(longest, depth);
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Get the number of axioms of the ontology.
+     * @return int
+     */
+    public int getAxiomCount() {
+        return axiomCount;
+    }
+
+    /**
+     * Get the number of axioms indexed by the given rule, i.e. that satisfy its {@link InferenceRule#axiomCriterion}.
+     * @param inferenceRuleType the type of the rule
+     * @return int
+     */
+    public int getAxiomCount(Class<? extends InferenceRule> inferenceRuleType) {
+        return axiomsByRule.getOrDefault(inferenceRuleType, 0);
+    }
+
+    /**
+     * Get the number of basic concepts, i.e. classes and nominals, that occur in the axioms.
+     * @return int
+     */
+    public int getConceptCount() {
+        return concepts.size();
+    }
+
+    /**
+     * Get the number of individuals that occur in the axioms.
+     * @return int
+     */
+    public int getIndividualCount() {
+        return individualCount;
+    }
+
+    /**
+     * Get the length of the longest chain A1 ⊑ ∃r1.A2, A2 ⊑ ∃r2.A3, ... of told axioms.
+     * @return int
+     */
+    public int getExistentialDepth() {
+        return existentialDepth;
+    }
+
+    /**
+     * Get the largest number of conjunctions that share an operand.
+     * @return int
+     */
+    public int getConjunctionFanOut() {
+        return conjunctionFanOut;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder rules = new StringBuilder();
+        axiomsByRule.forEach((rule, count) -> rules.append(rules.length() == 0 ? "" : ", ").append(rule.getSimpleName()).append('=').append(count));
+        return "axioms=" + axiomCount + " [" + rules + "], concepts=" + getConceptCount() + ", individuals=" + individualCount
+            + ", existentialDepth=" + existentialDepth + ", conjunctionFanOut=" + conjunctionFanOut;
+    }
+}
@@ -0,0 +1,505 @@
+package com.reasoner.querying;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEquivalentObjectPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.semanticweb.owlapi.model.OWLTransitiveObjectPropertyAxiom;
+
+/**
+ * The {@code RoleHierarchy} class indexes the role inclusions r ⊑ s of an ontology ({@code SubObjectPropertyOf} and
+ * {@code EquivalentObjectProperties} axioms). <p>
+ * Every role is given an {@code int} identifier, and the reflexive-transitive closure ⊑* of the role inclusions is precomputed
+ * when the hierarchy is built, so that the sub-roles and the super-roles of a role are looked up in constant time. The top role
+ * (identifier {@link #TOP}) is a super-role of every role, and the bottom role (identifier {@link #BOTTOM}) is a sub-role of
+ * every role. <p>
+ * A role that does not occur in the ontology has no identifier: it is only a sub-role and a super-role of itself (and of the top
+ * and bottom roles). <p>
+ * The role chains r1 ∘ r2 ⊑ t ({@code SubObjectPropertyOf(ObjectPropertyChain(r1 r2) t)}, and {@code TransitiveObjectProperty(r)} as
+ * r ∘ r ⊑ r) are compiled into a composition table over the role identifiers: the composition of r and s holds the roles t such that
+ * u1 ∘ u2 ⊑ t, r ⊑* u1 and s ⊑* u2, so the chains are matched without looking up the role closure again. Longer chains
+ * r1 ∘ ... ∘ rk ⊑ t are split into binary ones, as NF1 does (see {@code NormalizationUtilities}): r1 ∘ r2 ⊑ u1, u1 ∘ r3 ⊑ u2, ...,
+ * u(k-2) ∘ rk ⊑ t, where every ui is a generated role that stands for the prefix r1 ∘ ... ∘ r(i+1). <p>
+ * The hierarchy is immutable: it has to be built again when the role axioms of the ontology change.
+ */
+public class RoleHierarchy {
+    public static final int TOP = 0;
+    public static final int BOTTOM = 1;
+
+    /**
+     * The types of the axioms indexed by a role hierarchy.
+     */
+    public static final Set<AxiomType<?>> AXIOM_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.<AxiomType<?>>asList(
+        AxiomType.SUB_OBJECT_PROPERTY,
+        AxiomType.EQUIVALENT_OBJECT_PROPERTIES,
+        AxiomType.SUB_PROPERTY_CHAIN_OF,
+        AxiomType.TRANSITIVE_OBJECT_PROPERTY
+    )));
+
+    /**
+     * Token used to identify the roles generated to split the role chains.
+     */
+    public static final String GENERATED_ROLE = "#GENERATED_ROLE";
+
+    private static final int[] NO_ROLES = new int[0];
+
+    private final List<OWLObjectPropertyExpression> roles = new ArrayList<>();
+    private final Map<OWLObjectPropertyExpression, Integer> roleIds = new HashMap<>();
+    private final boolean hasRoleInclusions;
+
+    private final BitSet[] superRoleSets;
+    private final int[][] superRoleIds;
+    private final int[][] subRoleIds;
+    private final int[][] equivalentRoleIds;
+    private final int[][] directSuperRoleIds;
+    private final int[][] directSubRoleIds;
+
+    private final List<List<OWLObjectPropertyExpression>> superRoles;
+    private final List<List<OWLObjectPropertyExpression>> subRoles;
+
+    private final boolean hasRoleChains;
+    private final int[][] chainSecondIds;          // r → the roles s whose composition with r is not empty, sorted
+    private final int[][][] compositionIds;        // r → i → the composition of r and chainSecondIds[r][i]
+    private final int[][] chainFirstIds;           // s → the roles r whose composition with s is not empty
+
+    /**
+     * Build the role hierarchy of the given ontology.
+     * @param ontology
+     */
+    public RoleHierarchy(OWLOntology ontology) {
+        this(AXIOM_TYPES.stream().flatMap(type -> ontology.axioms(type)), ontology.objectPropertiesInSignature());
+    }
+
+    /**
+     * Build the role hierarchy of the given role axioms.
+     * @param axioms the role axioms (see {@link #AXIOM_TYPES}); the axioms of any other type are ignored
+     * @param roles additional roles to identify, even if they occur in no role axiom
+     */
+    public RoleHierarchy(Stream<? extends OWLAxiom> axioms, Stream<? extends OWLObjectPropertyExpression> roles) {
+        OWLDataFactory factory = OWLManager.getOWLDataFactory();
+        intern(factory.getOWLTopObjectProperty());
+        intern(factory.getOWLBottomObjectProperty());
+
+        List<int[]> inclusions = new ArrayList<>();
+        List<int[]> chains = new ArrayList<>();
+        axioms.forEach(axiom -> {
+            if (axiom instanceof OWLSubObjectPropertyOfAxiom) {
+                OWLSubObjectPropertyOfAxiom subPropertyAxiom = (OWLSubObjectPropertyOfAxiom) axiom;
+                inclusions.add(new int[] {intern(subPropertyAxiom.getSubProperty()), intern(subPropertyAxiom.getSuperProperty())});
+            } else if (axiom instanceof OWLEquivalentObjectPropertiesAxiom) {
+                for (OWLSubObjectPropertyOfAxiom subPropertyAxiom : ((OWLEquivalentObjectPropertiesAxiom) axiom).asSubObjectPropertyOfAxioms()) {
+                    inclusions.add(new int[] {intern(subPropertyAxiom.getSubProperty()), intern(subPropertyAxiom.getSuperProperty())});
+                }
+            } else if (axiom instanceof OWLSubPropertyChainOfAxiom) {
+                OWLSubPropertyChainOfAxiom chainAxiom = (OWLSubPropertyChainOfAxiom) axiom;
+                addChain(chainAxiom.getPropertyChain(), chainAxiom.getSuperProperty(), inclusions, chains);
+            } else if (axiom instanceof OWLTransitiveObjectPropertyAxiom) {
+                int r = intern(((OWLTransitiveObjectPropertyAxiom) axiom).getProperty());
+                chains.add(new int[] {r, r, r});
+            }
+        });
+        roles.forEach(this::intern);
+        this.hasRoleInclusions = !inclusions.isEmpty();
+        this.hasRoleChains = !chains.isEmpty();
+
+        int roleCount = this.roles.size();
+        int[][] toldSuperRoles = new int[roleCount][];
+        int[] toldSuperRoleCounts = new int[roleCount];
+        for (int[] inclusion : inclusions) {
+            toldSuperRoleCounts[inclusion[0]]++;
+        }
+        for (int r = 0; r < roleCount; r++) {
+            toldSuperRoles[r] = new int[toldSuperRoleCounts[r]];
+            toldSuperRoleCounts[r] = 0;
+        }
+        for (int[] inclusion : inclusions) {
+            toldSuperRoles[inclusion[0]][toldSuperRoleCounts[inclusion[0]]++] = inclusion[1];
+        }
+
+        // Reflexive-transitive closure: a depth-first visit of the told inclusions from every role
+        superRoleSets = new BitSet[roleCount];
+        int[] stack = new int[roleCount];
+        for (int r = 0; r < roleCount; r++) {
+            BitSet reached = new BitSet(roleCount);
+            reached.set(r);
+            reached.set(TOP);
+            int top = 0;
+            stack[top++] = r;
+            while (top > 0) {
+                int s = stack[--top];
+                for (int t : toldSuperRoles[s]) {
+                    if (!reached.get(t)) {
+                        reached.set(t);
+                        stack[top++] = t;
+                    }
+                }
+            }
+            superRoleSets[r] = reached;
+        }
+        // The bottom role is a sub-role of every role
+        superRoleSets[BOTTOM].set(0, roleCount);
+
+        superRoleIds = new int[roleCount][];
+        int[] subRoleCounts = new int[roleCount];
+        for (int r = 0; r < roleCount; r++) {
+            superRoleIds[r] = superRoleSets[r].stream().toArray();
+            for (int s : superRoleIds[r]) {
+                subRoleCounts[s]++;
+            }
+        }
+        subRoleIds = new int[roleCount][];
+        for (int s = 0; s < roleCount; s++) {
+            subRoleIds[s] = new int[subRoleCounts[s]];
+            subRoleCounts[s] = 0;
+        }
+        for (int r = 0; r < roleCount; r++) {
+            for (int s : superRoleIds[r]) {
+                subRoleIds[s][subRoleCounts[s]++] = r;
+            }
+        }
+
+        equivalentRoleIds = new int[roleCount][];
+        for (int r = 0; r < roleCount; r++) {
+            final int role = r;
+            equivalentRoleIds[r] = Arrays.stream(superRoleIds[r]).filter(s -> superRoleSets[s].get(role)).toArray();
+        }
+
+        // A strict super-role s of r is direct if no other strict super-role of r is a strict sub-role of s
+        directSuperRoleIds = new int[roleCount][];
+        List<List<Integer>> directSubRoles = new ArrayList<>();
+        for (int r = 0; r < roleCount; r++) {
+            directSubRoles.add(new ArrayList<>());
+        }
+        for (int r = 0; r < roleCount; r++) {
+            final int role = r;
+            int[] strictSuperRoles = Arrays.stream(superRoleIds[r]).filter(s -> !superRoleSets[s].get(role)).toArray();
+            directSuperRoleIds[r] = Arrays.stream(strictSuperRoles).filter(s -> {
+                for (int t : strictSuperRoles) {
+                    if (superRoleSets[t].get(s) && !superRoleSets[s].get(t)) {
+                        return false;
+                    }
+                }
+                return true;
+            }).toArray();
+            for (int s : directSuperRoleIds[r]) {
+                directSubRoles.get(s).add(r);
+            }
+        }
+        directSubRoleIds = new int[roleCount][];
+        for (int s = 0; s < roleCount; s++) {
+            directSubRoleIds[s] = directSubRoles.get(s).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        superRoles = new ArrayList<>(roleCount);
+        subRoles = new ArrayList<>(roleCount);
+        for (int r = 0; r < roleCount; r++) {
+            superRoles.add(toRoles(superRoleIds[r]));
+            subRoles.add(toRoles(subRoleIds[r]));
+        }
+
+        // Composition table: every chain u1 ∘ u2 ⊑ t is propagated to the sub-roles of u1 and u2 (the bottom role takes part in no chain)
+        List<Map<Integer, BitSet>> compositions = new ArrayList<>(roleCount);
+        for (int r = 0; r < roleCount; r++) {
+            compositions.add(null);
+        }
+        for (int[] chain : chains) {
+            for (int r : subRoleIds[chain[0]]) {
+                if (r == BOTTOM) {
+                    continue;
+                }
+                if (compositions.get(r) == null) {
+                    compositions.set(r, new HashMap<>());
+                }
+                for (int s : subRoleIds[chain[1]]) {
+                    if (s != BOTTOM) {
+                        compositions.get(r).computeIfAbsent(s, __ -> new BitSet(roleCount)).set(chain[2]);
+                    }
+                }
+            }
+        }
+        chainSecondIds = new int[roleCount][];
+        compositionIds = new int[roleCount][][];
+        int[] chainFirstCounts = new int[roleCount];
+        for (int r = 0; r < roleCount; r++) {
+            Map<Integer, BitSet> composition = compositions.get(r);
+            if (composition == null) {
+                chainSecondIds[r] = NO_ROLES;
+                compositionIds[r] = new int[0][];
+                continue;
+            }
+            chainSecondIds[r] = composition.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            compositionIds[r] = new int[chainSecondIds[r].length][];
+            for (int i = 0; i < chainSecondIds[r].length; i++) {
+                compositionIds[r][i] = minimalRoles(composition.get(chainSecondIds[r][i]));
+                chainFirstCounts[chainSecondIds[r][i]]++;
+            }
+        }
+        chainFirstIds = new int[roleCount][];
+        for (int s = 0; s < roleCount; s++) {
+            chainFirstIds[s] = chainFirstCounts[s] == 0 ? NO_ROLES : new int[chainFirstCounts[s]];
+            chainFirstCounts[s] = 0;
+        }
+        for (int r = 0; r < roleCount; r++) {
+            for (int s : chainSecondIds[r]) {
+                chainFirstIds[s][chainFirstCounts[s]++] = r;
+            }
+        }
+    }
+
+    /**
+     * Add the role chain r1 ∘ ... ∘ rk ⊑ t. A chain of one role is a role inclusion, while a longer chain is split into binary chains
+     * through generated roles (see {@link #GENERATED_ROLE}).
+     * @param chain r1, ..., rk
+     * @param superRole t
+     * @param inclusions the role inclusions, as (r, s) pairs
+     * @param chains the binary role chains, as (r1, r2, t) triples
+     */
+    private void addChain(List<OWLObjectPropertyExpression> chain, OWLObjectPropertyExpression superRole, List<int[]> inclusions, List<int[]> chains) {
+        if (chain.size() == 1) {
+            inclusions.add(new int[] {intern(chain.get(0)), intern(superRole)});
+            return;
+        }
+        int prefix = intern(chain.get(0));
+        for (int i = 1; i < chain.size() - 1; i++) {
+            int generatedRole = intern(generateRole(chain.subList(0, i + 1)));
+            chains.add(new int[] {prefix, intern(chain.get(i)), generatedRole});
+            prefix = generatedRole;
+        }
+        chains.add(new int[] {prefix, intern(chain.get(chain.size() - 1)), intern(superRole)});
+    }
+
+    /**
+     * Generate the role that stands for the given prefix of a role chain. The same prefix always gets the same role, so that it is
+     * shared by all the chains that start with it.
+     * @param prefix r1, ..., ri
+     * @return the generated role
+     */
+    public static OWLObjectPropertyExpression generateRole(List<OWLObjectPropertyExpression> prefix) {
+        String namespace = prefix.get(0).getNamedProperty().getIRI().getNamespace();
+        if (namespace.endsWith("#")) {
+            namespace = namespace.substring(0, namespace.length() - 1);
+        }
+        return OWLManager.getOWLDataFactory().getOWLObjectProperty(IRI.create(namespace + GENERATED_ROLE + prefix.toString().hashCode()));
+    }
+
+    /**
+     * Get the roles of the given set that are not strict super-roles of another role of the set: for CR4 and for the compositions, a role
+     * stands for all its super-roles.
+     * @param roleSet
+     * @return array of identifiers
+     */
+    private int[] minimalRoles(BitSet roleSet) {
+        return roleSet.stream().filter(t -> {
+            for (int u = roleSet.nextSetBit(0); u >= 0; u = roleSet.nextSetBit(u + 1)) {
+                if (u != t && superRoleSets[u].get(t) && !superRoleSets[t].get(u)) {
+                    return false;
+                }
+            }
+            return true;
+        }).toArray();
+    }
+
+    private int intern(OWLObjectPropertyExpression role) {
+        return roleIds.computeIfAbsent(role, __ -> {
+            roles.add(role);
+            return roles.size() - 1;
+        });
+    }
+
+    private List<OWLObjectPropertyExpression> toRoles(int[] ids) {
+        List<OWLObjectPropertyExpression> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(roles.get(id));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Check if the ontology has any role inclusion. If it has none, every role is only a sub-role and a super-role of itself (and
+     * of the top and bottom roles).
+     * @return boolean
+     */
+    public boolean hasRoleInclusions() {
+        return hasRoleInclusions;
+    }
+
+    /**
+     * Check if the ontology has any role chain (including the transitive roles).
+     * @return boolean
+     */
+    public boolean hasRoleChains() {
+        return hasRoleChains;
+    }
+
+    /**
+     * Get the number of identified roles. The identifiers range from 0 (inclusive) to this number (exclusive).
+     * @return int
+     */
+    public int size() {
+        return roles.size();
+    }
+
+    /**
+     * Get the identifier of a role.
+     * @param role
+     * @return the identifier, or -1 if the role does not occur in the ontology
+     */
+    public int getId(OWLObjectPropertyExpression role) {
+        Integer id = roleIds.get(role);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Get the role with the given identifier.
+     * @param id
+     * @return the role
+     */
+    public OWLObjectPropertyExpression getRole(int id) {
+        return roles.get(id);
+    }
+
+    /**
+     * Check if r ⊑* s holds.
+     * @param subRole the identifier of r
+     * @param superRole the identifier of s
+     * @return boolean
+     */
+    public boolean isSubRole(int subRole, int superRole) {
+        return superRoleSets[subRole].get(superRole);
+    }
+
+    /**
+     * Check if r ⊑* s holds.
+     * @param subRole r
+     * @param superRole s
+     * @return boolean
+     */
+    public boolean isSubRole(OWLObjectPropertyExpression subRole, OWLObjectPropertyExpression superRole) {
+        int r = getId(subRole);
+        int s = getId(superRole);
+        if (r < 0 || s < 0) {
+            return subRole.equals(superRole) || s == TOP || r == BOTTOM;
+        }
+        return isSubRole(r, s);
+    }
+
+    /**
+     * Get the identifiers of the super-roles s of a role r (r ⊑* s), including r itself and the top role.
+     * @param id the identifier of r
+     * @return array of identifiers; it must not be modified
+     */
+    public int[] getSuperRoleIds(int id) {
+        return superRoleIds[id];
+    }
+
+    /**
+     * Get the identifiers of the sub-roles s of a role r (s ⊑* r), including r itself and the bottom role.
+     * @param id the identifier of r
+     * @return array of identifiers; it must not be modified
+     */
+    public int[] getSubRoleIds(int id) {
+        return subRoleIds[id];
+    }
+
+    /**
+     * Get the identifiers of the roles equivalent to a role r (r ⊑* s and s ⊑* r), including r itself.
+     * @param id the identifier of r
+     * @return array of identifiers; it must not be modified
+     */
+    public int[] getEquivalentRoleIds(int id) {
+        return equivalentRoleIds[id];
+    }
+
+    /**
+     * Get the identifiers of the direct super-roles of a role r, i.e. the strict super-roles of r that are not strict super-roles
+     * of another strict super-role of r. Equivalent roles are all included.
+     * @param id the identifier of r
+     * @return array of identifiers; it must not be modified
+     */
+    public int[] getDirectSuperRoleIds(int id) {
+        return directSuperRoleIds[id];
+    }
+
+    /**
+     * Get the identifiers of the direct sub-roles of a role r (see {@link #getDirectSuperRoleIds(int)}).
+     * @param id the identifier of r
+     * @return array of identifiers; it must not be modified
+     */
+    public int[] getDirectSubRoleIds(int id) {
+        return directSubRoleIds[id];
+    }
+
+    /**
+     * Get the super-roles s of a role r (r ⊑* s), including r itself and the top role.
+     * @param role r
+     * @return unmodifiable collection of roles
+     */
+    public Collection<OWLObjectPropertyExpression> getSuperRoles(OWLObjectPropertyExpression role) {
+        int id = getId(role);
+        if (id < 0) {
+            return Arrays.asList(role, roles.get(TOP));
+        }
+        return superRoles.get(id);
+    }
+
+    /**
+     * Get the sub-roles s of a role r (s ⊑* r), including r itself and the bottom role.
+     * @param role r
+     * @return unmodifiable collection of roles
+     */
+    public Collection<OWLObjectPropertyExpression> getSubRoles(OWLObjectPropertyExpression role) {
+        int id = getId(role);
+        if (id < 0) {
+            return Arrays.asList(role, roles.get(BOTTOM));
+        }
+        return subRoles.get(id);
+    }
+
+    /**
+     * Get the identifiers of the roles s such that the composition of r and s is not empty (see {@link #getCompositionIds(int, int)}).
+     * @param id the identifier of r
+     * @return sorted array of identifiers; it must not be modified
+     */
+    public int[] getChainSecondIds(int id) {
+        return chainSecondIds[id];
+    }
+
+    /**
+     * Get the identifiers of the roles r such that the composition of r and s is not empty (see {@link #getCompositionIds(int, int)}).
+     * @param id the identifier of s
+     * @return array of identifiers; it must not be modified
+     */
+    public int[] getChainFirstIds(int id) {
+        return chainFirstIds[id];
+    }
+
+    /**
+     * Get the composition of two roles r and s, i.e. the roles t such that u1 ∘ u2 ⊑ t, r ⊑* u1 and s ⊑* u2. Only the roles that are
+     * not strict super-roles of another role of the composition are returned: X ⊑ ∃r.Y and Y ⊑ ∃s.Z imply X ⊑ ∃t.Z for each of them.
+     * @param first the identifier of r
+     * @param second the identifier of s
+     * @return array of identifiers, empty if the composition is empty; it must not be modified
+     */
+    public int[] getCompositionIds(int first, int second) {
+        int i = Arrays.binarySearch(chainSecondIds[first], second);
+        return i < 0 ? NO_ROLES : compositionIds[first][i];
+    }
+}
@@ -25,6 +25,7 @@ public abstract class Reasoner implements OWLReasoner {
     protected Map<InferenceType, InferenceCalculator> inferenceCalculators;
     private final OntologyAccessManager ontologyAccessManager;
     private OntologyNormalizer ontologyNormalizer;
+    private boolean isNormalized = false;
     private final OntologySaturator ontologySaturator;
 
     /**
@@ -86,14 +87,35 @@ public abstract class Reasoner implements OWLReasoner {
         ontologyAccessManager.registerRule(inferenceRule);
     }
 
-    @Override
-    public void precomputeInferences(InferenceType... inferenceTypes) {
+    /**
+     * Add a rule that applies some of the inference rules of the reasoner in a single pass (see {@link InferenceRule#getFusedRules()}).
+     * The fused rule is registered with the OntologyAccessor object, and replaces the rules it fuses in the saturation.
+     * @param fusedRule The fused rule
+     */
+    protected void addFusedInferenceRule(InferenceRule fusedRule){
+        ontologyAccessManager.registerFusedRule(fusedRule);
+    }
+
+    /**
+     * Prepare the ontology for reasoning.
+     * The ontology is normalized only once, the first time this method is called.
+     */
+    protected void prepareOntology(){
+        if(isNormalized){
+            return;
+        }
         if(ontologyNormalizer != null){
             normalizeOntology();
+            isNormalized = true;
         }
         else{
             //System.out.println("Normalizer not defined. Skipping normalization.");
         }
+    }
+
+    @Override
+    public void precomputeInferences(InferenceType... inferenceTypes) {
+        prepareOntology();
         for (InferenceType inferenceType : inferenceTypes) {
             if(isPrecomputed(inferenceType)){
                 //System.out.println("Inference type already precomputed: " + inferenceType);
@@ -0,0 +1,284 @@
+package com.reasoner.reasoning;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of worker threads shared by several reasoners, so that classifying several ontologies at the same time does not start more
+ * threads than the machine can run. <p>
+ * Every reasoner submits its tasks through its own {@link Tenant}, e.g. one task for every activation of a context of the saturation and one
+ * for every part of the reduction of the taxonomy. When a worker is free, it picks the next task of:
+ * <ul>
+ *     <li>the highest {@link Priority} that has a pending task, so that an interactive reclassification overtakes the batch ones as soon as
+ *       their running tasks are completed;</li>
+ *     <li>among the tenants of that priority, the next one in round-robin order, so that every tenant gets its share of the workers;</li>
+ *     <li>among the tenants that run fewer tasks than their concurrency cap.</li>
+ * </ul>
+ * A running task is never interrupted: the tasks of the reasoners are short, so that the workers are quickly given to a higher priority. A
+ * task must not wait for the completion of other tasks of the pool.
+ */
+public class WorkerPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerPool.class);
+
+    /**
+     * The priority classes of the tenants, from the highest to the lowest.
+     */
+    public enum Priority {
+        /**
+         * Reclassifications that a user is waiting for.
+         */
+        INTERACTIVE,
+
+        /**
+         * Background reclassifications, which only get the workers that no interactive tenant needs.
+         */
+        BATCH
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition taskAvailable = lock.newCondition();
+    // The tenants that have a pending task and run fewer tasks than their cap, in round-robin order
+    private final Map<Priority, Deque<Tenant>> readyTenants = new EnumMap<>(Priority.class);
+    private final Thread[] workers;
+    private int pendingTasks = 0;
+    private boolean shutdown = false;
+
+    /**
+     * Create a pool and start its workers, which are daemon threads.
+     * @param threadCount the number of workers, at least 1
+     */
+    public WorkerPool(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("The number of threads must be at least 1.");
+        }
+        for (Priority priority : Priority.values()) {
+            readyTenants.put(priority, new ArrayDeque<>());
+        }
+        workers = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            workers[i] = new Thread(this::work, "reasoner-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Create a tenant of this pool, e.g. for a reasoner.
+     * @param name the name of the tenant, used in the logs
+     * @param priority the priority of its tasks
+     * @param maxConcurrency the maximum number of its tasks that run at the same time, at least 1
+     * @return Tenant
+     */
+    public Tenant createTenant(String name, Priority priority, int maxConcurrency) {
+        return new Tenant(name, priority, maxConcurrency);
+    }
+
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    /**
+     * Stop the workers once all the pending tasks are completed. No task can be submitted anymore.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            taskAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        for (;;) {
+            Tenant tenant;
+            Runnable task;
+            lock.lock();
+            try {
+                tenant = nextTenant();
+                while (tenant == null) {
+                    if (shutdown && pendingTasks == 0) {
+                        return;
+                    }
+                    taskAvailable.awaitUninterruptibly();
+                    tenant = nextTenant();
+                }
+                task = tenant.tasks.poll();
+                pendingTasks--;
+                tenant.running++;
+                tenant.peakRunning = Math.max(tenant.peakRunning, tenant.running);
+                tenant.schedule();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                LOGGER.error("A task of the tenant {} failed", tenant.name, e);
+            }
+
+            lock.lock();
+            try {
+                tenant.running--;
+                tenant.completedTasks++;
+                tenant.schedule();
+                if (shutdown && pendingTasks == 0) {
+                    taskAvailable.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Take the next tenant whose task has to run, or {@code null} if no task can run. The lock must be held.
+     */
+    private Tenant nextTenant() {
+        for (Priority priority : Priority.values()) {
+            Tenant tenant = readyTenants.get(priority).poll();
+            if (tenant != null) {
+                tenant.ready = false;
+                return tenant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The share of the pool of a reasoner: an {@link Executor} whose tasks run on the workers of the pool, with a priority and a cap on the
+     * number of tasks that run at the same time.
+     */
+    public final class Tenant implements Executor {
+        private final String name;
+        private final int maxConcurrency;
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+        private Priority priority;
+        private boolean ready = false;
+        private int running = 0;
+        private int peakRunning = 0;
+        private long completedTasks = 0;
+
+        private Tenant(String name, Priority priority, int maxConcurrency) {
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("The maximum concurrency must be at least 1.");
+            }
+            this.name = name;
+            this.priority = priority;
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        /**
+         * Submit a task to the pool.
+         * @param task
+         * @throws RejectedExecutionException if the pool has been shut down
+         */
+        @Override
+        public void execute(Runnable task) {
+            lock.lock();
+            try {
+                if (shutdown) {
+                    throw new RejectedExecutionException("The worker pool has been shut down.");
+                }
+                tasks.add(task);
+                pendingTasks++;
+                schedule();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Change the priority of the tasks of this tenant, including the pending ones, e.g. to promote a batch reclassification that a user
+         * is now waiting for.
+         * @param priority
+         */
+        public void setPriority(Priority priority) {
+            lock.lock();
+            try {
+                if (ready) {
+                    readyTenants.get(this.priority).remove(this);
+                    ready = false;
+                }
+                this.priority = priority;
+                schedule();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public Priority getPriority() {
+            lock.lock();
+            try {
+                return priority;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        /**
+         * Get the largest number of tasks of this tenant that have run at the same time.
+         * @return int
+         */
+        public int getPeakRunningTasks() {
+            lock.lock();
+            try {
+                return peakRunning;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public long getCompletedTaskCount() {
+            lock.lock();
+            try {
+                return completedTasks;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public WorkerPool getPool() {
+            return WorkerPool.this;
+        }
+
+        /**
+         * Add this tenant at the end of the round-robin order of its priority, if one of its tasks can run. The lock must be held.
+         */
+        private void schedule() {
+            if (!ready && !tasks.isEmpty() && running < maxConcurrency) {
+                ready = true;
+                readyTenants.get(priority).add(this);
+                taskAvailable.signal();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.reasoner.reasoning.rules;
+
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectOneOf;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+/**
+ * The shape of a {@code SubClassOf} axiom, i.e. the form it has in normal form. Every {@link InferenceRule} declares the shapes of the
+ * axioms it consumes (see {@link InferenceRule#getConsumedShapes()}), so that an axiom is only dispatched to the rules that accept its shape.
+ * A basic concept is a class (including ⊤) or a nominal.
+ */
+public enum AxiomShape {
+    /**
+     * X ⊑ A, where X and A are basic concepts and A is not ⊥.
+     */
+    SUBSUMPTION,
+    /**
+     * X ⊑ ⊥, where X is a basic concept.
+     */
+    BOTTOM,
+    /**
+     * X ⊑ ∃r.Y, where X is a basic concept.
+     */
+    LINK,
+    /**
+     * C1 ⊓ ... ⊓ Cn ⊑ D.
+     */
+    CONJUNCTION,
+    /**
+     * ∃r.C ⊑ D.
+     */
+    EXISTENTIAL_SUBCLASS,
+    /**
+     * Any other axiom.
+     */
+    OTHER;
+
+    /**
+     * Get the shape of the given axiom.
+     * @param axiom
+     * @return AxiomShape
+     */
+    public static AxiomShape of(OWLSubClassOfAxiom axiom) {
+        return of(axiom.getSubClass(), axiom.getSuperClass());
+    }
+
+    /**
+     * Get the shape of the axiom subclass ⊑ superclass.
+     * @param subclass
+     * @param superclass
+     * @return AxiomShape
+     */
+    public static AxiomShape of(OWLClassExpression subclass, OWLClassExpression superclass) {
+        if (subclass instanceof OWLObjectIntersectionOf) {
+            return CONJUNCTION;
+        }
+        if (subclass instanceof OWLObjectSomeValuesFrom) {
+            return EXISTENTIAL_SUBCLASS;
+        }
+        if (!isBasicConcept(subclass)) {
+            return OTHER;
+        }
+        if (superclass.isOWLNothing()) {
+            return BOTTOM;
+        }
+        if (isBasicConcept(superclass)) {
+            return SUBSUMPTION;
+        }
+        if (superclass instanceof OWLObjectSomeValuesFrom) {
+            return LINK;
+        }
+        return OTHER;
+    }
+
+    private static boolean isBasicConcept(OWLClassExpression classExpression) {
+        return classExpression.isOWLClass() || classExpression instanceof OWLObjectOneOf;
+    }
+}
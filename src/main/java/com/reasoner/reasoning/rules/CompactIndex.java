@@ -0,0 +1,432 @@
+package com.reasoner.reasoning.rules;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Immutable, compressed sparse row (CSR) form of a rule index, which the contexts read during the saturation. <p>
+ * Every key of the index is given an int id, i.e. its row, which is looked up in an open-addressing table of ints. The elements of all the
+ * rows are stored in flat int arrays, and the elements of row {@code i} are the ones between {@code start(i)} (inclusive) and
+ * {@code end(i)} (exclusive). Every element has a value and, for two-level indexes, a label, i.e. its nested key. The labels and the
+ * values are interned: every distinct object is stored once in a dictionary, and the elements only keep its int id. In the indexes built by
+ * {@link #ofNested(Map)}, the elements with the same label are contiguous and share the same label instance, so that a group can be detected
+ * by comparing references. <p>
+ * Since it is never modified, it can be read by all the {@code SaturationThread}s without locks. Once it is built, the rule drops its
+ * mutable index and reads it through a read-only view ({@link #asSets()}, {@link #asNested()} or {@link #asEntries()}); the mutable index
+ * is built again from it ({@link #toSets()}, {@link #toNested()} or {@link #toEntries()}) when the index changes.
+ * @param <K> the type of the keys
+ * @param <L> the type of the labels
+ * @param <V> the type of the values
+ */
+public final class CompactIndex<K, L, V> {
+
+    private final Object[] keys;
+    private final int[] slots;
+    private final int[] offsets;
+    private final Object[] dictionary;
+    private final int[] labels;
+    private final int[] values;
+
+    private CompactIndex(Object[] keys, int[] slots, int[] offsets, Object[] dictionary, int[] labels, int[] values) {
+        this.keys = keys;
+        this.slots = slots;
+        this.offsets = offsets;
+        this.dictionary = dictionary;
+        this.labels = labels;
+        this.values = values;
+    }
+
+    /**
+     * Build the compact form of an index whose keys are mapped to collections of values. The elements have no label.
+     * @param index
+     * @return CompactIndex
+     */
+    public static <K, V> CompactIndex<K, Void, V> ofSets(Map<K, ? extends Collection<? extends V>> index) {
+        int size = 0;
+        for(Collection<? extends V> values : index.values()){
+            size += values.size();
+        }
+        Builder<K> builder = new Builder<>(index.size(), size, false);
+        index.forEach((key, values) -> {
+            builder.startRow(key);
+            values.forEach(value -> builder.add(null, value));
+        });
+        return builder.build();
+    }
+
+    /**
+     * Build the compact form of a two-level index, whose keys are mapped to nested keys, which are mapped to collections of values. Every
+     * element is labelled with its nested key.
+     * @param index
+     * @return CompactIndex
+     */
+    public static <K, L, V> CompactIndex<K, L, V> ofNested(Map<K, ? extends Map<L, ? extends Collection<? extends V>>> index) {
+        int size = 0;
+        for(Map<L, ? extends Collection<? extends V>> nested : index.values()){
+            for(Collection<? extends V> values : nested.values()){
+                size += values.size();
+            }
+        }
+        Builder<K> builder = new Builder<>(index.size(), size, true);
+        index.forEach((key, nested) -> {
+            builder.startRow(key);
+            nested.forEach((label, values) -> values.forEach(value -> builder.add(label, value)));
+        });
+        return builder.build();
+    }
+
+    /**
+     * Build the compact form of an index whose keys are mapped to collections of pairs. Every element is labelled with the key of its pair.
+     * @param index
+     * @return CompactIndex
+     */
+    public static <K, L, V> CompactIndex<K, L, V> ofEntries(Map<K, ? extends Collection<? extends Entry<? extends L, ? extends V>>> index) {
+        int size = 0;
+        for(Collection<? extends Entry<? extends L, ? extends V>> entries : index.values()){
+            size += entries.size();
+        }
+        Builder<K> builder = new Builder<>(index.size(), size, true);
+        index.forEach((key, entries) -> {
+            builder.startRow(key);
+            entries.forEach(entry -> builder.add(entry.getKey(), entry.getValue()));
+        });
+        return builder.build();
+    }
+
+    /**
+     * Get the row of the given key.
+     * @param key
+     * @return the row, or {@code -1} if the key is not in the index
+     */
+    public int row(K key) {
+        return rowOf(key);
+    }
+
+    private int rowOf(Object key) {
+        if(key == null){
+            return -1;
+        }
+        int mask = slots.length - 1;
+        for(int slot = hash(key) & mask; ; slot = (slot + 1) & mask){
+            int row = slots[slot] - 1;
+            if(row < 0 || keys[row].equals(key)){
+                return row;
+            }
+        }
+    }
+
+    /**
+     * Get the key of the given row.
+     * @param row
+     * @return K
+     */
+    @SuppressWarnings("unchecked")
+    public K key(int row) {
+        return (K) keys[row];
+    }
+
+    /**
+     * Get the position of the first element of the given row.
+     * @param row
+     * @return int
+     */
+    public int start(int row) {
+        return offsets[row];
+    }
+
+    /**
+     * Get the position after the last element of the given row.
+     * @param row
+     * @return int
+     */
+    public int end(int row) {
+        return offsets[row + 1];
+    }
+
+    /**
+     * Get the label of the element at the given position.
+     * @param position
+     * @return the label, or {@code null} if the elements have no label
+     */
+    @SuppressWarnings("unchecked")
+    public L label(int position) {
+        return labels == null ? null : (L) dictionary[labels[position]];
+    }
+
+    /**
+     * Get the value of the element at the given position.
+     * @param position
+     * @return V
+     */
+    @SuppressWarnings("unchecked")
+    public V value(int position) {
+        return (V) dictionary[values[position]];
+    }
+
+    /**
+     * Get the number of rows, i.e. of keys.
+     * @return int
+     */
+    public int rowCount() {
+        return keys.length;
+    }
+
+    /**
+     * Get the number of elements of all the rows.
+     * @return int
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Get a read-only view of an index built by {@link #ofSets(Map)}, where every key is mapped to the values of its row.
+     * @return Map
+     */
+    public Map<K, Set<V>> asSets() {
+        return new RowMap<>(row -> new Elements<>(start(row), end(row), this::value));
+    }
+
+    /**
+     * Get a read-only view of an index built by {@link #ofNested(Map)}, where every key is mapped to the groups of its row.
+     * @return Map
+     */
+    public Map<K, Map<L, Set<V>>> asNested() {
+        return new RowMap<>(Groups::new);
+    }
+
+    /**
+     * Get a read-only view of an index built by {@link #ofEntries(Map)}, where every key is mapped to the pairs (label, value) of its row.
+     * @return Map
+     */
+    public Map<K, Set<Entry<L, V>>> asEntries() {
+        return new RowMap<>(row -> new Elements<>(start(row), end(row),
+            position -> new AbstractMap.SimpleImmutableEntry<>(label(position), value(position))));
+    }
+
+    /**
+     * Build a mutable copy of {@link #asSets()}.
+     * @return Map
+     */
+    public Map<K, Set<V>> toSets() {
+        Map<K, Set<V>> index = new HashMap<>();
+        asSets().forEach((key, values) -> index.put(key, new HashSet<>(values)));
+        return index;
+    }
+
+    /**
+     * Build a mutable copy of {@link #asNested()}.
+     * @return Map
+     */
+    public Map<K, Map<L, Set<V>>> toNested() {
+        Map<K, Map<L, Set<V>>> index = new HashMap<>();
+        asNested().forEach((key, nested) -> {
+            Map<L, Set<V>> groups = new HashMap<>();
+            nested.forEach((label, values) -> groups.put(label, new HashSet<>(values)));
+            index.put(key, groups);
+        });
+        return index;
+    }
+
+    /**
+     * Build a mutable copy of {@link #asEntries()}.
+     * @return Map
+     */
+    public Map<K, Set<Entry<L, V>>> toEntries() {
+        Map<K, Set<Entry<L, V>>> index = new HashMap<>();
+        asEntries().forEach((key, entries) -> index.put(key, new HashSet<>(entries)));
+        return index;
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Read-only view of the rows, where every key is mapped to a view of its row.
+     */
+    private final class RowMap<T> extends AbstractMap<K, T> {
+        private final IntFunction<T> rowView;
+
+        RowMap(IntFunction<T> rowView) {
+            this.rowView = rowView;
+        }
+
+        @Override
+        public int size() {
+            return rowCount();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return rowOf(key) >= 0;
+        }
+
+        @Override
+        public T get(Object key) {
+            int row = rowOf(key);
+            return row < 0 ? null : rowView.apply(row);
+        }
+
+        @Override
+        public Set<Entry<K, T>> entrySet() {
+            return new Elements<>(0, rowCount(), row -> new SimpleImmutableEntry<>(key(row), rowView.apply(row)));
+        }
+    }
+
+    /**
+     * Read-only view of the groups of a row built by {@link #ofNested(Map)}, where every label is mapped to the values of its group.
+     */
+    private final class Groups extends AbstractMap<L, Set<V>> {
+        private final int start;
+        private final int end;
+
+        Groups(int row) {
+            this.start = start(row);
+            this.end = end(row);
+        }
+
+        @Override
+        public Set<Entry<L, Set<V>>> entrySet() {
+            return new AbstractSet<Entry<L, Set<V>>>() {
+                @Override
+                public int size() {
+                    int size = 0;
+                    for(int position = start; position < end; position = groupEnd(position)){
+                        size++;
+                    }
+                    return size;
+                }
+
+                @Override
+                public Iterator<Entry<L, Set<V>>> iterator() {
+                    return new Iterator<Entry<L, Set<V>>>() {
+                        private int position = start;
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < end;
+                        }
+
+                        @Override
+                        public Entry<L, Set<V>> next() {
+                            if(position >= end){
+                                throw new NoSuchElementException();
+                            }
+                            int groupStart = position;
+                            position = groupEnd(position);
+                            return new SimpleImmutableEntry<>(label(groupStart), new Elements<>(groupStart, position, CompactIndex.this::value));
+                        }
+                    };
+                }
+            };
+        }
+
+        private int groupEnd(int position) {
+            int label = labels[position];
+            do{
+                position++;
+            }while(position < end && labels[position] == label);
+            return position;
+        }
+    }
+
+    /**
+     * Read-only view of the elements between two positions, which are all distinct.
+     */
+    private static final class Elements<E> extends AbstractSet<E> {
+        private final int start;
+        private final int end;
+        private final IntFunction<E> element;
+
+        Elements(int start, int end, IntFunction<E> element) {
+            this.start = start;
+            this.end = end;
+            this.element = element;
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int position = start;
+
+                @Override
+                public boolean hasNext() {
+                    return position < end;
+                }
+
+                @Override
+                public E next() {
+                    if(position >= end){
+                        throw new NoSuchElementException();
+                    }
+                    return element.apply(position++);
+                }
+            };
+        }
+    }
+
+    private static final class Builder<K> {
+        private final Object[] keys;
+        private final int[] slots;
+        private final int[] offsets;
+        private final Map<Object, Integer> ids = new HashMap<>();
+        private final int[] labels;
+        private final int[] values;
+        private int rowCount = 0;
+        private int size = 0;
+
+        Builder(int rowCount, int size, boolean labelled) {
+            this.keys = new Object[rowCount];
+            // At most half of the slots are used, so that a lookup probes few slots
+            this.slots = new int[Integer.highestOneBit(Math.max(1, rowCount) * 2 - 1) << 1];
+            this.offsets = new int[rowCount + 1];
+            this.labels = labelled ? new int[size] : null;
+            this.values = new int[size];
+        }
+
+        void startRow(K key) {
+            int mask = slots.length - 1;
+            int slot = hash(key) & mask;
+            while(slots[slot] != 0){
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = rowCount + 1;
+            keys[rowCount] = key;
+            offsets[rowCount++] = size;
+        }
+
+        void add(Object label, Object value) {
+            if(labels != null){
+                labels[size] = intern(label);
+            }
+            values[size++] = intern(value);
+        }
+
+        private int intern(Object object) {
+            return ids.computeIfAbsent(object, __ -> ids.size());
+        }
+
+        <L, V> CompactIndex<K, L, V> build() {
+            offsets[rowCount] = size;
+            Object[] dictionary = new Object[ids.size()];
+            ids.forEach((object, id) -> dictionary[id] = object);
+            return new CompactIndex<>(keys, slots, offsets, dictionary, labels, values);
+        }
+    }
+}
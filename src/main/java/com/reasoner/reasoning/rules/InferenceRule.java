@@ -1,6 +1,8 @@
 package com.reasoner.reasoning.rules;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -11,6 +13,8 @@ import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.querying.OntologyFeatures;
 import com.reasoner.saturation.InferenceRuleContext;
 import com.reasoner.utils.OntologyUtilities;
 
@@ -35,6 +39,75 @@ public abstract class InferenceRule<S,T> {
         entityTypes.add(OntologyUtilities.getEntityTypeByClass(entityType));
     }
 
+    /**
+     * Initialize the rule before its axioms are indexed, e.g. to get the role hierarchy of the ontology. <p>
+     * It is called by {@link OntologyAccessManager#precomputeAxioms()} and {@link OntologyAccessManager#updateRoleHierarchy()}.
+     * By default, it does nothing.
+     * @param ontologyAccessManager the access manager that indexes the axioms of this rule
+     */
+    public void initialize(OntologyAccessManager ontologyAccessManager) {
+    }
+
+    /**
+     * Check if the rule can derive anything from an ontology with the given features. If it cannot, no context is created for it
+     * (see {@link OntologyAccessManager#getActiveRules()}), although its axioms are still indexed. <p>
+     * By default, it returns {@code true}.
+     * @param features the features of the ontology
+     * @return boolean
+     */
+    public boolean canFire(OntologyFeatures features) {
+        return true;
+    }
+
+    /**
+     * Get the registered rules that this rule applies in a single pass. If it is registered as a fused rule (see
+     * {@link OntologyAccessManager#registerFusedRule(InferenceRule)}), its contexts replace the ones of these rules in the saturation, while
+     * these rules still index the axioms. <p>
+     * By default, it returns an empty collection.
+     * @return Collection of rules
+     */
+    public Collection<InferenceRule> getFusedRules() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Get the shapes of the axioms that this rule consumes, i.e. that {@link #extractContexts} may route to its contexts. The routing table
+     * of the saturation is built from them (see {@code ContextAccessManager}), so that an axiom of any other shape is never passed to
+     * {@link #extractContexts}. <p>
+     * By default, it returns all the shapes.
+     * @return Set of shapes
+     */
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.allOf(AxiomShape.class);
+    }
+
+    /**
+     * Get the shapes of the conclusions that the contexts of this rule may derive. A conclusion whose shape no active rule consumes is
+     * only kept by the context that derived it. <p>
+     * By default, it returns all the shapes.
+     * @return Set of shapes
+     */
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.allOf(AxiomShape.class);
+    }
+
+    /**
+     * Create the context of this rule for the given entity. <p>
+     * By default, the context is created reflectively through the {@code (InferenceRule, OWLEntity)} constructor of the context type:
+     * rules can override it to create their contexts directly.
+     * @param entity the entity of the context
+     * @return the context
+     */
+    public InferenceRuleContext<S,T> createContext(OWLEntity entity) {
+        try{
+            return contextType
+                .getDeclaredConstructor(InferenceRule.class, OWLEntity.class)
+                .newInstance(this, entity);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a context of type " + contextType.getSimpleName() + " for " + entity, e);
+        }
+    }
+
     /**
      * Check if the axiom criterion is satisfied.
      * @param subclass
@@ -59,6 +132,23 @@ public abstract class InferenceRule<S,T> {
      */
     public abstract void addAxiom(OWLClassExpression subclass, OWLClassExpression superclass);
 
+    /**
+     * Remove an axiom previously added with {@link #addAxiom(OWLClassExpression, OWLClassExpression)}.
+     * @param subclass
+     * @param superclass
+     */
+    public abstract void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass);
+
+    /**
+     * Build the compact, read-only form of the index of this rule (see {@link CompactIndex}), which its contexts read during the saturation.
+     * It is called by the {@link OntologyAccessManager} after the axioms are indexed and after the index changes, so that it is not built
+     * by the first context that reads it. A rule may then drop its mutable index ({@code axioms} becomes {@code null}), read it through
+     * the compact form, and build it again when an axiom is added or removed. <p>
+     * By default, it does nothing.
+     */
+    public void freeze() {
+    }
+
     /**
      * Get the axioms.
      * @return Map of axioms.
@@ -71,7 +161,12 @@ public abstract class InferenceRule<S,T> {
      * Clear the axioms.
      */
     public void clearAxioms(){
-        axioms.clear();
+        if(axioms == null){
+            axioms = new HashMap<>();
+        }
+        else{
+            axioms.clear();
+        }
     }
 
     /**
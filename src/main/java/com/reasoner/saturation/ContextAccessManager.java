@@ -1,26 +1,51 @@
 package com.reasoner.saturation;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
 import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.reasoning.rules.AxiomShape;
 import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.utils.OntologyUtilities;
 
 public class ContextAccessManager{
     
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContextAccessManager.class);
+
     private final Map<Class<? extends InferenceRule>, ContextProvider> inferenceRuleContextProviders = new HashMap<>();
+    private final Map<AxiomShape, ContextProvider[]> routingTable = new EnumMap<>(AxiomShape.class);
     private final ActiveContexts activeContexts = new ActiveContexts();
     private final Set<OWLSubClassOfAxiom> discardedAxioms = new HashSet<>();
+    private final Set<OWLEntity> overDeletedEntities = new HashSet<>();
+    private final Set<OWLSubClassOfAxiom> overDeletedAxioms = new HashSet<>();
+    private final Set<OWLSubClassOfAxiom> preservedAxioms = new HashSet<>();
+    private final AtomicBoolean saturationAborted = new AtomicBoolean(false);
+    private final AtomicReference<OWLSubClassOfAxiom> inconsistencyWitness = new AtomicReference<>();
+    private ContextMemoryBudget memoryBudget = null;
+    private SaturationShard shard = null;
 
-    protected static class ActiveContexts extends ConcurrentLinkedQueue<InferenceRuleContext> {
+    protected class ActiveContexts extends ConcurrentLinkedQueue<InferenceRuleContext> {
         
         public boolean activateContext(InferenceRuleContext context) {
             if (context.isActiveContext().compareAndSet(false, true)) {
@@ -31,7 +56,7 @@ public class ContextAccessManager{
 
         public boolean deactivateContext(InferenceRuleContext context) {
             context.isActiveContext().set(false);
-            if (context.hasScheduledAxioms()) {
+            if (context.hasScheduledAxioms() && !saturationAborted.get()) {
                 activateContext(context);
                 return false;
             }
@@ -48,33 +73,459 @@ public class ContextAccessManager{
         
         clearActiveContexts();
         clearDiscardedAxioms();
+        saturationAborted.set(false);
+        inconsistencyWitness.set(null);
+        if(memoryBudget != null){
+            memoryBudget.clear();
+        }
 
-        initializeContextProviders(ontologyAccessManager.getRules());
+        initializeContextProviders(ontologyAccessManager.getSaturationRules());
         
-        ontologyAccessManager.getOntology().signature().forEach((entity) -> {
-            inferenceRuleContextProviders.forEach((rule, contextProvider) -> {
-                InferenceRuleContext<?,?> context = null;
-                try{
-                    context = contextProvider.createContextByEntity(entity);
-                    if(context != null){
-                        contextProvider.addContext(entity, context);
-                    }
+        ontologyAccessManager.getOntology().signature().forEach(this::createContexts);
+        ontologyAccessManager.addedAxioms()
+            .flatMap(OWLSubClassOfAxiom::signature)
+            .filter(entity -> OntologyUtilities.getEntityClassExpression(entity) != null && !hasContexts(entity))
+            .forEach(this::createContexts);
+
+        ontologyAccessManager.axioms().forEach(this::initializeAxiom);
+        ontologyAccessManager.getOntology().classesInSignature().forEach(this::initializeClass);
+        ontologyAccessManager.addedAxioms().flatMap(OWLSubClassOfAxiom::classesInSignature).forEach(this::initializeClass);
+    }
+
+    /**
+     * Initialize a goal-directed saturation. <p>
+     * Contexts are only created for the given entities, and only the axioms whose subclass is one of these entities are scheduled.
+     * Each entity is seeded with its reflexive subsumption, so that its contexts are initialized even if it has no told axioms. <p>
+     * The caller is responsible for providing a set of entities that is closed under the inference rules.
+     * @param ontologyAccessManager
+     * @param entities the entities whose contexts take part in the saturation
+     */
+    public void initialize(OntologyAccessManager ontologyAccessManager, Collection<? extends OWLEntity> entities) {
+
+        clearActiveContexts();
+        clearDiscardedAxioms();
+        saturationAborted.set(false);
+        inconsistencyWitness.set(null);
+        if(memoryBudget != null){
+            memoryBudget.clear();
+        }
+
+        initializeContextProviders(ontologyAccessManager.getSaturationRules());
+
+        entities.forEach(this::createContexts);
+
+        OWLDataFactory owlDataFactory = OWLManager.getOWLDataFactory();
+        entities.forEach((entity) -> {
+            OWLClassExpression entityClassExpression = OntologyUtilities.getEntityClassExpression(entity);
+            if(entityClassExpression != null){
+                initializeAxiom(owlDataFactory.getOWLSubClassOfAxiom(entityClassExpression, entityClassExpression));
+            }
+        });
+
+        ontologyAccessManager.axioms().forEach(
+            (axiom) -> {
+                OWLEntity subclassEntity = OntologyUtilities.getClassExpressionEntity(axiom.getSubClass());
+                if(subclassEntity != null && entities.contains(subclassEntity)){
+                    initializeAxiom(axiom);
+                }
+            }
+        );
+    }
+
+    /**
+     * Initialize a saturation that resumes from a checkpoint (see {@link SaturationCheckpoint}). <p>
+     * The contexts of the checkpoint are created again with their processed conclusions, and their scheduled axioms are scheduled again,
+     * so that the saturation goes on from the state captured by the checkpoint. The rules of the checkpoint must be the saturation rules.
+     * @param ontologyAccessManager
+     * @param state the state read from the checkpoint
+     */
+    void initialize(OntologyAccessManager ontologyAccessManager, SaturationCheckpoint.State state) {
+
+        clearActiveContexts();
+        clearDiscardedAxioms();
+        saturationAborted.set(false);
+        inconsistencyWitness.set(null);
+        if(memoryBudget != null){
+            memoryBudget.clear();
+        }
+
+        initializeContextProviders(ontologyAccessManager.getSaturationRules());
+
+        Map<String, ContextProvider> contextProviders = new HashMap<>();
+        inferenceRuleContextProviders.forEach((rule, contextProvider) -> contextProviders.put(rule.getName(), contextProvider));
+        OWLDataFactory owlDataFactory = OWLManager.getOWLDataFactory();
+        for(SaturationCheckpoint.RuleState ruleState : state.rules){
+            ContextProvider contextProvider = contextProviders.get(ruleState.rule);
+            if(contextProvider == null){
+                throw new IllegalStateException("The rule " + ruleState.rule + " of the checkpoint does not take part in the saturation");
+            }
+            for(int i = 0; i < ruleState.entities.length; i++){
+                OWLEntity entity = OntologyUtilities.getClassExpressionEntity(state.expressions[ruleState.entities[i]]);
+                InferenceRuleContext context = contextProvider.createContextByEntity(entity);
+                contextProvider.addContext(entity, context);
+                if(ruleState.initialized[i]){
+                    context.markInitialized();
+                }
+                int[] processedAxioms = ruleState.processedAxioms[i];
+                for(int j = 0; j < processedAxioms.length / 2; j++){
+                    context.addProcessedAxiom(state.axiom(processedAxioms, j, owlDataFactory));
+                }
+                int[] scheduledAxioms = ruleState.scheduledAxioms[i];
+                for(int j = 0; j < scheduledAxioms.length / 2; j++){
+                    context.scheduleAxiom(state.axiom(scheduledAxioms, j, owlDataFactory));
+                }
+                if(context.hasScheduledAxioms()){
+                    activeContexts.activateContext(context);
+                }
+            }
+        }
+        for(int i = 0; i < state.discardedAxioms.length / 2; i++){
+            discardedAxioms.add(state.axiom(state.discardedAxioms, i, owlDataFactory));
+        }
+    }
+
+    /**
+     * Schedule axioms added to an already saturated ontology. <p>
+     * The contexts of the previous saturation are kept: contexts are only created for the entities that did not have one, and the
+     * added axioms are scheduled like the axioms of the ontology. Then, for every rule that indexes an added axiom, the conclusions
+     * already processed by its contexts that match the premise of the axiom (i.e. X ⊑ A for every basic concept A in its subclass)
+     * are computed again, so that the rule is applied to them with the updated index. <p>
+     * The added axioms must have already been inserted into the rule indexes.
+     * @param axioms the added axioms, in normal form
+     */
+    public void addAxioms(Collection<OWLSubClassOfAxiom> axioms) {
+
+        restoreContexts();
+        clearActiveContexts();
+        clearDiscardedAxioms();
+
+        for(OWLSubClassOfAxiom axiom : axioms){
+            axiom.signature()
+                .filter(entity -> OntologyUtilities.getEntityClassExpression(entity) != null && !hasContexts(entity))
+                .forEach(this::createContexts);
+        }
+
+        axioms.forEach(this::initializeAxiom);
+        axioms.stream().flatMap(OWLSubClassOfAxiom::classesInSignature).forEach(this::initializeClass);
+
+        for(OWLSubClassOfAxiom axiom : axioms){
+            OWLClassExpression subclass = axiom.getSubClass();
+            OWLClassExpression superclass = axiom.getSuperClass();
+            inferenceRuleContextProviders.values().forEach(contextProvider -> {
+                if(contextProvider.getInferenceRule().axiomCriterion(subclass, superclass)){
+                    subclass.signature().forEach(entity -> replayPremise(contextProvider, entity));
                 }
-                catch(Exception e){
-                    e.printStackTrace();
+            });
+        }
+    }
+
+    /**
+     * Compute again, in every context of the given provider, the processed conclusion X ⊑ A, where A is the class expression of the given entity.
+     * @param contextProvider
+     * @param premiseEntity
+     */
+    private void replayPremise(ContextProvider contextProvider, OWLEntity premiseEntity) {
+        OWLClassExpression premise = OntologyUtilities.getEntityClassExpression(premiseEntity);
+        if(premise == null || saturationAborted.get()){
+            return;
+        }
+        OWLDataFactory owlDataFactory = OWLManager.getOWLDataFactory();
+        Collection<InferenceRuleContext> contexts = contextProvider.getContexts();
+        for(InferenceRuleContext context : contexts){
+            OWLSubClassOfAxiom processedAxiom = owlDataFactory.getOWLSubClassOfAxiom(context.getEntity(), premise);
+            if(!context.hasProcessedAxiom(processedAxiom)){
+                continue;
+            }
+            Set<OWLSubClassOfAxiom> conclusions = context.compute(processedAxiom);
+            for(OWLSubClassOfAxiom conclusion : conclusions){
+                if(checkInconsistency(conclusion)){
+                    return;
+                }
+                getContextsByAxiom(conclusion).forEach((ctx) -> scheduleAxiom(ctx, conclusion));
+            }
+        }
+    }
+
+    /**
+     * Over-delete the conclusions that may depend on axioms removed from an already saturated ontology (first step of DRed). <p>
+     * The entities whose conclusions may depend on a removed axiom are collected first: the subclass of the axiom, every entity whose
+     * context processed a premise X ⊑ A of a rule that indexes the axiom (for every basic concept A in its subclass), and then, transitively,
+     * every entity Y that sent an existential conclusion Y ⊑ ∃r.X to the context of a collected entity X, since the conclusions about Y
+     * can depend on the ones about X. <p>
+     * The contexts of the collected entities are replaced by new ones, and their existential conclusions are removed from the contexts of
+     * the other entities. The conclusions received from the other entities still hold: they are kept aside and scheduled again by
+     * {@link #rederiveAxioms(OntologyAccessManager)}. Use {@link #getOverDeletedAxioms()} to get the deleted conclusions. <p>
+     * The removed axioms must still be in the rule indexes, so that the existential conclusions derived from them can be found.
+     * Contexts of individuals are not supported, since CR6 conclusions can depend on any context.
+     * @param axioms the removed axioms, in normal form
+     */
+    public void removeAxioms(Collection<OWLSubClassOfAxiom> axioms) {
+
+        restoreContexts();
+        clearActiveContexts();
+        clearDiscardedAxioms();
+        overDeletedEntities.clear();
+        overDeletedAxioms.clear();
+        preservedAxioms.clear();
+
+        Deque<OWLEntity> toVisit = new ArrayDeque<>();
+        for(OWLSubClassOfAxiom axiom : axioms){
+            overDeletedAxioms.add(axiom);
+            OWLClassExpression subclass = axiom.getSubClass();
+            OWLClassExpression superclass = axiom.getSuperClass();
+            visitEntity(OntologyUtilities.getClassExpressionEntity(subclass), toVisit);
+            inferenceRuleContextProviders.values().forEach(contextProvider -> {
+                if(contextProvider.getInferenceRule().axiomCriterion(subclass, superclass)){
+                    subclass.signature().forEach(entity -> collectPremiseEntities(contextProvider, entity, toVisit));
                 }
             });
-        });
+        }
+
+        while(!toVisit.isEmpty()){
+            OWLEntity entity = toVisit.poll();
+            for(ContextProvider contextProvider : inferenceRuleContextProviders.values()){
+                InferenceRuleContext context = contextProvider.getContext(entity);
+                if(context == null){
+                    continue;
+                }
+                for(OWLSubClassOfAxiom processedAxiom : getAllProcessedAxioms(context)){
+                    OWLEntity subclassEntity = OntologyUtilities.getClassExpressionEntity(processedAxiom.getSubClass());
+                    if(!entity.equals(subclassEntity)){
+                        visitEntity(subclassEntity, toVisit);
+                    }
+                }
+            }
+        }
+
+        for(OWLEntity entity : overDeletedEntities){
+            for(ContextProvider contextProvider : inferenceRuleContextProviders.values()){
+                InferenceRuleContext context = contextProvider.getContext(entity);
+                if(context != null){
+                    overDeleteContext(entity, context);
+                }
+            }
+        }
+
+        overDeletedEntities.forEach(this::createContexts);
+    }
 
-        ontologyAccessManager.getOntology().axioms(AxiomType.SUBCLASS_OF).forEach(
+    /**
+     * Schedule again the axioms that support the conclusions over-deleted by {@link #removeAxioms(Collection)} (second step of DRed). <p>
+     * These are the axioms of the ontology whose subclass is an over-deleted entity, and the conclusions that the over-deleted contexts had
+     * received from the other entities. The removed axioms must have already been removed from the rule indexes.
+     * @param ontologyAccessManager
+     */
+    public void rederiveAxioms(OntologyAccessManager ontologyAccessManager) {
+        ontologyAccessManager.axioms().forEach(
             (axiom) -> {
-                initializeAxiom((OWLSubClassOfAxiom) axiom);
+                OWLEntity subclassEntity = OntologyUtilities.getClassExpressionEntity(axiom.getSubClass());
+                if(subclassEntity != null && overDeletedEntities.contains(subclassEntity)){
+                    initializeAxiom(axiom);
+                }
             }
         );
+        preservedAxioms.forEach(this::initializeAxiom);
+        overDeletedEntities.stream().filter(OWLEntity::isOWLClass).map(OWLEntity::asOWLClass).forEach(this::initializeClass);
+    }
+
+    /**
+     * Collect the entities whose context of the given provider processed X ⊑ A, where A is the class expression of the given entity.
+     * @param contextProvider
+     * @param premiseEntity
+     * @param toVisit
+     */
+    private void collectPremiseEntities(ContextProvider contextProvider, OWLEntity premiseEntity, Deque<OWLEntity> toVisit) {
+        OWLClassExpression premise = OntologyUtilities.getEntityClassExpression(premiseEntity);
+        if(premise == null){
+            return;
+        }
+        OWLDataFactory owlDataFactory = OWLManager.getOWLDataFactory();
+        Collection<InferenceRuleContext> contexts = contextProvider.getContexts();
+        for(InferenceRuleContext context : contexts){
+            if(context.hasProcessedAxiom(owlDataFactory.getOWLSubClassOfAxiom(context.getEntity(), premise))){
+                visitEntity(OntologyUtilities.getClassExpressionEntity(context.getEntity()), toVisit);
+            }
+        }
+    }
+
+    private void visitEntity(OWLEntity entity, Deque<OWLEntity> toVisit) {
+        if(entity != null && overDeletedEntities.add(entity)){
+            toVisit.add(entity);
+        }
+    }
+
+    /**
+     * Delete the conclusions of an over-deleted context. The conclusions about other entities are kept aside if these entities are not
+     * over-deleted, while the conclusions about the entity of the context are also removed from the contexts of the other entities.
+     * @param entity
+     * @param context
+     */
+    private void overDeleteContext(OWLEntity entity, InferenceRuleContext context) {
+        Set<OWLSubClassOfAxiom> processedAxioms = new HashSet<>(getAllProcessedAxioms(context));
+        for(OWLSubClassOfAxiom processedAxiom : processedAxioms){
+            OWLEntity subclassEntity = OntologyUtilities.getClassExpressionEntity(processedAxiom.getSubClass());
+            if(subclassEntity != null && !overDeletedEntities.contains(subclassEntity)){
+                preservedAxioms.add(processedAxiom);
+            }
+            overDeletedAxioms.add(processedAxiom);
+
+            Set<OWLSubClassOfAxiom> conclusions = context.compute(processedAxiom);
+            for(OWLSubClassOfAxiom conclusion : conclusions){
+                if(!entity.equals(OntologyUtilities.getClassExpressionEntity(conclusion.getSubClass()))){
+                    continue;
+                }
+                for(InferenceRuleContext ctx : getContextsByAxiom(conclusion)){
+                    OWLEntity ctxEntity = OntologyUtilities.getClassExpressionEntity(ctx.getEntity());
+                    if(!overDeletedEntities.contains(ctxEntity) && ctx.removeProcessedAxiom(conclusion)){
+                        overDeletedAxioms.add(conclusion);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Create an overlay of this manager. <p>
+     * The overlay shares the contexts of this manager, but copies each of them before scheduling an axiom into it (copy-on-write),
+     * so that a saturation performed through the overlay (e.g. with {@link #addAxioms(Collection)}) never modifies this manager.
+     * @return a new {@code ContextAccessManager} whose contexts are copy-on-write views of the contexts of this one
+     */
+    public ContextAccessManager createOverlay() {
+        restoreContexts();
+        ContextAccessManager overlay = new ContextAccessManager();
+        inferenceRuleContextProviders.forEach(
+            (rule, contextProvider) -> overlay.inferenceRuleContextProviders.put(rule, new OverlayContextProvider(contextProvider))
+        );
+        overlay.buildRoutingTable();
+        return overlay;
+    }
+
+    /**
+     * Schedule a conclusion into the given context and activate it. In a sharded saturation, a conclusion for a context of another shard
+     * is sent to that shard instead (see {@link SaturationShard}).
+     * @param context
+     * @param axiom
+     */
+    void scheduleAxiom(InferenceRuleContext context, OWLSubClassOfAxiom axiom) {
+        if(!isLocalContext(context)){
+            shard.forward(context, axiom);
+            return;
+        }
+        context.scheduleAxiom(axiom);
+        activeContexts.activateContext(context);
+    }
+
+    /**
+     * Set the shard of a sharded saturation, whose contexts are the only ones into which axioms are scheduled.
+     * @param shard the shard, or {@code null} if the saturation is not sharded
+     */
+    void setShard(SaturationShard shard) {
+        this.shard = shard;
+    }
+
+    private boolean isLocalContext(InferenceRuleContext context) {
+        return shard == null || shard.owns(context);
+    }
+
+    /**
+     * Set the memory budget of the contexts. The contexts spilled by the previous budget, if any, are paged back in.
+     * @param memoryBudget the budget, or {@code null} to keep all the contexts on the heap
+     */
+    void setMemoryBudget(ContextMemoryBudget memoryBudget) {
+        restoreContexts();
+        this.memoryBudget = memoryBudget;
+    }
+
+    ContextMemoryBudget getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Page back in the contexts spilled by the memory budget, if any, so that they can be read and updated outside of a saturation.
+     */
+    void restoreContexts() {
+        if(memoryBudget == null){
+            return;
+        }
+        List<InferenceRuleContext> contexts = new ArrayList<>();
+        inferenceRuleContextProviders.values().forEach(contextProvider -> contexts.addAll(contextProvider.getContexts()));
+        memoryBudget.restore(contexts);
+    }
+
+    /**
+     * Get the processed axioms of the given context, even if it has been spilled by the memory budget.
+     * @param context
+     * @return Set of axioms.
+     */
+    Set<OWLSubClassOfAxiom> getProcessedAxioms(InferenceRuleContext context) {
+        return memoryBudget == null ? context.getProcessedAxioms() : memoryBudget.getProcessedAxioms(context);
+    }
+
+    /**
+     * Get all the processed axioms of the given context (see {@link InferenceRuleContext#getAllProcessedAxioms()}), even if it has been
+     * spilled by the memory budget.
+     * @param context
+     * @return Set of axioms.
+     */
+    Set<OWLSubClassOfAxiom> getAllProcessedAxioms(InferenceRuleContext context) {
+        return memoryBudget == null ? context.getAllProcessedAxioms() : memoryBudget.getAllProcessedAxioms(context);
+    }
+
+    /**
+     * Get the context providers of the rules that take part in the saturation.
+     * @return Collection of context providers.
+     */
+    Collection<ContextProvider> getContextProviders() {
+        return inferenceRuleContextProviders.values();
+    }
+
+    /**
+     * Check if any context has been created for the given entity.
+     * @param entity
+     * @return {@code true} if the entity has at least a context; {@code false} otherwise
+     */
+    public boolean hasContexts(OWLEntity entity) {
+        for(ContextProvider contextProvider : inferenceRuleContextProviders.values()){
+            if(contextProvider.hasContext(entity)){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void createContexts(OWLEntity entity) {
+        inferenceRuleContextProviders.forEach((rule, contextProvider) -> {
+            InferenceRuleContext<?,?> context = null;
+            try{
+                context = contextProvider.createContextByEntity(entity);
+                if(context != null){
+                    contextProvider.addContext(entity, context);
+                }
+            }
+            catch(Exception e){
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Seed the contexts of a class with its reflexive subsumption, so that they are initialized (X ⊑ X and X ⊑ ⊤) even if no told axiom
+     * initializes them: a told axiom only initializes the contexts it is scheduled into, e.g. X ⊑ ∃r.Y initializes the contexts of Y but not
+     * the ones of X, and a class may only occur in a {@code DisjointClasses} axiom. ⊥ is not seeded.
+     * @param owlClass
+     */
+    private void initializeClass(OWLClass owlClass){
+        if(owlClass.isOWLNothing()){
+            return;
+        }
+        initializeAxiom(OWLManager.getOWLDataFactory().getOWLSubClassOfAxiom(owlClass, owlClass));
     }
 
     private void initializeAxiom(OWLSubClassOfAxiom axiom){
         //System.out.println("Initializing axiom: " + axiom);
+        if(saturationAborted.get() || checkInconsistency(axiom)){
+            return;
+        }
         Collection<InferenceRuleContext> contexts = getContextsByAxiom(axiom);
         if(contexts == null || contexts.isEmpty()){
             discardedAxioms.add(axiom);
@@ -83,7 +534,8 @@ public class ContextAccessManager{
             return;
         }
         for(InferenceRuleContext context : contexts){
-            if(context == null){
+            // In a sharded saturation, the axioms of the ontology are scheduled by the shard of every context
+            if(context == null || !isLocalContext(context)){
                 continue;
             }
             //System.out.println("Context: " + context.id());
@@ -94,7 +546,11 @@ public class ContextAccessManager{
                     try {
                         Collection<InferenceRuleContext> baseContexts = getContextsByAxiom(axiomToAdd);
                         for(InferenceRuleContext baseContext : baseContexts){
-                            baseContext.scheduleAxiom(axiomToAdd);
+                            if(isLocalContext(baseContext)){
+                                baseContext.scheduleAxiom(axiomToAdd);
+                            } else {
+                                shard.forward(baseContext, axiomToAdd);
+                            }
                         }
                     } catch (Exception e) {
                         e.printStackTrace();
@@ -115,16 +571,50 @@ public class ContextAccessManager{
             ContextProvider contextProvider = new ContextProvider(rule);
             inferenceRuleContextProviders.put(rule.getClass(), contextProvider);
         });
+        buildRoutingTable();
+    }
+
+    /**
+     * Build the routing table, that maps every {@link AxiomShape} to the context providers of the rules that consume it (see
+     * {@link InferenceRule#getConsumedShapes()}). The shapes that some rule produces but no rule consumes are logged at debug level.
+     */
+    private void buildRoutingTable() {
+        routingTable.clear();
+        Set<AxiomShape> producedShapes = EnumSet.noneOf(AxiomShape.class);
+        for(AxiomShape shape : AxiomShape.values()){
+            List<ContextProvider> consumers = new ArrayList<>();
+            inferenceRuleContextProviders.values().forEach(contextProvider -> {
+                if(contextProvider.getInferenceRule().getConsumedShapes().contains(shape)){
+                    consumers.add(contextProvider);
+                }
+            });
+            if(!consumers.isEmpty()){
+                routingTable.put(shape, consumers.toArray(new ContextProvider[0]));
+            }
+        }
+        inferenceRuleContextProviders.values().forEach(
+            contextProvider -> producedShapes.addAll(contextProvider.getInferenceRule().getProducedShapes())
+        );
+        producedShapes.removeAll(routingTable.keySet());
+        if(!producedShapes.isEmpty()){
+            LOGGER.debug("No active rule consumes the conclusions of shape {}", producedShapes);
+        }
     }
 
+    /**
+     * Get the contexts that the given axiom has to be scheduled into. The axiom is only passed to the rules that consume its shape
+     * (see {@link AxiomShape}).
+     * @param axiom
+     * @return Collection of contexts.
+     */
     public Collection<InferenceRuleContext> getContextsByAxiom(OWLSubClassOfAxiom axiom) {
+        ContextProvider[] consumers = routingTable.get(AxiomShape.of(axiom));
         Set<InferenceRuleContext> contexts = new HashSet<>();
-        inferenceRuleContextProviders.forEach((rule, contextProvider) -> {
-            Set<InferenceRuleContext> contextsByAxiom = contextProvider.getContextsByAxiom(axiom);
-            contexts.addAll(contextsByAxiom);
-        });
-        if(contexts.isEmpty()){
-            return new HashSet<>();
+        if(consumers == null){
+            return contexts;
+        }
+        for(ContextProvider contextProvider : consumers){
+            contexts.addAll(contextProvider.getContextsByAxiom(axiom));
         }
         return contexts;
     }
@@ -148,4 +638,49 @@ public class ContextAccessManager{
     public void addDiscardedAxiom(OWLSubClassOfAxiom axiom) {
         discardedAxioms.add(axiom);
     }
+
+    /**
+     * Get the conclusions deleted by the last call to {@link #removeAxioms(Collection)}, including the removed axioms themselves.
+     * Some of them may be derived again from the remaining axioms.
+     * @return Set of over-deleted axioms.
+     */
+    public Set<OWLSubClassOfAxiom> getOverDeletedAxioms() {
+        return overDeletedAxioms;
+    }
+
+    /**
+     * Check if the given conclusion witnesses the inconsistency of the ontology (⊤ ⊑ ⊥ or {a} ⊑ ⊥).
+     * If so, the witness is recorded and the saturation is aborted: nothing derived afterwards can change the outcome.
+     * @param axiom
+     * @return {@code true} if the axiom is an inconsistency witness; {@code false} otherwise
+     */
+    public boolean checkInconsistency(OWLSubClassOfAxiom axiom) {
+        if(!OntologyUtilities.isInconsistencyWitness(axiom)){
+            return false;
+        }
+        inconsistencyWitness.compareAndSet(null, axiom);
+        abortSaturation();
+        return true;
+    }
+
+    /**
+     * Abort the saturation. <p>
+     * Active contexts are dropped, so every {@link SaturationThread} terminates as soon as it completes the axiom it is processing.
+     */
+    public void abortSaturation() {
+        saturationAborted.set(true);
+        activeContexts.clear();
+    }
+
+    public boolean isSaturationAborted() {
+        return saturationAborted.get();
+    }
+
+    /**
+     * Get the axiom that witnessed the inconsistency of the ontology during the last saturation.
+     * @return {@code OWLSubClassOfAxiom} witness, or {@code null} if no inconsistency has been derived.
+     */
+    public OWLSubClassOfAxiom getInconsistencyWitness() {
+        return inconsistencyWitness.get();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,406 @@
+package com.reasoner.saturation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.reasoner.utils.AxiomDecoder;
+import com.reasoner.utils.AxiomEncoder;
+
+/**
+ * Memory budget of the contexts of a saturation (see {@link OntologySaturator#setMemoryBudget(ContextMemoryBudget)}). <p>
+ * While the saturation runs, the heap size of the processed axioms of every context is estimated from their number (see {@link #AXIOM_SIZE}).
+ * When the estimated size of all the contexts exceeds the budget, the processed axioms of the largest idle contexts, i.e. the ones that are
+ * not in the {@code ActiveContexts}, are moved off the heap until the estimated size is below three quarters of the budget: they are encoded
+ * (see {@link AxiomEncoder}) into a segment of a spill file, which is mapped into memory. A spilled context is paged back in when it is
+ * activated again, before a {@link SaturationThread} processes it, and before the contexts are updated incrementally. <p>
+ * The spill file is deleted when the contexts are created again by a new saturation. The segments of the contexts that are paged back in
+ * are not reused.
+ */
+public class ContextMemoryBudget {
+
+    /**
+     * Estimated heap size of a processed axiom, in bytes: the axiom itself and its entry in the structures of a context.
+     */
+    public static final long AXIOM_SIZE = 128;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContextMemoryBudget.class);
+    private static final int MAX_SEGMENT_SIZE = 1 << 28;
+
+    private final long maxBytes;
+    private final Path directory;
+    private final LongAdder usedBytes = new LongAdder();
+    private final AtomicInteger spilledContexts = new AtomicInteger();
+    private final AtomicLong spillCount = new AtomicLong();
+    private final PriorityQueue<Candidate> idleContexts = new PriorityQueue<>(Comparator.comparingLong((Candidate candidate) -> candidate.size).reversed());
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private FileChannel spillFile = null;
+
+    /**
+     * Bookkeeping of a context. The spilled axioms are only changed while the context is locked, and the queued size while the idle contexts
+     * are; the size is also increased by the {@link SaturationThread} that processes the context.
+     */
+    static final class Entry {
+        long size = 0;
+        long queuedSize = -1;
+        ByteBuffer spilledAxioms = null;
+    }
+
+    private static final class Candidate {
+        final InferenceRuleContext context;
+        final Entry entry;
+        final long size;
+
+        Candidate(InferenceRuleContext context, Entry entry, long size) {
+            this.context = context;
+            this.entry = entry;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Create a budget, whose spill file is created in the temporary directory.
+     * @param maxBytes the estimated heap size that the processed axioms of the contexts may take, in bytes
+     */
+    public ContextMemoryBudget(long maxBytes) {
+        this(maxBytes, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Create a budget, whose spill file is created in the given directory.
+     * @param maxBytes the estimated heap size that the processed axioms of the contexts may take, in bytes
+     * @param directory
+     */
+    public ContextMemoryBudget(long maxBytes, Path directory) {
+        if(maxBytes < 1){
+            throw new IllegalArgumentException("The memory budget must be at least 1 byte.");
+        }
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the estimated heap size of the processed axioms of the contexts that are not spilled.
+     * @return the size, in bytes
+     */
+    public long getUsedBytes() {
+        return usedBytes.sum();
+    }
+
+    /**
+     * Get the number of contexts whose processed axioms are currently off the heap.
+     * @return int
+     */
+    public int getSpilledContextCount() {
+        return spilledContexts.get();
+    }
+
+    /**
+     * Get the number of times that the processed axioms of a context have been moved off the heap since the contexts were created.
+     * @return long
+     */
+    public long getSpillCount() {
+        return spillCount.get();
+    }
+
+    /**
+     * Record an axiom added to the processed axioms of the given context by the {@link SaturationThread} that processes it.
+     * @param context
+     */
+    void recordProcessedAxiom(InferenceRuleContext context) {
+        context.memoryEntry.size += AXIOM_SIZE;
+        usedBytes.add(AXIOM_SIZE);
+    }
+
+    /**
+     * Page the processed axioms of the given context back in, if they are off the heap. It is called before a {@link SaturationThread}
+     * processes the context.
+     * @param context
+     */
+    void pageIn(InferenceRuleContext context) {
+        synchronized(context){
+            Entry entry = context.memoryEntry;
+            if(entry == null){
+                context.memoryEntry = new Entry();
+                return;
+            }
+            if(entry.spilledAxioms == null){
+                return;
+            }
+            int count = decode(entry.spilledAxioms, context::addProcessedAxiom);
+            entry.spilledAxioms = null;
+            entry.size = count * AXIOM_SIZE;
+            usedBytes.add(entry.size);
+            spilledContexts.decrementAndGet();
+        }
+    }
+
+    /**
+     * Record that the given context is idle, i.e. it has been deactivated, and move the processed axioms of the largest idle contexts off
+     * the heap if the budget is exceeded.
+     * @param context
+     */
+    void release(InferenceRuleContext context) {
+        Entry entry = context.memoryEntry;
+        if(entry == null){
+            return;
+        }
+        synchronized(idleContexts){
+            long size = entry.size;
+            if(size > 0 && size != entry.queuedSize){
+                entry.queuedSize = size;
+                idleContexts.add(new Candidate(context, entry, size));
+            }
+        }
+        if(usedBytes.sum() > maxBytes){
+            evict();
+        }
+    }
+
+    /**
+     * Get the processed axioms of the given context (see {@link InferenceRuleContext#getProcessedAxioms()}), even if they are off the heap,
+     * in which case they are read into a copy of the context.
+     * @param context
+     * @return Set of axioms.
+     */
+    Set<OWLSubClassOfAxiom> getProcessedAxioms(InferenceRuleContext context) {
+        synchronized(context){
+            Entry entry = context.memoryEntry;
+            if(entry == null || entry.spilledAxioms == null){
+                return context.getProcessedAxioms();
+            }
+            InferenceRuleContext copy = context.copy();
+            decode(entry.spilledAxioms, copy::addProcessedAxiom);
+            return copy.getProcessedAxioms();
+        }
+    }
+
+    /**
+     * Get all the processed axioms of the given context (see {@link InferenceRuleContext#getAllProcessedAxioms()}), even if they are off the heap.
+     * @param context
+     * @return Set of axioms.
+     */
+    Set<OWLSubClassOfAxiom> getAllProcessedAxioms(InferenceRuleContext context) {
+        synchronized(context){
+            Entry entry = context.memoryEntry;
+            if(entry == null || entry.spilledAxioms == null){
+                return context.getAllProcessedAxioms();
+            }
+            Set<OWLSubClassOfAxiom> axioms = new HashSet<>();
+            decode(entry.spilledAxioms, axioms::add);
+            return axioms;
+        }
+    }
+
+    /**
+     * Page all the given contexts back in, e.g. before they are updated incrementally, and forget the idle contexts. No saturation must be
+     * running.
+     * @param contexts
+     */
+    void restore(Collection<InferenceRuleContext> contexts) {
+        synchronized(idleContexts){
+            idleContexts.clear();
+        }
+        usedBytes.reset();
+        for(InferenceRuleContext context : contexts){
+            pageIn(context);
+            Entry entry = context.memoryEntry;
+            entry.queuedSize = -1;
+            usedBytes.add(entry.size);
+        }
+    }
+
+    /**
+     * Forget all the contexts and delete the spill file, when the contexts are created again. No saturation must be running.
+     */
+    void clear() {
+        synchronized(idleContexts){
+            idleContexts.clear();
+        }
+        usedBytes.reset();
+        spilledContexts.set(0);
+        spillCount.set(0);
+        if(spillFile != null){
+            try{
+                spillFile.close();
+            } catch (IOException e) {
+                LOGGER.warn("Cannot delete the spill file of the contexts", e);
+            }
+            spillFile = null;
+        }
+    }
+
+    /**
+     * Move the processed axioms of the largest idle contexts off the heap, until the estimated size is below three quarters of the budget.
+     * Only one thread evicts contexts at a time: the other ones go on.
+     */
+    private void evict() {
+        if(!evictionLock.tryLock()){
+            return;
+        }
+        try{
+            long target = maxBytes - maxBytes / 4;
+            List<InferenceRuleContext> contexts = new ArrayList<>();
+            List<ByteBuffer> segments = new ArrayList<>();
+            int segmentSize = 0;
+            while(usedBytes.sum() > target && segmentSize < MAX_SEGMENT_SIZE){
+                Candidate candidate;
+                synchronized(idleContexts){
+                    candidate = idleContexts.poll();
+                    if(candidate == null){
+                        break;
+                    }
+                    if(candidate.entry.queuedSize != candidate.size){
+                        continue;
+                    }
+                    candidate.entry.queuedSize = -1;
+                }
+                ByteBuffer segment = spill(candidate.context);
+                if(segment != null){
+                    contexts.add(candidate.context);
+                    segments.add(segment);
+                    segmentSize += segment.remaining();
+                }
+            }
+            if(!segments.isEmpty()){
+                map(contexts, segments, segmentSize);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Encode the processed axioms of the given context and remove them from the heap, if it is still idle. Until the segment is mapped,
+     * the context keeps the encoded axioms on the heap.
+     * @param context
+     * @return the encoded axioms, or {@code null} if the context is not spilled
+     */
+    private ByteBuffer spill(InferenceRuleContext context) {
+        synchronized(context){
+            Entry entry = context.memoryEntry;
+            if(context.isActiveContext().get() || entry.spilledAxioms != null || entry.size == 0){
+                return null;
+            }
+            Set<OWLSubClassOfAxiom> axioms = context.getAllProcessedAxioms();
+            AxiomEncoder encoder = new AxiomEncoder();
+            for(OWLSubClassOfAxiom axiom : axioms){
+                if(!encoder.axiom(axiom)){
+                    return null;
+                }
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try(DataOutputStream out = new DataOutputStream(bytes)){
+                encoder.writeDictionary(out);
+                out.writeInt(axioms.size());
+                encoder.writeTo(out);
+            } catch (IOException e) {
+                // The segment is written in memory
+                throw new IllegalStateException(e);
+            }
+            context.clearProcessedAxioms();
+            entry.spilledAxioms = ByteBuffer.wrap(bytes.toByteArray());
+            usedBytes.add(-entry.size);
+            entry.size = 0;
+            spilledContexts.incrementAndGet();
+            spillCount.incrementAndGet();
+            return entry.spilledAxioms;
+        }
+    }
+
+    /**
+     * Append the encoded axioms of the spilled contexts to the spill file, and replace them with their mapped segments. If the file cannot
+     * be written, the encoded axioms stay on the heap.
+     * @param contexts
+     * @param segments
+     * @param segmentSize
+     */
+    private void map(List<InferenceRuleContext> contexts, List<ByteBuffer> segments, int segmentSize) {
+        ByteBuffer mapped;
+        try{
+            if(spillFile == null){
+                Files.createDirectories(directory);
+                Path file = Files.createTempFile(directory, "elpp-contexts", ".spill");
+                file.toFile().deleteOnExit();
+                spillFile = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            }
+            long position = spillFile.size();
+            long offset = position;
+            for(ByteBuffer segment : segments){
+                ByteBuffer source = segment.duplicate();
+                while(source.hasRemaining()){
+                    offset += spillFile.write(source, offset);
+                }
+            }
+            mapped = spillFile.map(FileChannel.MapMode.READ_ONLY, position, segmentSize);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write the spill file of the contexts: the spilled axioms stay on the heap", e);
+            return;
+        }
+        int offset = 0;
+        for(int i = 0; i < contexts.size(); i++){
+            InferenceRuleContext context = contexts.get(i);
+            ByteBuffer segment = segments.get(i);
+            ByteBuffer slice = mapped.duplicate();
+            slice.position(offset);
+            slice.limit(offset + segment.remaining());
+            offset += segment.remaining();
+            synchronized(context){
+                // The context may have been paged back in meanwhile
+                if(context.memoryEntry.spilledAxioms == segment){
+                    context.memoryEntry.spilledAxioms = slice.slice();
+                }
+            }
+        }
+    }
+
+    /**
+     * Decode the processed axioms of a segment.
+     * @param segment
+     * @param consumer the consumer of the axioms
+     * @return the number of axioms
+     */
+    private static int decode(ByteBuffer segment, Consumer<OWLSubClassOfAxiom> consumer) {
+        ByteBuffer buffer = segment.duplicate();
+        try{
+            AxiomDecoder decoder = new AxiomDecoder(buffer);
+            int count = buffer.getInt();
+            for(int i = 0; i < count; i++){
+                consumer.accept((OWLSubClassOfAxiom) decoder.axiom());
+            }
+            return count;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read the spilled axioms of a context", e);
+        }
+    }
+}
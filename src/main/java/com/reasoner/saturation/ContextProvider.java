@@ -38,21 +38,39 @@ public class ContextProvider{
 
     public InferenceRuleContext createContextByEntity(OWLEntity entity) {
         if(inferenceRule.getEntityTypes().contains(OntologyUtilities.getEntityType(entity))) {
-            InferenceRuleContext context = null;
-            try{
-                context = (InferenceRuleContext) inferenceRule
-                    .getContextType()
-                    .getDeclaredConstructor(InferenceRule.class, OWLEntity.class)
-                    .newInstance(inferenceRule, entity);
-                //System.out.println("Created context: " + context);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+            InferenceRuleContext context = inferenceRule.createContext(entity);
+            //System.out.println("Created context: " + context);
             return context;
         }
         return null;
     }
 
+    /**
+     * Check if a context has been created for the given entity.
+     * @param entity
+     * @return {@code true} if the entity has a context; {@code false} otherwise
+     */
+    public boolean hasContext(OWLEntity entity) {
+        return contexts.containsKey(entity);
+    }
+
+    /**
+     * Get the context created for the given entity.
+     * @param entity
+     * @return the context, or {@code null} if no context has been created for the entity
+     */
+    public InferenceRuleContext getContext(OWLEntity entity) {
+        return contexts.get(entity);
+    }
+
+    /**
+     * Get all the contexts created by this provider.
+     * @return Collection of contexts.
+     */
+    public Collection<InferenceRuleContext> getContexts() {
+        return contexts.values();
+    }
+
     /**
      * Get the inference rule.
      * @return InferenceRule
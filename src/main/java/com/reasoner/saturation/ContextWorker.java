@@ -0,0 +1,106 @@
+package com.reasoner.saturation;
+
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+/**
+ * Processes the axioms scheduled into an active context, on behalf of a {@link SaturationThread} or of a task of a
+ * {@link TaskSaturationExecutor}. The contexts it processes are added to the given set.
+ */
+class ContextWorker {
+    private final ContextAccessManager contextAccessManager;
+    private final Lock workerLock;
+    private final ContextMemoryBudget memoryBudget;
+    private final Set<InferenceRuleContext> processedContexts;
+    private OWLSubClassOfAxiom computingAxiom;
+
+    /**
+     * @param contextAccessManager
+     * @param workerLock the lock held while an axiom is processed, or {@code null}
+     * @param processedContexts the set of the processed contexts, which may be shared by several workers
+     */
+    ContextWorker(ContextAccessManager contextAccessManager, Lock workerLock, Set<InferenceRuleContext> processedContexts) {
+        this.contextAccessManager = contextAccessManager;
+        this.workerLock = workerLock;
+        this.memoryBudget = contextAccessManager.getMemoryBudget();
+        this.processedContexts = processedContexts;
+    }
+
+    /**
+     * Process the axioms scheduled into the given context, which has just been polled from the active contexts, until none is left, then
+     * deactivate it.
+     * @param context
+     */
+    void processContext(InferenceRuleContext context) {
+        if (memoryBudget != null) {
+            memoryBudget.pageIn(context);
+        }
+
+        for(;;){
+
+            if (contextAccessManager.isSaturationAborted()) {
+                break;
+            }
+
+            if (!processNextAxiom(context)) {
+                break;
+            }
+        }
+
+        if (contextAccessManager.getActiveContexts().deactivateContext(context) && memoryBudget != null) {
+            memoryBudget.release(context);
+        }
+    }
+
+    /**
+     * Process the next axiom scheduled into the given context, if it has not been processed yet.
+     * @param context
+     * @return {@code false} if no axiom is scheduled into the context; {@code true} otherwise
+     */
+    private boolean processNextAxiom(InferenceRuleContext context) {
+        if (workerLock != null) {
+            workerLock.lock();
+        }
+        try {
+            OWLSubClassOfAxiom axiom = context.pollScheduledAxiom();
+
+            if (axiom == null) {
+                return false;
+            }
+
+            //System.out.println("Thread " + Thread.currentThread().getId() + " processing axiom: " + axiom);
+
+            computingAxiom = axiom;
+
+            if (!context.hasProcessedAxiom(axiom)) {
+                context.addProcessedAxiom(axiom);
+                if (memoryBudget != null) {
+                    memoryBudget.recordProcessedAxiom(context);
+                }
+                processAxiom(context);
+            }
+            return true;
+        } finally {
+            if (workerLock != null) {
+                workerLock.unlock();
+            }
+        }
+    }
+
+    private void processAxiom(InferenceRuleContext context) {
+        Set<OWLSubClassOfAxiom> conlcusions = context.compute(computingAxiom);
+        processedContexts.add(context);
+        for (OWLSubClassOfAxiom axiom : conlcusions) {
+            if (contextAccessManager.checkInconsistency(axiom)) {
+                return;
+            }
+            contextAccessManager.getContextsByAxiom(axiom).forEach((ctx) -> contextAccessManager.scheduleAxiom(ctx, axiom));
+        }
+    }
+
+    OWLSubClassOfAxiom getComputingAxiom() {
+        return computingAxiom;
+    }
+}
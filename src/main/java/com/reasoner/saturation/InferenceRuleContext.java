@@ -1,5 +1,7 @@
 package com.reasoner.saturation;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Queue;
@@ -30,6 +32,9 @@ public abstract class InferenceRuleContext<S,T> {
     private final Queue<OWLSubClassOfAxiom> scheduledAxioms = new ConcurrentLinkedQueue<>();
     protected final Set<OWLSubClassOfAxiom> processedAxioms = new HashSet<>();
 
+    // Bookkeeping of the ContextMemoryBudget, if any
+    ContextMemoryBudget.Entry memoryEntry = null;
+
     public InferenceRuleContext(InferenceRule<S,T> inferenceRule, OWLEntity entity){
         this.inferenceRule = inferenceRule;
         this.entity = OntologyUtilities.getEntityClassExpression(entity);
@@ -63,6 +68,14 @@ public abstract class InferenceRuleContext<S,T> {
         return !scheduledAxioms.isEmpty();
     }
 
+    /**
+     * Get the axioms scheduled into this context that have not been polled yet.
+     * @return Collection of axioms.
+     */
+    public Collection<OWLSubClassOfAxiom> getScheduledAxioms(){
+        return Collections.unmodifiableCollection(scheduledAxioms);
+    }
+
     public Set<OWLSubClassOfAxiom> initializeContext(){
         if (isInitialized) throw new IllegalStateException();
 
@@ -110,6 +123,62 @@ public abstract class InferenceRuleContext<S,T> {
         return processedAxioms;
     }
 
+    /**
+     * Get all the axioms processed by this context, from which its state is built again through {@link #addProcessedAxiom(OWLSubClassOfAxiom)}
+     * (e.g. by a {@link SaturationCheckpoint} or a {@link ContextMemoryBudget}). Unlike {@link #getProcessedAxioms()}, which a context
+     * may restrict to the conclusions that it derives, it never leaves out an axiom. <p>
+     * By default, it returns {@link #getProcessedAxioms()}.
+     * @return Set of axioms.
+     */
+    public Set<OWLSubClassOfAxiom> getAllProcessedAxioms(){
+        return getProcessedAxioms();
+    }
+
+    /**
+     * Remove all the processed axioms, together with the structures built from them, e.g. when they are moved off the heap by a
+     * {@link ContextMemoryBudget}. Contexts that keep other structures than {@code processedAxioms} have to clear them too.
+     */
+    protected void clearProcessedAxioms(){
+        processedAxioms.clear();
+    }
+
+    /**
+     * Remove a processed axiom, so that it is processed again if it is scheduled later. <p>
+     * This is used when a conclusion does not hold anymore because some axioms have been removed from the ontology.
+     * @param axiom
+     * @return {@code true} if the axiom had been processed by this context; {@code false} otherwise
+     */
+    public boolean removeProcessedAxiom(OWLSubClassOfAxiom axiom){
+        return processedAxioms.remove(axiom);
+    }
+
+    /**
+     * Create a copy of this context, with its own processed axioms: the conclusions added to the copy do not change this context. <p>
+     * Scheduled axioms are not copied.
+     * @return a copy of this context
+     */
+    public InferenceRuleContext<S,T> copy(){
+        try{
+            @SuppressWarnings("unchecked")
+            InferenceRuleContext<S,T> copy = getClass()
+                .getDeclaredConstructor(InferenceRule.class, OWLEntity.class)
+                .newInstance(inferenceRule, OntologyUtilities.getClassExpressionEntity(entity));
+            copy.copyProcessedAxioms(this);
+            copy.isInitialized = isInitialized;
+            return copy;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot copy context " + this, e);
+        }
+    }
+
+    /**
+     * Copy the processed axioms of the given context, which has the same type as this one.
+     * @param context
+     */
+    protected void copyProcessedAxioms(InferenceRuleContext<S,T> context){
+        processedAxioms.addAll(context.processedAxioms);
+    }
+
     public AtomicBoolean isActiveContext(){
         return isActiveContext;
     }
@@ -118,6 +187,13 @@ public abstract class InferenceRuleContext<S,T> {
         return isInitialized;
     }
 
+    /**
+     * Mark this context as initialized, when it is created again with the conclusions of a checkpoint (see {@link SaturationCheckpoint}).
+     */
+    void markInitialized(){
+        isInitialized = true;
+    }
+
     public OWLClassExpression getEntity(){
         return entity;
     }
@@ -1,10 +1,17 @@
 package com.reasoner.saturation;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BooleanSupplier;
 
+import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.reasoner.querying.OntologyAccessManager;
 import com.reasoner.reasoning.rules.InferenceRule;
@@ -24,9 +31,18 @@ import com.reasoner.reasoning.rules.InferenceRule;
  * More theorically, the saturator is based on a property implying that if it's possible to apply an {@link InferenceRule} to a set of axioms, these should be in the same context. <p>
  */
 public class OntologySaturator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OntologySaturator.class);
+
     private final OntologyAccessManager ontologyAccessManager;
     private final ContextAccessManager contextManager;
-    private final boolean concurrentMode;
+    private int threadCount;
+    private SaturationEngine saturationEngine = null;
+    private SaturationEngine lastSaturationEngine = null;
+    private boolean incremental = false;
+    private SaturationCheckpoint checkpoint = null;
+    private SaturationExecutor saturationExecutor = null;
+    private volatile boolean cancelled = false;
+    private volatile BooleanSupplier cancellation = () -> false;
 
     public OntologySaturator(
         OntologyAccessManager ontologyAccessManager, 
@@ -42,14 +58,110 @@ public class OntologySaturator {
     ) {
         this.ontologyAccessManager = ontologyAccessManager;
         this.contextManager = contextManager;
-        this.concurrentMode = isConcurrent;
+        this.threadCount = isConcurrent ? Runtime.getRuntime().availableProcessors() : 1;
     }
 
     /**
-     * Saturate the ontology.
+     * Saturate the ontology. <p>
+     * If an inconsistency witness (⊤ ⊑ ⊥ or {a} ⊑ ⊥) is derived, the saturation is aborted early and the returned set
+     * only contains the conclusions derived so far. Use {@link #isInconsistent()} to check the outcome. <p>
+     * If a {@link SaturationEngine} has been set, the saturation is delegated to it, and the contexts are not used.
      * @return Set of conclusions.
+     * @throws CancellationException if the saturation has been cancelled (see {@link #isCancelled()})
      */
     public Set<OWLSubClassOfAxiom> saturate() {
+        cancelled = false;
+        if (saturationEngine != null) {
+            lastSaturationEngine = saturationEngine;
+            incremental = false;
+            Set<OWLSubClassOfAxiom> conclusions;
+            Lock indexLock = ontologyAccessManager.getIndexLock().readLock();
+            indexLock.lock();
+            saturationEngine.setCancellation(this::isCancelled);
+            try {
+                checkCancelled();
+                conclusions = saturationEngine.saturate(ontologyAccessManager, threadCount);
+            } finally {
+                saturationEngine.setCancellation(null);
+                indexLock.unlock();
+            }
+            checkCancelled();
+            return conclusions;
+        }
+
+        if (ontologyAccessManager.getRules().isEmpty()) {
+            throw new RuntimeException("No inference rule has been added to this saturator yet. You can add InferenceRules by using registerRule() on the saturator's OntologyAccessManager.");
+        }
+
+        if(!ontologyAccessManager.isIndexed()){
+            ontologyAccessManager.precomputeAxioms();
+        }
+
+        lastSaturationEngine = null;
+        incremental = true;
+
+        Lock indexLock = ontologyAccessManager.getIndexLock().readLock();
+        indexLock.lock();
+        try {
+            if (checkpoint != null) {
+                return resumeSaturation();
+            }
+
+            contextManager.initialize(ontologyAccessManager);
+
+            return runSaturation();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Saturate the ontology through the contexts while writing checkpoints. If the file of the checkpoint holds a checkpoint of a saturation
+     * of the same ontology, the contexts are created again from it and the saturation goes on from there.
+     * @return Set of conclusions.
+     */
+    private Set<OWLSubClassOfAxiom> resumeSaturation() {
+        long fingerprint = SaturationCheckpoint.fingerprint(ontologyAccessManager);
+        SaturationCheckpoint.State state = null;
+        try {
+            state = checkpoint.read(fingerprint);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot read the saturation checkpoint {}: the saturation starts from scratch", checkpoint.getFile(), e);
+        }
+        if (state != null) {
+            contextManager.initialize(ontologyAccessManager, state);
+        } else {
+            contextManager.initialize(ontologyAccessManager);
+        }
+
+        // A cancellation during the initialization skips the remaining axioms of the ontology, so that the state must not be written
+        if (!contextManager.isSaturationAborted()) {
+            checkpoint.start(contextManager, fingerprint, state != null);
+        }
+        Set<OWLSubClassOfAxiom> conclusions;
+        try {
+            conclusions = runSaturation(checkpoint.getWorkerLock());
+        } finally {
+            checkpoint.stop(contextManager);
+        }
+        if (state != null) {
+            // The contexts restored from the checkpoint may not have been processed again
+            contextManager.getContextProviders().forEach(
+                contextProvider -> contextProvider.getContexts().forEach(context -> conclusions.addAll(contextManager.getProcessedAxioms(context)))
+            );
+        }
+        return conclusions;
+    }
+
+    /**
+     * Saturate the ontology in a goal-directed way. <p>
+     * Only the contexts of the given entities take part in the saturation: the returned conclusions are complete for these entities
+     * as long as the set is closed under the registered inference rules (i.e. no conclusion about them depends on other entities).
+     * @param entities the entities whose contexts have to be saturated
+     * @return Set of conclusions.
+     */
+    public Set<OWLSubClassOfAxiom> saturate(Collection<? extends OWLEntity> entities) {
+        cancelled = false;
         if (ontologyAccessManager.getRules().isEmpty()) {
             throw new RuntimeException("No inference rule has been added to this saturator yet. You can add InferenceRules by using registerRule() on the saturator's OntologyAccessManager.");
         }
@@ -58,16 +170,210 @@ public class OntologySaturator {
             ontologyAccessManager.precomputeAxioms();
         }
 
-        contextManager.initialize(ontologyAccessManager);
+        lastSaturationEngine = null;
+        incremental = false;
+
+        Lock indexLock = ontologyAccessManager.getIndexLock().readLock();
+        indexLock.lock();
+        try {
+            contextManager.initialize(ontologyAccessManager, entities);
+
+            return runSaturation();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Saturate incrementally the axioms added to an already saturated ontology. <p>
+     * The contexts of the last saturation are reused: only the contexts affected by the added axioms are processed again.
+     * The added axioms must have already been inserted into the rule indexes (see {@link OntologyAccessManager#addAxioms}), and the
+     * last saturation must have been a complete, consistent one (see {@link #isIncremental()}).
+     * @param axioms the added axioms, in normal form
+     * @return Set of conclusions of the affected contexts.
+     */
+    public Set<OWLSubClassOfAxiom> saturateAdditions(Collection<OWLSubClassOfAxiom> axioms) {
+        checkIncremental();
+        cancelled = false;
+
+        Lock indexLock = ontologyAccessManager.getIndexLock().readLock();
+        indexLock.lock();
+        try {
+            contextManager.addAxioms(axioms);
+
+            return runSaturation();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Saturate incrementally an already saturated ontology after some axioms have been removed from it, following the DRed
+     * (Delete and Rederive) approach. <p>
+     * First, the conclusions that may depend on the removed axioms are over-deleted, together with the contexts that derived them
+     * (see {@link ContextAccessManager#removeAxioms}). Then, the removed axioms are removed from the rule indexes and the over-deleted
+     * contexts are saturated again from the remaining axioms, while all the other contexts are kept. <p>
+     * The removed axioms must be still in the rule indexes, and the last saturation must have been a complete, consistent one
+     * (see {@link #isIncremental()}). Use {@link ContextAccessManager#getOverDeletedAxioms()} to get the over-deleted conclusions.
+     * @param axioms the removed axioms, in normal form
+     * @return Set of conclusions of the affected contexts.
+     */
+    public Set<OWLSubClassOfAxiom> saturateRemovals(Collection<OWLSubClassOfAxiom> axioms) {
+        checkIncremental();
+        cancelled = false;
+
+        // The whole update holds the write lock, since the removed axioms are unindexed between the deletion and the rederivation
+        Lock indexLock = ontologyAccessManager.getIndexLock().writeLock();
+        indexLock.lock();
+        try {
+            contextManager.removeAxioms(axioms);
+            ontologyAccessManager.unindexAxioms(axioms);
+            contextManager.rederiveAxioms(ontologyAccessManager);
+
+            return runSaturation();
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    /**
+     * Create a saturator that works on an overlay of the contexts of this one (see {@link ContextAccessManager#createOverlay()}). <p>
+     * Saturating through the overlay, e.g. with {@link #saturateAdditions(Collection)}, does not modify the contexts of this saturator.
+     * The ontology access manager, and therefore the rule indexes, are shared: the axioms indexed only for the overlay have to be inserted
+     * and removed while holding the write lock of {@link OntologyAccessManager#getIndexLock()}.
+     * @return an overlay saturator
+     */
+    public OntologySaturator createOverlay() {
+        checkIncremental();
+        OntologySaturator overlay = new OntologySaturator(ontologyAccessManager, contextManager.createOverlay());
+        overlay.threadCount = threadCount;
+        overlay.saturationExecutor = saturationExecutor;
+        overlay.incremental = true;
+        return overlay;
+    }
+
+    /**
+     * Set the engine used by {@link #saturate()}. <p>
+     * By default ({@code null}), the ontology is saturated through the contexts of the {@link ContextAccessManager}, which can be
+     * updated incrementally. A {@link SaturationEngine} computes the saturation at once, without contexts: the goal-directed and the
+     * incremental saturations still use the contexts.
+     * @param saturationEngine the engine, or {@code null} to use the contexts
+     */
+    public void setSaturationEngine(SaturationEngine saturationEngine) {
+        this.saturationEngine = saturationEngine;
+    }
+
+    public SaturationEngine getSaturationEngine() {
+        return saturationEngine;
+    }
+
+    /**
+     * Set the executor that processes the contexts in every saturation through the contexts, e.g. a {@link TaskSaturationExecutor} on a
+     * pool shared by several saturators. By default ({@code null}), the saturator starts its own {@link SaturationThread}s.
+     * @param saturationExecutor the executor, or {@code null} to start the threads of the saturator
+     */
+    public void setSaturationExecutor(SaturationExecutor saturationExecutor) {
+        this.saturationExecutor = saturationExecutor;
+    }
+
+    public SaturationExecutor getSaturationExecutor() {
+        return saturationExecutor;
+    }
+
+    /**
+     * Set the checkpoint of {@link #saturate()}. <p>
+     * The state of the saturation through the contexts is periodically written to the file of the checkpoint, and once more at its end.
+     * A later call to {@link #saturate()}, e.g. after a crash, with a checkpoint on the same file resumes from the last state written,
+     * as long as the ontology and the rules have not changed. The goal-directed and the incremental saturations, as well as the ones
+     * delegated to a {@link SaturationEngine}, do not write checkpoints.
+     * @param checkpoint the checkpoint, or {@code null} not to write checkpoints
+     */
+    public void setCheckpoint(SaturationCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public SaturationCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Set the memory budget of the contexts. When the estimated heap size of the processed axioms of the contexts exceeds the budget during
+     * a saturation, the largest idle contexts are moved to memory-mapped segments of a spill file, and they are paged back in when they are
+     * activated again (see {@link ContextMemoryBudget}). The contexts spilled by the previous budget, if any, are paged back in.
+     * @param memoryBudget the budget, or {@code null} to keep all the contexts on the heap
+     */
+    public void setMemoryBudget(ContextMemoryBudget memoryBudget) {
+        contextManager.setMemoryBudget(memoryBudget);
+    }
+
+    public ContextMemoryBudget getMemoryBudget() {
+        return contextManager.getMemoryBudget();
+    }
+
+    /**
+     * Write a checkpoint of the current state of the contexts now, e.g. before the saturation is stopped. It can be called while
+     * {@link #saturate()} is running, from another thread. Nothing is written if the saturation has been cancelled.
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public void writeCheckpoint() throws IOException {
+        if (checkpoint == null) {
+            throw new IllegalStateException("No checkpoint has been set. Please, call setCheckpoint(...) first.");
+        }
+        checkpoint.write(contextManager, SaturationCheckpoint.fingerprint(ontologyAccessManager));
+    }
+
+    /**
+     * Set the number of threads that saturate the ontology. By default, it is the number of available processors in concurrent mode,
+     * and 1 otherwise.
+     * @param threadCount the number of threads, at least 1
+     */
+    public void setThreadCount(int threadCount) {
+        if(threadCount < 1){
+            throw new IllegalArgumentException("The number of threads must be at least 1.");
+        }
+        this.threadCount = threadCount;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Check if the last saturation can be updated incrementally, i.e. it was a complete saturation through the contexts, as
+     * required by {@link #saturateAdditions(Collection)}, {@link #saturateRemovals(Collection)} and {@link #createOverlay()}.
+     * @return {@code true} if the contexts of a complete saturation are available; {@code false} otherwise
+     */
+    public boolean isIncremental() {
+        return incremental && ontologyAccessManager.isIndexed();
+    }
+
+    private void checkIncremental() {
+        if(!isIncremental()){
+            throw new IllegalStateException("The ontology has not been saturated through the contexts yet. Please, call saturate() first.");
+        }
+    }
+
+    private Set<OWLSubClassOfAxiom> runSaturation() {
+        return runSaturation(null);
+    }
+
+    private Set<OWLSubClassOfAxiom> runSaturation(Lock workerLock) {
+        checkCancelled();
+        if (saturationExecutor != null) {
+            Collection<InferenceRuleContext> processedContexts = saturationExecutor.saturate(contextManager, threadCount, workerLock);
+            checkCancelled();
+            Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
+            processedContexts.forEach(context -> conclusions.addAll(contextManager.getProcessedAxioms(context)));
+            conclusions.addAll(contextManager.getDiscardedAxioms());
+            return conclusions;
+        }
 
-        final int cpuCount = concurrentMode ? 
-            Runtime.getRuntime().availableProcessors() : 1;
         Set<SaturationThread> threads = new HashSet<>();
-        for (int i = 0; i < cpuCount; i++) {
-            threads.add(new SaturationThread(contextManager));
+        for (int i = 0; i < threadCount; i++) {
+            threads.add(new SaturationThread(contextManager, workerLock));
         }
 
-        //System.out.println("Saturating ontology with " + cpuCount + " thread(s)...");
+        //System.out.println("Saturating ontology with " + threadCount + " thread(s)...");
 
         // Blocking
         threads.forEach(Thread::start);
@@ -78,13 +384,14 @@ public class OntologySaturator {
                 throw new RuntimeException(e);
             }
         });
+        checkCancelled();
         Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
 
         threads.forEach(thread -> {
             Collection<InferenceRuleContext> processedContexts = thread.getProcessedContexts();
             if(!processedContexts.isEmpty()){
                 processedContexts.forEach(context -> {
-                    conclusions.addAll(context.getProcessedAxioms());
+                    conclusions.addAll(contextManager.getProcessedAxioms(context));
                 });
             }
         });
@@ -96,7 +403,86 @@ public class OntologySaturator {
         return conclusions;
     }
 
+    /**
+     * Cancel the saturation that is running, e.g. from another thread. The saturation threads stop as soon as they complete the axiom they
+     * are processing, and the saturation throws a {@link CancellationException}: the contexts cannot be updated incrementally afterwards.
+     * A {@link SaturationEngine} stops if it checks its cancellation condition (see {@link SaturationEngine#setCancellation(java.util.function.BooleanSupplier)}),
+     * and its conclusions are discarded in any case.
+     */
+    public void cancel() {
+        cancelled = true;
+        contextManager.abortSaturation();
+    }
+
+    /**
+     * Set a condition under which the saturations are cancelled as well, e.g. the cancellation of the future of an asynchronous
+     * classification. Unlike {@link #cancel()}, it is not cleared when a saturation starts, so that a cancellation that happens just
+     * before is not lost: it is checked before the saturation starts and once it is over. {@link #cancel()} must still be called to stop
+     * the running saturation.
+     * @param cancellation The condition, or {@code null} if the saturations are only cancelled by {@link #cancel()}
+     */
+    public void setCancellation(BooleanSupplier cancellation) {
+        this.cancellation = cancellation == null ? () -> false : cancellation;
+    }
+
+    /**
+     * Check if the last saturation has been cancelled (see {@link #cancel()} and {@link #setCancellation(BooleanSupplier)}).
+     * @return boolean
+     */
+    public boolean isCancelled() {
+        return cancelled || cancellation.getAsBoolean();
+    }
+
+    /**
+     * Get the conclusions derived so far by the contexts, e.g. once a cancelled saturation has thrown its {@link CancellationException}:
+     * every conclusion follows from the ontology, but some may be missing. A {@link SaturationEngine} keeps no contexts, so nothing is
+     * returned if the last saturation has been delegated to it.
+     * @return Set of conclusions.
+     */
+    public Set<OWLSubClassOfAxiom> getDerivedConclusions() {
+        Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
+        if (lastSaturationEngine != null) {
+            return conclusions;
+        }
+        contextManager.getContextProviders().forEach(
+            contextProvider -> contextProvider.getContexts().forEach(context -> conclusions.addAll(contextManager.getProcessedAxioms(context)))
+        );
+        conclusions.addAll(contextManager.getDiscardedAxioms());
+        return conclusions;
+    }
+
+    private void checkCancelled() {
+        if (isCancelled()) {
+            cancelled = true;
+            incremental = false;
+            throw new CancellationException("The saturation has been cancelled.");
+        }
+    }
+
+    /**
+     * Check if the last saturation derived an inconsistency witness.
+     * @return {@code true} if the saturated ontology is inconsistent; {@code false} otherwise
+     */
+    public boolean isInconsistent() {
+        return getInconsistencyWitness() != null;
+    }
+
+    /**
+     * Get the axiom that witnessed the inconsistency during the last saturation.
+     * @return {@code OWLSubClassOfAxiom} witness, or {@code null} if the ontology is consistent.
+     */
+    public OWLSubClassOfAxiom getInconsistencyWitness() {
+        if (lastSaturationEngine != null) {
+            return lastSaturationEngine.getInconsistencyWitness();
+        }
+        return contextManager.getInconsistencyWitness();
+    }
+
     public OntologyAccessManager getOntologyAccessManager() {
         return this.ontologyAccessManager;
     }
+
+    public ContextAccessManager getContextAccessManager() {
+        return this.contextManager;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.reasoner.saturation;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.reasoner.utils.OntologyUtilities;
+
+/**
+ * Copy-on-write view of a {@link ContextProvider}. <p>
+ * The contexts of the base provider are shared until an axiom is scheduled into them: at that point, the context is copied
+ * (see {@link InferenceRuleContext#copy()}) and the copy replaces it in this provider only. The base provider is never modified. <p>
+ * Contexts are scheduled through {@link #getContextsByAxiom(OWLSubClassOfAxiom)}, so this is where copies are made, while
+ * {@link #getContexts()} and {@link #getContext(OWLEntity)} return the shared contexts that have not been copied yet.
+ */
+@SuppressWarnings("rawtypes")
+class OverlayContextProvider extends ContextProvider {
+
+    private final ContextProvider baseContextProvider;
+    private final Map<OWLObject, InferenceRuleContext> copiedContexts = new HashMap<>();
+
+    /**
+     * Map view used to extract the contexts of an axiom: every context it returns is a copy owned by this provider.
+     */
+    private final Map<OWLObject, InferenceRuleContext> copyOnWriteContexts = new AbstractMap<OWLObject, InferenceRuleContext>() {
+
+        @Override
+        public InferenceRuleContext get(Object key) {
+            return getContextCopy(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof OWLEntity && hasContext((OWLEntity) key);
+        }
+
+        @Override
+        public Set<Entry<OWLObject, InferenceRuleContext>> entrySet() {
+            // Rules that need all the contexts (e.g. CR6) get a copy of each of them
+            for (InferenceRuleContext context : baseContextProvider.getContexts()) {
+                getContextCopy(OntologyUtilities.getClassExpressionEntity(context.getEntity()));
+            }
+            return copiedContexts.entrySet();
+        }
+    };
+
+    OverlayContextProvider(ContextProvider baseContextProvider) {
+        super(baseContextProvider.getInferenceRule());
+        this.baseContextProvider = baseContextProvider;
+    }
+
+    private InferenceRuleContext getContextCopy(Object key) {
+        InferenceRuleContext context = copiedContexts.get(key);
+        if (context != null || !(key instanceof OWLEntity)) {
+            return context;
+        }
+        InferenceRuleContext baseContext = baseContextProvider.getContext((OWLEntity) key);
+        if (baseContext == null) {
+            return null;
+        }
+        context = baseContext.copy();
+        copiedContexts.put((OWLEntity) key, context);
+        return context;
+    }
+
+    @Override
+    public void addContext(OWLEntity entity, InferenceRuleContext context) {
+        if (getInferenceRule().getEntityTypes().contains(OntologyUtilities.getEntityType(entity))) {
+            copiedContexts.put(entity, context);
+            return;
+        }
+        throw new IllegalArgumentException("Entity type is not supported by the inference rule.");
+    }
+
+    @Override
+    public boolean hasContext(OWLEntity entity) {
+        return copiedContexts.containsKey(entity) || baseContextProvider.hasContext(entity);
+    }
+
+    @Override
+    public InferenceRuleContext getContext(OWLEntity entity) {
+        InferenceRuleContext context = copiedContexts.get(entity);
+        return context != null ? context : baseContextProvider.getContext(entity);
+    }
+
+    @Override
+    public Collection<InferenceRuleContext> getContexts() {
+        Set<InferenceRuleContext> contexts = new HashSet<>(copiedContexts.values());
+        for (InferenceRuleContext context : baseContextProvider.getContexts()) {
+            if (!copiedContexts.containsKey(OntologyUtilities.getClassExpressionEntity(context.getEntity()))) {
+                contexts.add(context);
+            }
+        }
+        return contexts;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<InferenceRuleContext> getContextsByAxiom(OWLSubClassOfAxiom axiom) {
+        return getInferenceRule().extractContexts(copyOnWriteContexts, axiom.getSubClass(), axiom.getSuperClass());
+    }
+}
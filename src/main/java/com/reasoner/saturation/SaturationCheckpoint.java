@@ -0,0 +1,387 @@
+package com.reasoner.saturation;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.utils.AxiomDecoder;
+import com.reasoner.utils.AxiomEncoder;
+
+/**
+ * Periodic checkpoints of a saturation through the contexts, from which a later saturation of the same ontology resumes (see
+ * {@link OntologySaturator#setCheckpoint(SaturationCheckpoint)}). <p>
+ * A checkpoint holds, for the contexts of every rule, the processed conclusions and the scheduled axioms, together with the discarded
+ * axioms. The class expressions are written once, in a dictionary, and the axioms are written as pairs of positions in the dictionary.
+ * The checkpoint is keyed by a fingerprint of the axioms and of the rules of the saturation (see {@link #fingerprint(OntologyAccessManager)}):
+ * a checkpoint of another ontology is not read. <p>
+ * While the state is captured, the {@link SaturationThread}s wait before their next axiom, so that every conclusion of a processed axiom is
+ * either processed or scheduled; the checkpoint is then written in the background, while they go on.
+ */
+public class SaturationCheckpoint {
+
+    /**
+     * Version of the format, written in the header: checkpoints of another version are not read.
+     */
+    public static final int VERSION = 1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaturationCheckpoint.class);
+    private static final int MAGIC = 0x454C5043;  // "ELPC"
+
+    private final Path file;
+    private final long interval;
+    private final ReadWriteLock pauseLock = new ReentrantReadWriteLock();
+    private final Map<OWLClassExpression, Integer> ids = new HashMap<>();
+    private final List<OWLClassExpression> expressions = new ArrayList<>();
+    private ScheduledExecutorService scheduler = null;
+    private long fingerprint;
+    private boolean resumed = false;
+
+    /**
+     * State of the contexts of a rule, captured by a checkpoint.
+     */
+    static final class RuleState {
+        final String rule;
+        final int[] entities;
+        final boolean[] initialized;
+        final int[][] processedAxioms;
+        final int[][] scheduledAxioms;
+
+        RuleState(String rule, int size) {
+            this.rule = rule;
+            this.entities = new int[size];
+            this.initialized = new boolean[size];
+            this.processedAxioms = new int[size][];
+            this.scheduledAxioms = new int[size][];
+        }
+    }
+
+    /**
+     * State of a saturation, captured by a checkpoint. The axioms are pairs of positions in {@code expressions}.
+     */
+    static final class State {
+        final OWLClassExpression[] expressions;
+        final List<RuleState> rules;
+        final int[] discardedAxioms;
+
+        State(OWLClassExpression[] expressions, List<RuleState> rules, int[] discardedAxioms) {
+            this.expressions = expressions;
+            this.rules = rules;
+            this.discardedAxioms = discardedAxioms;
+        }
+
+        OWLSubClassOfAxiom axiom(int[] axioms, int i, OWLDataFactory factory) {
+            return factory.getOWLSubClassOfAxiom(expressions[axioms[2 * i]], expressions[axioms[2 * i + 1]]);
+        }
+    }
+
+    /**
+     * Create a checkpoint, which is written to the given file every {@code interval} milliseconds during a saturation, and once more at its end.
+     * @param file
+     * @param interval the time between two checkpoints, in milliseconds
+     */
+    public SaturationCheckpoint(Path file, long interval) {
+        if(interval < 1){
+            throw new IllegalArgumentException("The interval between two checkpoints must be at least 1 ms.");
+        }
+        this.file = file;
+        this.interval = interval;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Check if the last saturation resumed from a checkpoint in the file.
+     * @return boolean
+     */
+    public boolean hasResumed() {
+        return resumed;
+    }
+
+    /**
+     * Compute the fingerprint of the saturation of the ontology of the given access manager: it depends on the axioms to reason with, on the
+     * other axioms of the ontology (e.g. the role inclusions) and on the rules whose contexts take part in the saturation.
+     * @param ontologyAccessManager
+     * @return long
+     */
+    public static long fingerprint(OntologyAccessManager ontologyAccessManager) {
+        Stream<OWLAxiom> axioms = Stream.concat(
+            ontologyAccessManager.getOntology().axioms().filter(axiom -> !axiom.isOfType(AxiomType.SUBCLASS_OF)),
+            ontologyAccessManager.axioms()
+        );
+        // The string forms are hashed, since the hash codes of some OWL objects are not the same in every JVM
+        long fingerprint = axioms.parallel().mapToLong(axiom -> mix(axiom.toString().hashCode())).sum();
+        for(InferenceRule rule : ontologyAccessManager.getSaturationRules()){
+            fingerprint += mix(rule.getClass().getName().hashCode() * 31L + 1);
+        }
+        return fingerprint;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    /**
+     * Get the lock that every {@link SaturationThread} holds while it processes an axiom, so that the state is captured between two axioms.
+     * @return Lock
+     */
+    Lock getWorkerLock() {
+        return pauseLock.readLock();
+    }
+
+    /**
+     * Read the checkpoint in the file, if it has been written for the saturation with the given fingerprint.
+     * @param fingerprint
+     * @return the state, or {@code null} if there is no checkpoint in the file, or if it has another version or another fingerprint
+     * @throws IOException if the checkpoint cannot be read or is truncated
+     */
+    State read(long fingerprint) throws IOException {
+        if(!Files.isRegularFile(file)){
+            return null;
+        }
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)){
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(buffer.remaining() < 16 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != fingerprint){
+                return null;
+            }
+            AxiomDecoder decoder = new AxiomDecoder(buffer);
+            OWLClassExpression[] readExpressions = new OWLClassExpression[buffer.getInt()];
+            for(int i = 0; i < readExpressions.length; i++){
+                readExpressions[i] = decoder.classExpression();
+            }
+            int ruleCount = buffer.getInt();
+            List<RuleState> rules = new ArrayList<>(ruleCount);
+            for(int i = 0; i < ruleCount; i++){
+                RuleState ruleState = new RuleState(AxiomDecoder.readString(buffer), buffer.getInt());
+                for(int j = 0; j < ruleState.entities.length; j++){
+                    ruleState.entities[j] = buffer.getInt();
+                    ruleState.initialized[j] = buffer.get() != 0;
+                    ruleState.processedAxioms[j] = readInts(buffer);
+                    ruleState.scheduledAxioms[j] = readInts(buffer);
+                }
+                rules.add(ruleState);
+            }
+            return new State(readExpressions, rules, readInts(buffer));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Truncated checkpoint: " + file, e);
+        }
+    }
+
+    /**
+     * Start writing the checkpoints of a saturation in the background.
+     * @param contextManager the manager of the contexts of the saturation
+     * @param fingerprint the fingerprint of the saturation
+     * @param resumed whether the saturation resumed from a checkpoint
+     */
+    synchronized void start(ContextAccessManager contextManager, long fingerprint, boolean resumed) {
+        this.fingerprint = fingerprint;
+        this.resumed = resumed;
+        ids.clear();
+        expressions.clear();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "saturation-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> checkpoint(contextManager), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop writing the checkpoints in the background, waiting for the one being written, if any. If the saturation has not been aborted,
+     * a last checkpoint is written, so that a later saturation of the same ontology finds all the conclusions.
+     * @param contextManager the manager of the contexts of the saturation
+     */
+    void stop(ContextAccessManager contextManager) {
+        if(scheduler == null){
+            return;
+        }
+        scheduler.shutdown();
+        try{
+            scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        if(!contextManager.isSaturationAborted()){
+            checkpoint(contextManager);
+        }
+    }
+
+    /**
+     * Capture the state of the saturation and write it to the file. If it cannot be written, the previous checkpoint is kept.
+     * @param contextManager
+     */
+    void checkpoint(ContextAccessManager contextManager) {
+        try{
+            write(contextManager, fingerprint);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Cannot write the saturation checkpoint {}", file, e);
+        }
+    }
+
+    /**
+     * Capture the state of the saturation and write it to the file, keyed by the given fingerprint. Nothing is written if the saturation
+     * has been aborted.
+     * @param contextManager
+     * @param fingerprint
+     * @throws IOException if the checkpoint cannot be written
+     */
+    synchronized void write(ContextAccessManager contextManager, long fingerprint) throws IOException {
+        State state = capture(contextManager);
+        if(state != null){
+            write(state, fingerprint);
+        }
+    }
+
+    /**
+     * Capture the state of the saturation, while the {@link SaturationThread}s wait. Only the class expressions that were not in the
+     * dictionary yet are added to it.
+     * @param contextManager
+     * @return the state, or {@code null} if the saturation has been aborted, since some of its axioms may have been skipped
+     */
+    private State capture(ContextAccessManager contextManager) {
+        pauseLock.writeLock().lock();
+        try{
+            if(contextManager.isSaturationAborted()){
+                return null;
+            }
+            List<ContextProvider> contextProviders = new ArrayList<>(contextManager.getContextProviders());
+            contextProviders.sort(Comparator.comparing(contextProvider -> contextProvider.getInferenceRule().getClass().getName()));
+            List<RuleState> rules = new ArrayList<>(contextProviders.size());
+            for(ContextProvider contextProvider : contextProviders){
+                Collection<InferenceRuleContext> contexts = contextProvider.getContexts();
+                RuleState ruleState = new RuleState(contextProvider.getInferenceRule().getClass().getName(), contexts.size());
+                int i = 0;
+                for(InferenceRuleContext context : contexts){
+                    ruleState.entities[i] = id(context.getEntity());
+                    ruleState.initialized[i] = context.hasBeenInitialized();
+                    ruleState.processedAxioms[i] = ids(contextManager.getAllProcessedAxioms(context));
+                    ruleState.scheduledAxioms[i] = ids(context.getScheduledAxioms());
+                    i++;
+                }
+                rules.add(ruleState);
+            }
+            int[] discardedAxioms = ids(contextManager.getDiscardedAxioms());
+            return new State(expressions.toArray(new OWLClassExpression[0]), rules, discardedAxioms);
+        } finally {
+            pauseLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write a captured state to the file. The checkpoint is written to a temporary file first, which then replaces the previous one.
+     * @param state
+     * @param fingerprint
+     * @throws IOException
+     */
+    private void write(State state, long fingerprint) throws IOException {
+        AxiomEncoder encoder = new AxiomEncoder();
+        for(OWLClassExpression expression : state.expressions){
+            if(!encoder.classExpression(expression)){
+                throw new IOException("Cannot write the class expression " + expression);
+            }
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try{
+            try(OutputStream output = Files.newOutputStream(temporaryFile);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output))){
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(fingerprint);
+                encoder.writeDictionary(out);
+                out.writeInt(state.expressions.length);
+                encoder.writeTo(out);
+                out.writeInt(state.rules.size());
+                for(RuleState ruleState : state.rules){
+                    AxiomEncoder.writeString(out, ruleState.rule);
+                    out.writeInt(ruleState.entities.length);
+                    for(int i = 0; i < ruleState.entities.length; i++){
+                        out.writeInt(ruleState.entities[i]);
+                        out.writeByte(ruleState.initialized[i] ? 1 : 0);
+                        writeInts(out, ruleState.processedAxioms[i]);
+                        writeInts(out, ruleState.scheduledAxioms[i]);
+                    }
+                }
+                writeInts(out, state.discardedAxioms);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private int id(OWLClassExpression expression) {
+        Integer id = ids.get(expression);
+        if(id == null){
+            id = expressions.size();
+            ids.put(expression, id);
+            expressions.add(expression);
+        }
+        return id;
+    }
+
+    private int[] ids(Collection<OWLSubClassOfAxiom> axioms) {
+        int[] axiomIds = new int[2 * axioms.size()];
+        int i = 0;
+        for(OWLSubClassOfAxiom axiom : axioms){
+            axiomIds[i++] = id(axiom.getSubClass());
+            axiomIds[i++] = id(axiom.getSuperClass());
+        }
+        return axiomIds;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] ints) throws IOException {
+        out.writeInt(ints.length);
+        for(int value : ints){
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer) {
+        int[] ints = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(ints);
+        buffer.position(buffer.position() + 4 * ints.length);
+        return ints;
+    }
+}
@@ -0,0 +1,55 @@
+package com.reasoner.saturation;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.reasoner.querying.OntologyAccessManager;
+
+/**
+ * A {@code SaturationEngine} saturates an ontology in place of the context-based saturation of {@link OntologySaturator}
+ * (see {@link OntologySaturator#setSaturationEngine(SaturationEngine)}). <p>
+ * An engine computes the whole saturation at once and does not keep any context: the saturation it computes cannot be updated
+ * incrementally, and it has to be computed again after the ontology changes.
+ */
+public interface SaturationEngine {
+
+    /**
+     * Saturate the axioms of the ontology (see {@link OntologyAccessManager#axioms()}). <p>
+     * If an inconsistency witness (⊤ ⊑ ⊥ or {a} ⊑ ⊥) is derived, the saturation may be aborted early: in that case, the returned set
+     * only contains the conclusions derived so far.
+     * @param ontologyAccessManager the access manager of the ontology to saturate
+     * @param concurrentMode whether the saturation is performed in parallel
+     * @return Set of conclusions.
+     */
+    Set<OWLSubClassOfAxiom> saturate(OntologyAccessManager ontologyAccessManager, boolean concurrentMode);
+
+    /**
+     * Saturate the axioms of the ontology with the given number of threads (see {@link #saturate(OntologyAccessManager, boolean)}). <p>
+     * By default, the saturation is performed in parallel, with as many threads as the available processors, if more than one thread is
+     * requested.
+     * @param ontologyAccessManager the access manager of the ontology to saturate
+     * @param threadCount the number of threads
+     * @return Set of conclusions.
+     */
+    default Set<OWLSubClassOfAxiom> saturate(OntologyAccessManager ontologyAccessManager, int threadCount) {
+        return saturate(ontologyAccessManager, threadCount > 1);
+    }
+
+    /**
+     * Set the condition checked by the engine while it saturates the ontology: as soon as it holds, the saturation stops and throws a
+     * {@link CancellationException}. {@link OntologySaturator} sets it for the duration of every saturation (see {@link OntologySaturator#cancel()}).
+     * By default, the condition is ignored: the engine runs to completion, and the saturator discards its conclusions.
+     * @param cancellation the condition, or {@code null} if the saturation is never cancelled
+     */
+    default void setCancellation(BooleanSupplier cancellation) {
+    }
+
+    /**
+     * Get the axiom that witnessed the inconsistency during the last saturation.
+     * @return {@code OWLSubClassOfAxiom} witness, or {@code null} if the ontology is consistent.
+     */
+    OWLSubClassOfAxiom getInconsistencyWitness();
+}
@@ -0,0 +1,55 @@
+package com.reasoner.saturation;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Executes the saturation through the contexts: it processes the active contexts of a {@link ContextAccessManager} until none is left, or
+ * until the saturation is aborted. <p>
+ * By default, the {@link OntologySaturator} starts its own {@link SaturationThread}s, which poll the active contexts. An executor can run
+ * the contexts on other threads instead, e.g. as the tasks of a shared pool or of virtual threads (see {@link TaskSaturationExecutor}).
+ */
+public interface SaturationExecutor {
+
+    /**
+     * Create an executor that runs every activation of a context on its own virtual thread, with no bound on the number of tasks: the
+     * virtual threads share the carrier threads of the JVM, so that many saturations can run at the same time without reserving cores. <p>
+     * The virtual threads of a saturation belong to an executor that is shut down once the saturation is over. Since the sources target
+     * Java 8, the executor is created through reflection by {@code Executors.newVirtualThreadPerTaskExecutor()}.
+     * @return the executor, or {@code null} if the JVM has no virtual threads (before Java 21)
+     */
+    static SaturationExecutor virtualThreads() {
+        Method newVirtualThreadPerTaskExecutor;
+        try {
+            newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        return (contextAccessManager, threadCount, workerLock) -> {
+            ExecutorService executor;
+            try {
+                executor = (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create the virtual threads of the saturation", e);
+            }
+            try {
+                return new TaskSaturationExecutor(executor).saturate(contextAccessManager, threadCount, workerLock);
+            } finally {
+                executor.shutdown();
+            }
+        };
+    }
+
+    /**
+     * Process the active contexts until none is left, and return once every context has been deactivated.
+     * @param contextAccessManager
+     * @param threadCount the number of threads of the saturator, which the executor may use as a bound on its parallelism
+     * @param workerLock the lock to hold while an axiom is processed (see {@link SaturationThread#SaturationThread(ContextAccessManager, Lock)}),
+     * or {@code null}
+     * @return Collection of the processed contexts.
+     */
+    Collection<InferenceRuleContext> saturate(ContextAccessManager contextAccessManager, int threadCount, Lock workerLock);
+}
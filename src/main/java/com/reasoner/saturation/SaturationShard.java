@@ -0,0 +1,344 @@
+package com.reasoner.saturation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.utils.AxiomDecoder;
+import com.reasoner.utils.AxiomEncoder;
+import com.reasoner.utils.OntologyUtilities;
+
+/**
+ * Shard of a saturation distributed among several worker processes, each of which saturates its own shard and exchanges conclusions with
+ * the others through a coordinator. <p>
+ * Every entity belongs to the shard given by the hash of its IRI (see {@link #shardOf(OWLClassExpression, int)}), and so do its contexts.
+ * Every worker creates the contexts of all the entities, so that the conclusions are routed as usual (see
+ * {@link ContextAccessManager#getContextsByAxiom(OWLSubClassOfAxiom)}), but it only schedules axioms into the contexts of its own shard:
+ * the conclusions for the contexts of another shard are collected in batches, one for each shard, and sent to the coordinator, which
+ * relays them. <p>
+ * The worker saturates its shard in rounds. After every round, it sends its batches and reports that it is idle, together with the number
+ * of batches it has received; then it waits for the next batch, which starts a new round. Since the batches sent by a worker precede its
+ * report, the coordinator knows that the saturation is over when every worker has reported that it is idle after receiving all the batches
+ * relayed to it. It then collects the conclusions of the shards. <p>
+ * The messages are frames made of a type, a length and a payload. The axioms are written with an {@link AxiomEncoder}.
+ */
+public class SaturationShard {
+
+    /**
+     * Worker to coordinator: the shard of the worker. It is the first frame of a worker.
+     */
+    public static final byte HELLO = 0;
+
+    /**
+     * Batch of axioms. From a worker, the payload starts with the shard that the batch is sent to.
+     */
+    public static final byte BATCH = 1;
+
+    /**
+     * Worker to coordinator: the worker is idle, after receiving the given number of batches.
+     */
+    public static final byte IDLE = 2;
+
+    /**
+     * Worker to coordinator: the inconsistency witness derived by the worker.
+     */
+    public static final byte WITNESS = 3;
+
+    /**
+     * Coordinator to worker: send the conclusions of the shard. Worker to coordinator: the conclusions of the shard.
+     */
+    public static final byte CONCLUSIONS = 4;
+
+    /**
+     * Coordinator to worker: stop.
+     */
+    public static final byte STOP = 5;
+
+    /**
+     * Default number of axioms of a batch: a batch is sent as soon as it is full, or at the end of a round.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final OntologySaturator saturator;
+    private final int shard;
+    private final int shardCount;
+    private final int batchSize;
+    private final List<Set<OWLSubClassOfAxiom>> batches = new ArrayList<>();
+    private final Map<OWLClassExpression, Integer> shards = new ConcurrentHashMap<>();
+    private DataOutputStream out = null;
+
+    /**
+     * Create the shard of a saturation.
+     * @param saturator the saturator of the worker, whose rules are the same as the ones of all the other workers
+     * @param shard the shard of the worker, between 0 and {@code shardCount - 1}
+     * @param shardCount the number of shards
+     * @param batchSize the number of axioms of a batch
+     */
+    public SaturationShard(OntologySaturator saturator, int shard, int shardCount, int batchSize) {
+        if(shard < 0 || shard >= shardCount){
+            throw new IllegalArgumentException("The shard must be between 0 and " + (shardCount - 1) + ".");
+        }
+        if(batchSize < 1){
+            throw new IllegalArgumentException("The size of a batch must be at least 1.");
+        }
+        this.saturator = saturator;
+        this.shard = shard;
+        this.shardCount = shardCount;
+        this.batchSize = batchSize;
+        for(int i = 0; i < shardCount; i++){
+            batches.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Get the shard of the given basic concept, i.e. of its entity.
+     * @param entity the class expression of the entity
+     * @param shardCount the number of shards
+     * @return int
+     */
+    public static int shardOf(OWLClassExpression entity, int shardCount) {
+        OWLEntity owlEntity = OntologyUtilities.getClassExpressionEntity(entity);
+        String key = owlEntity != null ? owlEntity.getIRI().toString() : entity.toString();
+        return Math.floorMod(key.hashCode(), shardCount);
+    }
+
+    /**
+     * Saturate the shard, exchanging frames with the coordinator through the given streams, until the coordinator stops the worker.
+     * @param in
+     * @param out
+     * @throws IOException if the coordinator cannot be reached
+     */
+    public void run(DataInputStream in, DataOutputStream out) throws IOException {
+        this.out = out;
+        OntologyAccessManager ontologyAccessManager = saturator.getOntologyAccessManager();
+        ContextAccessManager contextManager = saturator.getContextAccessManager();
+        if(!ontologyAccessManager.isIndexed()){
+            ontologyAccessManager.precomputeAxioms();
+        }
+        contextManager.setShard(this);
+        try{
+            writeFrame(out, HELLO, ByteBuffer.allocate(4).putInt(shard).array());
+            contextManager.initialize(ontologyAccessManager);
+            long receivedBatches = 0;
+            boolean witnessSent = false;
+            for(;;){
+                runRound(contextManager);
+                flushBatches();
+                if(!witnessSent && contextManager.getInconsistencyWitness() != null){
+                    writeFrame(out, WITNESS, encode(Collections.singleton(contextManager.getInconsistencyWitness())));
+                    witnessSent = true;
+                }
+                writeFrame(out, IDLE, ByteBuffer.allocate(8).putLong(receivedBatches).array());
+
+                // Schedule all the batches already received, then start a new round
+                boolean stop = false;
+                do{
+                    byte type = in.readByte();
+                    byte[] payload = readPayload(in);
+                    if(type == BATCH){
+                        receivedBatches++;
+                        if(!contextManager.isSaturationAborted()){
+                            decode(ByteBuffer.wrap(payload)).forEach(axiom -> scheduleLocalAxiom(contextManager, axiom));
+                        }
+                    } else if(type == CONCLUSIONS){
+                        writeFrame(out, CONCLUSIONS, encode(getConclusions(contextManager)));
+                    } else if(type == STOP){
+                        stop = true;
+                    } else {
+                        throw new IOException("Unexpected frame " + type);
+                    }
+                } while(!stop && in.available() > 0);
+                if(stop){
+                    return;
+                }
+            }
+        } finally {
+            contextManager.setShard(null);
+        }
+    }
+
+    /**
+     * Check if the given context belongs to this shard.
+     * @param context
+     * @return boolean
+     */
+    boolean owns(InferenceRuleContext context) {
+        return shardOf(context) == shard;
+    }
+
+    /**
+     * Send an axiom to the shard of the given context, in the next batch for that shard.
+     * @param context a context of another shard
+     * @param axiom
+     */
+    void forward(InferenceRuleContext context, OWLSubClassOfAxiom axiom) {
+        int target = shardOf(context);
+        Set<OWLSubClassOfAxiom> batch = batches.get(target);
+        Set<OWLSubClassOfAxiom> fullBatch = null;
+        synchronized(batch){
+            if(batch.add(axiom) && batch.size() >= batchSize){
+                fullBatch = new HashSet<>(batch);
+                batch.clear();
+            }
+        }
+        if(fullBatch != null){
+            sendBatch(target, fullBatch);
+        }
+    }
+
+    private int shardOf(InferenceRuleContext context) {
+        return shards.computeIfAbsent(context.getEntity(), entity -> shardOf(entity, shardCount));
+    }
+
+    private void runRound(ContextAccessManager contextManager) {
+        List<SaturationThread> threads = new ArrayList<>();
+        for(int i = 0; i < saturator.getThreadCount(); i++){
+            threads.add(new SaturationThread(contextManager));
+        }
+        threads.forEach(Thread::start);
+        threads.forEach(thread -> {
+            try{
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private void scheduleLocalAxiom(ContextAccessManager contextManager, OWLSubClassOfAxiom axiom) {
+        if(contextManager.checkInconsistency(axiom)){
+            return;
+        }
+        for(InferenceRuleContext context : contextManager.getContextsByAxiom(axiom)){
+            if(owns(context)){
+                context.scheduleAxiom(axiom);
+                contextManager.getActiveContexts().activateContext(context);
+            }
+        }
+    }
+
+    private Set<OWLSubClassOfAxiom> getConclusions(ContextAccessManager contextManager) {
+        Set<OWLSubClassOfAxiom> conclusions = new HashSet<>(contextManager.getDiscardedAxioms());
+        for(ContextProvider contextProvider : contextManager.getContextProviders()){
+            for(InferenceRuleContext context : contextProvider.getContexts()){
+                if(owns(context)){
+                    conclusions.addAll(contextManager.getProcessedAxioms(context));
+                }
+            }
+        }
+        return conclusions;
+    }
+
+    private void flushBatches() {
+        for(int target = 0; target < shardCount; target++){
+            Set<OWLSubClassOfAxiom> batch = batches.get(target);
+            Set<OWLSubClassOfAxiom> pendingBatch;
+            synchronized(batch){
+                if(batch.isEmpty()){
+                    continue;
+                }
+                pendingBatch = new HashSet<>(batch);
+                batch.clear();
+            }
+            sendBatch(target, pendingBatch);
+        }
+    }
+
+    private void sendBatch(int target, Collection<OWLSubClassOfAxiom> axioms) {
+        byte[] encoded = encode(axioms);
+        byte[] payload = ByteBuffer.allocate(4 + encoded.length).putInt(target).put(encoded).array();
+        try{
+            writeFrame(out, BATCH, payload);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot send a batch to the coordinator", e);
+        }
+    }
+
+    /**
+     * Write a frame. Frames written by different threads to the same stream are not interleaved.
+     * @param out
+     * @param type
+     * @param payload
+     * @throws IOException
+     */
+    public static void writeFrame(DataOutputStream out, byte type, byte[] payload) throws IOException {
+        synchronized(out){
+            out.writeByte(type);
+            out.writeInt(payload.length);
+            out.write(payload);
+            out.flush();
+        }
+    }
+
+    /**
+     * Read the payload of a frame, whose type has already been read.
+     * @param in
+     * @return the payload
+     * @throws IOException
+     */
+    public static byte[] readPayload(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if(length < 0){
+            throw new EOFException("Invalid frame length " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return payload;
+    }
+
+    /**
+     * Encode the given axioms: the dictionary of their entities, their number and the axioms.
+     * @param axioms
+     * @return the encoded axioms
+     */
+    public static byte[] encode(Collection<OWLSubClassOfAxiom> axioms) {
+        AxiomEncoder encoder = new AxiomEncoder();
+        for(OWLSubClassOfAxiom axiom : axioms){
+            if(!encoder.axiom(axiom)){
+                throw new IllegalArgumentException("Cannot encode the axiom " + axiom);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(DataOutputStream out = new DataOutputStream(bytes)){
+            encoder.writeDictionary(out);
+            out.writeInt(axioms.size());
+            encoder.writeTo(out);
+        } catch (IOException e) {
+            // The axioms are written in memory
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode axioms written by {@link #encode(Collection)}.
+     * @param buffer
+     * @return List of axioms.
+     * @throws IOException if the axioms are truncated
+     */
+    public static List<OWLSubClassOfAxiom> decode(ByteBuffer buffer) throws IOException {
+        AxiomDecoder decoder = new AxiomDecoder(buffer);
+        int count = buffer.getInt();
+        List<OWLSubClassOfAxiom> axioms = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            axioms.add((OWLSubClassOfAxiom) decoder.axiom());
+        }
+        return axioms;
+    }
+}
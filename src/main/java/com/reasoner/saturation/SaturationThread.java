@@ -2,6 +2,7 @@ package com.reasoner.saturation;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 
@@ -11,10 +12,21 @@ import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 public class SaturationThread extends Thread {
     private final ContextAccessManager contextAccessManager;
     private final Set<InferenceRuleContext> processedContexts = new HashSet<>();
-    private OWLSubClassOfAxiom computingAxiom;
+    private final ContextWorker worker;
 
     public SaturationThread(ContextAccessManager contextAccessManager) {
+        this(contextAccessManager, null);
+    }
+
+    /**
+     * Create a thread that holds the given lock while it processes an axiom, e.g. so that a {@link SaturationCheckpoint} can capture the
+     * state of the saturation between two axioms.
+     * @param contextAccessManager
+     * @param workerLock the lock, or {@code null} if the thread never waits
+     */
+    public SaturationThread(ContextAccessManager contextAccessManager, Lock workerLock) {
         this.contextAccessManager = contextAccessManager;
+        this.worker = new ContextWorker(contextAccessManager, workerLock, processedContexts);
     }
     
     @Override
@@ -22,52 +34,20 @@ public class SaturationThread extends Thread {
         for (;;) {
             InferenceRuleContext context = contextAccessManager.getActiveContexts().poll();
 
-            if (context == null) {
+            if (context == null || contextAccessManager.isSaturationAborted()) {
                 break;
             }
 
-            for(;;){
-
-                OWLSubClassOfAxiom axiom = context.pollScheduledAxiom();
-
-                if (axiom == null) {
-                    break;
-                }
-
-                //System.out.println("Thread " + this.getId() + " processing axiom: " + axiom);
-
-                computingAxiom = axiom;
-
-                if (context.hasProcessedAxiom(axiom)) {
-                    continue;
-                }
-
-                context.addProcessedAxiom(axiom);
-                processAxiom(context);
-            }
-
-            contextAccessManager.getActiveContexts().deactivateContext(context);
-        
+            worker.processContext(context);
         }
     }
 
-    private void processAxiom(InferenceRuleContext context) {
-        Set<OWLSubClassOfAxiom> conlcusions = context.compute(computingAxiom);
-        processedContexts.add(context);
-        conlcusions.forEach((axiom) -> {
-            contextAccessManager.getContextsByAxiom(axiom).forEach((ctx) -> {
-                ctx.scheduleAxiom(axiom);
-                contextAccessManager.getActiveContexts().activateContext(ctx);
-            });
-        });
-    }
-
     /**
      * Get the axiom that is currently being processed.
      * @return {@code OWLSubClassOfAxiom} computingAxiom.
      */
     public OWLSubClassOfAxiom getComputingAxiom() {
-        return computingAxiom;
+        return worker.getComputingAxiom();
     }
 
     /**
@@ -0,0 +1,127 @@
+package com.reasoner.saturation;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * {@link SaturationExecutor} that runs every activation of a context as a task of an {@link Executor}, instead of polling the active contexts
+ * from long-lived threads. <p>
+ * A task processes its context until it is deactivated (see {@link ContextWorker}), then it submits a new task for every context that has
+ * been activated in the meantime: since every context is activated either before the saturation starts or by a task, every activation is
+ * eventually processed. The saturation is over when no task is pending: {@link #saturate(ContextAccessManager, int, Lock)} waits for it, so no
+ * task outlives the call. <p>
+ * The executor decides how many tasks run at the same time, and on which threads, e.g. a shared pool or one virtual thread per task.
+ */
+public class TaskSaturationExecutor implements SaturationExecutor {
+    private final Executor executor;
+
+    /**
+     * Create an executor whose tasks are run by the given executor.
+     * @param executor
+     */
+    public TaskSaturationExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Run the activations of the contexts as tasks, until none is pending. The number of threads is not used: the tasks run on the threads
+     * of the executor.
+     */
+    @Override
+    public Collection<InferenceRuleContext> saturate(ContextAccessManager contextAccessManager, int threadCount, Lock workerLock) {
+        Saturation saturation = new Saturation(contextAccessManager, workerLock);
+        saturation.dispatch();
+        saturation.finishTask();
+        InterruptedException interruption = null;
+        for (;;) {
+            try {
+                saturation.done.await();
+                break;
+            } catch (InterruptedException e) {
+                // The pending tasks stop as soon as they complete the axiom they are processing
+                interruption = e;
+                contextAccessManager.abortSaturation();
+            }
+        }
+        if (interruption != null) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(interruption);
+        }
+        if (saturation.failure.get() != null) {
+            throw new RuntimeException("A saturation task failed", saturation.failure.get());
+        }
+        return saturation.processedContexts;
+    }
+
+    private final class Saturation {
+        private final ContextAccessManager contextAccessManager;
+        private final Lock workerLock;
+        private final Set<InferenceRuleContext> processedContexts = ConcurrentHashMap.newKeySet();
+        // The tasks that have been submitted and are not completed yet, plus the dispatch of saturate()
+        private final AtomicInteger pendingTasks = new AtomicInteger(1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Saturation(ContextAccessManager contextAccessManager, Lock workerLock) {
+            this.contextAccessManager = contextAccessManager;
+            this.workerLock = workerLock;
+        }
+
+        /**
+         * Submit a task for every active context.
+         */
+        void dispatch() {
+            for (InferenceRuleContext context = contextAccessManager.getActiveContexts().poll(); context != null;
+                 context = contextAccessManager.getActiveContexts().poll()) {
+                if (contextAccessManager.isSaturationAborted()) {
+                    return;
+                }
+                InferenceRuleContext activeContext = context;
+                pendingTasks.incrementAndGet();
+                try {
+                    executor.execute(() -> run(activeContext));
+                } catch (RejectedExecutionException e) {
+                    fail(e);
+                    finishTask();
+                    return;
+                }
+            }
+        }
+
+        private void run(InferenceRuleContext context) {
+            try {
+                if (failure.get() == null) {
+                    new ContextWorker(contextAccessManager, workerLock, processedContexts).processContext(context);
+                    dispatch();
+                }
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                finishTask();
+            }
+        }
+
+        private void fail(Throwable e) {
+            if (failure.compareAndSet(null, e)) {
+                contextAccessManager.abortSaturation();
+            }
+        }
+
+        void finishTask() {
+            if (pendingTasks.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+    }
+}
@@ -61,6 +61,18 @@ public class Taxonomy {
      */
     private Map<OWLClassNode, OWLClassNodeSet> nodeToAllSubClasses;
 
+    /**
+     * A mapping between a concept and all of its superconcepts, as computed by the {@link TaxonomyBuilder} before the transitive reduction. It is
+     * kept to update the taxonomy when new subsumptions are derived, and it is {@code null} if the builder does not support updates.
+     */
+    private Map<OWLClassExpression, Set<OWLClassExpression>> conceptToAllSuperConcepts;
+
+    /**
+     * A mapping between a concept and its direct superconcepts, as computed by the {@link TaxonomyBuilder}. It is kept to update the taxonomy
+     * when new subsumptions are derived, and it is {@code null} if the builder does not support updates.
+     */
+    private Map<OWLClassExpression, Set<OWLClassExpression>> conceptToDirectSuperConcepts;
+
     /**
      * Exception message to throw when a taxonomy has not been computed yet.
      */
@@ -195,6 +207,39 @@ public class Taxonomy {
     }
 
 
+    /**
+     * Gets the mapping between a concept and all of its superconcepts.
+     * @return {@code conceptToAllSuperConcepts}
+     */
+    public Map<OWLClassExpression, Set<OWLClassExpression>> getConceptToAllSuperConcepts() {
+        return conceptToAllSuperConcepts;
+    }
+
+    /**
+     * Sets the mapping between a concept and all of its superconcepts.
+     * @param conceptToAllSuperConcepts
+     */
+    public void setConceptToAllSuperConcepts(Map<OWLClassExpression, Set<OWLClassExpression>> conceptToAllSuperConcepts) {
+        this.conceptToAllSuperConcepts = conceptToAllSuperConcepts;
+    }
+
+    /**
+     * Gets the mapping between a concept and its direct superconcepts.
+     * @return {@code conceptToDirectSuperConcepts}
+     */
+    public Map<OWLClassExpression, Set<OWLClassExpression>> getConceptToDirectSuperConcepts() {
+        return conceptToDirectSuperConcepts;
+    }
+
+    /**
+     * Sets the mapping between a concept and its direct superconcepts.
+     * @param conceptToDirectSuperConcepts
+     */
+    public void setConceptToDirectSuperConcepts(Map<OWLClassExpression, Set<OWLClassExpression>> conceptToDirectSuperConcepts) {
+        this.conceptToDirectSuperConcepts = conceptToDirectSuperConcepts;
+    }
+
+
     /**
      * Gets the {@code Node} corresponding to the top node (containing {@code owl:Thing}) in the class hierarchy.
      * @return A {@code Node} containing {@code owl:Thing} that is the top node in the class hierarchy. This {@code Node} is essentially equal to
@@ -275,7 +320,9 @@ public class Taxonomy {
         }
         
         for (OWLClassExpression c : classToEquivalentClasses.get(ce)) {
-            owlClassNode.add((OWLClass) c);
+            if (c instanceof OWLClass) {
+                owlClassNode.add((OWLClass) c);
+            }
         }
         return owlClassNode;
     }
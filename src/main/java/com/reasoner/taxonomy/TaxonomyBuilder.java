@@ -6,4 +6,5 @@ import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 
 public interface TaxonomyBuilder {
     public Taxonomy build(Set<OWLSubClassOfAxiom> axioms);
+    public Taxonomy update(Taxonomy taxonomy, Set<OWLSubClassOfAxiom> addedAxioms, Set<OWLSubClassOfAxiom> removedAxioms);
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.reasoner.utils;
+
+import static com.reasoner.utils.AxiomEncoder.ENTITY_TYPES;
+import static com.reasoner.utils.AxiomEncoder.SUBCLASS_OF;
+import static com.reasoner.utils.AxiomEncoder.EQUIVALENT_CLASSES;
+import static com.reasoner.utils.AxiomEncoder.DISJOINT_CLASSES;
+import static com.reasoner.utils.AxiomEncoder.SUB_OBJECT_PROPERTY;
+import static com.reasoner.utils.AxiomEncoder.EQUIVALENT_OBJECT_PROPERTIES;
+import static com.reasoner.utils.AxiomEncoder.TRANSITIVE_OBJECT_PROPERTY;
+import static com.reasoner.utils.AxiomEncoder.SUB_PROPERTY_CHAIN_OF;
+import static com.reasoner.utils.AxiomEncoder.OBJECT_PROPERTY_RANGE;
+import static com.reasoner.utils.AxiomEncoder.OWL_CLASS;
+import static com.reasoner.utils.AxiomEncoder.OBJECT_SOME_VALUES_FROM;
+import static com.reasoner.utils.AxiomEncoder.OBJECT_INTERSECTION_OF;
+import static com.reasoner.utils.AxiomEncoder.OBJECT_ONE_OF;
+import static com.reasoner.utils.AxiomEncoder.DATA_SOME_VALUES_FROM;
+import static com.reasoner.utils.AxiomEncoder.DATA_HAS_VALUE;
+import static com.reasoner.utils.AxiomEncoder.OBJECT_INVERSE_OF;
+import static com.reasoner.utils.AxiomEncoder.DATATYPE;
+import static com.reasoner.utils.AxiomEncoder.DATA_ONE_OF;
+import static com.reasoner.utils.AxiomEncoder.DATATYPE_RESTRICTION;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLDataRange;
+import org.semanticweb.owlapi.model.OWLDatatype;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLFacetRestriction;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.vocab.OWLFacet;
+
+/**
+ * Binary decoder of the axioms and class expressions written by an {@link AxiomEncoder}. The dictionary of the entities is read first,
+ * then the axioms and class expressions are read in the order in which they were written.
+ */
+public final class AxiomDecoder {
+    private final ByteBuffer buffer;
+    private final OWLDataFactory factory = OWLManager.getOWLDataFactory();
+    private final OWLEntity[] entities;
+
+    /**
+     * Read the dictionary of the entities at the position of the given buffer, which is then positioned at the encoded axioms.
+     * @param buffer
+     */
+    public AxiomDecoder(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.entities = new OWLEntity[buffer.getInt()];
+        for(int i = 0; i < entities.length; i++){
+            EntityType<?> type = ENTITY_TYPES.get(buffer.get());
+            entities[i] = factory.getOWLEntity(type, IRI.create(readString(buffer)));
+        }
+    }
+
+    /**
+     * Read an axiom.
+     * @return OWLAxiom
+     * @throws IOException if the axiom is not valid
+     */
+    public OWLAxiom axiom() throws IOException {
+        byte tag = buffer.get();
+        switch(tag){
+            case SUBCLASS_OF:
+                return factory.getOWLSubClassOfAxiom(classExpression(), classExpression());
+            case EQUIVALENT_CLASSES:
+                return factory.getOWLEquivalentClassesAxiom(classExpressions());
+            case DISJOINT_CLASSES:
+                return factory.getOWLDisjointClassesAxiom(classExpressions());
+            case SUB_OBJECT_PROPERTY:
+                return factory.getOWLSubObjectPropertyOfAxiom(property(), property());
+            case EQUIVALENT_OBJECT_PROPERTIES:
+                return factory.getOWLEquivalentObjectPropertiesAxiom(properties());
+            case TRANSITIVE_OBJECT_PROPERTY:
+                return factory.getOWLTransitiveObjectPropertyAxiom(property());
+            case SUB_PROPERTY_CHAIN_OF:
+                return factory.getOWLSubPropertyChainOfAxiom(properties(), property());
+            case OBJECT_PROPERTY_RANGE:
+                return factory.getOWLObjectPropertyRangeAxiom(property(), classExpression());
+            default:
+                throw new IOException("Unknown axiom: " + tag);
+        }
+    }
+
+    private List<OWLClassExpression> classExpressions() throws IOException {
+        int size = buffer.getInt();
+        List<OWLClassExpression> classExpressions = new ArrayList<>(size);
+        for(int i = 0; i < size; i++){
+            classExpressions.add(classExpression());
+        }
+        return classExpressions;
+    }
+
+    /**
+     * Read a class expression.
+     * @return OWLClassExpression
+     * @throws IOException if the class expression is not valid
+     */
+    public OWLClassExpression classExpression() throws IOException {
+        byte tag = buffer.get();
+        switch(tag){
+            case OWL_CLASS:
+                return entity(OWLClass.class);
+            case OBJECT_SOME_VALUES_FROM:
+                return factory.getOWLObjectSomeValuesFrom(property(), classExpression());
+            case OBJECT_INTERSECTION_OF:
+                return factory.getOWLObjectIntersectionOf(classExpressions());
+            case OBJECT_ONE_OF:
+                int size = buffer.getInt();
+                List<OWLIndividual> individuals = new ArrayList<>(size);
+                for(int i = 0; i < size; i++){
+                    individuals.add(entity(OWLNamedIndividual.class));
+                }
+                return factory.getOWLObjectOneOf(individuals);
+            case DATA_SOME_VALUES_FROM:
+                return factory.getOWLDataSomeValuesFrom(entity(OWLDataProperty.class), dataRange());
+            case DATA_HAS_VALUE:
+                return factory.getOWLDataHasValue(entity(OWLDataProperty.class), literal());
+            default:
+                throw new IOException("Unknown class expression: " + tag);
+        }
+    }
+
+    private List<OWLObjectPropertyExpression> properties() throws IOException {
+        int size = buffer.getInt();
+        List<OWLObjectPropertyExpression> properties = new ArrayList<>(size);
+        for(int i = 0; i < size; i++){
+            properties.add(property());
+        }
+        return properties;
+    }
+
+    private OWLObjectPropertyExpression property() throws IOException {
+        byte tag = buffer.get();
+        OWLObjectProperty property = entity(OWLObjectProperty.class);
+        return tag == OBJECT_INVERSE_OF ? factory.getOWLObjectInverseOf(property) : property;
+    }
+
+    private OWLDataRange dataRange() throws IOException {
+        byte tag = buffer.get();
+        switch(tag){
+            case DATATYPE:
+                return entity(OWLDatatype.class);
+            case DATA_ONE_OF:
+                int size = buffer.getInt();
+                List<OWLLiteral> literals = new ArrayList<>(size);
+                for(int i = 0; i < size; i++){
+                    literals.add(literal());
+                }
+                return factory.getOWLDataOneOf(literals);
+            case DATATYPE_RESTRICTION:
+                OWLDatatype datatype = entity(OWLDatatype.class);
+                int facets = buffer.getInt();
+                List<OWLFacetRestriction> facetRestrictions = new ArrayList<>(facets);
+                for(int i = 0; i < facets; i++){
+                    OWLFacet facet = OWLFacet.getFacet(IRI.create(readString(buffer)));
+                    facetRestrictions.add(factory.getOWLFacetRestriction(facet, literal()));
+                }
+                return factory.getOWLDatatypeRestriction(datatype, facetRestrictions);
+            default:
+                throw new IOException("Unknown data range: " + tag);
+        }
+    }
+
+    private OWLLiteral literal() throws IOException {
+        String literal = readString(buffer);
+        String lang = readString(buffer);
+        OWLDatatype datatype = entity(OWLDatatype.class);
+        return lang.isEmpty() ? factory.getOWLLiteral(literal, datatype) : factory.getOWLLiteral(literal, lang);
+    }
+
+    private <E extends OWLEntity> E entity(Class<E> type) throws IOException {
+        OWLEntity entity = entities[buffer.getInt()];
+        if(!type.isInstance(entity)){
+            throw new IOException("Unexpected entity: " + entity);
+        }
+        return type.cast(entity);
+    }
+
+    /**
+     * Read a string written by {@link AxiomEncoder#writeString(java.io.DataOutputStream, String)}.
+     * @param buffer
+     * @return String
+     */
+    public static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
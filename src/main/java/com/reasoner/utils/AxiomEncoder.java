@@ -0,0 +1,296 @@
+package com.reasoner.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataHasValue;
+import org.semanticweb.owlapi.model.OWLDataOneOf;
+import org.semanticweb.owlapi.model.OWLDataPropertyExpression;
+import org.semanticweb.owlapi.model.OWLDataRange;
+import org.semanticweb.owlapi.model.OWLDataSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLDatatypeRestriction;
+import org.semanticweb.owlapi.model.OWLDisjointClassesAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLEquivalentObjectPropertiesAxiom;
+import org.semanticweb.owlapi.model.OWLFacetRestriction;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectOneOf;
+import org.semanticweb.owlapi.model.OWLObjectPropertyExpression;
+import org.semanticweb.owlapi.model.OWLObjectPropertyRangeAxiom;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.semanticweb.owlapi.model.OWLTransitiveObjectPropertyAxiom;
+
+/**
+ * Binary encoder of the axioms and class expressions of the normal form, which are read back by an {@link AxiomDecoder}. <p>
+ * The entities are written by their position in a dictionary, where every entity is added the first time it is written: the dictionary
+ * (see {@link #writeDictionary(DataOutputStream)}) has to be written before the encoded axioms (see {@link #writeTo(OutputStream)}).
+ * Only the class and role axioms of the normal form are supported (see {@link #axiom(OWLAxiom)}), and the annotations are not kept.
+ */
+public final class AxiomEncoder {
+
+    static final List<EntityType<?>> ENTITY_TYPES = Arrays.asList(
+        EntityType.CLASS, EntityType.OBJECT_PROPERTY, EntityType.DATA_PROPERTY, EntityType.NAMED_INDIVIDUAL, EntityType.DATATYPE
+    );
+
+    // Axioms
+    static final byte SUBCLASS_OF = 0;
+    static final byte EQUIVALENT_CLASSES = 1;
+    static final byte DISJOINT_CLASSES = 2;
+    static final byte SUB_OBJECT_PROPERTY = 3;
+    static final byte EQUIVALENT_OBJECT_PROPERTIES = 4;
+    static final byte TRANSITIVE_OBJECT_PROPERTY = 5;
+    static final byte SUB_PROPERTY_CHAIN_OF = 6;
+    static final byte OBJECT_PROPERTY_RANGE = 7;
+
+    // Class expressions
+    static final byte OWL_CLASS = 0;
+    static final byte OBJECT_SOME_VALUES_FROM = 1;
+    static final byte OBJECT_INTERSECTION_OF = 2;
+    static final byte OBJECT_ONE_OF = 3;
+    static final byte DATA_SOME_VALUES_FROM = 4;
+    static final byte DATA_HAS_VALUE = 5;
+
+    // Object property expressions
+    static final byte OBJECT_PROPERTY = 0;
+    static final byte OBJECT_INVERSE_OF = 1;
+
+    // Data ranges
+    static final byte DATATYPE = 0;
+    static final byte DATA_ONE_OF = 1;
+    static final byte DATATYPE_RESTRICTION = 2;
+
+    private final Map<OWLEntity, Integer> entities = new LinkedHashMap<>();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(body);
+
+    /**
+     * Write an axiom: {@code SubClassOf}, {@code EquivalentClasses}, {@code DisjointClasses}, {@code SubObjectPropertyOf},
+     * {@code EquivalentObjectProperties}, {@code TransitiveObjectProperty}, {@code SubPropertyChainOf} or {@code ObjectPropertyRange}.
+     * @param axiom
+     * @return {@code false} if the axiom is not supported, in which case the encoded axioms cannot be used
+     */
+    public boolean axiom(OWLAxiom axiom) {
+        try{
+            if(axiom.isOfType(AxiomType.SUBCLASS_OF)){
+                out.writeByte(SUBCLASS_OF);
+                return writeClassExpression(((OWLSubClassOfAxiom) axiom).getSubClass()) && writeClassExpression(((OWLSubClassOfAxiom) axiom).getSuperClass());
+            } else if(axiom.isOfType(AxiomType.EQUIVALENT_CLASSES)){
+                out.writeByte(EQUIVALENT_CLASSES);
+                return classExpressions(((OWLEquivalentClassesAxiom) axiom).getOperandsAsList());
+            } else if(axiom.isOfType(AxiomType.DISJOINT_CLASSES)){
+                out.writeByte(DISJOINT_CLASSES);
+                return classExpressions(((OWLDisjointClassesAxiom) axiom).getOperandsAsList());
+            } else if(axiom.isOfType(AxiomType.SUB_OBJECT_PROPERTY)){
+                out.writeByte(SUB_OBJECT_PROPERTY);
+                return property(((OWLSubObjectPropertyOfAxiom) axiom).getSubProperty()) && property(((OWLSubObjectPropertyOfAxiom) axiom).getSuperProperty());
+            } else if(axiom.isOfType(AxiomType.EQUIVALENT_OBJECT_PROPERTIES)){
+                out.writeByte(EQUIVALENT_OBJECT_PROPERTIES);
+                return properties(((OWLEquivalentObjectPropertiesAxiom) axiom).getOperandsAsList());
+            } else if(axiom.isOfType(AxiomType.TRANSITIVE_OBJECT_PROPERTY)){
+                out.writeByte(TRANSITIVE_OBJECT_PROPERTY);
+                return property(((OWLTransitiveObjectPropertyAxiom) axiom).getProperty());
+            } else if(axiom.isOfType(AxiomType.SUB_PROPERTY_CHAIN_OF)){
+                out.writeByte(SUB_PROPERTY_CHAIN_OF);
+                return properties(((OWLSubPropertyChainOfAxiom) axiom).getPropertyChain()) && property(((OWLSubPropertyChainOfAxiom) axiom).getSuperProperty());
+            } else if(axiom.isOfType(AxiomType.OBJECT_PROPERTY_RANGE)){
+                out.writeByte(OBJECT_PROPERTY_RANGE);
+                return property(((OWLObjectPropertyRangeAxiom) axiom).getProperty()) && writeClassExpression(((OWLObjectPropertyRangeAxiom) axiom).getRange());
+            }
+            return false;
+        } catch (IOException e) {
+            // The body is written in memory
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean classExpressions(Collection<? extends OWLClassExpression> classExpressions) throws IOException {
+        out.writeInt(classExpressions.size());
+        for(OWLClassExpression classExpression : classExpressions){
+            if(!writeClassExpression(classExpression)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write a class expression: a named class (⊤ and ⊥ included), a nominal, an existential restriction, an intersection or a data
+     * restriction.
+     * @param classExpression
+     * @return {@code false} if the class expression is not supported, in which case the encoded axioms cannot be used
+     */
+    public boolean classExpression(OWLClassExpression classExpression) {
+        try{
+            return writeClassExpression(classExpression);
+        } catch (IOException e) {
+            // The body is written in memory
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Write the dictionary of the entities written so far.
+     * @param out
+     * @throws IOException
+     */
+    public void writeDictionary(DataOutputStream out) throws IOException {
+        out.writeInt(entities.size());
+        for(OWLEntity entity : entities.keySet()){
+            out.writeByte(ENTITY_TYPES.indexOf(entity.getEntityType()));
+            writeString(out, entity.getIRI().toString());
+        }
+    }
+
+    /**
+     * Write the axioms and class expressions encoded so far.
+     * @param out
+     * @throws IOException
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        body.writeTo(out);
+    }
+
+    /**
+     * Write a string, as its length followed by its UTF-8 bytes.
+     * @param out
+     * @param string
+     * @throws IOException
+     */
+    public static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private boolean writeClassExpression(OWLClassExpression classExpression) throws IOException {
+        switch(classExpression.getClassExpressionType()){
+            case OWL_CLASS:
+                out.writeByte(OWL_CLASS);
+                entity((OWLClass) classExpression);
+                return true;
+            case OBJECT_SOME_VALUES_FROM:
+                out.writeByte(OBJECT_SOME_VALUES_FROM);
+                return property(((OWLObjectSomeValuesFrom) classExpression).getProperty())
+                    && writeClassExpression(((OWLObjectSomeValuesFrom) classExpression).getFiller());
+            case OBJECT_INTERSECTION_OF:
+                out.writeByte(OBJECT_INTERSECTION_OF);
+                return classExpressions(((OWLObjectIntersectionOf) classExpression).getOperandsAsList());
+            case OBJECT_ONE_OF:
+                out.writeByte(OBJECT_ONE_OF);
+                List<OWLIndividual> individuals = ((OWLObjectOneOf) classExpression).getOperandsAsList();
+                out.writeInt(individuals.size());
+                for(OWLIndividual individual : individuals){
+                    if(!individual.isNamed()){
+                        return false;
+                    }
+                    entity(individual.asOWLNamedIndividual());
+                }
+                return true;
+            case DATA_SOME_VALUES_FROM:
+                out.writeByte(DATA_SOME_VALUES_FROM);
+                return dataProperty(((OWLDataSomeValuesFrom) classExpression).getProperty())
+                    && dataRange(((OWLDataSomeValuesFrom) classExpression).getFiller());
+            case DATA_HAS_VALUE:
+                out.writeByte(DATA_HAS_VALUE);
+                if(!dataProperty(((OWLDataHasValue) classExpression).getProperty())){
+                    return false;
+                }
+                literal(((OWLDataHasValue) classExpression).getFiller());
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean properties(Collection<? extends OWLObjectPropertyExpression> properties) throws IOException {
+        out.writeInt(properties.size());
+        for(OWLObjectPropertyExpression property : properties){
+            if(!property(property)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean property(OWLObjectPropertyExpression property) throws IOException {
+        OWLObjectPropertyExpression named = property.getNamedProperty();
+        if(!named.isNamed()){
+            return false;
+        }
+        out.writeByte(property.isNamed() ? OBJECT_PROPERTY : OBJECT_INVERSE_OF);
+        entity(named.asOWLObjectProperty());
+        return true;
+    }
+
+    private boolean dataProperty(OWLDataPropertyExpression property) throws IOException {
+        if(!property.isNamed()){
+            return false;
+        }
+        entity(property.asOWLDataProperty());
+        return true;
+    }
+
+    private boolean dataRange(OWLDataRange dataRange) throws IOException {
+        switch(dataRange.getDataRangeType()){
+            case DATATYPE:
+                out.writeByte(DATATYPE);
+                entity(dataRange.asOWLDatatype());
+                return true;
+            case DATA_ONE_OF:
+                out.writeByte(DATA_ONE_OF);
+                List<OWLLiteral> literals = ((OWLDataOneOf) dataRange).getOperandsAsList();
+                out.writeInt(literals.size());
+                for(OWLLiteral literal : literals){
+                    literal(literal);
+                }
+                return true;
+            case DATATYPE_RESTRICTION:
+                out.writeByte(DATATYPE_RESTRICTION);
+                OWLDatatypeRestriction restriction = (OWLDatatypeRestriction) dataRange;
+                entity(restriction.getDatatype());
+                List<OWLFacetRestriction> facetRestrictions = restriction.facetRestrictionsAsList();
+                out.writeInt(facetRestrictions.size());
+                for(OWLFacetRestriction facetRestriction : facetRestrictions){
+                    writeString(out, facetRestriction.getFacet().getIRI().toString());
+                    literal(facetRestriction.getFacetValue());
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void literal(OWLLiteral literal) throws IOException {
+        writeString(out, literal.getLiteral());
+        writeString(out, literal.getLang());
+        entity(literal.getDatatype());
+    }
+
+    private void entity(OWLEntity entity) throws IOException {
+        Integer id = entities.get(entity);
+        if(id == null){
+            id = entities.size();
+            entities.put(entity, id);
+        }
+        out.writeInt(id);
+    }
+}
@@ -8,6 +8,7 @@ import org.semanticweb.owlapi.model.OWLEntity;
 import org.semanticweb.owlapi.model.OWLIndividual;
 import org.semanticweb.owlapi.model.OWLObject;
 import org.semanticweb.owlapi.model.OWLObjectOneOf;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
 
 import com.reasoner.reasoning.rules.OWLEntityType;
 
@@ -46,6 +47,36 @@ public final class OntologyUtilities {
         }
     }
 
+    /**
+     * Get the entity denoted by a basic class expression. <p>
+     * This is the inverse of {@link #getEntityClassExpression(OWLEntity)}: a class denotes itself, while a nominal {a} denotes the individual a.
+     * @param classExpression
+     * @return the entity, or {@code null} if the class expression does not denote a single named entity
+     */
+    public static OWLEntity getClassExpressionEntity(OWLClassExpression classExpression){
+        if(classExpression instanceof OWLClass){
+            return (OWLClass) classExpression;
+        } else if(classExpression instanceof OWLObjectOneOf){
+            OWLObjectOneOf oneOf = (OWLObjectOneOf) classExpression;
+            OWLIndividual individual = oneOf.individuals().findFirst().orElse(null);
+            if(oneOf.individuals().count() == 1 && individual instanceof OWLEntity){
+                return (OWLEntity) individual;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if the given axiom witnesses the inconsistency of the ontology. <p>
+     * This is the case for ⊤ ⊑ ⊥ and {a} ⊑ ⊥: no model can interpret the top concept or a nominal as the empty set.
+     * @param axiom
+     * @return {@code true} if the axiom is an inconsistency witness; {@code false} otherwise
+     */
+    public static boolean isInconsistencyWitness(OWLSubClassOfAxiom axiom){
+        OWLClassExpression subclass = axiom.getSubClass();
+        return axiom.getSuperClass().isOWLNothing() && (subclass.isOWLThing() || subclass instanceof OWLObjectOneOf);
+    }
+
     /**
      * Get the entity type by class.
      * @param entityType
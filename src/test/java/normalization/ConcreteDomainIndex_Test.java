@@ -0,0 +1,120 @@
+package normalization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLFacetRestriction;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.vocab.OWL2Datatype;
+import org.semanticweb.owlapi.vocab.OWLFacet;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.elppreasoner.saturation.DatalogSaturationEngine;
+
+public class ConcreteDomainIndex_Test {
+
+    @Nested
+    class ConcreteDomain_Test {
+
+        OWLDataProperty property(String name) {
+            return factory.getOWLDataProperty(IRI.create(IRI_PREFIX + name));
+        }
+
+        /**
+         * Builds ∃p.R, where R is the given datatype restricted by the given pairs of facet and value.
+         */
+        OWLClassExpression some(String property, OWL2Datatype datatype, Object... facets) {
+            List<OWLFacetRestriction> facetRestrictions = new ArrayList<>();
+            for (int i = 0; i < facets.length; i += 2) {
+                facetRestrictions.add(factory.getOWLFacetRestriction((OWLFacet) facets[i], factory.getOWLLiteral(facets[i + 1].toString(), datatype)));
+            }
+            return factory.getOWLDataSomeValuesFrom(property(property), factory.getOWLDatatypeRestriction(datatype.getDatatype(factory), facetRestrictions));
+        }
+
+        @Test
+        @DisplayName("CONCRETE DOMAIN TEST 1 - subsumptions by interval containment (context-based and Datalog saturation)")
+        void intervalContainment() {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("Adult"), some("age", OWL2Datatype.XSD_INTEGER, OWLFacet.MIN_INCLUSIVE, 18)));
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("Senior"), some("age", OWL2Datatype.XSD_INTEGER, OWLFacet.MIN_INCLUSIVE, 65)));
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("Teenager"),
+                some("age", OWL2Datatype.XSD_INTEGER, OWLFacet.MIN_INCLUSIVE, 13, OWLFacet.MAX_INCLUSIVE, 19)));
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("Aged"), factory.getOWLDataSomeValuesFrom(property("age"), factory.getTopDatatype())));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("X"), factory.getOWLDataHasValue(property("age"), factory.getOWLLiteral(70))));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("Y"), factory.getOWLObjectIntersectionOf(owlClass("Z"),
+                some("age", OWL2Datatype.XSD_INTEGER, OWLFacet.MIN_INCLUSIVE, 20, OWLFacet.MAX_INCLUSIVE, 30))));
+            OWLOntology normalizedOntology = new ELPPOntologyNormalizer().normalize(ontology);
+
+            ELPPReasoner reasoner = new ELPPReasoner(normalizedOntology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ELPPReasoner datalogReasoner = new ELPPReasoner(normalizedOntology, false, false);
+            datalogReasoner.setSaturationEngine(new DatalogSaturationEngine());
+            datalogReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+            for (ELPPReasoner r : new ELPPReasoner[] { reasoner, datalogReasoner }) {
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("Senior"), owlClass("Adult"))));
+                assertEquals(false, r.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("Teenager"), owlClass("Adult"))));
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("Teenager"), owlClass("Aged"))));
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("X"), owlClass("Senior"))));
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("Y"), owlClass("Adult"))));
+                assertEquals(false, r.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("Y"), owlClass("Senior"))));
+            }
+        }
+
+        @Test
+        @DisplayName("CONCRETE DOMAIN TEST 2 - exclusive bounds, integer and double value spaces, empty intervals")
+        void boundsAndValueSpaces() {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("Four"),
+                some("p", OWL2Datatype.XSD_INTEGER, OWLFacet.MIN_EXCLUSIVE, 3, OWLFacet.MAX_EXCLUSIVE, 5)));
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("AlsoFour"), factory.getOWLDataHasValue(property("p"), factory.getOWLLiteral(4))));
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("AroundFour"),
+                some("p", OWL2Datatype.XSD_DECIMAL, OWLFacet.MIN_INCLUSIVE, "3.5", OWLFacet.MAX_EXCLUSIVE, "4.5")));
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("AroundFourDouble"),
+                some("p", OWL2Datatype.XSD_DOUBLE, OWLFacet.MIN_INCLUSIVE, "3.5", OWLFacet.MAX_EXCLUSIVE, "4.5")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"),
+                some("p", OWL2Datatype.XSD_INTEGER, OWLFacet.MIN_EXCLUSIVE, 3, OWLFacet.MAX_EXCLUSIVE, 4)));
+
+            ELPPReasoner reasoner = new ELPPReasoner(new ELPPOntologyNormalizer().normalize(ontology), false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.isEntailed(factory.getOWLEquivalentClassesAxiom(owlClass("Four"), owlClass("AlsoFour"))));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("Four"), owlClass("AroundFour"))));
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("AroundFour"), owlClass("Four"))));
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("AroundFourDouble"), owlClass("AroundFour"))));
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("AroundFour"), owlClass("AroundFourDouble"))));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), factory.getOWLNothing())));
+        }
+
+        @Test
+        @DisplayName("CONCRETE DOMAIN TEST 3 - data restrictions added to the ontology")
+        void addedDataRestrictions() {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("Senior"), some("age", OWL2Datatype.XSD_INTEGER, OWLFacet.MIN_INCLUSIVE, 65)));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            OWLOntology normalizedOntology = new ELPPOntologyNormalizer().normalize(ontology);
+
+            ELPPReasoner reasoner = new ELPPReasoner(normalizedOntology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("Senior"))));
+
+            normalizedOntology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), some("age", OWL2Datatype.XSD_INTEGER, OWLFacet.MIN_INCLUSIVE, 70)));
+            reasoner.flush();
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("Senior"))));
+        }
+    }
+}
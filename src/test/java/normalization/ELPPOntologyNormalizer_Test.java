@@ -3,17 +3,27 @@ package normalization;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
 import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
 import org.semanticweb.owlapi.model.OWLOntology;
 import org.semanticweb.owlapi.model.OWLOntologyStorageException;
 import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.reasoner.InferenceType;
 
 import com.elppreasoner.normalization.ELPPOntologyNormalizer;
 import com.elppreasoner.normalization.NormalizationUtilities;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.elppreasoner.saturation.DatalogSaturationEngine;
 
 import utils.TestingUtilities;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.owlClass;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -151,4 +161,113 @@ public class ELPPOntologyNormalizer_Test {
             });
         }
     }
+
+    @Nested
+    class DomainRange_Test {
+
+        OWLObjectProperty role(String name) {
+            return factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + name));
+        }
+
+        @Test
+        @DisplayName("DOMAIN AND RANGE TEST 1 - domains and ranges of super-roles (context-based and Datalog saturation)")
+        void domainsAndRanges() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass c = owlClass("C");
+            ontology.add(factory.getOWLSubObjectPropertyOfAxiom(role("r"), role("s")));
+            ontology.add(factory.getOWLObjectPropertyDomainAxiom(role("s"), owlClass("D")));
+            ontology.add(factory.getOWLObjectPropertyRangeAxiom(role("s"), c));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(role("r"), b)));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("r"), factory.getOWLObjectIntersectionOf(b, c)), owlClass("E")));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("s"), c), owlClass("F")));
+            OWLOntology normalizedOntology = new ELPPOntologyNormalizer().normalize(ontology);
+
+            ELPPReasoner reasoner = new ELPPReasoner(normalizedOntology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ELPPReasoner datalogReasoner = new ELPPReasoner(normalizedOntology, false, false);
+            datalogReasoner.setSaturationEngine(new DatalogSaturationEngine());
+            datalogReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+            for (ELPPReasoner r : new ELPPReasoner[] { reasoner, datalogReasoner }) {
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(a, owlClass("D"))));
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(a, owlClass("E"))));
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(a, owlClass("F"))));
+                // The range only applies to the fillers of the role
+                assertEquals(false, r.isEntailed(factory.getOWLSubClassOfAxiom(b, c)));
+            }
+        }
+
+        @Test
+        @DisplayName("DOMAIN AND RANGE TEST 2 - complex ranges and domains")
+        void complexDomainsAndRanges() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            ontology.add(factory.getOWLObjectPropertyDomainAxiom(role("r"), factory.getOWLObjectIntersectionOf(owlClass("D1"), owlClass("D2"))));
+            ontology.add(factory.getOWLObjectPropertyRangeAxiom(role("r"), factory.getOWLObjectSomeValuesFrom(role("s"), owlClass("C"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("B"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(
+                factory.getOWLObjectSomeValuesFrom(role("r"), factory.getOWLObjectSomeValuesFrom(role("s"), owlClass("C"))), owlClass("E")));
+
+            ELPPReasoner reasoner = new ELPPReasoner(new ELPPOntologyNormalizer().normalize(ontology), false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, owlClass("D1"))));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, owlClass("D2"))));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, owlClass("E"))));
+        }
+
+        @Test
+        @DisplayName("DOMAIN AND RANGE TEST 3 - domains and existentials added to the ontology")
+        void addedDomainsAndExistentials() {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLObjectPropertyRangeAxiom(role("r"), owlClass("C")));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("C")), owlClass("E")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            OWLOntology normalizedOntology = new ELPPOntologyNormalizer().normalize(ontology);
+
+            ELPPReasoner reasoner = new ELPPReasoner(normalizedOntology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("E"))));
+
+            normalizedOntology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("F"))));
+            normalizedOntology.add(factory.getOWLObjectPropertyDomainAxiom(role("r"), owlClass("D")));
+            reasoner.flush();
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("E"))));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("D"))));
+        }
+
+        @Test
+        @DisplayName("DOMAIN AND RANGE TEST 4 - added existentials follow the changes of the role and range axioms")
+        void addedRolesAndRanges() {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLObjectPropertyRangeAxiom(role("s"), owlClass("C")));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("s"), owlClass("C")), owlClass("E")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            OWLOntology normalizedOntology = new ELPPOntologyNormalizer().normalize(ontology);
+
+            ELPPReasoner reasoner = new ELPPReasoner(normalizedOntology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            normalizedOntology.add(factory.getOWLSubClassOfAxiom(owlClass("A1"), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("F"))));
+            reasoner.flush();
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A1"), owlClass("E"))));
+
+            // The ranges of s apply to r once it is a sub-role of s
+            normalizedOntology.add(factory.getOWLSubObjectPropertyOfAxiom(role("r"), role("s")));
+            reasoner.flush();
+            normalizedOntology.add(factory.getOWLSubClassOfAxiom(owlClass("A2"), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("F"))));
+            reasoner.flush();
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A2"), owlClass("E"))));
+
+            normalizedOntology.add(factory.getOWLObjectPropertyRangeAxiom(role("r"), owlClass("G")));
+            normalizedOntology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("G")), owlClass("H")));
+            reasoner.flush();
+            normalizedOntology.add(factory.getOWLSubClassOfAxiom(owlClass("A3"), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("F"))));
+            reasoner.flush();
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A3"), owlClass("E"))));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A3"), owlClass("H"))));
+        }
+    }
 }
@@ -3,6 +3,10 @@ package performance;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -16,6 +20,8 @@ import org.semanticweb.owlapi.reasoner.InferenceType;
 
 import com.elppreasoner.normalization.ELPPOntologyNormalizer;
 import com.elppreasoner.reasoning.ELPPReasoner;
+import com.reasoner.saturation.SaturationExecutor;
+import com.reasoner.saturation.TaskSaturationExecutor;
 
 import utils.TestingUtilities;
 
@@ -81,6 +87,34 @@ public class Performance_Test {
         }
         writer.append("  [Concurrent ELPP] Time: " + (time / ITERATIONS) + "s\n");
 
+        // Concurrent ELPPReasoner performance, with a task for every activation of a context on a pool of platform threads
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        time = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            t0 = System.nanoTime();
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, true, true);
+            reasoner.getOntologySaturator().setSaturationExecutor(new TaskSaturationExecutor(pool));
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            time += ((System.nanoTime() - t0) / 1_000_000_000);
+            System.out.println("TaskELPPReasoner#"+i+" total elapsed time: " + time);
+        }
+        pool.shutdown();
+        writer.append("        [Task ELPP] Time: " + (time / ITERATIONS) + "s\n");
+
+        // Concurrent ELPPReasoner performance, with a virtual thread for every activation of a context (Java 21)
+        if (SaturationExecutor.virtualThreads() != null) {
+            time = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                t0 = System.nanoTime();
+                ELPPReasoner reasoner = new ELPPReasoner(ontology, true, true);
+                reasoner.getOntologySaturator().setSaturationExecutor(SaturationExecutor.virtualThreads());
+                reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+                time += ((System.nanoTime() - t0) / 1_000_000_000);
+                System.out.println("VirtualELPPReasoner#"+i+" total elapsed time: " + time);
+            }
+            writer.append("     [Virtual ELPP] Time: " + (time / ITERATIONS) + "s\n");
+        }
+
         // ELK performance
         time = 0;
         for (int i = 0; i < ITERATIONS; i++) {
@@ -102,6 +136,61 @@ public class Performance_Test {
         writer.append("           [HermiT] Time: " + (time / ITERATIONS) + "s\n");
     }
 
+    /**
+     * Classifies the ontology once for every tenant, all at the same time, with the given executor (or with the threads of every saturator).
+     * @return the elapsed time, in seconds
+     */
+    double tenantsTest(OWLOntology ontology, int tenants, SaturationExecutor saturationExecutor) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < tenants; i++) {
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, true, false);
+            reasoner.getOntologySaturator().setSaturationExecutor(saturationExecutor);
+            threads.add(new Thread(() -> reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY)));
+        }
+        double t0 = System.nanoTime();
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return (System.nanoTime() - t0) / 1_000_000_000;
+    }
+
+    @Nested
+    class Tenants_PerformanceTest {
+        private static final String ONTOLOGY_PATH = "src/test/resources/ontologies/scto-modified.owl";
+        private static final int TENANTS = 32;
+
+        @Test
+        @DisplayName("TENANTS PERFORMANCE TEST - concurrent classifications with platform threads vs shared pool vs virtual threads")
+        void Tenants_Performance() throws IOException, InterruptedException {
+            OWLOntology ontology = new ELPPOntologyNormalizer().normalize(TestingUtilities.loadOntology(ONTOLOGY_PATH));
+            writer.append("Snomed CT x " + TENANTS + "\n");
+
+            double time = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                time += tenantsTest(ontology, TENANTS, null);
+            }
+            writer.append("  [Concurrent ELPP] Time: " + (time / ITERATIONS) + "s\n");
+
+            ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            time = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                time += tenantsTest(ontology, TENANTS, new TaskSaturationExecutor(pool));
+            }
+            pool.shutdown();
+            writer.append("        [Task ELPP] Time: " + (time / ITERATIONS) + "s\n");
+
+            if (SaturationExecutor.virtualThreads() != null) {
+                time = 0;
+                for (int i = 0; i < ITERATIONS; i++) {
+                    time += tenantsTest(ontology, TENANTS, SaturationExecutor.virtualThreads());
+                }
+                writer.append("     [Virtual ELPP] Time: " + (time / ITERATIONS) + "s\n");
+            }
+            writer.append("\n");
+        }
+    }
+
     @Nested
     class ItalianFood_PerformanceTest {
         private static final String ONTOLOGY_PATH = "src/test/resources/ontologies/italian-food.owl";
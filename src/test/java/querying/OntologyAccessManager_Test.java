@@ -0,0 +1,163 @@
+package querying;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.rules.IntersectionSuperclassesInferenceRule;
+import com.elppreasoner.reasoning.rules.SubclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.SuperclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.ToldSuperclassesInferenceRule;
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.reasoning.rules.InferenceRule;
+
+import utils.TestingUtilities;
+
+public class OntologyAccessManager_Test {
+
+    @Nested
+    class RuleIndexing_Test {
+
+        /**
+         * Creates an access manager for CR1-CR4, whose indexes are built either by the single pass of {@code precomputeAxioms} or by
+         * one scan of the ontology for each rule.
+         */
+        OntologyAccessManager indexedManager(OWLOntology ontology, boolean singlePass) {
+            OntologyAccessManager manager = new OntologyAccessManager(ontology);
+            manager.registerRule(new ToldSuperclassesInferenceRule());
+            manager.registerRule(new IntersectionSuperclassesInferenceRule());
+            manager.registerRule(new SubclassRoleExpansionInferenceRule());
+            manager.registerRule(new SuperclassRoleExpansionInferenceRule());
+            if (singlePass) {
+                manager.precomputeAxioms();
+            } else {
+                for (InferenceRule rule : manager.getRules()) {
+                    rule.initialize(manager);
+                    manager.getAxiomsByRule(rule.getClass());
+                }
+            }
+            return manager;
+        }
+
+        /**
+         * Gets the existentials indexed by CR3, whose entries are only equal to themselves.
+         */
+        Map<OWLClassExpression, Set<OWLClassExpression>> existentials(OntologyAccessManager manager) {
+            Map<OWLClassExpression, Set<OWLClassExpression>> existentials = new HashMap<>();
+            manager.getRule(SubclassRoleExpansionInferenceRule.class).getAxioms().forEach((subclass, entries) -> entries.forEach(entry ->
+                existentials.computeIfAbsent(subclass, key -> new HashSet<>()).add(factory.getOWLObjectSomeValuesFrom(entry.getKey(), entry.getValue()))
+            ));
+            return existentials;
+        }
+
+        void assertSameIndexes(OntologyAccessManager expected, OntologyAccessManager actual) {
+            assertEquals(expected.getRule(ToldSuperclassesInferenceRule.class).getAxioms(), actual.getRule(ToldSuperclassesInferenceRule.class).getAxioms());
+            assertEquals(expected.getRule(IntersectionSuperclassesInferenceRule.class).getAxioms(), actual.getRule(IntersectionSuperclassesInferenceRule.class).getAxioms());
+            assertEquals(existentials(expected), existentials(actual));
+            assertEquals(expected.getRule(SuperclassRoleExpansionInferenceRule.class).getAxioms(), actual.getRule(SuperclassRoleExpansionInferenceRule.class).getAxioms());
+            assertEquals(expected.getRule(SuperclassRoleExpansionInferenceRule.class).getFillerToRole(), actual.getRule(SuperclassRoleExpansionInferenceRule.class).getFillerToRole());
+        }
+
+        @Test
+        @DisplayName("RULE INDEXING TEST 1 - the single pass builds the same indexes as one scan for each rule")
+        void SCTO_indexes() {
+            OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+                TestingUtilities.loadOntology("src/test/resources/ontologies/scto-modified.owl")
+            );
+
+            OntologyAccessManager manager = indexedManager(ontology, true);
+            assertEquals(true, manager.isIndexed());
+            assertEquals(false, manager.getRule(ToldSuperclassesInferenceRule.class).getAxioms().isEmpty());
+            assertSameIndexes(indexedManager(ontology, false), manager);
+        }
+
+        @Test
+        @DisplayName("RULE INDEXING TEST 2 - the partial indexes of a large ontology are merged")
+        void mergedIndexes() {
+            OWLOntology ontology = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            Random random = new Random(41);
+            for (int i = 1; i < 5_000; i++) {
+                OWLClass c = owlClass("C" + i);
+                ontology.add(factory.getOWLSubClassOfAxiom(c, owlClass("C" + random.nextInt(i))));
+                ontology.add(factory.getOWLSubClassOfAxiom(c, factory.getOWLObjectSomeValuesFrom(r, owlClass("C" + random.nextInt(i)))));
+                ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, c), owlClass("C" + random.nextInt(i))));
+                ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectIntersectionOf(c, owlClass("C" + random.nextInt(i))), owlClass("D" + i)));
+            }
+
+            OntologyAccessManager manager = indexedManager(ontology, true);
+            assertEquals(4_999, manager.getRule(ToldSuperclassesInferenceRule.class).getAxioms().size());
+            assertSameIndexes(indexedManager(ontology, false), manager);
+
+            // Indexing again starts from empty indexes
+            manager.precomputeAxioms();
+            assertSameIndexes(indexedManager(ontology, false), manager);
+        }
+
+        @Test
+        @DisplayName("RULE INDEXING TEST 3 - the normal form of the added axioms is indexed with the ontology")
+        void addedAxioms() {
+            OWLOntology ontology = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            OWLAxiom equivalence = factory.getOWLEquivalentClassesAxiom(owlClass("C"), factory.getOWLObjectSomeValuesFrom(r, owlClass("D")));
+            ontology.add(equivalence);
+
+            OntologyAccessManager manager = indexedManager(ontology, false);
+            manager.addAxioms(equivalence, new HashSet<>(Arrays.asList(
+                factory.getOWLSubClassOfAxiom(owlClass("C"), factory.getOWLObjectSomeValuesFrom(r, owlClass("D"))),
+                factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, owlClass("D")), owlClass("C"))
+            )));
+            manager.precomputeAxioms();
+
+            assertEquals(Collections.singleton(owlClass("B")), manager.getRule(ToldSuperclassesInferenceRule.class).getAxioms().get(owlClass("A")));
+            assertEquals(Collections.singleton(factory.getOWLObjectSomeValuesFrom(r, owlClass("D"))), existentials(manager).get(owlClass("C")));
+            assertEquals(true, manager.getRule(SuperclassRoleExpansionInferenceRule.class).getAxioms().containsKey(r));
+        }
+
+        @Test
+        @DisplayName("RULE INDEXING TEST 4 - a normal form follows from the ontology until all the added axioms that hold it are removed")
+        void removedAxioms() {
+            OWLOntology ontology = createOntology();
+            OWLSubClassOfAxiom ab = factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B"));
+            OWLSubClassOfAxiom ac = factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("C"));
+            OWLAxiom first = factory.getOWLSubClassOfAxiom(owlClass("A"), factory.getOWLObjectIntersectionOf(owlClass("B"), owlClass("C")));
+            OWLAxiom second = factory.getOWLEquivalentClassesAxiom(owlClass("A"), factory.getOWLObjectIntersectionOf(owlClass("B"), owlClass("C")));
+            ontology.add(ab);
+
+            OntologyAccessManager manager = indexedManager(ontology, true);
+            manager.addAxioms(first, new HashSet<>(Arrays.asList(ab, ac)));
+            manager.addAxioms(second, new HashSet<>(Arrays.asList(ab, ac)));
+            assertEquals(true, manager.containsAxiom(ac));
+
+            assertEquals(Collections.emptySet(), manager.removeAxioms(first));
+            assertEquals(true, manager.containsAxiom(ac));
+            // A ⊑ B is also a told axiom of the ontology
+            assertEquals(Collections.singleton(ac), manager.removeAxioms(second));
+            assertEquals(false, manager.containsAxiom(ac));
+            assertEquals(true, manager.containsAxiom(ab));
+        }
+    }
+}
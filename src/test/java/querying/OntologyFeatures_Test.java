@@ -0,0 +1,112 @@
+package querying;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.individual;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.elppreasoner.reasoning.ELPPReasonerTransaction;
+import com.elppreasoner.reasoning.rules.BottomSuperclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.DisjointClassesInferenceRule;
+import com.elppreasoner.reasoning.rules.IntersectionSuperclassesInferenceRule;
+import com.elppreasoner.reasoning.rules.NominalChainExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.RoleChainExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.SubclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.SuperclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.ToldSuperclassesInferenceRule;
+
+public class OntologyFeatures_Test {
+
+    OWLObjectProperty role(String name) {
+        return factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + name));
+    }
+
+    Set<Class<?>> activeRules(ELPPReasoner reasoner) {
+        return reasoner.getOntologySaturator().getOntologyAccessManager().getActiveRules().stream()
+            .map(Object::getClass)
+            .collect(Collectors.toSet());
+    }
+
+    @Test
+    @DisplayName("ONTOLOGY FEATURES TEST 1 - only the rules that can fire are active")
+    void activeRules() {
+        OWLOntology ontology = createOntology();
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("C"))));
+
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(new HashSet<>(Arrays.asList(ToldSuperclassesInferenceRule.class, SubclassRoleExpansionInferenceRule.class)),
+            activeRules(reasoner));
+        assertSameClassification(reasoner, ontology);
+    }
+
+    @Test
+    @DisplayName("ONTOLOGY FEATURES TEST 2 - added axioms with new constructs activate their rules")
+    void addedConstructs() {
+        OWLOntology ontology = createOntology();
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("C")));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("X"), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("A"))));
+
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(false, activeRules(reasoner).contains(IntersectionSuperclassesInferenceRule.class));
+        assertEquals(false, activeRules(reasoner).contains(SuperclassRoleExpansionInferenceRule.class));
+
+        // What-if additions do not change the features of the ontology
+        ELPPReasonerTransaction transaction = reasoner.beginTransaction(Collections.singleton(
+            factory.getOWLSubClassOfAxiom(factory.getOWLObjectIntersectionOf(owlClass("B"), owlClass("C")), owlClass("D"))));
+        assertEquals(true, transaction.isSubsumedBy(owlClass("A"), owlClass("D")));
+        transaction.rollback();
+        assertEquals(false, activeRules(reasoner).contains(IntersectionSuperclassesInferenceRule.class));
+
+        ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectIntersectionOf(owlClass("B"), owlClass("C")), owlClass("D")));
+        ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("D")), owlClass("Y")));
+        reasoner.flush();
+        assertEquals(true, activeRules(reasoner).contains(IntersectionSuperclassesInferenceRule.class));
+        assertEquals(true, activeRules(reasoner).contains(SuperclassRoleExpansionInferenceRule.class));
+        assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("X"), owlClass("Y"))));
+        assertSameClassification(reasoner, ontology);
+    }
+
+    @Test
+    @DisplayName("ONTOLOGY FEATURES TEST 3 - bottom, nominals, role chains and disjoint classes")
+    void bottomNominalsRoleChainsAndDisjointClasses() {
+        OWLOntology ontology = createOntology();
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("B"))));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), factory.getOWLObjectSomeValuesFrom(role("s"), factory.getOWLObjectOneOf(individual("a")))));
+        ontology.add(factory.getOWLSubPropertyChainOfAxiom(Arrays.asList(role("r"), role("s")), role("t")));
+        ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("t"), owlClass("C")), owlClass("D")));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("E"), factory.getOWLNothing()));
+
+        ELPPReasoner reasoner = new ELPPReasoner(new ELPPOntologyNormalizer().normalize(ontology), false, false, BufferingMode.NON_BUFFERING);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(new HashSet<>(Arrays.asList(ToldSuperclassesInferenceRule.class, SubclassRoleExpansionInferenceRule.class,
+                SuperclassRoleExpansionInferenceRule.class, BottomSuperclassRoleExpansionInferenceRule.class,
+                NominalChainExpansionInferenceRule.class, RoleChainExpansionInferenceRule.class)),
+            activeRules(reasoner));
+
+        reasoner.getRootOntology().add(factory.getOWLDisjointClassesAxiom(owlClass("B"), owlClass("C")));
+        assertEquals(true, activeRules(reasoner).contains(DisjointClassesInferenceRule.class));
+    }
+}
@@ -0,0 +1,135 @@
+package querying;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.individual;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.querying.OntologySnapshot;
+
+import utils.TestingUtilities;
+
+public class OntologySnapshot_Test {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Checks that a reasoner on the given ontology and a reasoner on the ontology read from its snapshot classify the given classes alike.
+     */
+    void assertSameSnapshotClassification(OWLOntology ontology, OWLOntology snapshotOntology, Collection<OWLClass> classes) {
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        ELPPReasoner snapshotReasoner = new ELPPReasoner(snapshotOntology, false, false);
+        snapshotReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        for (OWLClass c : classes) {
+            assertEquals(reasoner.getSuperClasses(c, false), snapshotReasoner.getSuperClasses(c, false), c.toString());
+            assertEquals(reasoner.getEquivalentClasses(c), snapshotReasoner.getEquivalentClasses(c), c.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("ONTOLOGY SNAPSHOT TEST 1 - the normalized axioms are read back from the snapshot")
+    void ItalianFood_snapshot() throws IOException {
+        Path source = Paths.get("src/test/resources/ontologies/italian-food.owl");
+        OWLOntology ontology = new ELPPOntologyNormalizer().normalize(TestingUtilities.loadOntology(source.toString()));
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        Path snapshot = directory.resolve("italian-food.snapshot");
+        String hash = OntologySnapshot.contentHash(source);
+        assertEquals(true, reasoner.getOntologySaturator().getOntologyAccessManager().writeSnapshot(snapshot, hash));
+
+        OWLOntology snapshotOntology = OntologySnapshot.read(snapshot, hash);
+        assertEquals(
+            ontology.axioms().map(axiom -> axiom.getAxiomWithoutAnnotations()).collect(Collectors.toSet()),
+            snapshotOntology.axioms().collect(Collectors.toSet())
+        );
+        assertSameSnapshotClassification(ontology, snapshotOntology, ontology.classesInSignature().collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("ONTOLOGY SNAPSHOT TEST 2 - stale, truncated and unsupported snapshots")
+    void staleSnapshots() throws IOException {
+        OWLOntology ontology = createOntology();
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+        OntologyAccessManager manager = new OntologyAccessManager(ontology);
+        Path snapshot = directory.resolve("ontology.snapshot");
+        assertEquals(null, OntologySnapshot.read(snapshot, "hash"));
+        assertEquals(true, manager.writeSnapshot(snapshot, "hash"));
+        assertEquals(1, OntologySnapshot.read(snapshot, "hash").getAxiomCount());
+        assertEquals(null, OntologySnapshot.read(snapshot, "other hash"));
+
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[7] = (byte) (OntologySnapshot.VERSION + 1);
+        Files.write(snapshot, bytes);
+        assertEquals(null, OntologySnapshot.read(snapshot, "hash"));
+        bytes[7] = (byte) OntologySnapshot.VERSION;
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> OntologySnapshot.read(snapshot, "hash"));
+
+        // An axiom that is not in normal form cannot be written, and the previous snapshot is kept
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C"), factory.getOWLObjectUnionOf(owlClass("A"), owlClass("B"))));
+        assertEquals(false, manager.writeSnapshot(snapshot, "hash"));
+        assertEquals(bytes.length - 1, Files.size(snapshot));
+    }
+
+    @Test
+    @DisplayName("ONTOLOGY SNAPSHOT TEST 3 - data restrictions, role axioms and added axioms are written to the snapshot")
+    void addedAxiomsSnapshot() throws IOException {
+        OWLDataProperty age = factory.getOWLDataProperty(IRI.create(IRI_PREFIX + "age"));
+        OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+        OWLObjectProperty s = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "s"));
+        OWLOntology ontology = createOntology();
+        ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("Adult"), factory.getOWLDataSomeValuesFrom(age,
+            factory.getOWLDatatypeMinInclusiveRestriction(18))));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("X"), factory.getOWLDataHasValue(age, factory.getOWLLiteral(70))));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), factory.getOWLObjectSomeValuesFrom(r, owlClass("D"))));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("E"), factory.getOWLObjectSomeValuesFrom(r, factory.getOWLObjectOneOf(individual("a")))));
+        ontology.add(factory.getOWLSubObjectPropertyOfAxiom(r, s));
+        ontology.add(factory.getOWLTransitiveObjectPropertyAxiom(s));
+        ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(s, owlClass("X")), owlClass("B")));
+        OWLOntology normalizedOntology = new ELPPOntologyNormalizer().normalize(ontology);
+
+        ELPPReasoner reasoner = new ELPPReasoner(normalizedOntology, false, false);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        OWLAxiom added = factory.getOWLSubClassOfAxiom(owlClass("D"), factory.getOWLObjectIntersectionOf(owlClass("X"), owlClass("C")));
+        normalizedOntology.add(added);
+        reasoner.flush();
+        ontology.add(added);
+
+        Path snapshot = directory.resolve("ontology.snapshot");
+        assertEquals(true, reasoner.getOntologySaturator().getOntologyAccessManager().writeSnapshot(snapshot, "hash"));
+        OWLOntology snapshotOntology = OntologySnapshot.read(snapshot, "hash");
+        assertEquals(false, snapshotOntology.containsAxiom(added));
+        ELPPReasoner snapshotReasoner = new ELPPReasoner(snapshotOntology, false, false);
+        snapshotReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(true, snapshotReasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B"))));
+        assertEquals(true, snapshotReasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("X"), owlClass("Adult"))));
+        assertSameClassification(snapshotReasoner, ontology);
+    }
+}
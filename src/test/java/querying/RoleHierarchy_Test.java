@@ -0,0 +1,103 @@
+package querying;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.elppreasoner.saturation.DatalogSaturationEngine;
+
+public class RoleHierarchy_Test {
+
+    OWLObjectProperty role(String name) {
+        return factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + name));
+    }
+
+    @Test
+    @DisplayName("ROLE HIERARCHY TEST 1 - existential restrictions on sub-roles (context-based and Datalog saturation)")
+    void roleInclusions() {
+        OWLOntology ontology = createOntology();
+        OWLClass a = owlClass("A");
+        OWLClass b = owlClass("B");
+        OWLClass c = owlClass("C");
+        OWLClass d = owlClass("D");
+        ontology.add(factory.getOWLSubObjectPropertyOfAxiom(role("r"), role("s")));
+        ontology.add(factory.getOWLSubObjectPropertyOfAxiom(role("s"), role("t")));
+        ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(role("r"), b)));
+        ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("t"), b), c));
+        ontology.add(factory.getOWLSubClassOfAxiom(d, factory.getOWLObjectSomeValuesFrom(role("t"), b)));
+        ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("r"), b), owlClass("E")));
+
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        ELPPReasoner datalogReasoner = new ELPPReasoner(ontology, false, false);
+        datalogReasoner.setSaturationEngine(new DatalogSaturationEngine());
+        datalogReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+        for (ELPPReasoner r : new ELPPReasoner[] { reasoner, datalogReasoner }) {
+            assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(a, c)));
+            assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(a, owlClass("E"))));
+            assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(d, c)));
+            // t is not a sub-role of r
+            assertEquals(false, r.isEntailed(factory.getOWLSubClassOfAxiom(d, owlClass("E"))));
+        }
+        assertSameClassification(reasoner, ontology);
+    }
+
+    @Test
+    @DisplayName("ROLE HIERARCHY TEST 2 - sub-properties, super-properties and equivalent properties")
+    void propertyQueries() {
+        OWLOntology ontology = createOntology();
+        ontology.add(factory.getOWLSubObjectPropertyOfAxiom(role("r"), role("s")));
+        ontology.add(factory.getOWLSubObjectPropertyOfAxiom(role("s"), role("t")));
+        ontology.add(factory.getOWLEquivalentObjectPropertiesAxiom(role("s"), role("u")));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("B"))));
+
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        assertEquals(new HashSet<>(Arrays.asList(role("s"), role("u"))), reasoner.getEquivalentObjectProperties(role("u")).entities().collect(Collectors.toSet()));
+        assertEquals(new HashSet<>(Arrays.asList(role("s"), role("u"), role("t"), factory.getOWLTopObjectProperty())),
+            reasoner.getSuperObjectProperties(role("r"), false).entities().collect(Collectors.toSet()));
+        assertEquals(new HashSet<>(Arrays.asList(role("s"), role("u"))),
+            reasoner.getSuperObjectProperties(role("r"), true).entities().collect(Collectors.toSet()));
+        assertEquals(new HashSet<>(Arrays.asList(role("r"), factory.getOWLBottomObjectProperty())),
+            reasoner.getSubObjectProperties(role("u"), false).entities().collect(Collectors.toSet()));
+        assertEquals(true, reasoner.getSubObjectProperties(role("r"), true).isBottomSingleton());
+        assertEquals(true, reasoner.getSuperObjectProperties(role("t"), true).isTopSingleton());
+        assertEquals(true, reasoner.getSuperObjectProperties(role("v"), false).isTopSingleton());
+    }
+
+    @Test
+    @DisplayName("ROLE HIERARCHY TEST 3 - role inclusions added to the ontology")
+    void addedRoleInclusions() {
+        OWLOntology ontology = createOntology();
+        OWLClass a = owlClass("A");
+        OWLClass c = owlClass("C");
+        ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("B"))));
+        ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("s"), owlClass("B")), c));
+
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, c)));
+
+        ontology.add(factory.getOWLSubObjectPropertyOfAxiom(role("r"), role("s")));
+        reasoner.flush();
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, c)));
+        assertEquals(true, reasoner.getSubObjectProperties(role("s"), true).containsEntity(role("r")));
+    }
+}
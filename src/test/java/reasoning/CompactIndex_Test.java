@@ -0,0 +1,158 @@
+package reasoning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.elppreasoner.reasoning.rules.SuperclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.ToldSuperclassesInferenceRule;
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.reasoning.rules.CompactIndex;
+
+import utils.TestingUtilities;
+
+public class CompactIndex_Test {
+
+    @Test
+    @DisplayName("COMPACT INDEX TEST 1 - rows, labels and values of the compact indexes")
+    void layout() {
+        Map<OWLClassExpression, Set<OWLClassExpression>> sets = new HashMap<>();
+        sets.put(owlClass("A"), new HashSet<>(Arrays.asList(owlClass("B"), owlClass("C"))));
+        sets.put(owlClass("B"), new HashSet<>(Collections.singleton(owlClass("C"))));
+        CompactIndex<OWLClassExpression, Void, OWLClassExpression> index = CompactIndex.ofSets(sets);
+        assertEquals(2, index.rowCount());
+        assertEquals(3, index.size());
+        assertEquals(-1, index.row(owlClass("C")));
+        int row = index.row(owlClass("A"));
+        Set<OWLClassExpression> values = new HashSet<>();
+        for (int i = index.start(row); i < index.end(row); i++) {
+            assertEquals(null, index.label(i));
+            values.add(index.value(i));
+        }
+        assertEquals(sets.get(owlClass("A")), values);
+
+        Map<OWLClassExpression, Map<OWLClassExpression, Set<OWLClassExpression>>> nested = new HashMap<>();
+        nested.computeIfAbsent(owlClass("A"), key -> new HashMap<>()).put(owlClass("B"), new HashSet<>(Arrays.asList(owlClass("C"), owlClass("D"))));
+        nested.computeIfAbsent(owlClass("A"), key -> new HashMap<>()).put(owlClass("E"), new HashSet<>(Collections.singleton(owlClass("F"))));
+        CompactIndex<OWLClassExpression, OWLClassExpression, OWLClassExpression> nestedIndex = CompactIndex.ofNested(nested);
+        row = nestedIndex.row(owlClass("A"));
+        assertEquals(3, nestedIndex.end(row) - nestedIndex.start(row));
+        Map<OWLClassExpression, Set<OWLClassExpression>> groups = new HashMap<>();
+        OWLClassExpression label = null;
+        for (int i = nestedIndex.start(row); i < nestedIndex.end(row); i++) {
+            if (label != nestedIndex.label(i)) {
+                // Every label starts a single group
+                assertEquals(false, groups.containsKey(nestedIndex.label(i)));
+                label = nestedIndex.label(i);
+            }
+            groups.computeIfAbsent(label, key -> new HashSet<>()).add(nestedIndex.value(i));
+        }
+        assertEquals(nested.get(owlClass("A")), groups);
+    }
+
+    @Test
+    @DisplayName("COMPACT INDEX TEST 2 - the compact indexes follow the added and removed axioms")
+    void incrementalIndexes() {
+        OWLOntology ontology = createOntology();
+        OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        OntologyAccessManager manager = reasoner.getOntologySaturator().getOntologyAccessManager();
+        ToldSuperclassesInferenceRule cr1 = manager.getRule(ToldSuperclassesInferenceRule.class);
+        assertEquals(1, cr1.getCompactIndex().size());
+
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("C")));
+        ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, owlClass("C")), owlClass("D")));
+        reasoner.flush();
+        assertEquals(2, cr1.getCompactIndex().size());
+        int row = manager.getRule(SuperclassRoleExpansionInferenceRule.class).getCompactFillerToRole().row(owlClass("C"));
+        assertEquals(true, row >= 0);
+
+        ontology.remove(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+        reasoner.flush();
+        CompactIndex<OWLClassExpression, Void, OWLClassExpression> index = cr1.getCompactIndex();
+        assertEquals(1, index.size());
+        assertEquals(owlClass("C"), index.value(index.start(index.row(owlClass("A")))));
+        assertSameClassification(reasoner, ontology);
+    }
+
+    @Test
+    @DisplayName("COMPACT INDEX TEST 3 - indexing again clears both CR4 indexes")
+    void ItalianFood_reindexing() {
+        OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+            TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+        );
+
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        OntologyAccessManager manager = reasoner.getOntologySaturator().getOntologyAccessManager();
+        SuperclassRoleExpansionInferenceRule cr4 = manager.getRule(SuperclassRoleExpansionInferenceRule.class);
+        int size = cr4.getCompactFillerToRole().size();
+        assertEquals(true, size > 0);
+        assertEquals(size, cr4.getCompactIndex().size());
+
+        cr4.clearAxioms();
+        assertEquals(0, cr4.getCompactFillerToRole().size());
+        manager.precomputeAxioms();
+        assertEquals(size, cr4.getCompactFillerToRole().size());
+        assertEquals(size, cr4.getCompactIndex().size());
+    }
+
+    @Test
+    @DisplayName("COMPACT INDEX TEST 4 - the views and the copies of the compact indexes match the indexes they were built from")
+    void views() {
+        OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+        OWLObjectProperty s = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "s"));
+        Map<OWLClassExpression, Set<OWLClassExpression>> sets = new HashMap<>();
+        Map<OWLClassExpression, Map<OWLClassExpression, Set<OWLClassExpression>>> nested = new HashMap<>();
+        Map<OWLClassExpression, Set<Entry<OWLObjectProperty, OWLClassExpression>>> entries = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            OWLClassExpression key = owlClass("K" + i);
+            for (int j = 0; j <= i % 4; j++) {
+                sets.computeIfAbsent(key, k -> new HashSet<>()).add(owlClass("V" + (i + j)));
+                nested.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(owlClass("L" + j % 2), k -> new HashSet<>()).add(owlClass("V" + (i + j)));
+                entries.computeIfAbsent(key, k -> new HashSet<>()).add(new SimpleImmutableEntry<>(j % 2 == 0 ? r : s, owlClass("V" + (i + j))));
+            }
+        }
+
+        CompactIndex<OWLClassExpression, Void, OWLClassExpression> setIndex = CompactIndex.ofSets(sets);
+        assertEquals(sets, setIndex.asSets());
+        assertEquals(sets, setIndex.toSets());
+        assertEquals(null, setIndex.asSets().get(owlClass("V0")));
+        assertEquals(false, setIndex.asSets().containsKey(owlClass("V0")));
+
+        CompactIndex<OWLClassExpression, OWLClassExpression, OWLClassExpression> nestedIndex = CompactIndex.ofNested(nested);
+        assertEquals(nested, nestedIndex.asNested());
+        assertEquals(nested, nestedIndex.toNested());
+        assertEquals(nested.get(owlClass("K3")).get(owlClass("L1")), nestedIndex.asNested().get(owlClass("K3")).get(owlClass("L1")));
+
+        CompactIndex<OWLClassExpression, OWLObjectProperty, OWLClassExpression> entryIndex = CompactIndex.ofEntries(entries);
+        assertEquals(entries, entryIndex.asEntries());
+        assertEquals(entries, entryIndex.toEntries());
+    }
+}
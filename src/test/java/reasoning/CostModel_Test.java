@@ -0,0 +1,94 @@
+package reasoning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.CostModel;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.elppreasoner.reasoning.ExecutionPlan;
+import com.elppreasoner.reasoning.rules.IntersectionSuperclassesInferenceRule;
+import com.elppreasoner.reasoning.rules.SubclassRoleExpansionInferenceRule;
+import com.reasoner.querying.OntologyStatistics;
+
+import utils.TestingUtilities;
+
+public class CostModel_Test {
+
+    @Test
+    @DisplayName("COST MODEL TEST 1 - a small ontology is classified by one thread")
+    void ItalianFood_plan() {
+        OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+            TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+        );
+
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, true, true);
+        reasoner.setCostModel(new CostModel(8));
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+        ExecutionPlan plan = reasoner.getExecutionPlan();
+        assertEquals(1, plan.getSaturationThreads());
+        assertEquals(1, plan.getTaxonomyThreads());
+        assertEquals(ExecutionPlan.SaturationStrategy.DATALOG, plan.getSaturationStrategy());
+        assertEquals(1, reasoner.getOntologySaturator().getThreadCount());
+        assertSameClassification(reasoner, ontology);
+    }
+
+    @Test
+    @DisplayName("COST MODEL TEST 2 - the contexts are kept when the changes are not buffered")
+    void nonBufferingPlan() {
+        OWLOntology ontology = createOntology();
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), owlClass("C")));
+
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false, BufferingMode.NON_BUFFERING);
+        reasoner.setCostModel(new CostModel(8));
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(ExecutionPlan.SaturationStrategy.CONTEXTS, reasoner.getExecutionPlan().getSaturationStrategy());
+        assertEquals(true, reasoner.getOntologySaturator().isIncremental());
+
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C"), owlClass("D")));
+        assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("D"))));
+        assertSameClassification(reasoner, ontology);
+    }
+
+    @Test
+    @DisplayName("COST MODEL TEST 3 - statistics and thread counts")
+    void statistics() {
+        OWLOntology ontology = createOntology();
+        OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+        for (int i = 0; i < 6000; i++) {
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A" + i), factory.getOWLObjectSomeValuesFrom(r, owlClass("A" + (i + 1)))));
+        }
+        for (int i = 0; i < 3; i++) {
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectIntersectionOf(owlClass("A0"), owlClass("B" + i)), owlClass("C")));
+        }
+
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        OntologyStatistics statistics = new OntologyStatistics(reasoner.getOntologySaturator().getOntologyAccessManager());
+        assertEquals(6003, statistics.getAxiomCount());
+        assertEquals(6000, statistics.getAxiomCount(SubclassRoleExpansionInferenceRule.class));
+        assertEquals(3, statistics.getAxiomCount(IntersectionSuperclassesInferenceRule.class));
+        assertEquals(6005, statistics.getConceptCount());
+        assertEquals(6000, statistics.getExistentialDepth());
+        assertEquals(3, statistics.getConjunctionFanOut());
+
+        // The existential depth is capped, so the work is 6003 × 17 + 3 × 3
+        assertEquals(102_060, new CostModel(4).estimateWork(statistics));
+        assertEquals(2, new CostModel(4).plan(statistics, false).getSaturationThreads());
+        assertEquals(1, new CostModel(1).plan(statistics, false).getSaturationThreads());
+        assertEquals(1, new CostModel(4).plan(statistics, false).getTaxonomyThreads());
+    }
+}
@@ -0,0 +1,1075 @@
+package reasoning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertGoalDirectedQueriesMatch;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.individual;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.InconsistentOntologyException;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.ReasonerInterruptedException;
+import org.semanticweb.owlapi.reasoner.ReasonerProgressMonitor;
+import org.semanticweb.owlapi.reasoner.TimeOutException;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ClassificationStatistics;
+import com.elppreasoner.reasoning.CostModel;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.elppreasoner.reasoning.ELPPReasonerTransaction;
+import com.elppreasoner.reasoning.ExecutionPlan;
+import com.elppreasoner.reasoning.rules.BottomSuperclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.ToldSuperclassesInferenceRule;
+import com.elppreasoner.saturation.DatalogSaturationEngine;
+import com.elppreasoner.taxonomy.ELPPTaxonomyBuilder;
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.reasoning.rules.AxiomShape;
+import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.saturation.ContextAccessManager;
+import com.reasoner.saturation.InferenceRuleContext;
+import com.reasoner.saturation.SaturationEngine;
+import com.reasoner.saturation.TaskSaturationExecutor;
+
+import utils.TagInferenceRule;
+import utils.TestingUtilities;
+
+public class ELPPReasoner_Test {
+
+    @Nested
+    class Incremental_Test {
+
+        @Test
+        @DisplayName("INCREMENTAL TEST 1 - buffered additions are only applied on flush")
+        void bufferedAdditions() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass c = owlClass("C");
+            ontology.add(factory.getOWLSubClassOfAxiom(a, b));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ontology.add(factory.getOWLSubClassOfAxiom(b, c));
+
+            assertEquals(1, reasoner.getPendingChanges().size());
+            assertEquals(1, reasoner.getPendingAxiomAdditions().size());
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, c)));
+
+            reasoner.flush();
+            assertEquals(0, reasoner.getPendingChanges().size());
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, c)));
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("INCREMENTAL TEST 2 - non-buffering reasoner applies complex additions immediately")
+        void nonBufferingComplexAdditions() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass c = owlClass("C");
+            OWLClass d = owlClass("D");
+            OWLClass e = owlClass("E");
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, b));
+            ontology.add(factory.getOWLSubClassOfAxiom(c, d));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false, BufferingMode.NON_BUFFERING);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+            ontology.add(factory.getOWLSubClassOfAxiom(b, factory.getOWLObjectSomeValuesFrom(r, factory.getOWLObjectIntersectionOf(c, e))));
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("F"), factory.getOWLObjectSomeValuesFrom(r, d)));
+
+            assertEquals(0, reasoner.getPendingChanges().size());
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, owlClass("F"))));
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("INCREMENTAL TEST 3 - removals delete and re-derive the affected conclusions")
+        void removals() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass c = owlClass("C");
+            OWLClass d = owlClass("D");
+            OWLClass e = owlClass("E");
+            OWLClass g = owlClass("G");
+            OWLClass x = owlClass("X");
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, b));
+            ontology.add(factory.getOWLSubClassOfAxiom(b, c));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, g));
+            ontology.add(factory.getOWLSubClassOfAxiom(g, c));
+            ontology.add(factory.getOWLSubClassOfAxiom(x, c));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(r, d)));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, d), e));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, e)));
+            ontology.remove(factory.getOWLSubClassOfAxiom(b, c));
+            ontology.remove(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, d), e));
+            assertEquals(2, reasoner.getPendingAxiomRemovals().size());
+
+            reasoner.flush();
+            // The taxonomy is updated in place: no further precomputation is needed
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(b, c)));
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, e)));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, c)));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(x, c)));
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("INCREMENTAL TEST 4 - removing an added axiom keeps the axioms that still support its normal form")
+        void removals_sharedNormalForm() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass c = owlClass("C");
+            ontology.add(factory.getOWLSubClassOfAxiom(a, b));
+            ontology.add(factory.getOWLSubClassOfAxiom(b, c));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false, BufferingMode.NON_BUFFERING);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            OWLAxiom equivalence = factory.getOWLEquivalentClassesAxiom(a, factory.getOWLObjectIntersectionOf(b, c));
+            ontology.add(equivalence);
+            ontology.remove(equivalence);
+
+            // A ⊑ B is both a told axiom and part of the normal form of the removed equivalence
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, c)));
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("INCREMENTAL TEST 5 - an addition between two superclasses changes the direct superclasses of their subclasses")
+        void additions_directSuperclassesOfSubclasses() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass x = owlClass("X");
+            ontology.add(factory.getOWLSubClassOfAxiom(x, a));
+            ontology.add(factory.getOWLSubClassOfAxiom(x, b));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ontology.add(factory.getOWLSubClassOfAxiom(a, b));
+            reasoner.flush();
+
+            // The superclasses of X do not change, but B is not a direct superclass of X anymore
+            assertEquals(Collections.singleton(a), reasoner.getSuperClasses(x, true).entities().collect(Collectors.toSet()));
+            assertEquals(Collections.singleton(a), reasoner.getSubClasses(b, true).entities().collect(Collectors.toSet()));
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("INCREMENTAL TEST 6 - removals delete the unsatisfiability propagated through a cyclic existential")
+        void removals_bottomThroughExistential() {
+            for(BufferingMode bufferingMode : BufferingMode.values()){
+                OWLOntology ontology = createOntology();
+                OWLClass c4 = owlClass("C4");
+                OWLClass c5 = owlClass("C5");
+                OWLClass c8 = owlClass("C8");
+                OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+                ontology.add(factory.getOWLSubClassOfAxiom(c5, factory.getOWLNothing()));
+                ontology.add(factory.getOWLSubClassOfAxiom(c4, c5));
+                ontology.add(factory.getOWLSubClassOfAxiom(c4, c8));
+                ontology.add(factory.getOWLSubClassOfAxiom(c8, factory.getOWLObjectSomeValuesFrom(r, c4)));
+
+                ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false, bufferingMode);
+                reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+                assertEquals(false, reasoner.isSatisfiable(c8));
+                ontology.remove(factory.getOWLSubClassOfAxiom(c4, c5));
+                reasoner.flush();
+
+                // C8 ⊑ ⊥ was derived from C8 ⊑ ∃r.C4 and C4 ⊑ ⊥, which do not hold anymore
+                assertEquals(true, reasoner.isSatisfiable(c8));
+                assertEquals(true, reasoner.isSatisfiable(c4));
+                assertEquals(false, reasoner.getSuperClasses(c4, false).containsEntity(factory.getOWLNothing()));
+                assertSameClassification(reasoner, ontology);
+            }
+        }
+
+        @Test
+        @DisplayName("ITALIAN FOOD ONTOLOGY INCREMENTAL TEST - same answers as the full classification")
+        void ItalianFood_incremental() {
+            OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+                TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+            );
+            List<OWLClass> classes = ontology.classesInSignature().sorted().collect(Collectors.toList());
+            OWLObjectProperty r = ontology.objectPropertiesInSignature().sorted().findFirst().get();
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+            ontology.add(factory.getOWLSubClassOfAxiom(classes.get(3), classes.get(10)));
+            ontology.add(factory.getOWLSubClassOfAxiom(classes.get(20), classes.get(3)));
+            ontology.add(factory.getOWLSubClassOfAxiom(classes.get(5), factory.getOWLObjectSomeValuesFrom(r, classes.get(7))));
+            ontology.add(factory.getOWLEquivalentClassesAxiom(owlClass("New"), factory.getOWLObjectIntersectionOf(classes.get(1), classes.get(2))));
+            reasoner.flush();
+
+            assertSameClassification(reasoner, ontology);
+        }
+    }
+
+    @Nested
+    class GoalDirected_Test {
+
+        @Test
+        @DisplayName("GOAL-DIRECTED TEST 1 - subsumption through an existential restriction")
+        void existentialSubsumption() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass c = owlClass("C");
+            OWLClass d = owlClass("D");
+            OWLClass unrelated = owlClass("Unrelated");
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r")), b)));
+            ontology.add(factory.getOWLSubClassOfAxiom(b, c));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r")), c), d));
+            ontology.add(factory.getOWLSubClassOfAxiom(unrelated, d));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, d)));
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, c)));
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(d, a)));
+            assertEquals(null, reasoner.getTaxonomy());
+        }
+
+        @Test
+        @DisplayName("GOAL-DIRECTED TEST 2 - reachable nominal falls back to the full classification")
+        void nominalFallsBack() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectOneOf(individual("a"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(individual("a")), b));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, b)));
+            assertEquals(true, reasoner.getTaxonomy() != null);
+        }
+
+        @Test
+        @DisplayName("ITALIAN FOOD ONTOLOGY GOAL-DIRECTED TEST - same answers as the full classification")
+        void ItalianFood_goalDirected() {
+            assertGoalDirectedQueriesMatch(new ELPPOntologyNormalizer().normalize(
+                TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+            ));
+        }
+    }
+
+    @Nested
+    class Consistency_Test {
+
+        @Test
+        @DisplayName("CONSISTENCY TEST 1 - nominal subsumed by an unsatisfiable class")
+        void nominalSubClassOfNothing() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(individual("a")), a));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLNothing()));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            assertEquals(false, reasoner.isConsistent());
+            assertEquals(true, reasoner.getOntologySaturator().getInconsistencyWitness() != null);
+        }
+
+        @Test
+        @DisplayName("CONSISTENCY TEST 2 - top subsumed by two disjoint classes")
+        void topSubClassOfNothing() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLThing(), a));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLThing(), b));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectIntersectionOf(a, b), factory.getOWLNothing()));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, true, false);
+            assertEquals(false, reasoner.isConsistent());
+        }
+
+        @Test
+        @DisplayName("CONSISTENCY TEST 3 - unsatisfiable class without instances")
+        void unsatisfiableClassIsConsistent() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLNothing()));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            assertEquals(true, reasoner.isConsistent());
+        }
+
+        @Test
+        @DisplayName("CONSISTENCY TEST 4 - taxonomy queries on an inconsistent ontology")
+        void inconsistentOntologySkipsTaxonomy() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(individual("a")), a));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLNothing()));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(null, reasoner.getTaxonomy());
+            assertThrows(InconsistentOntologyException.class, () -> reasoner.getSuperClasses(a, false));
+        }
+
+        @Test
+        @DisplayName("CONSISTENCY TEST 5 - satisfiability of named classes and class expressions")
+        void satisfiability() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass c = owlClass("C");
+            OWLClass x = owlClass("X");
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, owlClass("B")));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectIntersectionOf(owlClass("B"), c), factory.getOWLNothing()));
+            ontology.add(factory.getOWLSubClassOfAxiom(x, a));
+            ontology.add(factory.getOWLSubClassOfAxiom(x, c));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("Y"), factory.getOWLObjectSomeValuesFrom(r, x)));
+            ontology = new ELPPOntologyNormalizer().normalize(ontology);
+
+            // Named classes are answered by goal-directed saturations
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            assertEquals(true, reasoner.isSatisfiable(a));
+            assertEquals(false, reasoner.isSatisfiable(x));
+            assertEquals(false, reasoner.isSatisfiable(owlClass("Y")));
+            assertEquals(false, reasoner.isSatisfiable(factory.getOWLNothing()));
+            assertEquals(true, reasoner.isSatisfiable(factory.getOWLThing()));
+            assertEquals(true, reasoner.isSatisfiable(owlClass("Fresh")));
+            assertEquals(null, reasoner.getTaxonomy());
+
+            assertEquals(false, reasoner.isSatisfiable(factory.getOWLObjectIntersectionOf(a, c)));
+            assertEquals(false, reasoner.isSatisfiable(factory.getOWLObjectSomeValuesFrom(r, factory.getOWLObjectIntersectionOf(a, c))));
+            assertEquals(true, reasoner.isSatisfiable(factory.getOWLObjectSomeValuesFrom(r, a)));
+            assertEquals(new HashSet<>(Arrays.asList(factory.getOWLNothing(), x, owlClass("Y"))),
+                reasoner.getUnsatisfiableClasses().entities().collect(Collectors.toSet()));
+            // The fresh classes of the class expressions are not kept
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("CONSISTENCY TEST 6 - satisfiability queries on an inconsistent ontology")
+        void satisfiabilityOfInconsistentOntology() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(individual("a")), a));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLNothing()));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            assertThrows(InconsistentOntologyException.class, () -> reasoner.getUnsatisfiableClasses());
+            assertThrows(InconsistentOntologyException.class, () -> reasoner.isSatisfiable(a));
+            assertThrows(InconsistentOntologyException.class, () -> reasoner.isSatisfiable(factory.getOWLObjectIntersectionOf(a, owlClass("B"))));
+        }
+
+        @Test
+        @DisplayName("CONSISTENCY TEST 7 - goal-directed queries on an inconsistent ontology")
+        void goalDirectedQueriesOnInconsistentOntology() {
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            // The individual is not reachable from the queried class
+            OWLOntology nominalOntology = createOntology();
+            nominalOntology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(individual("a")), a));
+            nominalOntology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLNothing()));
+            nominalOntology.add(factory.getOWLSubClassOfAxiom(b, owlClass("C")));
+            // ⊤ is unsatisfiable
+            OWLOntology topOntology = createOntology();
+            topOntology.add(factory.getOWLSubClassOfAxiom(factory.getOWLThing(), a));
+            topOntology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLNothing()));
+            topOntology.add(factory.getOWLSubClassOfAxiom(b, owlClass("C")));
+
+            for (OWLOntology ontology : Arrays.asList(nominalOntology, topOntology)) {
+                ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+                assertThrows(InconsistentOntologyException.class, () -> reasoner.getSuperClasses(b, false));
+                assertEquals(false, reasoner.isConsistent());
+                assertThrows(InconsistentOntologyException.class, () -> new ELPPReasoner(ontology, false, false).isSatisfiable(b));
+                assertThrows(InconsistentOntologyException.class, () -> new ELPPReasoner(ontology, false, false).getEquivalentClasses(b));
+            }
+
+            // With individuals, a query classifies the whole ontology; without them, it is still goal-directed
+            nominalOntology.remove(factory.getOWLSubClassOfAxiom(a, factory.getOWLNothing()));
+            ELPPReasoner nominalReasoner = new ELPPReasoner(nominalOntology, false, false);
+            assertEquals(true, nominalReasoner.isEntailed(factory.getOWLSubClassOfAxiom(b, owlClass("C"))));
+            assertEquals(true, nominalReasoner.getTaxonomy() != null);
+            topOntology.remove(factory.getOWLSubClassOfAxiom(a, factory.getOWLNothing()));
+            ELPPReasoner topReasoner = new ELPPReasoner(topOntology, false, false);
+            assertEquals(true, topReasoner.isEntailed(factory.getOWLSubClassOfAxiom(b, a)));
+            assertEquals(null, topReasoner.getTaxonomy());
+        }
+
+        @Test
+        @DisplayName("ITALIAN FOOD ONTOLOGY CONSISTENCY TEST - isConsistent")
+        void ItalianFood_isConsistent() {
+            OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+                TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+            );
+            assertEquals(true, new ELPPReasoner(ontology, false, false).isConsistent());
+        }
+    }
+
+    @Nested
+    class Transaction_Test {
+
+        @Test
+        @DisplayName("TRANSACTION TEST 1 - rolled back what-if additions leave the reasoner unchanged")
+        void rollback() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass c = owlClass("C");
+            OWLClass d = owlClass("D");
+            OWLClass e = owlClass("E");
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, b));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, c), d));
+            ontology.add(factory.getOWLSubClassOfAxiom(d, e));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            Set<OWLAxiom> axioms = new HashSet<>();
+            axioms.add(factory.getOWLSubClassOfAxiom(b, factory.getOWLObjectSomeValuesFrom(r, c)));
+            ELPPReasonerTransaction transaction = reasoner.beginTransaction(axioms);
+
+            assertEquals(true, transaction.isConsistent());
+            assertEquals(true, transaction.isSubsumedBy(a, d));
+            Set<OWLSubClassOfAxiom> newSubsumptions = new HashSet<>();
+            newSubsumptions.add(factory.getOWLSubClassOfAxiom(a, d));
+            newSubsumptions.add(factory.getOWLSubClassOfAxiom(b, d));
+            newSubsumptions.add(factory.getOWLSubClassOfAxiom(a, e));
+            newSubsumptions.add(factory.getOWLSubClassOfAxiom(b, e));
+            assertEquals(newSubsumptions, transaction.getNewSubsumptions());
+
+            transaction.rollback();
+            assertEquals(true, transaction.isClosed());
+            assertThrows(IllegalStateException.class, () -> transaction.isConsistent());
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, d)));
+            assertEquals(0, reasoner.getPendingChanges().size());
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("TRANSACTION TEST 2 - committed transaction is applied to the ontology and the reasoner")
+        void commit() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass c = owlClass("C");
+            ontology.add(factory.getOWLSubClassOfAxiom(a, b));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            Set<OWLAxiom> axioms = new HashSet<>();
+            axioms.add(factory.getOWLEquivalentClassesAxiom(c, factory.getOWLObjectIntersectionOf(a, b)));
+            ELPPReasonerTransaction transaction = reasoner.beginTransaction(axioms);
+            assertEquals(transaction.getEquivalentClasses(a), transaction.getEquivalentClasses(c));
+
+            transaction.commit();
+            assertEquals(true, ontology.containsAxiom(axioms.iterator().next()));
+            assertEquals(true, reasoner.getEquivalentClasses(a).contains(c));
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("TRANSACTION TEST 3 - what-if additions that make the ontology inconsistent")
+        void inconsistent() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(individual("a")), a));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            Set<OWLAxiom> axioms = new HashSet<>();
+            axioms.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLNothing()));
+            ELPPReasonerTransaction transaction = reasoner.beginTransaction(axioms);
+
+            assertEquals(false, transaction.isConsistent());
+            assertThrows(InconsistentOntologyException.class, () -> transaction.getSuperClasses(a, false));
+            transaction.rollback();
+            assertEquals(true, reasoner.isConsistent());
+        }
+
+        @Test
+        @DisplayName("TRANSACTION TEST 4 - an addition between two superclasses changes the direct superclasses of their subclasses")
+        void directSuperclassesOfSubclasses() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass x = owlClass("X");
+            ontology.add(factory.getOWLSubClassOfAxiom(x, a));
+            ontology.add(factory.getOWLSubClassOfAxiom(x, b));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ELPPReasonerTransaction transaction = reasoner.beginTransaction(Collections.singleton(factory.getOWLSubClassOfAxiom(a, b)));
+
+            assertEquals(Collections.singleton(a), transaction.getSuperClasses(x, true).entities().collect(Collectors.toSet()));
+            assertEquals(Collections.singleton(a), transaction.getSubClasses(b, true).entities().collect(Collectors.toSet()));
+            transaction.rollback();
+            assertEquals(2L, reasoner.getSuperClasses(x, true).entities().count());
+        }
+
+        @Test
+        @DisplayName("TRANSACTION TEST 5 - concurrent transactions get the answers of their own axioms")
+        void concurrentTransactions() throws Exception {
+            OWLOntology ontology = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            int transactionCount = 64;
+            for (int i = 0; i < transactionCount; i++) {
+                ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, owlClass("B" + i)), owlClass("E" + i)));
+                ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A" + i), owlClass("D")));
+            }
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+                for (int i = 0; i < transactionCount; i++) {
+                    OWLClass a = owlClass("A" + i);
+                    OWLClass b = owlClass("B" + i);
+                    OWLClass e = owlClass("E" + i);
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        ELPPReasonerTransaction transaction = reasoner.beginTransaction(
+                            Collections.singleton(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(r, b)))
+                        );
+                        assertEquals(Collections.singleton(factory.getOWLSubClassOfAxiom(a, e)), transaction.getNewSubsumptions());
+                        transaction.rollback();
+                    }, executor));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("ITALIAN FOOD ONTOLOGY TRANSACTION TEST - same answers as the full classification")
+        void ItalianFood_transaction() {
+            OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+                TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+            );
+            List<OWLClass> classes = ontology.classesInSignature().sorted().collect(Collectors.toList());
+            OWLObjectProperty r = ontology.objectPropertiesInSignature().sorted().findFirst().get();
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            Set<OWLAxiom> axioms = new HashSet<>();
+            axioms.add(factory.getOWLSubClassOfAxiom(classes.get(3), classes.get(10)));
+            axioms.add(factory.getOWLSubClassOfAxiom(classes.get(5), factory.getOWLObjectSomeValuesFrom(r, classes.get(7))));
+            ELPPReasonerTransaction transaction = reasoner.beginTransaction(axioms);
+
+            OWLOntology extendedOntology = createOntology();
+            extendedOntology.add(ontology.axioms().collect(Collectors.toList()));
+            extendedOntology.add(axioms);
+            ELPPReasoner freshReasoner = new ELPPReasoner(extendedOntology, false, false);
+            freshReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            for (OWLClass c : classes) {
+                assertEquals(freshReasoner.getSuperClasses(c, false), transaction.getSuperClasses(c, false), c.toString());
+                assertEquals(freshReasoner.getEquivalentClasses(c), transaction.getEquivalentClasses(c), c.toString());
+            }
+
+            transaction.rollback();
+            assertSameClassification(reasoner, ontology);
+        }
+    }
+
+    @Nested
+    class RuleService_Test {
+
+        @TempDir
+        Path directory;
+
+        /**
+         * Creates a reasoner while the context class loader provides the {@code InferenceRule} service with the given rules.
+         */
+        ELPPReasoner createReasonerWithRules(OWLOntology ontology, Class<?>... rules) throws IOException {
+            Path services = directory.resolve("META-INF/services/" + InferenceRule.class.getName());
+            Files.createDirectories(services.getParent());
+            Files.write(services, Arrays.stream(rules).map(Class::getName).collect(Collectors.toList()));
+
+            Thread thread = Thread.currentThread();
+            ClassLoader contextClassLoader = thread.getContextClassLoader();
+            try (URLClassLoader classLoader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, getClass().getClassLoader())) {
+                thread.setContextClassLoader(classLoader);
+                return new ELPPReasoner(ontology, false, false);
+            } finally {
+                thread.setContextClassLoader(contextClassLoader);
+            }
+        }
+
+        @Test
+        @DisplayName("RULE SERVICE TEST 1 - a rule provided through the service takes part in the saturation")
+        void serviceRule() throws IOException {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), owlClass("Tagged")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C"), factory.getOWLObjectSomeValuesFrom(factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r")), owlClass("A"))));
+            OWLSubClassOfAxiom seen = factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("Seen"));
+
+            ELPPReasoner reasoner = createReasonerWithRules(ontology, TagInferenceRule.class, ToldSuperclassesInferenceRule.class);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.isEntailed(seen));
+            assertEquals(9, reasoner.getOntologySaturator().getOntologyAccessManager().getRules().size());
+
+            ELPPReasoner coreReasoner = new ELPPReasoner(ontology, false, false);
+            coreReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(false, coreReasoner.isEntailed(seen));
+            assertEquals(8, coreReasoner.getOntologySaturator().getOntologyAccessManager().getRules().size());
+        }
+
+        @Test
+        @DisplayName("RULE SERVICE TEST 2 - shapes of the axioms")
+        void axiomShapes() {
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            OWLClassExpression nominal = factory.getOWLObjectOneOf(individual("a"));
+            assertEquals(AxiomShape.SUBSUMPTION, AxiomShape.of(owlClass("A"), owlClass("B")));
+            assertEquals(AxiomShape.SUBSUMPTION, AxiomShape.of(nominal, factory.getOWLThing()));
+            assertEquals(AxiomShape.BOTTOM, AxiomShape.of(owlClass("A"), factory.getOWLNothing()));
+            assertEquals(AxiomShape.LINK, AxiomShape.of(nominal, factory.getOWLObjectSomeValuesFrom(r, owlClass("B"))));
+            assertEquals(AxiomShape.CONJUNCTION, AxiomShape.of(factory.getOWLObjectIntersectionOf(owlClass("A"), owlClass("B")), owlClass("C")));
+            assertEquals(AxiomShape.EXISTENTIAL_SUBCLASS, AxiomShape.of(factory.getOWLObjectSomeValuesFrom(r, owlClass("A")), owlClass("B")));
+            assertEquals(AxiomShape.OTHER, AxiomShape.of(owlClass("A"), factory.getOWLObjectIntersectionOf(owlClass("B"), owlClass("C"))));
+        }
+
+        @Test
+        @DisplayName("RULE SERVICE TEST 3 - axioms are only routed to the rules that consume their shape")
+        void routing() {
+            OWLOntology ontology = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), factory.getOWLObjectSomeValuesFrom(r, owlClass("B"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, owlClass("B")), owlClass("C")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), factory.getOWLNothing()));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ContextAccessManager contextAccessManager = reasoner.getOntologySaturator().getContextAccessManager();
+
+            OWLSubClassOfAxiom link = factory.getOWLSubClassOfAxiom(owlClass("A"), factory.getOWLObjectSomeValuesFrom(r, owlClass("B")));
+            for (InferenceRuleContext context : contextAccessManager.getContextsByAxiom(link)) {
+                assertEquals(true, context.getInferenceRule().getConsumedShapes().contains(AxiomShape.LINK), context.toString());
+            }
+            OWLSubClassOfAxiom subsumption = factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("C"));
+            for (InferenceRuleContext context : contextAccessManager.getContextsByAxiom(subsumption)) {
+                assertEquals(false, context.getInferenceRule() instanceof BottomSuperclassRoleExpansionInferenceRule, context.toString());
+            }
+            assertEquals(0, contextAccessManager.getContextsByAxiom(
+                factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, owlClass("B")), owlClass("C"))).size());
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("RULE SERVICE TEST 4 - the rules provided through the service are not ignored by the Datalog engine")
+        void serviceRuleWithDatalog() throws IOException {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), owlClass("Tagged")));
+            OWLSubClassOfAxiom seen = factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("Seen"));
+
+            ELPPReasoner reasoner = createReasonerWithRules(ontology, TagInferenceRule.class);
+            assertThrows(IllegalStateException.class, () -> reasoner.setSaturationEngine(new DatalogSaturationEngine()));
+            reasoner.setCostModel(new CostModel(8));
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(ExecutionPlan.SaturationStrategy.CONTEXTS, reasoner.getExecutionPlan().getSaturationStrategy());
+            assertEquals(true, reasoner.isEntailed(seen));
+
+            ELPPReasoner coreReasoner = new ELPPReasoner(ontology, false, false);
+            coreReasoner.setCostModel(new CostModel(8));
+            coreReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(ExecutionPlan.SaturationStrategy.DATALOG, coreReasoner.getExecutionPlan().getSaturationStrategy());
+            coreReasoner.setSaturationEngine(new DatalogSaturationEngine());
+        }
+    }
+
+    @Nested
+    class AsyncClassification_Test {
+
+        @Test
+        @DisplayName("ASYNC CLASSIFICATION TEST 1 - the future completes with the statistics of the phases")
+        void ItalianFood_async() throws InterruptedException, ExecutionException {
+            OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+                TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+            );
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, true, true);
+            ClassificationStatistics statistics = reasoner.precomputeInferencesAsync(InferenceType.CLASS_HIERARCHY).get();
+
+            assertEquals(true, reasoner.isPrecomputed(InferenceType.CLASS_HIERARCHY));
+            assertEquals(true, statistics.isConsistent());
+            assertEquals(true, statistics.getConclusionCount() > 0);
+            assertEquals(reasoner.getSaturationTime(), statistics.getSaturationTime());
+            assertEquals(reasoner.getTaxonomyBuildingTime(), statistics.getTaxonomyBuildingTime());
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("ASYNC CLASSIFICATION TEST 2 - cancelling the future stops the saturation workers")
+        void cancelledClassification() throws InterruptedException {
+            OWLOntology ontology = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            Random random = new Random(49);
+            for (int i = 1; i < 1_000; i++) {
+                ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C" + i), owlClass("C" + random.nextInt(i))));
+                ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C" + i), factory.getOWLObjectSomeValuesFrom(r, owlClass("C" + random.nextInt(i)))));
+            }
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+
+            // The first task of the saturation cancels the future, then runs
+            AtomicReference<CompletableFuture<ClassificationStatistics>> future = new AtomicReference<>();
+            AtomicInteger tasks = new AtomicInteger();
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            reasoner.getOntologySaturator().setSaturationExecutor(new TaskSaturationExecutor(task -> {
+                if (tasks.incrementAndGet() == 1) {
+                    future.get().cancel(true);
+                }
+                executor.execute(task);
+            }));
+            List<Runnable> classification = new ArrayList<>();
+            future.set(reasoner.precomputeInferencesAsync(classification::add, InferenceType.CLASS_HIERARCHY));
+            assertEquals(1, classification.size());
+            classification.get(0).run();
+
+            executor.shutdown();
+            assertEquals(true, executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(true, future.get().isCancelled());
+            assertEquals(true, reasoner.getOntologySaturator().isCancelled());
+            assertEquals(false, reasoner.getOntologySaturator().isIncremental());
+            assertEquals(false, reasoner.isPrecomputed(InferenceType.CLASS_HIERARCHY));
+
+            // The next classification starts from scratch
+            reasoner.getOntologySaturator().setSaturationExecutor(null);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("ASYNC CLASSIFICATION TEST 3 - a failed classification completes the future exceptionally")
+        void failedClassification() throws InterruptedException {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.setSaturationEngine(new SaturationEngine() {
+                @Override
+                public Set<OWLSubClassOfAxiom> saturate(OntologyAccessManager ontologyAccessManager, boolean concurrentMode) {
+                    throw new IllegalStateException("engine failure");
+                }
+
+                @Override
+                public OWLSubClassOfAxiom getInconsistencyWitness() {
+                    return null;
+                }
+            });
+
+            CompletableFuture<ClassificationStatistics> future = reasoner.precomputeInferencesAsync(InferenceType.CLASS_HIERARCHY);
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertEquals(IllegalStateException.class, exception.getCause().getClass());
+            assertEquals(true, future.isCompletedExceptionally());
+            assertEquals(false, reasoner.isPrecomputed(InferenceType.CLASS_HIERARCHY));
+        }
+
+        @Test
+        @DisplayName("ASYNC CLASSIFICATION TEST 4 - the classifications reuse the same thread")
+        void sharedClassificationThread() throws InterruptedException, ExecutionException {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            Set<Thread> threads = new HashSet<>();
+            for (int i = 0; i < 10; i++) {
+                ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+                reasoner.setProgressMonitor(new ReasonerProgressMonitor() {
+                    @Override
+                    public void reasonerTaskStarted(String taskName) {
+                        threads.add(Thread.currentThread());
+                    }
+                });
+                reasoner.precomputeInferencesAsync(InferenceType.CLASS_HIERARCHY).get();
+                assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B"))));
+
+                // The thread is idle once it has completed the future
+                for (Thread thread : threads) {
+                    while (thread.getState() == Thread.State.RUNNABLE) {
+                        Thread.sleep(1);
+                    }
+                }
+            }
+            assertEquals(1, threads.size());
+            assertEquals("elpp-classification", threads.iterator().next().getName());
+        }
+
+        @Test
+        @DisplayName("ASYNC CLASSIFICATION TEST 5 - a cancellation just before the saturation starts is not lost")
+        void cancelledBeforeSaturation() throws InterruptedException {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            AtomicInteger tasks = new AtomicInteger();
+            reasoner.getOntologySaturator().setSaturationExecutor(new TaskSaturationExecutor(task -> {
+                tasks.incrementAndGet();
+                task.run();
+            }));
+
+            // The future is cancelled after it has been checked by the classification, which then starts the saturation
+            AtomicReference<CompletableFuture<ClassificationStatistics>> future = new AtomicReference<>();
+            reasoner.setProgressMonitor(new ReasonerProgressMonitor() {
+                @Override
+                public void reasonerTaskStarted(String taskName) {
+                    future.get().cancel(true);
+                }
+            });
+            List<Runnable> classification = new ArrayList<>();
+            future.set(reasoner.precomputeInferencesAsync(classification::add, InferenceType.CLASS_HIERARCHY));
+            classification.get(0).run();
+
+            assertEquals(true, future.get().isCancelled());
+            assertEquals(0, tasks.get());
+            assertEquals(true, reasoner.getOntologySaturator().isCancelled());
+            assertEquals(false, reasoner.isPrecomputed(InferenceType.CLASS_HIERARCHY));
+
+            // The cancellation of the future does not stop the next classification
+            reasoner.setProgressMonitor(null);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertSameClassification(reasoner, ontology);
+        }
+    }
+
+    @Nested
+    class Interruption_Test {
+
+        OWLOntology createRandomOntology() {
+            OWLOntology ontology = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            Random random = new Random(50);
+            for (int i = 1; i < 1_000; i++) {
+                ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C" + i), owlClass("C" + random.nextInt(i))));
+                ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C" + i), factory.getOWLObjectSomeValuesFrom(r, owlClass("C" + random.nextInt(i)))));
+            }
+            return ontology;
+        }
+
+        /**
+         * Run the tasks of the saturation in the given executor, after waiting for the saturation to be cancelled once the given number of
+         * tasks has been run.
+         */
+        TaskSaturationExecutor stalledExecutor(ELPPReasoner reasoner, ExecutorService executor, int tasksBeforeStall) {
+            AtomicInteger tasks = new AtomicInteger();
+            return new TaskSaturationExecutor(task -> executor.execute(() -> {
+                if (tasks.incrementAndGet() > tasksBeforeStall) {
+                    long deadline = System.currentTimeMillis() + 10_000;
+                    while (!reasoner.getOntologySaturator().isCancelled() && System.currentTimeMillis() < deadline) {
+                        try {
+                            Thread.sleep(5);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
+                task.run();
+            }));
+        }
+
+        @Test
+        @DisplayName("INTERRUPTION TEST 1 - a classification that exceeds the time-out throws a TimeOutException")
+        void timedOutClassification() throws InterruptedException {
+            OWLOntology ontology = createRandomOntology();
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            assertEquals(Long.MAX_VALUE, reasoner.getTimeOut());
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            reasoner.getOntologySaturator().setSaturationExecutor(stalledExecutor(reasoner, executor, 0));
+            reasoner.setTimeOut(50);
+
+            assertThrows(TimeOutException.class, () -> reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY));
+            assertEquals(true, reasoner.getOntologySaturator().isCancelled());
+            assertEquals(false, reasoner.isPrecomputed(InferenceType.CLASS_HIERARCHY));
+            assertEquals(null, reasoner.getTaxonomy());
+            executor.shutdown();
+            assertEquals(true, executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            // The reduction of the taxonomy stops as well
+            ELPPTaxonomyBuilder taxonomyBuilder = new ELPPTaxonomyBuilder(true);
+            taxonomyBuilder.setCancellation(() -> true);
+            Set<OWLSubClassOfAxiom> axioms = Collections.singleton(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            assertThrows(CancellationException.class, () -> taxonomyBuilder.build(axioms));
+            taxonomyBuilder.setCancellation(null);
+            assertEquals(true, taxonomyBuilder.build(axioms).getConceptToAllSuperConcepts().get(owlClass("A")).contains(owlClass("B")));
+
+            // Without the time-out, the ontology is classified from scratch
+            reasoner.getOntologySaturator().setSaturationExecutor(null);
+            reasoner.setTimeOut(Long.MAX_VALUE);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("INTERRUPTION TEST 2 - on time-out, a sound partial taxonomy is built from the conclusions derived so far")
+        void partialTaxonomy() throws InterruptedException {
+            OWLOntology ontology = createRandomOntology();
+            ELPPReasoner fullReasoner = new ELPPReasoner(ontology, false, false);
+            fullReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            reasoner.getOntologySaturator().setSaturationExecutor(stalledExecutor(reasoner, executor, 200));
+            reasoner.setTimeOut(50);
+            reasoner.setPartialTaxonomyOnTimeOut(true);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            executor.shutdown();
+            assertEquals(true, executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertEquals(true, reasoner.isPartialTaxonomy());
+            assertEquals(false, reasoner.isPrecomputed(InferenceType.CLASS_HIERARCHY));
+            int partialSubsumptions = 0;
+            for (OWLClass c : ontology.classesInSignature().collect(Collectors.toList())) {
+                Set<OWLClass> partialSuperClasses = reasoner.getSuperClasses(c, false).entities().collect(Collectors.toSet());
+                Set<OWLClass> superClasses = fullReasoner.getSuperClasses(c, false).entities().collect(Collectors.toSet());
+                assertEquals(true, superClasses.containsAll(partialSuperClasses), c.toString());
+                partialSubsumptions += partialSuperClasses.size();
+            }
+            assertEquals(true, partialSubsumptions > 0);
+
+            // The next classification completes the taxonomy
+            reasoner.getOntologySaturator().setSaturationExecutor(null);
+            reasoner.setTimeOut(Long.MAX_VALUE);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(false, reasoner.isPartialTaxonomy());
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("INTERRUPTION TEST 3 - another thread interrupts the classification, whose progress is monitored")
+        void interruptedClassification() throws InterruptedException {
+            OWLOntology ontology = createRandomOntology();
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            List<String> events = Collections.synchronizedList(new ArrayList<>());
+            reasoner.setProgressMonitor(new ReasonerProgressMonitor() {
+                @Override
+                public void reasonerTaskStarted(String taskName) {
+                    events.add("started " + taskName);
+                }
+
+                @Override
+                public void reasonerTaskBusy() {
+                    events.add("busy");
+                }
+
+                @Override
+                public void reasonerTaskProgressChanged(int value, int max) {
+                    events.add(value + "/" + max);
+                }
+
+                @Override
+                public void reasonerTaskStopped() {
+                    events.add("stopped");
+                }
+            });
+
+            // The first task of the saturation interrupts the reasoner from the thread of the executor, then runs
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            AtomicInteger tasks = new AtomicInteger();
+            reasoner.getOntologySaturator().setSaturationExecutor(new TaskSaturationExecutor(task -> executor.execute(() -> {
+                if (tasks.incrementAndGet() == 1) {
+                    reasoner.interrupt();
+                }
+                task.run();
+            })));
+            assertThrows(ReasonerInterruptedException.class, () -> reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY));
+            executor.shutdown();
+            assertEquals(true, executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("started " + ReasonerProgressMonitor.CLASSIFYING, "busy", "stopped"), events);
+            assertEquals(false, reasoner.isPrecomputed(InferenceType.CLASS_HIERARCHY));
+
+            // Interrupting an idle reasoner has no effect on the next classification
+            reasoner.interrupt();
+            events.clear();
+            reasoner.getOntologySaturator().setSaturationExecutor(null);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(Arrays.asList("started " + ReasonerProgressMonitor.CLASSIFYING, "busy", "1/2", "2/2", "stopped"), events);
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("INTERRUPTION TEST 4 - the time-out stops the Datalog saturation between its rounds")
+        void timedOutDatalogSaturation() {
+            OWLOntology ontology = createRandomOntology();
+            AtomicInteger checks = new AtomicInteger();
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.setSaturationEngine(new DatalogSaturationEngine() {
+                @Override
+                public void setCancellation(BooleanSupplier cancellation) {
+                    // Every check of the cancellation is slowed down, so that the saturation exceeds the time-out
+                    super.setCancellation(cancellation == null ? null : () -> {
+                        checks.incrementAndGet();
+                        try {
+                            Thread.sleep(10);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return cancellation.getAsBoolean();
+                    });
+                }
+            });
+            reasoner.setTimeOut(50);
+
+            assertThrows(TimeOutException.class, () -> reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY));
+            assertEquals(true, reasoner.getOntologySaturator().isCancelled());
+            assertEquals(null, reasoner.getTaxonomy());
+            int checksBeforeTimeOut = checks.getAndSet(0);
+
+            reasoner.setTimeOut(Long.MAX_VALUE);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, checksBeforeTimeOut < checks.get());
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("INTERRUPTION TEST 5 - the time-outs of all the reasoners share a single thread")
+        void sharedTimeOutThread() {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            for (int i = 0; i < 20; i++) {
+                ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+                reasoner.setTimeOut(60_000);
+                reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+                assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B"))));
+            }
+            assertEquals(1, Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().equals("elpp-timeout")).count());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package reasoning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.reasoner.reasoning.WorkerPool;
+
+import utils.TestingUtilities;
+
+public class WorkerPool_Test {
+
+    /**
+     * Submits a task that blocks the only worker of the pool until the returned latch is released.
+     */
+    CountDownLatch blockWorker(WorkerPool pool) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        pool.createTenant("gate", WorkerPool.Priority.INTERACTIVE, 1).execute(() -> {
+            started.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        return gate;
+    }
+
+    @Test
+    @DisplayName("WORKER POOL TEST 1 - concurrent reasoners classify on a shared pool within their caps")
+    void sharedReasoners() throws InterruptedException {
+        WorkerPool pool = new WorkerPool(3);
+        try {
+            OWLOntology italianFood = new ELPPOntologyNormalizer().normalize(
+                TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+            );
+            OWLOntology random = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            Random generator = new Random(48);
+            for (int i = 1; i < 500; i++) {
+                random.add(factory.getOWLSubClassOfAxiom(owlClass("C" + i), owlClass("C" + generator.nextInt(i))));
+                random.add(factory.getOWLSubClassOfAxiom(owlClass("C" + i), factory.getOWLObjectSomeValuesFrom(r, owlClass("C" + generator.nextInt(i)))));
+                random.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, owlClass("C" + i)), owlClass("D" + generator.nextInt(i))));
+            }
+
+            ELPPReasoner interactive = new ELPPReasoner(italianFood, false, true);
+            interactive.setWorkerPool(pool.createTenant("interactive", WorkerPool.Priority.INTERACTIVE, 2));
+            ELPPReasoner batch = new ELPPReasoner(random, false, true);
+            batch.setWorkerPool(pool.createTenant("batch", WorkerPool.Priority.BATCH, 1));
+            Thread batchThread = new Thread(() -> batch.precomputeInferences(InferenceType.CLASS_HIERARCHY));
+            batchThread.start();
+            interactive.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            batchThread.join();
+
+            assertEquals(true, interactive.getWorkerPool().getCompletedTaskCount() > 0);
+            assertEquals(true, interactive.getWorkerPool().getPeakRunningTasks() <= 2);
+            assertEquals(1, batch.getWorkerPool().getPeakRunningTasks());
+            assertSameClassification(interactive, italianFood);
+            assertSameClassification(batch, random);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("WORKER POOL TEST 2 - interactive tasks overtake batch ones, and tenants of the same priority take turns")
+    void prioritiesAndFairness() throws InterruptedException {
+        WorkerPool pool = new WorkerPool(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(7);
+        CountDownLatch gate = blockWorker(pool);
+
+        WorkerPool.Tenant a = pool.createTenant("a", WorkerPool.Priority.BATCH, 4);
+        WorkerPool.Tenant b = pool.createTenant("b", WorkerPool.Priority.BATCH, 4);
+        WorkerPool.Tenant user = pool.createTenant("user", WorkerPool.Priority.INTERACTIVE, 4);
+        for (int i = 1; i <= 3; i++) {
+            String task = Integer.toString(i);
+            a.execute(() -> { order.add("a" + task); done.countDown(); });
+        }
+        for (int i = 1; i <= 3; i++) {
+            String task = Integer.toString(i);
+            b.execute(() -> { order.add("b" + task); done.countDown(); });
+        }
+        user.execute(() -> { order.add("user"); done.countDown(); });
+        gate.countDown();
+
+        assertEquals(true, done.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("user", "a1", "b1", "a2", "b2", "a3", "b3"), order);
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("WORKER POOL TEST 3 - a tenant never runs more tasks than its cap, and a shut down pool completes its tasks")
+    void concurrencyCap() throws InterruptedException {
+        WorkerPool pool = new WorkerPool(4);
+        WorkerPool.Tenant tenant = pool.createTenant("capped", WorkerPool.Priority.BATCH, 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            tenant.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        pool.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> tenant.execute(() -> { }));
+
+        assertEquals(true, done.await(10, TimeUnit.SECONDS));
+        assertEquals(true, peak.get() <= 2);
+        assertEquals(2, tenant.getPeakRunningTasks());
+    }
+}
@@ -0,0 +1,325 @@
+package saturation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.individual;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.elppreasoner.reasoning.rules.FusedSubsumerInferenceRule;
+import com.elppreasoner.reasoning.rules.IntersectionSuperclassesInferenceRule;
+import com.elppreasoner.reasoning.rules.SubclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.SuperclassRoleExpansionInferenceRule;
+import com.elppreasoner.reasoning.rules.ToldSuperclassesInferenceRule;
+import com.elppreasoner.saturation.DatalogSaturationEngine;
+
+import utils.TestingUtilities;
+public class CompletionRules_Test {
+
+    @Nested
+    class RoleChain_Test {
+
+        OWLObjectProperty role(String name) {
+            return factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + name));
+        }
+
+        @Test
+        @DisplayName("ROLE CHAIN TEST 1 - binary role chain (context-based and Datalog saturation)")
+        void binaryRoleChain() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass d = owlClass("D");
+            ontology.add(factory.getOWLSubPropertyChainOfAxiom(Arrays.asList(role("r"), role("s")), role("t")));
+            ontology.add(factory.getOWLSubObjectPropertyOfAxiom(role("q"), role("r")));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(role("q"), owlClass("B"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), factory.getOWLObjectSomeValuesFrom(role("s"), owlClass("C"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("t"), owlClass("C")), d));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("E"), factory.getOWLObjectSomeValuesFrom(role("s"), owlClass("B"))));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ELPPReasoner datalogReasoner = new ELPPReasoner(ontology, false, false);
+            datalogReasoner.setSaturationEngine(new DatalogSaturationEngine());
+            datalogReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+            for (ELPPReasoner r : new ELPPReasoner[] { reasoner, datalogReasoner }) {
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(a, d)));
+                // s ∘ s is not a sub-role of t
+                assertEquals(false, r.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("E"), d)));
+            }
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("ROLE CHAIN TEST 2 - transitive role and role chain of length 3")
+        void transitiveRoleAndLongChain() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            ontology.add(factory.getOWLTransitiveObjectPropertyAxiom(role("partOf")));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(role("partOf"), owlClass("B"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), factory.getOWLObjectSomeValuesFrom(role("partOf"), owlClass("C"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C"), factory.getOWLObjectSomeValuesFrom(role("partOf"), owlClass("D"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("partOf"), owlClass("D")), owlClass("PartOfD")));
+            ontology.add(factory.getOWLSubPropertyChainOfAxiom(Arrays.asList(role("r"), role("s"), role("u")), role("t")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("X"), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("Y"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("Y"), factory.getOWLObjectSomeValuesFrom(role("s"), owlClass("Z"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("Z"), factory.getOWLObjectSomeValuesFrom(role("u"), owlClass("W"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("t"), owlClass("W")), owlClass("TW")));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ELPPReasoner datalogReasoner = new ELPPReasoner(ontology, false, false);
+            datalogReasoner.setSaturationEngine(new DatalogSaturationEngine());
+            datalogReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+            for (ELPPReasoner r : new ELPPReasoner[] { reasoner, datalogReasoner }) {
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(a, owlClass("PartOfD"))));
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("B"), owlClass("PartOfD"))));
+                assertEquals(true, r.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("X"), owlClass("TW"))));
+                assertEquals(false, r.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("Y"), owlClass("TW"))));
+            }
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("ROLE CHAIN TEST 3 - role chain added to the ontology")
+        void addedRoleChain() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass d = owlClass("D");
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("B"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), factory.getOWLObjectSomeValuesFrom(role("s"), owlClass("C"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("t"), owlClass("C")), d));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, d)));
+
+            ontology.add(factory.getOWLSubPropertyChainOfAxiom(Arrays.asList(role("r"), role("s")), role("t")));
+            reasoner.flush();
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, d)));
+        }
+    }
+
+    @Nested
+    class DisjointClasses_Test {
+
+        OWLObjectProperty role(String name) {
+            return factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + name));
+        }
+
+        @Test
+        @DisplayName("DISJOINT CLASSES TEST 1 - n-ary disjointness group (context-based and Datalog saturation)")
+        void disjointnessGroup() {
+            OWLOntology ontology = createOntology();
+            OWLClass x = owlClass("X");
+            OWLClass y = owlClass("Y");
+            OWLClass z = owlClass("Z");
+            ontology.add(factory.getOWLDisjointClassesAxiom(owlClass("A"), owlClass("B"), owlClass("C"), owlClass("D")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("E"), owlClass("C")));
+            ontology.add(factory.getOWLSubClassOfAxiom(x, owlClass("A")));
+            ontology.add(factory.getOWLSubClassOfAxiom(x, owlClass("E")));
+            ontology.add(factory.getOWLSubClassOfAxiom(y, owlClass("B")));
+            ontology.add(factory.getOWLSubClassOfAxiom(y, owlClass("F")));
+            ontology.add(factory.getOWLSubClassOfAxiom(z, factory.getOWLObjectSomeValuesFrom(role("r"), x)));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ELPPReasoner datalogReasoner = new ELPPReasoner(ontology, false, false);
+            datalogReasoner.setSaturationEngine(new DatalogSaturationEngine());
+            datalogReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+            for (ELPPReasoner r : new ELPPReasoner[] { reasoner, datalogReasoner }) {
+                assertEquals(true, r.getEquivalentClasses(x).isBottomNode());
+                assertEquals(true, r.getEquivalentClasses(z).isBottomNode());
+                assertEquals(false, r.getEquivalentClasses(y).isBottomNode());
+                assertEquals(false, r.getEquivalentClasses(owlClass("E")).isBottomNode());
+            }
+            // Goal-directed queries
+            assertEquals(true, new ELPPReasoner(ontology, false, false).getEquivalentClasses(z).isBottomNode());
+            assertEquals(false, new ELPPReasoner(ontology, false, false).getEquivalentClasses(y).isBottomNode());
+        }
+
+        @Test
+        @DisplayName("DISJOINT CLASSES TEST 2 - individual member of two disjoint classes")
+        void inconsistentIndividual() {
+            OWLOntology ontology = createOntology();
+            OWLNamedIndividual a = individual("a");
+            ontology.add(factory.getOWLDisjointClassesAxiom(owlClass("A"), owlClass("B"), owlClass("C")));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(a), owlClass("A")));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(a), owlClass("D")));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            assertEquals(true, reasoner.isConsistent());
+
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("D"), owlClass("C")));
+            reasoner = new ELPPReasoner(ontology, false, false);
+            assertEquals(false, reasoner.isConsistent());
+            ELPPReasoner datalogReasoner = new ELPPReasoner(ontology, false, false);
+            datalogReasoner.setSaturationEngine(new DatalogSaturationEngine());
+            assertEquals(false, datalogReasoner.isConsistent());
+        }
+
+        @Test
+        @DisplayName("DISJOINT CLASSES TEST 3 - complex members and disjointness added to the ontology")
+        void complexMembersAndAddedDisjointness() {
+            OWLOntology ontology = createOntology();
+            OWLClass x = owlClass("X");
+            ontology.add(factory.getOWLSubClassOfAxiom(x, owlClass("A")));
+            ontology.add(factory.getOWLSubClassOfAxiom(x, factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("B"))));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(false, reasoner.getEquivalentClasses(x).isBottomNode());
+
+            ontology.add(factory.getOWLDisjointClassesAxiom(owlClass("A"), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("B"))));
+            ELPPReasoner normalizedReasoner = new ELPPReasoner(new ELPPOntologyNormalizer().normalize(ontology), false, false);
+            normalizedReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, normalizedReasoner.getEquivalentClasses(x).isBottomNode());
+
+            ontology.add(factory.getOWLDisjointClassesAxiom(owlClass("A"), owlClass("C")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), owlClass("C")));
+            reasoner.flush();
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(false, reasoner.getEquivalentClasses(x).isBottomNode());
+            ontology.add(factory.getOWLSubClassOfAxiom(x, owlClass("C")));
+            reasoner.flush();
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.getEquivalentClasses(x).isBottomNode());
+        }
+
+        @Test
+        @DisplayName("DISJOINT CLASSES TEST 4 - member derived through a domain (context-based and Datalog saturation)")
+        void memberThroughDomain() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("B"))));
+            ontology.add(factory.getOWLObjectPropertyDomainAxiom(role("r"), owlClass("C")));
+            ontology.add(factory.getOWLDisjointClassesAxiom(a, owlClass("C")));
+            ontology = new ELPPOntologyNormalizer().normalize(ontology);
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            ELPPReasoner datalogReasoner = new ELPPReasoner(ontology, false, false);
+            datalogReasoner.setSaturationEngine(new DatalogSaturationEngine());
+            datalogReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+            for (ELPPReasoner r : new ELPPReasoner[] { reasoner, datalogReasoner }) {
+                assertEquals(true, r.getEquivalentClasses(a).isBottomNode());
+                assertEquals(false, r.getEquivalentClasses(owlClass("C")).isBottomNode());
+            }
+            // Goal-directed query
+            assertEquals(true, new ELPPReasoner(ontology, false, false).getEquivalentClasses(a).isBottomNode());
+        }
+    }
+
+    @Nested
+    class RuleFusion_Test {
+
+        Set<Class<?>> saturationRules(ELPPReasoner reasoner) {
+            return reasoner.getOntologySaturator().getOntologyAccessManager().getSaturationRules().stream()
+                .map(Object::getClass)
+                .collect(Collectors.toSet());
+        }
+
+        @Test
+        @DisplayName("RULE FUSION TEST 1 - CR1, CR2 and CR3 are applied by a single context")
+        void ItalianFood_fusion() {
+            OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+                TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+            );
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            Set<Class<?>> rules = saturationRules(reasoner);
+            assertEquals(true, rules.contains(FusedSubsumerInferenceRule.class));
+            assertEquals(false, rules.contains(ToldSuperclassesInferenceRule.class));
+            assertEquals(false, rules.contains(IntersectionSuperclassesInferenceRule.class));
+            assertEquals(false, rules.contains(SubclassRoleExpansionInferenceRule.class));
+
+            ELPPReasoner unfusedReasoner = new ELPPReasoner(ontology, false, false);
+            unfusedReasoner.getOntologySaturator().getOntologyAccessManager().setRuleFusion(false);
+            unfusedReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, saturationRules(unfusedReasoner).contains(ToldSuperclassesInferenceRule.class));
+            assertEquals(false, saturationRules(unfusedReasoner).contains(FusedSubsumerInferenceRule.class));
+
+            for (OWLClass c : ontology.classesInSignature().collect(Collectors.toList())) {
+                assertEquals(unfusedReasoner.getSuperClasses(c, false), reasoner.getSuperClasses(c, false), c.toString());
+                assertEquals(unfusedReasoner.getEquivalentClasses(c), reasoner.getEquivalentClasses(c), c.toString());
+            }
+        }
+
+        @Test
+        @DisplayName("RULE FUSION TEST 2 - fused contexts are updated by additions and removals")
+        void incrementalFusion() {
+            OWLOntology ontology = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("C")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), owlClass("G")));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+            // The premises B and C of the added axioms have already been processed by the context of A
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectIntersectionOf(owlClass("B"), owlClass("C")), owlClass("D")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C"), factory.getOWLObjectSomeValuesFrom(r, owlClass("E"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, owlClass("E")), owlClass("F")));
+            reasoner.flush();
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("D"))));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("F"))));
+            assertSameClassification(reasoner, ontology);
+
+            ontology.remove(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            reasoner.flush();
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("D"))));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("F"))));
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("RULE FUSION TEST 3 - the fused rule only replaces the rules it fuses")
+        void fusedRules() {
+            OWLOntology ontology = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), factory.getOWLObjectSomeValuesFrom(r, owlClass("B"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, owlClass("B")), owlClass("C")));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            Set<Class<?>> activeRules = reasoner.getOntologySaturator().getOntologyAccessManager().getActiveRules().stream()
+                .map(Object::getClass)
+                .collect(Collectors.toSet());
+            Set<Class<?>> expectedRules = new HashSet<>(activeRules);
+            expectedRules.remove(ToldSuperclassesInferenceRule.class);
+            expectedRules.remove(SubclassRoleExpansionInferenceRule.class);
+            expectedRules.add(FusedSubsumerInferenceRule.class);
+            assertEquals(true, activeRules.contains(SuperclassRoleExpansionInferenceRule.class));
+            assertEquals(expectedRules, saturationRules(reasoner));
+
+            reasoner.getOntologySaturator().getOntologyAccessManager().setRuleFusion(false);
+            assertEquals(activeRules, saturationRules(reasoner));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package saturation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.reasoner.saturation.ContextMemoryBudget;
+import com.reasoner.saturation.SaturationCheckpoint;
+
+import utils.TestingUtilities;
+
+public class ContextMemoryBudget_Test {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Creates a reasoner whose contexts are spilled to the given directory as soon as they are idle.
+     */
+    ELPPReasoner budgetedReasoner(OWLOntology ontology, Path directory) {
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.getOntologySaturator().setMemoryBudget(new ContextMemoryBudget(1, directory));
+        return reasoner;
+    }
+
+    @Test
+    @DisplayName("CONTEXT MEMORY BUDGET TEST 1 - spilled contexts are paged back in when they are activated again")
+    void ItalianFood_spill() {
+        OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+            TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+        );
+        ELPPReasoner reasoner = budgetedReasoner(ontology, directory);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+        ContextMemoryBudget budget = reasoner.getOntologySaturator().getMemoryBudget();
+        assertEquals(true, budget.getSpillCount() > 0);
+        assertEquals(true, budget.getSpilledContextCount() > 0);
+        assertSameClassification(reasoner, ontology);
+    }
+
+    @Test
+    @DisplayName("CONTEXT MEMORY BUDGET TEST 2 - concurrent saturation and incremental additions with spilled contexts")
+    void concurrentSpill() {
+        OWLOntology ontology = createOntology();
+        OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+        Random random = new Random(45);
+        for (int i = 1; i < 1_000; i++) {
+            OWLClass c = owlClass("C" + i);
+            ontology.add(factory.getOWLSubClassOfAxiom(c, owlClass("C" + random.nextInt(i))));
+            ontology.add(factory.getOWLSubClassOfAxiom(c, factory.getOWLObjectSomeValuesFrom(r, owlClass("C" + random.nextInt(i)))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, c), owlClass("D" + random.nextInt(i))));
+        }
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.getOntologySaturator().setThreadCount(2);
+        reasoner.getOntologySaturator().setMemoryBudget(new ContextMemoryBudget(64 * 1024, directory));
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+        ContextMemoryBudget budget = reasoner.getOntologySaturator().getMemoryBudget();
+        assertEquals(true, budget.getSpillCount() > 0);
+        assertEquals(true, budget.getUsedBytes() <= 64 * 1024 || budget.getSpilledContextCount() > 0);
+        assertSameClassification(reasoner, ontology);
+
+        // The spilled contexts are paged back in before they are updated
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C0"), owlClass("E")));
+        reasoner.flush();
+        assertEquals(true, reasoner.getOntologySaturator().isIncremental());
+        assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("C999"), owlClass("E"))));
+        assertSameClassification(reasoner, ontology);
+    }
+
+    @Test
+    @DisplayName("CONTEXT MEMORY BUDGET TEST 3 - spilled existentials still propagate unsatisfiability")
+    void spilledExistentials() {
+        OWLOntology ontology = createOntology();
+        OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("X"), factory.getOWLObjectSomeValuesFrom(r, owlClass("Y"))));
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("Y"), owlClass("Z0")));
+        for (int i = 0; i < 50; i++) {
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("Z" + i), owlClass("Z" + (i + 1))));
+        }
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("Z50"), factory.getOWLNothing()));
+
+        ELPPReasoner reasoner = budgetedReasoner(ontology, directory);
+        reasoner.getOntologySaturator().setCheckpoint(new SaturationCheckpoint(directory.resolve("ontology.checkpoint"), 60_000));
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("X"), factory.getOWLNothing())));
+        assertSameClassification(reasoner, ontology);
+
+        // The checkpoint holds the axioms of the spilled contexts
+        ELPPReasoner resumedReasoner = new ELPPReasoner(ontology, false, false);
+        resumedReasoner.getOntologySaturator().setCheckpoint(new SaturationCheckpoint(directory.resolve("ontology.checkpoint"), 60_000));
+        resumedReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(true, resumedReasoner.getOntologySaturator().getCheckpoint().hasResumed());
+        assertEquals(true, resumedReasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("X"), factory.getOWLNothing())));
+        assertSameClassification(resumedReasoner, ontology);
+    }
+}
@@ -0,0 +1,244 @@
+package saturation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.individual;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.elppreasoner.reasoning.ELPPReasonerTransaction;
+import com.elppreasoner.saturation.DatalogSaturationEngine;
+
+import utils.TestingUtilities;
+
+public class DatalogSaturationEngine_Test {
+
+    @Nested
+    class DatalogEngine_Test {
+
+        OWLObjectProperty role(String name) {
+            return factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + name));
+        }
+
+        /**
+         * Generates an ontology without nominals over the given number of classes and 4 roles, with role inclusions and chains, domains,
+         * disjointness axioms and ⊤ as a filler.
+         */
+        OWLOntology randomOntology(Random random, int classCount) {
+            OWLOntology ontology = createOntology();
+            OWLClass[] classes = new OWLClass[classCount];
+            for (int i = 0; i < classCount; i++) {
+                classes[i] = owlClass("C" + i);
+            }
+            OWLObjectProperty[] roles = { role("r0"), role("r1"), role("r2"), role("r3") };
+            for (int k = 0; k < 2 * classCount; k++) {
+                OWLClass a = classes[random.nextInt(classCount)];
+                OWLClass b = classes[random.nextInt(classCount)];
+                OWLClass c = classes[random.nextInt(classCount)];
+                OWLObjectProperty r = roles[random.nextInt(roles.length)];
+                OWLObjectProperty s = roles[random.nextInt(roles.length)];
+                OWLClass filler = random.nextInt(10) == 0 ? factory.getOWLThing() : b;
+                switch (random.nextInt(12)) {
+                    case 0: case 1: case 2: case 3:
+                        ontology.add(factory.getOWLSubClassOfAxiom(a, filler));
+                        break;
+                    case 4: case 5:
+                        ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(r, filler)));
+                        break;
+                    case 6: case 7:
+                        ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, filler), a));
+                        break;
+                    case 8:
+                        if (!a.equals(b)) {
+                            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectIntersectionOf(a, b), c));
+                        }
+                        break;
+                    case 9:
+                        ontology.add(factory.getOWLDisjointClassesAxiom(a, b, c));
+                        break;
+                    case 10:
+                        ontology.add(factory.getOWLSubPropertyChainOfAxiom(Arrays.asList(r, s), roles[random.nextInt(roles.length)]));
+                        break;
+                    default:
+                        if (random.nextBoolean()) {
+                            ontology.add(factory.getOWLSubObjectPropertyOfAxiom(r, s));
+                        } else {
+                            ontology.add(factory.getOWLObjectPropertyDomainAxiom(r, a));
+                        }
+                }
+            }
+            return ontology;
+        }
+
+        ELPPReasoner datalogReasoner(OWLOntology ontology, boolean concurrentMode) {
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, concurrentMode, false);
+            reasoner.setSaturationEngine(new DatalogSaturationEngine());
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            return reasoner;
+        }
+
+        @Test
+        @DisplayName("DATALOG ENGINE TEST 1 - nominal chains and unsatisfiable fillers")
+        void nominalsAndBottom() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass c = owlClass("C");
+            OWLClass d = owlClass("D");
+            OWLClass e = owlClass("E");
+            OWLClass f = owlClass("F");
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            OWLObjectProperty s = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "s"));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, factory.getOWLObjectSomeValuesFrom(r, b)));
+            ontology.add(factory.getOWLSubClassOfAxiom(b, factory.getOWLObjectOneOf(individual("a"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(c, factory.getOWLObjectOneOf(individual("a"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(individual("a")), factory.getOWLObjectSomeValuesFrom(s, c)));
+            ontology.add(factory.getOWLSubClassOfAxiom(c, d));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, d), e));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("G"), factory.getOWLObjectSomeValuesFrom(r, f)));
+            ontology.add(factory.getOWLSubClassOfAxiom(f, factory.getOWLNothing()));
+
+            ELPPReasoner reasoner = datalogReasoner(ontology, false);
+            assertEquals(true, reasoner.isConsistent());
+            // C is reachable from {a}, so B = {a} = C whenever B is not empty
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(b, d)));
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, e)));
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(c, b)));
+            assertEquals(true, reasoner.getEquivalentClasses(owlClass("G")).isBottomNode());
+        }
+
+        @Test
+        @DisplayName("DATALOG ENGINE TEST 2 - inconsistent ontology")
+        void inconsistent() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(individual("a")), factory.getOWLObjectSomeValuesFrom(factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r")), a)));
+            ontology.add(factory.getOWLSubClassOfAxiom(a, b));
+            ontology.add(factory.getOWLSubClassOfAxiom(b, factory.getOWLNothing()));
+
+            ELPPReasoner reasoner = datalogReasoner(ontology, false);
+            assertEquals(false, reasoner.isConsistent());
+            assertEquals(true, reasoner.getOntologySaturator().getInconsistencyWitness() != null);
+        }
+
+        @Test
+        @DisplayName("DATALOG ENGINE TEST 3 - changes are applied by saturating the ontology again")
+        void changes() {
+            OWLOntology ontology = createOntology();
+            OWLClass a = owlClass("A");
+            OWLClass b = owlClass("B");
+            OWLClass c = owlClass("C");
+            OWLSubClassOfAxiom bc = factory.getOWLSubClassOfAxiom(b, c);
+            ontology.add(factory.getOWLSubClassOfAxiom(a, b));
+
+            ELPPReasoner reasoner = datalogReasoner(ontology, false);
+            ontology.add(bc);
+            reasoner.flush();
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, c)));
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertSameClassification(reasoner, ontology);
+
+            ELPPReasonerTransaction transaction = reasoner.beginTransaction(Collections.singleton(factory.getOWLSubClassOfAxiom(c, owlClass("D"))));
+            assertEquals(true, transaction.isSubsumedBy(a, owlClass("D")));
+            transaction.rollback();
+
+            ontology.remove(bc);
+            reasoner.flush();
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(a, c)));
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("DATALOG ENGINE TEST 4 - subclass of an existential restriction in a disjointness group, with and without role chain")
+        void disjointSubclassOfExistential() {
+            for (boolean withRoleChain : new boolean[] { true, false }) {
+                OWLOntology ontology = createOntology();
+                OWLObjectProperty r0 = role("r0");
+                ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r0, factory.getOWLThing()), owlClass("C11")));
+                ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C11"), owlClass("C3")));
+                ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C3"), owlClass("C10")));
+                ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C7"), factory.getOWLObjectSomeValuesFrom(r0, owlClass("C3"))));
+                ontology.add(factory.getOWLDisjointClassesAxiom(owlClass("C10"), owlClass("C18"), owlClass("C7")));
+                if (withRoleChain) {
+                    ontology.add(factory.getOWLSubPropertyChainOfAxiom(Arrays.asList(role("g"), r0), role("r2")));
+                }
+                ontology = new ELPPOntologyNormalizer().normalize(ontology);
+
+                ELPPReasoner reasoner = datalogReasoner(ontology, false);
+                assertEquals(true, reasoner.getEquivalentClasses(owlClass("C7")).isBottomNode());
+                assertSameClassification(reasoner, ontology);
+            }
+        }
+
+        @Test
+        @DisplayName("DATALOG ENGINE TEST 5 - same classification as the context-based saturation on random ontologies")
+        void randomOntologies() {
+            for (int seed = 0; seed < 200; seed++) {
+                OWLOntology ontology = new ELPPOntologyNormalizer().normalize(randomOntology(new Random(seed), 12));
+                assertSameClassification(datalogReasoner(ontology, false), ontology);
+            }
+        }
+
+        @Test
+        @DisplayName("DATALOG ENGINE TEST 6 - parallel rounds run on the given executor")
+        void sharedExecutor() {
+            OWLOntology ontology = createOntology();
+            for (int i = 0; i < 3000; i++) {
+                ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C" + i), owlClass("P" + i % 10)));
+                ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C" + i), factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("P" + i % 7))));
+            }
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(role("r"), owlClass("P3")), owlClass("Q")));
+
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            try {
+                AtomicInteger tasks = new AtomicInteger();
+                ELPPReasoner reasoner = new ELPPReasoner(ontology, true, false);
+                reasoner.getOntologySaturator().setThreadCount(4);
+                reasoner.setSaturationEngine(new DatalogSaturationEngine(task -> {
+                    tasks.incrementAndGet();
+                    executor.execute(task);
+                }));
+                reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+                assertEquals(true, tasks.get() > 0);
+                assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("C3"), owlClass("Q"))));
+                assertEquals(false, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("C4"), owlClass("Q"))));
+                assertSameClassification(reasoner, ontology);
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("MODIFIED SNOMED CT ONTOLOGY DATALOG ENGINE TEST - same answers as the context-based saturation (concurrent)")
+        void SCTO_datalog() {
+            OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+                TestingUtilities.loadOntology("src/test/resources/ontologies/scto-modified.owl")
+            );
+            assertSameClassification(datalogReasoner(ontology, true), ontology);
+        }
+    }
+}
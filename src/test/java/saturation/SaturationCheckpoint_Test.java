@@ -0,0 +1,189 @@
+package saturation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.reasoner.saturation.InferenceRuleContext;
+import com.reasoner.saturation.OntologySaturator;
+import com.reasoner.saturation.SaturationCheckpoint;
+
+import utils.TagInferenceRule;
+import utils.TestingUtilities;
+
+public class SaturationCheckpoint_Test {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Creates a reasoner whose saturation writes checkpoints to the given file.
+     */
+    ELPPReasoner checkpointedReasoner(OWLOntology ontology, Path file, long interval) {
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.getOntologySaturator().setCheckpoint(new SaturationCheckpoint(file, interval));
+        return reasoner;
+    }
+
+    /**
+     * A rule that cancels the saturation of the given saturator, if any, when the first of its contexts is initialized.
+     */
+    public static class CancellingRule extends TagInferenceRule {
+        private final OntologySaturator saturator;
+
+        CancellingRule(OntologySaturator saturator) {
+            this.saturator = saturator;
+        }
+
+        @Override
+        public InferenceRuleContext<Object, Object> createContext(OWLEntity entity) {
+            return new TagIRContext(this, entity) {
+                @Override
+                public Set<OWLSubClassOfAxiom> initializeContext() {
+                    if (saturator != null) {
+                        saturator.cancel();
+                    }
+                    return super.initializeContext();
+                }
+            };
+        }
+    }
+
+        void assertSameSuperClasses(ELPPReasoner expected, ELPPReasoner actual, OWLOntology ontology) {
+        for (OWLClass c : ontology.classesInSignature().collect(Collectors.toList())) {
+            assertEquals(expected.getSuperClasses(c, false), actual.getSuperClasses(c, false), c.toString());
+            assertEquals(expected.getEquivalentClasses(c), actual.getEquivalentClasses(c), c.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("SATURATION CHECKPOINT TEST 1 - a saturation resumes from the last checkpoint of a complete one")
+    void ItalianFood_resume() throws IOException {
+        OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+            TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+        );
+        Path file = directory.resolve("italian-food.checkpoint");
+
+        ELPPReasoner reasoner = checkpointedReasoner(ontology, file, 60_000);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(false, reasoner.getOntologySaturator().getCheckpoint().hasResumed());
+        assertEquals(true, Files.isRegularFile(file));
+
+        ELPPReasoner resumedReasoner = checkpointedReasoner(ontology, file, 60_000);
+        resumedReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(true, resumedReasoner.getOntologySaturator().getCheckpoint().hasResumed());
+        assertSameSuperClasses(reasoner, resumedReasoner, ontology);
+        assertEquals(true, resumedReasoner.getOntologySaturator().isIncremental());
+    }
+
+    @Test
+    @DisplayName("SATURATION CHECKPOINT TEST 2 - scheduled axioms and periodic checkpoints of a concurrent saturation")
+    void scheduledAxioms() throws IOException {
+        OWLOntology ontology = createOntology();
+        OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+        Random random = new Random(44);
+        for (int i = 1; i < 2_000; i++) {
+            OWLClass c = owlClass("C" + i);
+            ontology.add(factory.getOWLSubClassOfAxiom(c, owlClass("C" + random.nextInt(i))));
+            ontology.add(factory.getOWLSubClassOfAxiom(c, factory.getOWLObjectSomeValuesFrom(r, owlClass("C" + random.nextInt(i)))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, c), owlClass("D" + random.nextInt(i))));
+        }
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+        // Checkpoints written while two threads saturate the ontology
+        ELPPReasoner periodicReasoner = checkpointedReasoner(ontology, directory.resolve("periodic.checkpoint"), 1);
+        periodicReasoner.getOntologySaturator().setThreadCount(2);
+        periodicReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertSameSuperClasses(reasoner, periodicReasoner, ontology);
+
+        // A checkpoint of the initial state only holds scheduled axioms
+        ELPPReasoner initialReasoner = checkpointedReasoner(ontology, directory.resolve("initial.checkpoint"), 60_000);
+        OntologySaturator saturator = initialReasoner.getOntologySaturator();
+        saturator.getOntologyAccessManager().precomputeAxioms();
+        saturator.getContextAccessManager().initialize(saturator.getOntologyAccessManager());
+        saturator.writeCheckpoint();
+
+        ELPPReasoner resumedReasoner = checkpointedReasoner(ontology, directory.resolve("initial.checkpoint"), 60_000);
+        resumedReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(true, resumedReasoner.getOntologySaturator().getCheckpoint().hasResumed());
+        assertSameSuperClasses(reasoner, resumedReasoner, ontology);
+    }
+
+    @Test
+    @DisplayName("SATURATION CHECKPOINT TEST 3 - stale and truncated checkpoints are not resumed")
+    void staleCheckpoints() throws IOException {
+        OWLOntology ontology = createOntology();
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+        Path file = directory.resolve("ontology.checkpoint");
+        checkpointedReasoner(ontology, file, 60_000).precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), owlClass("C")));
+        ELPPReasoner reasoner = checkpointedReasoner(ontology, file, 60_000);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(false, reasoner.getOntologySaturator().getCheckpoint().hasResumed());
+        assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("C"))));
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        ELPPReasoner truncatedReasoner = checkpointedReasoner(ontology, file, 60_000);
+        truncatedReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(false, truncatedReasoner.getOntologySaturator().getCheckpoint().hasResumed());
+        assertEquals(true, truncatedReasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("C"))));
+        assertEquals(bytes.length, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("SATURATION CHECKPOINT TEST 4 - a saturation cancelled during its initialization writes no checkpoint")
+    void cancelledInitialization() throws IOException {
+        OWLOntology ontology = createOntology();
+        OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+        for (int i = 1; i < 100; i++) {
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C" + i), owlClass("C" + (i - 1))));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C" + i), factory.getOWLObjectSomeValuesFrom(r, owlClass("C" + (i / 2)))));
+        }
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.getOntologySaturator().getOntologyAccessManager().registerRule(new CancellingRule(null));
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+        // The remaining axioms of the ontology are skipped once the saturation is cancelled
+        Path file = directory.resolve("cancelled.checkpoint");
+        ELPPReasoner cancelledReasoner = checkpointedReasoner(ontology, file, 1);
+        OntologySaturator saturator = cancelledReasoner.getOntologySaturator();
+        saturator.getOntologyAccessManager().registerRule(new CancellingRule(saturator));
+        assertThrows(CancellationException.class, saturator::saturate);
+        saturator.writeCheckpoint();
+        assertEquals(false, Files.exists(file));
+
+        ELPPReasoner resumedReasoner = checkpointedReasoner(ontology, file, 60_000);
+        resumedReasoner.getOntologySaturator().getOntologyAccessManager().registerRule(new CancellingRule(null));
+        resumedReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(false, resumedReasoner.getOntologySaturator().getCheckpoint().hasResumed());
+        assertSameSuperClasses(reasoner, resumedReasoner, ontology);
+    }
+}
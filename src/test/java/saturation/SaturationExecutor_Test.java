@@ -0,0 +1,121 @@
+package saturation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.BufferingMode;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.reasoner.saturation.SaturationExecutor;
+import com.reasoner.saturation.TaskSaturationExecutor;
+
+import utils.TestingUtilities;
+
+public class SaturationExecutor_Test {
+
+    /**
+     * Creates an ontology of the given size, whose classes are linked at random.
+     */
+    OWLOntology randomOntology(int size, long seed) {
+        OWLOntology ontology = createOntology();
+        OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+        Random random = new Random(seed);
+        for (int i = 1; i < size; i++) {
+            OWLClass c = owlClass("C" + i);
+            ontology.add(factory.getOWLSubClassOfAxiom(c, owlClass("C" + random.nextInt(i))));
+            ontology.add(factory.getOWLSubClassOfAxiom(c, factory.getOWLObjectSomeValuesFrom(r, owlClass("C" + random.nextInt(i)))));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, c), owlClass("D" + random.nextInt(i))));
+        }
+        return ontology;
+    }
+
+    @Test
+    @DisplayName("SATURATION EXECUTOR TEST 1 - every activation of a context runs as a task of an executor")
+    void ItalianFood_tasks() {
+        OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+            TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+        );
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false, BufferingMode.NON_BUFFERING);
+            reasoner.getOntologySaturator().setSaturationExecutor(new TaskSaturationExecutor(executor));
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.getOntologySaturator().isIncremental());
+            assertSameClassification(reasoner, ontology);
+
+            // The incremental saturations run on the executor too
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("Pizza"), owlClass("Food")));
+            assertSameClassification(reasoner, ontology);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("SATURATION EXECUTOR TEST 2 - concurrent reasoners share the same pool")
+    void sharedPool() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<OWLOntology> ontologies = new ArrayList<>();
+            List<ELPPReasoner> reasoners = new ArrayList<>();
+            List<Thread> tenants = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                OWLOntology ontology = randomOntology(300, 47 + i);
+                ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+                reasoner.getOntologySaturator().setSaturationExecutor(new TaskSaturationExecutor(executor));
+                ontologies.add(ontology);
+                reasoners.add(reasoner);
+                tenants.add(new Thread(() -> reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY)));
+            }
+            tenants.forEach(Thread::start);
+            for (Thread tenant : tenants) {
+                tenant.join();
+            }
+            for (int i = 0; i < 4; i++) {
+                assertEquals(true, reasoners.get(i).getOntologySaturator().isIncremental());
+                assertSameClassification(reasoners.get(i), ontologies.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("SATURATION EXECUTOR TEST 3 - every activation of a context runs on a virtual thread, if the JVM has them (Java 21)")
+    void virtualThreads() {
+        SaturationExecutor saturationExecutor = SaturationExecutor.virtualThreads();
+        boolean hasVirtualThreads = Arrays.stream(Executors.class.getMethods())
+            .anyMatch(method -> method.getName().equals("newVirtualThreadPerTaskExecutor"));
+        assertEquals(hasVirtualThreads, saturationExecutor != null);
+        if (saturationExecutor == null) {
+            return;
+        }
+
+        OWLOntology ontology = randomOntology(1_000, 47);
+        ontology.add(factory.getOWLSubClassOfAxiom(owlClass("C0"), factory.getOWLNothing()));
+        ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+        reasoner.getOntologySaturator().setSaturationExecutor(saturationExecutor);
+        reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+        assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("C999"), factory.getOWLNothing())));
+        assertSameClassification(reasoner, ontology);
+    }
+}
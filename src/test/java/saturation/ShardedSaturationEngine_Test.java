@@ -0,0 +1,114 @@
+package saturation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static utils.ReasonerTestUtilities.IRI_PREFIX;
+import static utils.ReasonerTestUtilities.assertSameClassification;
+import static utils.ReasonerTestUtilities.createOntology;
+import static utils.ReasonerTestUtilities.factory;
+import static utils.ReasonerTestUtilities.individual;
+import static utils.ReasonerTestUtilities.owlClass;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+import com.elppreasoner.saturation.ShardedSaturationEngine;
+import com.reasoner.querying.OntologyAccessManager;
+import com.reasoner.saturation.SaturationShard;
+
+import utils.TestingUtilities;
+
+public class ShardedSaturationEngine_Test {
+
+    @Nested
+    class ShardedSaturation_Test {
+
+        @Test
+        @DisplayName("SHARDED SATURATION TEST 1 - the conclusions of two worker processes are merged")
+        void ItalianFood_shards() {
+            OWLOntology ontology = new ELPPOntologyNormalizer().normalize(
+                TestingUtilities.loadOntology("src/test/resources/ontologies/italian-food.owl")
+            );
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.setSaturationEngine(new ShardedSaturationEngine(2));
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(false, reasoner.getOntologySaturator().isIncremental());
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("SHARDED SATURATION TEST 2 - the conclusions cross the shards in small batches")
+        void crossShardBatches() {
+            OWLOntology ontology = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            Random random = new Random(46);
+            for (int i = 1; i < 300; i++) {
+                OWLClass c = owlClass("C" + i);
+                ontology.add(factory.getOWLSubClassOfAxiom(c, owlClass("C" + random.nextInt(i))));
+                ontology.add(factory.getOWLSubClassOfAxiom(c, factory.getOWLObjectSomeValuesFrom(r, owlClass("C" + random.nextInt(i)))));
+                ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectSomeValuesFrom(r, c), owlClass("D" + random.nextInt(i))));
+            }
+            assertEquals(false, SaturationShard.shardOf(owlClass("C1"), 3) == SaturationShard.shardOf(owlClass("C2"), 3)
+                && SaturationShard.shardOf(owlClass("C2"), 3) == SaturationShard.shardOf(owlClass("C3"), 3)
+                && SaturationShard.shardOf(owlClass("C3"), 3) == SaturationShard.shardOf(owlClass("C4"), 3));
+
+            ShardedSaturationEngine engine = new ShardedSaturationEngine(3);
+            engine.setBatchSize(16);
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, true, false);
+            reasoner.setSaturationEngine(engine);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertSameClassification(reasoner, ontology);
+        }
+
+        @Test
+        @DisplayName("SHARDED SATURATION TEST 3 - an inconsistency derived by a worker is reported")
+        void inconsistentShards() {
+            OWLOntology ontology = createOntology();
+            OWLObjectProperty r = factory.getOWLObjectProperty(IRI.create(IRI_PREFIX + "r"));
+            ontology.add(factory.getOWLSubClassOfAxiom(factory.getOWLObjectOneOf(individual("a")), factory.getOWLObjectSomeValuesFrom(r, owlClass("Y"))));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("Y"), owlClass("Z")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("Z"), factory.getOWLNothing()));
+
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.setSaturationEngine(new ShardedSaturationEngine(2));
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.getOntologySaturator().isInconsistent());
+            assertEquals(false, reasoner.isConsistent());
+        }
+
+        @Test
+        @DisplayName("SHARDED SATURATION TEST 4 - the workers are started by the given command, and a worker that exits is noticed at once")
+        void workerCommand() {
+            OWLOntology ontology = createOntology();
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("B")));
+            ontology.add(factory.getOWLSubClassOfAxiom(owlClass("B"), owlClass("C")));
+            ShardedSaturationEngine engine = new ShardedSaturationEngine(2);
+            String java = engine.getWorkerCommand().get(0);
+
+            // The main class of the workers cannot be found, so they exit before they connect
+            engine.setWorkerCommand(Arrays.asList(java, "-cp", "elpp-missing-classes"));
+            long start = System.nanoTime();
+            assertThrows(IllegalStateException.class, () -> engine.saturate(new OntologyAccessManager(ontology), 2));
+            assertEquals(true, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 30);
+
+            engine.setWorkerCommand(Arrays.asList(java, "-cp", System.getProperty("java.class.path")));
+            ELPPReasoner reasoner = new ELPPReasoner(ontology, false, false);
+            reasoner.setSaturationEngine(engine);
+            reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            assertEquals(true, reasoner.isEntailed(factory.getOWLSubClassOfAxiom(owlClass("A"), owlClass("C"))));
+            assertSameClassification(reasoner, ontology);
+        }
+    }
+}
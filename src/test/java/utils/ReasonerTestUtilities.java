@@ -0,0 +1,75 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.stream.Collectors;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLNamedIndividual;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+
+import com.elppreasoner.normalization.ELPPOntologyNormalizer;
+import com.elppreasoner.reasoning.ELPPReasoner;
+
+/**
+ * Helpers shared by the tests that build small ontologies and compare the answers of a reasoner with a fresh classification.
+ */
+public final class ReasonerTestUtilities {
+    public static final String IRI_PREFIX = "http://www.example.org/elpp-test#";
+    public static final OWLDataFactory factory = OWLManager.getOWLDataFactory();
+
+    private ReasonerTestUtilities() {
+    }
+
+    public static OWLOntology createOntology() {
+        try {
+            return OWLManager.createOWLOntologyManager().createOntology();
+        } catch (OWLOntologyCreationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static OWLClass owlClass(String name) {
+        return factory.getOWLClass(IRI.create(IRI_PREFIX + name));
+    }
+
+    public static OWLNamedIndividual individual(String name) {
+        return factory.getOWLNamedIndividual(IRI.create(IRI_PREFIX + name));
+    }
+
+    /**
+     * Checks that the goal-directed queries of a fresh reasoner agree with the full classification of the same ontology.
+     */
+    public static void assertGoalDirectedQueriesMatch(OWLOntology ontology) {
+        ELPPReasoner fullReasoner = new ELPPReasoner(ontology, false, false);
+        fullReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+        for (OWLClass c : ontology.classesInSignature().collect(Collectors.toList())) {
+            ELPPReasoner queryReasoner = new ELPPReasoner(ontology, false, false);
+            assertEquals(fullReasoner.getSuperClasses(c, false), queryReasoner.getSuperClasses(c, false), c.toString());
+            assertEquals(fullReasoner.getSuperClasses(c, true), queryReasoner.getSuperClasses(c, true), c.toString());
+            assertEquals(fullReasoner.getEquivalentClasses(c), queryReasoner.getEquivalentClasses(c), c.toString());
+            assertEquals(null, queryReasoner.getTaxonomy());
+        }
+    }
+
+    /**
+     * Checks that the answers of the given reasoner agree with the full classification of the (normalized) ontology by a fresh reasoner.
+     */
+    public static void assertSameClassification(ELPPReasoner reasoner, OWLOntology ontology) {
+        ELPPReasoner freshReasoner = new ELPPReasoner(new ELPPOntologyNormalizer().normalize(ontology), false, false);
+        freshReasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+
+        for (OWLClass c : ontology.classesInSignature().collect(Collectors.toList())) {
+            assertEquals(freshReasoner.getSuperClasses(c, false), reasoner.getSuperClasses(c, false), c.toString());
+            assertEquals(freshReasoner.getSuperClasses(c, true), reasoner.getSuperClasses(c, true), c.toString());
+            assertEquals(freshReasoner.getSubClasses(c, true), reasoner.getSubClasses(c, true), c.toString());
+            assertEquals(freshReasoner.getEquivalentClasses(c), reasoner.getEquivalentClasses(c), c.toString());
+        }
+    }
+}
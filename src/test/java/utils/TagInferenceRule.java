@@ -0,0 +1,110 @@
+package utils;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+import com.reasoner.reasoning.rules.AxiomShape;
+import com.reasoner.reasoning.rules.InferenceRule;
+import com.reasoner.saturation.InferenceRuleContext;
+
+/**
+ * A domain-specific rule that is loaded through the {@code InferenceRule} service in the tests: X ⊑ Tagged implies X ⊑ Seen.
+ */
+public class TagInferenceRule extends InferenceRule<Object, Object> {
+    public static final String IRI_PREFIX = "http://www.example.org/elpp-test#";
+
+    private static final OWLDataFactory factory = OWLManager.getOWLDataFactory();
+    private static final OWLClass TAGGED = factory.getOWLClass(IRI.create(IRI_PREFIX + "Tagged"));
+    private static final OWLClass SEEN = factory.getOWLClass(IRI.create(IRI_PREFIX + "Seen"));
+
+    public TagInferenceRule() {
+        super(TagIRContext.class);
+        addEntityType(OWLClass.class);
+    }
+
+    @Override
+    public Set<AxiomShape> getConsumedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION);
+    }
+
+    @Override
+    public Set<AxiomShape> getProducedShapes() {
+        return EnumSet.of(AxiomShape.SUBSUMPTION);
+    }
+
+    @Override
+    public InferenceRuleContext<Object, Object> createContext(OWLEntity entity) {
+        return new TagIRContext(this, entity);
+    }
+
+    @Override
+    public boolean axiomCriterion(OWLClassExpression subclass, OWLClassExpression superclass) {
+        return false;
+    }
+
+    @Override
+    public void addAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        throw new IllegalStateException("This rule has no told axioms");
+    }
+
+    @Override
+    public void removeAxiom(OWLClassExpression subclass, OWLClassExpression superclass) {
+        throw new IllegalStateException("This rule has no told axioms");
+    }
+
+    @Override
+    public Set<InferenceRuleContext> extractContexts(Map<OWLObject, InferenceRuleContext> contexts,
+            OWLClassExpression subclass, OWLClassExpression superclass) {
+        InferenceRuleContext context = subclass.isOWLClass() && superclass.isOWLClass() ? contexts.get(subclass) : null;
+        return context == null ? new HashSet<>() : new HashSet<>(Collections.singleton(context));
+    }
+
+    public static class TagIRContext extends InferenceRuleContext<Object, Object> {
+
+        public TagIRContext(InferenceRule inferenceRule, OWLEntity entity) {
+            super((InferenceRule<Object, Object>) inferenceRule, entity);
+        }
+
+        @Override
+        public String id() {
+            return "tag";
+        }
+
+        @Override
+        protected boolean isTargetEntity(OWLSubClassOfAxiom axiom) {
+            return axiom.getSuperClass().isOWLClass() && Objects.equals(axiom.getSubClass(), getEntity());
+        }
+
+        @Override
+        public boolean addProcessedAxiom(OWLSubClassOfAxiom axiom) {
+            return processedAxioms.add(axiom);
+        }
+
+        @Override
+        public boolean hasProcessedAxiom(OWLSubClassOfAxiom axiom) {
+            return processedAxioms.contains(axiom);
+        }
+
+        @Override
+        public Set<OWLSubClassOfAxiom> compute(OWLSubClassOfAxiom axiom) {
+            Set<OWLSubClassOfAxiom> conclusions = new HashSet<>();
+            if (axiom.getSuperClass().equals(TAGGED)) {
+                conclusions.add(factory.getOWLSubClassOfAxiom(axiom.getSubClass(), SEEN));
+            }
+            return conclusions;
+        }
+    }
+}